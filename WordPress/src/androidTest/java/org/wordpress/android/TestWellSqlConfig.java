@@ -8,6 +8,7 @@ import com.yarolegovich.wellsql.WellTableManager;
 import com.yarolegovich.wellsql.core.TableClass;
 
 import org.wordpress.android.fluxc.model.AccountModel;
+import org.wordpress.android.fluxc.model.MediaModel;
 import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.persistence.WellSqlConfig;
@@ -17,6 +18,7 @@ public class TestWellSqlConfig extends WellSqlConfig {
             AccountModel.class,
             SiteModel.class,
             PostModel.class,
+            MediaModel.class,
     };
 
     public TestWellSqlConfig(Context context) {
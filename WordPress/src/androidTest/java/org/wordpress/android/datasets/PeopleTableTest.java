@@ -0,0 +1,102 @@
+package org.wordpress.android.datasets;
+
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.models.Person;
+import org.wordpress.android.ui.people.utils.PeopleUtils;
+import org.wordpress.android.util.AppLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class PeopleTableTest extends InstrumentationTestCase {
+    // a local blog id which no real site uses
+    private static final int TEST_BLOG_ID = -4242;
+    private static final int NUM_BENCHMARK_FOLLOWERS = 50000;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        PeopleTable.deletePeopleForLocalBlogId(TEST_BLOG_ID);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        PeopleTable.deletePeopleForLocalBlogId(TEST_BLOG_ID);
+        super.tearDown();
+    }
+
+    private static Person makeFollower(long personId, String displayName, String username) {
+        Person person = new Person(personId, TEST_BLOG_ID);
+        person.setDisplayName(displayName);
+        person.setUsername(username);
+        person.setAvatarUrl("https://example.com/avatar/" + personId);
+        person.setSubscribed("2017-01-01T00:00:00+00:00");
+        person.setPersonType(Person.PersonType.FOLLOWER);
+        return person;
+    }
+
+    public void testPrefixPattern() {
+        assertEquals("", PeopleTable.getPrefixPattern(null));
+        assertEquals("", PeopleTable.getPrefixPattern(" @ "));
+        assertEquals("jo%", PeopleTable.getPrefixPattern(" @jo"));
+        assertEquals("jo%", PeopleTable.getPrefixPattern("j%o"));
+    }
+
+    public void testSearchMatchesDisplayNameAndUsername() {
+        List<Person> followers = new ArrayList<>();
+        followers.add(makeFollower(1, "Jo Smith", "jsmith"));
+        followers.add(makeFollower(2, "Sam Jones", "jonesy"));
+        followers.add(makeFollower(3, "Alex Brown", "abrown"));
+        PeopleTable.saveFollowers(followers, TEST_BLOG_ID, true);
+
+        List<Person> results = PeopleTable.searchPeople(Person.PersonType.FOLLOWER, TEST_BLOG_ID, "JO", 10);
+        assertEquals(2, results.size());
+        assertEquals(1, results.get(0).getPersonID());
+        assertEquals(2, results.get(1).getPersonID());
+
+        assertEquals(0, PeopleTable.searchPeople(Person.PersonType.FOLLOWER, TEST_BLOG_ID, "brownie", 10).size());
+        assertEquals(0, PeopleTable.searchPeople(Person.PersonType.USER, TEST_BLOG_ID, "jo", 10).size());
+    }
+
+    public void testFreshListReplacesPeople() {
+        List<Person> followers = new ArrayList<>();
+        followers.add(makeFollower(1, "Jo Smith", "jsmith"));
+        PeopleTable.saveFollowers(followers, TEST_BLOG_ID, true);
+
+        followers.clear();
+        followers.add(makeFollower(2, "Sam Jones", "jonesy"));
+        PeopleTable.saveFollowers(followers, TEST_BLOG_ID, false);
+        assertEquals(2, PeopleTable.getFollowers(TEST_BLOG_ID).size());
+
+        PeopleTable.saveFollowers(followers, TEST_BLOG_ID, true);
+        assertEquals(1, PeopleTable.getFollowers(TEST_BLOG_ID).size());
+    }
+
+    /*
+     * logs the rate at which followers are written in the page size used by the bulk sync, and the
+     * time taken to search them once they're all written
+     */
+    public void testBulkSaveBenchmark() {
+        long startTime = System.nanoTime();
+        List<Person> page = new ArrayList<>(PeopleUtils.BULK_FETCH_LIMIT);
+        for (int i = 1; i <= NUM_BENCHMARK_FOLLOWERS; i++) {
+            page.add(makeFollower(i, "Follower " + i, "follower" + i));
+            if (page.size() == PeopleUtils.BULK_FETCH_LIMIT) {
+                PeopleTable.saveFollowers(page, TEST_BLOG_ID, i == PeopleUtils.BULK_FETCH_LIMIT);
+                page.clear();
+            }
+        }
+        long saveMs = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+
+        startTime = System.nanoTime();
+        List<Person> results = PeopleTable.searchPeople(Person.PersonType.FOLLOWER, TEST_BLOG_ID, "follower4999", 10);
+        long searchMs = (System.nanoTime() - startTime) / 1000000;
+        assertEquals(10, results.size());
+
+        AppLog.i(AppLog.T.TESTS, String.format(Locale.US,
+                "People benchmark > saved %d followers in %d ms (%.0f people/sec), searched them in %d ms",
+                NUM_BENCHMARK_FOLLOWERS, saveMs, NUM_BENCHMARK_FOLLOWERS * 1000d / saveMs, searchMs));
+    }
+}
@@ -0,0 +1,99 @@
+package org.wordpress.android.datasets;
+
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.models.ReaderPostList;
+import org.wordpress.android.models.ReaderTag;
+import org.wordpress.android.models.ReaderTagType;
+import org.wordpress.android.ui.reader.models.ReaderBlogIdPostIdList;
+import org.wordpress.android.util.AppLog;
+
+import java.util.Locale;
+
+public class ReaderSearchIndexTableTest extends InstrumentationTestCase {
+    private static final int NUM_BENCHMARK_POSTS = 10000;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ReaderDatabase.reset();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ReaderDatabase.reset();
+        super.tearDown();
+    }
+
+    private static ReaderPost makePost(long postId, String title, String excerpt, String author, String blogName) {
+        ReaderPost post = new ReaderPost();
+        post.blogId = 1;
+        post.postId = postId;
+        post.setPseudoId("pseudo" + postId);
+        post.setTitle(title);
+        post.setExcerpt(excerpt);
+        post.setAuthorName(author);
+        post.setBlogName(blogName);
+        post.setDatePublished(String.format(Locale.US, "2017-01-01T00:%02d:%02d+00:00", (postId / 60) % 60, postId % 60));
+        return post;
+    }
+
+    private static ReaderTag getTestTag() {
+        return new ReaderTag("test", "test", "test", null, ReaderTagType.FOLLOWED);
+    }
+
+    public void testTitleMatchesRankFirst() {
+        ReaderPostList posts = new ReaderPostList();
+        posts.add(makePost(1, "Cooking at home", "Nothing about mobile here", "Jo", "Kitchen"));
+        posts.add(makePost(2, "Weekly links", "A few notes on android development", "Sam", "Links"));
+        posts.add(makePost(3, "Android performance", "Profiling apps", "Alex", "Dev Blog"));
+        ReaderPostTable.addOrUpdatePosts(getTestTag(), posts);
+
+        ReaderBlogIdPostIdList results = ReaderSearchIndexTable.searchPosts("andro", 0);
+        assertEquals(2, results.size());
+        assertEquals(3, results.get(0).getPostId());
+        assertEquals(2, results.get(1).getPostId());
+    }
+
+    public void testUpdatedAndDeletedPostsAreReindexed() {
+        ReaderPostList posts = new ReaderPostList();
+        posts.add(makePost(1, "Original title", "", "Jo", "Blog"));
+        ReaderPostTable.addOrUpdatePosts(getTestTag(), posts);
+        assertEquals(1, ReaderSearchIndexTable.searchPosts("original", 0).size());
+
+        posts.get(0).setTitle("Changed title");
+        ReaderPostTable.addOrUpdatePosts(getTestTag(), posts);
+        assertEquals(0, ReaderSearchIndexTable.searchPosts("original", 0).size());
+        assertEquals(1, ReaderSearchIndexTable.searchPosts("changed", 0).size());
+
+        ReaderPostTable.deletePost(1, 1);
+        assertEquals(0, ReaderSearchIndexTable.searchPosts("changed", 0).size());
+        assertEquals(1, ReaderSearchIndexTable.purge(ReaderDatabase.getWritableDb(), 100));
+    }
+
+    public void testSearchBenchmark() {
+        String[] words = {"android", "kotlin", "travel", "photography", "recipes", "garden", "music", "design"};
+        ReaderPostList posts = new ReaderPostList();
+        for (int i = 1; i <= NUM_BENCHMARK_POSTS; i++) {
+            String word1 = words[i % words.length];
+            String word2 = words[(i / words.length) % words.length];
+            posts.add(makePost(i, "Post " + i + " about " + word1, "An excerpt mentioning " + word2,
+                    "Author " + (i % 100), "Blog " + (i % 250)));
+        }
+
+        long start = System.nanoTime();
+        ReaderPostTable.addOrUpdatePosts(getTestTag(), posts);
+        long insertMs = (System.nanoTime() - start) / 1000000;
+
+        start = System.nanoTime();
+        ReaderBlogIdPostIdList results = ReaderSearchIndexTable.searchPosts("photo", 50);
+        long searchMs = (System.nanoTime() - start) / 1000000;
+
+        AppLog.i(AppLog.T.TESTS, String.format(Locale.US,
+                "search index benchmark > indexed %d posts in %d ms, searched in %d ms",
+                NUM_BENCHMARK_POSTS, insertMs, searchMs));
+
+        assertEquals(50, results.size());
+    }
+}
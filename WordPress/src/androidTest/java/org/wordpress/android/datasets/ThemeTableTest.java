@@ -0,0 +1,83 @@
+package org.wordpress.android.datasets;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.WordPress;
+import org.wordpress.android.models.Theme;
+import org.wordpress.android.util.SqlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ThemeTableTest extends InstrumentationTestCase {
+    // a blog id which no real site uses
+    private static final String TEST_BLOG_ID = "-4242";
+
+    private SQLiteDatabase mDb;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mDb = WordPress.wpDB.getDatabase();
+        deleteTestThemes();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        deleteTestThemes();
+        super.tearDown();
+    }
+
+    private void deleteTestThemes() {
+        mDb.delete("themes", Theme.BLOG_ID + "=?", new String[]{TEST_BLOG_ID});
+    }
+
+    private static Theme makeTheme(String id, String name, String author) {
+        return new Theme(id, author, "", "", "", name, "", "", TEST_BLOG_ID, false);
+    }
+
+    private int countSearchResults(String searchTerm) {
+        Cursor cursor = ThemeTable.getThemes(mDb, TEST_BLOG_ID, searchTerm);
+        try {
+            return cursor.getCount();
+        } finally {
+            SqlUtils.closeCursor(cursor);
+        }
+    }
+
+    public void testSaveThemesUpdatesExistingThemes() {
+        List<Theme> themes = new ArrayList<>();
+        themes.add(makeTheme("twentyseventeen", "Twenty Seventeen", "the WordPress team"));
+        themes.add(makeTheme("edin", "Edin", "Automattic"));
+        assertEquals(2, ThemeTable.saveThemes(mDb, themes));
+
+        themes.clear();
+        themes.add(makeTheme("edin", "Edin Pro", "Automattic"));
+        assertEquals(1, ThemeTable.saveThemes(mDb, themes));
+
+        assertEquals(2, ThemeTable.getThemeCount(mDb, TEST_BLOG_ID));
+        assertEquals("Edin Pro", ThemeTable.getTheme(mDb, TEST_BLOG_ID, "edin").getName());
+    }
+
+    public void testSearchMatchesNameAndAuthorPrefixes() {
+        List<Theme> themes = new ArrayList<>();
+        themes.add(makeTheme("twentyseventeen", "Twenty Seventeen", "the WordPress team"));
+        themes.add(makeTheme("edin", "Edin", "Automattic"));
+        themes.add(makeTheme("karuna", "Karuna", "Automattic"));
+        ThemeTable.saveThemes(mDb, themes);
+
+        assertEquals(1, countSearchResults("twen"));
+        assertEquals(2, countSearchResults("auto"));
+        assertEquals(1, countSearchResults("Automattic ka"));
+        assertEquals(0, countSearchResults("minimal"));
+        assertEquals(3, countSearchResults(""));
+
+        // the index follows renamed themes
+        themes.clear();
+        themes.add(makeTheme("edin", "Minimal", "Automattic"));
+        ThemeTable.saveThemes(mDb, themes);
+        assertEquals(1, countSearchResults("minimal"));
+    }
+}
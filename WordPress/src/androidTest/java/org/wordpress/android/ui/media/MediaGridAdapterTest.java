@@ -0,0 +1,100 @@
+package org.wordpress.android.ui.media;
+
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.util.AppLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class MediaGridAdapterTest extends InstrumentationTestCase {
+    private static final int NUM_BENCHMARK_MEDIA = 20000;
+
+    private static MediaModel makeMedia(int id) {
+        MediaModel media = new MediaModel();
+        media.setId(id);
+        media.setMediaId(id);
+        media.setTitle("media " + id);
+        media.setMimeType(id % 2 == 0 ? "image/jpeg" : "video/mp4");
+        return media;
+    }
+
+    private static List<MediaModel> makeMediaList(int count) {
+        List<MediaModel> list = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            list.add(makeMedia(i));
+        }
+        return list;
+    }
+
+    private static class CountingCallback implements ListUpdateCallback {
+        int numInserted;
+        int numRemoved;
+        int numChanged;
+
+        @Override
+        public void onInserted(int position, int count) {
+            numInserted += count;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            numRemoved += count;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            numChanged += count;
+        }
+    }
+
+    public void testDiffOnlyReportsChangedItems() {
+        List<MediaModel> oldList = makeMediaList(100);
+        List<MediaModel> newList = makeMediaList(100);
+        newList.remove(10);
+        newList.get(20).setTitle("renamed");
+        newList.add(makeMedia(101));
+
+        DiffUtil.DiffResult diff = MediaGridAdapter.calculateDiff(oldList, newList);
+        assertNotNull(diff);
+
+        CountingCallback callback = new CountingCallback();
+        diff.dispatchUpdatesTo(callback);
+        assertEquals(1, callback.numInserted);
+        assertEquals(1, callback.numRemoved);
+        assertEquals(1, callback.numChanged);
+    }
+
+    public void testLargeListsAreNotDiffed() {
+        List<MediaModel> oldList = makeMediaList(NUM_BENCHMARK_MEDIA);
+        List<MediaModel> newList = makeMediaList(10);
+        assertNull(MediaGridAdapter.calculateDiff(oldList, newList));
+    }
+
+    /*
+     * logs the cost of diffing the largest list we diff, which happens off the main thread - see
+     * MediaSearchBenchmarkTest for the cost of the query which produces the list
+     */
+    public void testDiffBenchmark() {
+        List<MediaModel> oldList = makeMediaList(MediaGridAdapter.MAX_DIFF_SIZE);
+        List<MediaModel> newList = new ArrayList<>(oldList);
+        for (int i = 0; i < newList.size(); i += 10) {
+            newList.set(i, makeMedia(NUM_BENCHMARK_MEDIA + i));
+        }
+
+        long startTime = System.nanoTime();
+        assertNotNull(MediaGridAdapter.calculateDiff(oldList, newList));
+        long diffMs = (System.nanoTime() - startTime) / 1000000;
+
+        AppLog.i(AppLog.T.TESTS, String.format(Locale.US,
+                "Media grid benchmark > diffed %d items in %d ms", newList.size(), diffMs));
+    }
+}
@@ -0,0 +1,71 @@
+package org.wordpress.android.ui.media;
+
+import android.test.InstrumentationTestCase;
+
+import com.yarolegovich.wellsql.WellSql;
+
+import org.wordpress.android.TestWellSqlConfig;
+import org.wordpress.android.fluxc.Dispatcher;
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.store.MediaStore;
+import org.wordpress.android.util.AppLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ * measures the store query the media grid runs on its query lane when the user searches, against a
+ * media table seeded with a large library
+ */
+public class MediaSearchBenchmarkTest extends InstrumentationTestCase {
+    private static final int NUM_MEDIA = 20000;
+    private static final int NUM_SEARCHES = 5;
+    private static final int SITE_ID = 1;
+
+    private MediaStore mMediaStore;
+    private SiteModel mSite;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        TestWellSqlConfig config = new TestWellSqlConfig(getInstrumentation().getTargetContext());
+        WellSql.init(config);
+        config.reset();
+
+        mMediaStore = new MediaStore(new Dispatcher(), null, null);
+        mSite = new SiteModel();
+        mSite.setId(SITE_ID);
+
+        List<MediaModel> library = new ArrayList<>(NUM_MEDIA);
+        for (int i = 1; i <= NUM_MEDIA; i++) {
+            MediaModel media = new MediaModel();
+            media.setLocalSiteId(SITE_ID);
+            media.setMediaId(i);
+            media.setTitle("media " + i);
+            media.setFileName("media_" + i + (i % 2 == 0 ? ".jpg" : ".mp4"));
+            media.setMimeType(i % 2 == 0 ? "image/jpeg" : "video/mp4");
+            library.add(media);
+        }
+        WellSql.insert(library).asSingleTransaction(true).execute();
+    }
+
+    public void testSearchBenchmark() {
+        // the first search includes compiling the query, so it's logged separately
+        long startTime = System.nanoTime();
+        List<MediaModel> results = mMediaStore.searchSiteMedia(mSite, "99");
+        long firstMs = (System.nanoTime() - startTime) / 1000000;
+        assertFalse(results.isEmpty());
+
+        startTime = System.nanoTime();
+        for (int i = 0; i < NUM_SEARCHES; i++) {
+            results = mMediaStore.searchSiteMedia(mSite, "99");
+        }
+        long avgMs = (System.nanoTime() - startTime) / 1000000 / NUM_SEARCHES;
+
+        AppLog.i(AppLog.T.TESTS, String.format(Locale.US,
+                "Media search benchmark > %d of %d items matched, first search %d ms, avg %d ms",
+                results.size(), NUM_MEDIA, firstMs, avgMs));
+    }
+}
@@ -0,0 +1,177 @@
+package org.wordpress.android.ui.reader.actions;
+
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.datasets.ReaderActionQueueTable;
+import org.wordpress.android.datasets.ReaderDatabase;
+import org.wordpress.android.datasets.ReaderPostTable;
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.models.ReaderPostList;
+import org.wordpress.android.models.ReaderTag;
+import org.wordpress.android.models.ReaderTagType;
+import org.wordpress.android.ui.reader.models.ReaderPendingAction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReaderActionQueueTest extends InstrumentationTestCase {
+    private static final long TEST_USER_ID = 42;
+    private static final int NUM_LIKES = 5;
+
+    /*
+     * stands in for the REST api - records what's sent and responds synchronously
+     */
+    private static class StubSender implements ReaderActionQueue.ActionSender {
+        boolean isConnected = true;
+        ReaderActionQueue.SendResult result = ReaderActionQueue.SendResult.SUCCEEDED;
+        final List<ReaderPendingAction> sentActions = new ArrayList<>();
+
+        @Override
+        public boolean isConnected() {
+            return isConnected;
+        }
+
+        @Override
+        public void send(ReaderPendingAction action, ReaderActionQueue.SendCallback callback) {
+            sentActions.add(action);
+            callback.onSendResult(result);
+        }
+    }
+
+    private StubSender mSender;
+    private ReaderPost mPost;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ReaderDatabase.reset();
+
+        mSender = new StubSender();
+        ReaderActionQueue.setSender(mSender);
+
+        mPost = new ReaderPost();
+        mPost.blogId = 1;
+        mPost.postId = 1;
+        mPost.setPseudoId("pseudo1");
+        mPost.numLikes = NUM_LIKES;
+        mPost.isFollowedByCurrentUser = true;
+        ReaderPostList posts = new ReaderPostList();
+        posts.add(mPost);
+        ReaderPostTable.addOrUpdatePosts(new ReaderTag("test", "test", "test", null, ReaderTagType.FOLLOWED), posts);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ReaderDatabase.reset();
+        ReaderActionQueue.setSender(null);
+        super.tearDown();
+    }
+
+    private void toggleLikes(final int numToggles) {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < numToggles; i++) {
+                    ReaderPostActions.performLikeAction(mPost, i % 2 == 0, TEST_USER_ID);
+                }
+            }
+        });
+    }
+
+    private void flush() {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                ReaderActionQueue.flush();
+            }
+        });
+    }
+
+    public void testBurstOfTogglesSendsOneRequest() {
+        toggleLikes(5);
+        assertEquals(1, ReaderActionQueueTable.getNumPendingActions());
+        flush();
+
+        assertEquals(1, mSender.sentActions.size());
+        assertTrue(mSender.sentActions.get(0).isOn);
+        assertEquals(0, ReaderActionQueueTable.getNumPendingActions());
+        assertTrue(ReaderPostTable.isPostLikedByCurrentUser(mPost));
+        assertEquals(NUM_LIKES + 1, ReaderPostTable.getNumLikesForPost(mPost.blogId, mPost.postId));
+    }
+
+    public void testTogglingBackSendsNothing() {
+        toggleLikes(4);
+        flush();
+
+        assertEquals(0, mSender.sentActions.size());
+        assertEquals(0, ReaderActionQueueTable.getNumPendingActions());
+        assertFalse(ReaderPostTable.isPostLikedByCurrentUser(mPost));
+        assertEquals(NUM_LIKES, ReaderPostTable.getNumLikesForPost(mPost.blogId, mPost.postId));
+    }
+
+    public void testOfflineActionsAreReplayed() {
+        mSender.isConnected = false;
+        toggleLikes(1);
+        flush();
+        assertEquals(0, mSender.sentActions.size());
+        assertEquals(1, ReaderActionQueueTable.getNumPendingActions());
+        assertTrue(ReaderPostTable.isPostLikedByCurrentUser(mPost));
+
+        // a request which fails because the server can't be reached is kept for replay
+        mSender.isConnected = true;
+        mSender.result = ReaderActionQueue.SendResult.NETWORK_FAILED;
+        flush();
+        assertEquals(1, mSender.sentActions.size());
+        assertEquals(1, ReaderActionQueueTable.getNumPendingActions());
+
+        mSender.result = ReaderActionQueue.SendResult.SUCCEEDED;
+        flush();
+        assertEquals(2, mSender.sentActions.size());
+        assertEquals(0, ReaderActionQueueTable.getNumPendingActions());
+        assertTrue(ReaderPostTable.isPostLikedByCurrentUser(mPost));
+    }
+
+    public void testRejectedActionsAreReverted() {
+        mSender.result = ReaderActionQueue.SendResult.REJECTED;
+        final boolean[] result = {true};
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                ReaderPostActions.performLikeAction(mPost, true, TEST_USER_ID);
+                ReaderBlogActions.followBlogById(mPost.blogId, false, new ReaderActions.ActionListener() {
+                    @Override
+                    public void onActionResult(boolean succeeded) {
+                        result[0] = succeeded;
+                    }
+                });
+                ReaderActionQueue.flush();
+            }
+        });
+
+        assertEquals(2, mSender.sentActions.size());
+        assertEquals(0, ReaderActionQueueTable.getNumPendingActions());
+        assertFalse(result[0]);
+        assertFalse(ReaderPostTable.isPostLikedByCurrentUser(mPost));
+        assertEquals(NUM_LIKES, ReaderPostTable.getNumLikesForPost(mPost.blogId, mPost.postId));
+        assertTrue(ReaderPostTable.isPostFollowed(mPost));
+    }
+
+    public void testRepeatedNetworkFailuresAreGivenUp() {
+        mSender.result = ReaderActionQueue.SendResult.NETWORK_FAILED;
+        toggleLikes(1);
+
+        // each failure is kept for a later retry until the last attempt
+        for (int i = 1; i < ReaderActionQueue.MAX_SEND_ATTEMPTS; i++) {
+            flush();
+            assertEquals(i, mSender.sentActions.size());
+            assertEquals(1, ReaderActionQueueTable.getNumPendingActions());
+            assertTrue(ReaderPostTable.isPostLikedByCurrentUser(mPost));
+        }
+
+        flush();
+        assertEquals(ReaderActionQueue.MAX_SEND_ATTEMPTS, mSender.sentActions.size());
+        assertEquals(0, ReaderActionQueueTable.getNumPendingActions());
+        assertFalse(ReaderPostTable.isPostLikedByCurrentUser(mPost));
+        assertEquals(NUM_LIKES, ReaderPostTable.getNumLikesForPost(mPost.blogId, mPost.postId));
+    }
+}
@@ -0,0 +1,117 @@
+package org.wordpress.android.ui.reader.adapters;
+
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.models.ReaderPostList;
+import org.wordpress.android.util.AppLog;
+
+import java.util.Locale;
+
+public class ReaderPostAdapterTest extends InstrumentationTestCase {
+    // same as the max # of posts the adapter loads
+    private static final int NUM_BENCHMARK_POSTS = 200;
+
+    private static ReaderPost makePost(int id) {
+        ReaderPost post = new ReaderPost();
+        post.blogId = 1;
+        post.postId = id;
+        post.setPseudoId("pseudo" + id);
+        post.setTitle("post " + id);
+        post.setExcerpt("excerpt " + id);
+        post.numLikes = 10;
+        post.numReplies = 5;
+        post.isCommentsOpen = true;
+        return post;
+    }
+
+    private static ReaderPostList makePostList(int count) {
+        ReaderPostList posts = new ReaderPostList();
+        for (int i = 1; i <= count; i++) {
+            posts.add(makePost(i));
+        }
+        return posts;
+    }
+
+    private static class CountingCallback implements ListUpdateCallback {
+        int numInserted;
+        int numRemoved;
+        int numChanged;
+        int numPayloadChanges;
+
+        @Override
+        public void onInserted(int position, int count) {
+            numInserted += count;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            numRemoved += count;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            numChanged += count;
+            if (payload != null) {
+                numPayloadChanges += count;
+            }
+        }
+    }
+
+    public void testDiffOnlyReportsChangedPosts() {
+        ReaderPostList oldPosts = makePostList(50);
+        ReaderPostList newPosts = makePostList(50);
+        newPosts.remove(10);
+        newPosts.add(0, makePost(51));
+        newPosts.get(20).numLikes++;
+        newPosts.get(30).setTitle("edited");
+
+        DiffUtil.DiffResult diff = ReaderPostAdapter.calculateDiff(oldPosts, newPosts);
+        assertNotNull(diff);
+
+        CountingCallback callback = new CountingCallback();
+        diff.dispatchUpdatesTo(callback);
+        assertEquals(1, callback.numInserted);
+        assertEquals(1, callback.numRemoved);
+        assertEquals(2, callback.numChanged);
+        // only the like count changed on one post, so it's rebound with a payload
+        assertEquals(1, callback.numPayloadChanges);
+    }
+
+    public void testEmptyListsAreNotDiffed() {
+        assertNull(ReaderPostAdapter.calculateDiff(new ReaderPostList(), makePostList(10)));
+        assertNull(ReaderPostAdapter.calculateDiff(makePostList(10), new ReaderPostList()));
+    }
+
+    /*
+     * logs the cost of diffing a full list of posts following a refresh which changed the like
+     * and comment counts on some of them
+     */
+    public void testDiffBenchmark() {
+        ReaderPostList oldPosts = makePostList(NUM_BENCHMARK_POSTS);
+        ReaderPostList newPosts = makePostList(NUM_BENCHMARK_POSTS);
+        for (int i = 0; i < newPosts.size(); i += 10) {
+            newPosts.get(i).numLikes++;
+            newPosts.get(i).numReplies++;
+        }
+
+        long startTime = System.nanoTime();
+        DiffUtil.DiffResult diff = ReaderPostAdapter.calculateDiff(oldPosts, newPosts);
+        long diffMs = (System.nanoTime() - startTime) / 1000000;
+        assertNotNull(diff);
+
+        CountingCallback callback = new CountingCallback();
+        diff.dispatchUpdatesTo(callback);
+        assertEquals(NUM_BENCHMARK_POSTS / 10, callback.numPayloadChanges);
+
+        AppLog.i(AppLog.T.TESTS, String.format(Locale.US,
+                "Reader post adapter benchmark > diffed %d posts in %d ms, %d of them rebound",
+                newPosts.size(), diffMs, callback.numChanged));
+    }
+}
@@ -35,6 +35,7 @@ import org.wordpress.android.ui.stats.models.TagsModel;
 import org.wordpress.android.ui.stats.models.TopPostsAndPagesModel;
 import org.wordpress.android.ui.stats.models.VideoPlaysModel;
 import org.wordpress.android.ui.stats.models.VisitModel;
+import org.wordpress.android.ui.stats.models.VisitsGraphSeries;
 import org.wordpress.android.ui.stats.models.VisitsModel;
 import org.wordpress.android.util.AppLog;
 
@@ -626,6 +627,14 @@ public class RemoteTests extends DefaultMocksInstrumentationTestCase {
                 assertEquals(visitModel.getComments(), 0);
                 assertEquals(visitModel.getPeriod(), "2014-10-08");
 
+                VisitsGraphSeries series = model.getGraphSeries();
+                assertEquals(series.size(), 30);
+                assertEquals(series.getPeriods()[0], "2014-10-08");
+                assertEquals(series.getViews()[0], 7808);
+                assertEquals(series.getVisitors()[0], 4331);
+                assertNotNull(series.getBarLabels()[0]);
+                assertNotNull(series.getWeekendDays());
+                assertFalse(series.getWeekendDays()[0]); // a wednesday
             }
         };
 
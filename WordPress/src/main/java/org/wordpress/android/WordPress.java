@@ -22,6 +22,7 @@ import android.webkit.WebSettings;
 import android.webkit.WebView;
 
 import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.ImageLoader;
 import com.crashlytics.android.Crashlytics;
 import com.google.android.gms.auth.api.Auth;
 import com.google.android.gms.common.ConnectionResult;
@@ -55,6 +56,7 @@ import org.wordpress.android.modules.AppComponent;
 import org.wordpress.android.modules.DaggerAppComponent;
 import org.wordpress.android.networking.ConnectionChangeReceiver;
 import org.wordpress.android.networking.OAuthAuthenticator;
+import org.wordpress.android.networking.PhotonImageLoader;
 import org.wordpress.android.networking.RestClientUtils;
 import org.wordpress.android.push.GCMRegistrationIntentService;
 import org.wordpress.android.ui.ActivityId;
@@ -71,6 +73,7 @@ import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.AppLogListener;
 import org.wordpress.android.util.AppLog.LogLevel;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.BitmapLruCache;
 import org.wordpress.android.util.CrashlyticsUtils;
 import org.wordpress.android.util.DateTimeUtils;
@@ -80,6 +83,9 @@ import org.wordpress.android.util.NetworkUtils;
 import org.wordpress.android.util.PackageUtils;
 import org.wordpress.android.util.ProfilingUtils;
 import org.wordpress.android.util.RateLimitedTask;
+import org.wordpress.android.util.StartupTaskGraph;
+import org.wordpress.android.util.StartupTaskGraph.Mode;
+import org.wordpress.android.util.TraceUtils;
 import org.wordpress.android.util.VolleyUtils;
 import org.wordpress.android.util.WPActivityUtils;
 import org.wordpress.passcodelock.AbstractAppLock;
@@ -90,6 +96,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -115,6 +122,8 @@ public class WordPress extends MultiDexApplication {
     private static final int SECONDS_BETWEEN_BLOGLIST_UPDATE = 15 * 60; // 15 minutes
     private static final int SECONDS_BETWEEN_DELETE_STATS = 5 * 60; // 5 minutes
 
+    private static final long HTTP_CACHE_SIZE = 10 * 1024 * 1024; // 10MB
+
     private static Context mContext;
     private static BitmapLruCache mBitmapCache;
 
@@ -130,6 +139,7 @@ public class WordPress extends MultiDexApplication {
     public static RequestQueue sRequestQueue;
     @Inject FluxCImageLoader mImageLoader;
     public static FluxCImageLoader sImageLoader;
+    public static volatile PhotonImageLoader sPhotonImageLoader;
     @Inject OAuthAuthenticator mOAuthAuthenticator;
     public static OAuthAuthenticator sOAuthAuthenticator;
 
@@ -169,19 +179,23 @@ public class WordPress extends MultiDexApplication {
      */
     public static RateLimitedTask sDeleteExpiredStats = new RateLimitedTask(SECONDS_BETWEEN_DELETE_STATS) {
         protected boolean run() {
-            // Offload to a separate thread. We don't want to slown down the app on startup/resume.
-            new Thread(new Runnable() {
+            // Offload to the low priority lane. We don't want to slow down the app on startup/resume.
+            BackgroundExecutors.background().execute(new Runnable() {
                 public void run() {
                     // subtracts to the current time the cache TTL
                     long timeToDelete = System.currentTimeMillis() - (StatsTable.CACHE_TTL_MINUTES * 60 * 1000);
                     StatsTable.deleteOldStats(WordPress.getContext(), timeToDelete);
                 }
-            }).start();
+            });
             return true;
         }
     };
 
-    public static BitmapLruCache getBitmapCache() {
+    /*
+     * synchronized since it's first called from both the main thread and the background "caches"
+     * startup task
+     */
+    public static synchronized BitmapLruCache getBitmapCache() {
         if (mBitmapCache == null) {
             // The cache size will be measured in kilobytes rather than
             // number of items. See http://developer.android.com/training/displaying-bitmaps/cache-bitmap.html
@@ -196,99 +210,165 @@ public class WordPress extends MultiDexApplication {
     public void onCreate() {
         super.onCreate();
         mContext = this;
-        long startDate = SystemClock.elapsedRealtime();
-
-        // Init WellSql
-        WellSql.init(new WellSqlConfig(getApplicationContext()));
-
-        // Init Dagger
-        mAppComponent = DaggerAppComponent.builder()
-                .appContextModule(new AppContextModule(getApplicationContext()))
-                .build();
-        component().inject(this);
-        mDispatcher.register(this);
-
-        // Init static fields from dagger injected singletons, for legacy Actions/Utils
-        sRequestQueue = mRequestQueue;
-        sImageLoader = mImageLoader;
-        sOAuthAuthenticator = mOAuthAuthenticator;
-
-        if (!PackageUtils.isDebugBuild()) {
-            Fabric.with(this, new Crashlytics());
-        }
-
-        ProfilingUtils.start("App Startup");
-        // Enable log recording
-        AppLog.enableRecording(true);
-        AppLog.addListener(new AppLogListener() {
+        final long startDate = SystemClock.elapsedRealtime();
+        TraceUtils.Span onCreateSpan = TraceUtils.beginSpan("WordPress.onCreate");
+
+        // Startup work is split into tasks which declare their dependencies. Only tasks needed before the
+        // first activity is created block onCreate - the rest run in the background or once the main thread
+        // is idle, which keeps them off the cold start path.
+        final StartupTaskGraph startup = new StartupTaskGraph();
+        startup.add("fluxc", Mode.BLOCKING, new Runnable() {
             @Override
-            public void onLog(T tag, LogLevel logLevel, String message) {
-                StringBuffer sb = new StringBuffer();
-                sb.append(logLevel.toString()).append("/").append(AppLog.TAG).append("-")
-                        .append(tag.toString()).append(": ").append(message);
-                CrashlyticsUtils.log(sb.toString());
+            public void run() {
+                // Init WellSql
+                WellSql.init(new WellSqlConfig(getApplicationContext()));
+
+                // Init Dagger
+                mAppComponent = DaggerAppComponent.builder()
+                        .appContextModule(new AppContextModule(getApplicationContext()))
+                        .build();
+                component().inject(WordPress.this);
+                mDispatcher.register(WordPress.this);
+
+                // Init static fields from dagger injected singletons, for legacy Actions/Utils
+                sRequestQueue = mRequestQueue;
+                sImageLoader = mImageLoader;
+                sOAuthAuthenticator = mOAuthAuthenticator;
             }
         });
-        AppLog.i(T.UTILS, "WordPress.onCreate");
-
-        versionName = PackageUtils.getVersionName(this);
-        initWpDb();
-        enableHttpResponseCache(mContext);
-
-        // EventBus setup
-        EventBus.TAG = "WordPress-EVENT";
-        EventBus.builder()
-                .logNoSubscriberMessages(false)
-                .sendNoSubscriberEvent(false)
-                .throwSubscriberException(true)
-                .installDefaultEventBus();
-
-
-        RestClientUtils.setUserAgent(getUserAgent());
-
-        // PasscodeLock setup
-        if(!AppLockManager.getInstance().isAppLockFeatureEnabled()) {
-            // Make sure that PasscodeLock isn't already in place.
-            // Notifications services can enable it before the app is started.
-            AppLockManager.getInstance().enableDefaultAppLockIfAvailable(this);
-        }
-        if (AppLockManager.getInstance().isAppLockFeatureEnabled()) {
-            AppLockManager.getInstance().getAppLock().setExemptActivities(
-                    new String[]{"org.wordpress.android.ui.ShareIntentReceiverActivity"});
-        }
-
-        HelpshiftHelper.init(this);
-
-        ApplicationLifecycleMonitor applicationLifecycleMonitor = new ApplicationLifecycleMonitor();
-        registerComponentCallbacks(applicationLifecycleMonitor);
-        registerActivityLifecycleCallbacks(applicationLifecycleMonitor);
-
-        initAnalytics(SystemClock.elapsedRealtime() - startDate);
-
-        // If users uses a custom locale set it on start of application
-        WPActivityUtils.applyLocale(getContext());
+        startup.add("logging", Mode.BLOCKING, new Runnable() {
+            @Override
+            public void run() {
+                if (!PackageUtils.isDebugBuild()) {
+                    Fabric.with(WordPress.this, new Crashlytics());
+                }
 
-        // Allows vector drawable from resources (in selectors for instance) on Android < 21 (can cause issues
-        // with memory usage and the use of Configuration). More informations:
-        // https://developer.android.com/reference/android/support/v7/app/AppCompatDelegate.html#setCompatVectorFromResourcesEnabled(boolean)
-        // Note: if removed, this will cause crashes on Android < 21
-        AppCompatDelegate.setCompatVectorFromResourcesEnabled(true);
+                ProfilingUtils.start("App Startup");
+                // Enable log recording
+                AppLog.enableRecording(true);
+                AppLog.addListener(new AppLogListener() {
+                    @Override
+                    public void onLog(T tag, LogLevel logLevel, String message) {
+                        CrashlyticsUtils.log(tag, logLevel, message);
+                    }
+                });
+                AppLog.i(T.UTILS, "WordPress.onCreate");
+            }
+        });
+        startup.add("wpDb", Mode.BLOCKING, new Runnable() {
+            @Override
+            public void run() {
+                versionName = PackageUtils.getVersionName(WordPress.this);
+                initWpDb();
+            }
+        }, "logging");
+        startup.add("eventBus", Mode.BLOCKING, new Runnable() {
+            @Override
+            public void run() {
+                // EventBus setup
+                EventBus.TAG = "WordPress-EVENT";
+                EventBus.builder()
+                        .logNoSubscriberMessages(false)
+                        .sendNoSubscriberEvent(false)
+                        .throwSubscriberException(true)
+                        .installDefaultEventBus();
+            }
+        });
+        startup.add("userAgent", Mode.BLOCKING, new Runnable() {
+            @Override
+            public void run() {
+                RestClientUtils.setUserAgent(getUserAgent());
+            }
+        });
+        startup.add("appLock", Mode.BLOCKING, new Runnable() {
+            @Override
+            public void run() {
+                // PasscodeLock setup
+                if (!AppLockManager.getInstance().isAppLockFeatureEnabled()) {
+                    // Make sure that PasscodeLock isn't already in place.
+                    // Notifications services can enable it before the app is started.
+                    AppLockManager.getInstance().enableDefaultAppLockIfAvailable(WordPress.this);
+                }
+                if (AppLockManager.getInstance().isAppLockFeatureEnabled()) {
+                    AppLockManager.getInstance().getAppLock().setExemptActivities(
+                            new String[]{"org.wordpress.android.ui.ShareIntentReceiverActivity"});
+                }
+            }
+        });
+        startup.add("lifecycleMonitor", Mode.BLOCKING, new Runnable() {
+            @Override
+            public void run() {
+                ApplicationLifecycleMonitor applicationLifecycleMonitor = new ApplicationLifecycleMonitor();
+                registerComponentCallbacks(applicationLifecycleMonitor);
+                registerActivityLifecycleCallbacks(applicationLifecycleMonitor);
+            }
+        });
+        startup.add("analytics", Mode.BLOCKING, new Runnable() {
+            @Override
+            public void run() {
+                // trackers must be registered before the first activity is resumed so app opened is tracked
+                AnalyticsTracker.registerTracker(new AnalyticsTrackerNosara(getContext()));
+                AnalyticsTracker.init(getContext());
+            }
+        });
+        startup.add("locale", Mode.BLOCKING, new Runnable() {
+            @Override
+            public void run() {
+                // If users uses a custom locale set it on start of application
+                WPActivityUtils.applyLocale(getContext());
+
+                // Allows vector drawable from resources (in selectors for instance) on Android < 21 (can cause
+                // issues with memory usage and the use of Configuration). More informations:
+                // https://developer.android.com/reference/android/support/v7/app/AppCompatDelegate.html#setCompatVectorFromResourcesEnabled(boolean)
+                // Note: if removed, this will cause crashes on Android < 21
+                AppCompatDelegate.setCompatVectorFromResourcesEnabled(true);
+            }
+        });
+        startup.add("caches", Mode.BACKGROUND, new Runnable() {
+            @Override
+            public void run() {
+                // both of these hit the disk - requests made before they're ready simply aren't cached
+                enableHttpResponseCache(mContext);
+                sPhotonImageLoader = new PhotonImageLoader(mContext, getBitmapCache());
+            }
+        });
+        startup.add("analyticsMetadata", Mode.BACKGROUND, new Runnable() {
+            @Override
+            public void run() {
+                // elapsed_time_on_create measures onCreate up to the end of its blocking tasks, which is when
+                // the first activity can be created - not the time this task happened to wait for a thread
+                initAnalytics(startup.getBlockingEndTime() - startDate);
+            }
+        }, "fluxc", "analytics");
+        startup.add("helpshift", Mode.IDLE, new Runnable() {
+            @Override
+            public void run() {
+                HelpshiftHelper.init(WordPress.this);
+            }
+        });
+        startup.add("credentialsClient", Mode.IDLE, new Runnable() {
+            @Override
+            public void run() {
+                // setup the Credentials Client so we can clean it up on wpcom logout
+                mCredentialsClient = new GoogleApiClient.Builder(WordPress.this)
+                        .addConnectionCallbacks(new GoogleApiClient.ConnectionCallbacks() {
+                            @Override public void onConnected(@Nullable Bundle bundle) {}
+                            @Override public void onConnectionSuspended(int i) {}
+                        })
+                        .addApi(Auth.CREDENTIALS_API)
+                        .build();
+                mCredentialsClient.connect();
+            }
+        });
+        startup.start();
 
-        // setup the Credentials Client so we can clean it up on wpcom logout
-        mCredentialsClient = new GoogleApiClient.Builder(this)
-                .addConnectionCallbacks(new GoogleApiClient.ConnectionCallbacks() {
-                    @Override public void onConnected(@Nullable Bundle bundle) {}
-                    @Override public void onConnectionSuspended(int i) {}
-                })
-                .addApi(Auth.CREDENTIALS_API)
-                .build();
-        mCredentialsClient.connect();
+        onCreateSpan.end();
+        TraceUtils.dumpTrace(onCreateSpan);
+        AppLog.i(T.UTILS, String.format(Locale.US, "cold start > onCreate blocked the main thread for %.1f ms",
+                onCreateSpan.getDurationMs()));
     }
 
     private void initAnalytics(final long elapsedTimeOnCreate) {
-        AnalyticsTracker.registerTracker(new AnalyticsTrackerNosara(getContext()));
-        AnalyticsTracker.init(getContext());
-
         AnalyticsUtils.refreshMetadata(mAccountStore, mSiteStore);
 
         // Track app upgrade and install
@@ -550,14 +630,27 @@ public class WordPress extends MultiDexApplication {
     }
 
     /*
-     * enable caching for HttpUrlConnection
+     * returns the image loader to use for the passed url - public images served by Photon or
+     * Gravatar use a loader with its own large disk cache, everything else uses the FluxC loader
+     * since it adds the authentication needed to load images from private and HTTP-auth sites
+     */
+    public static ImageLoader getImageLoader(String imageUrl) {
+        if (sPhotonImageLoader != null && PhotonImageLoader.canLoad(imageUrl)) {
+            return sPhotonImageLoader;
+        }
+        return sImageLoader;
+    }
+
+    /*
+     * enable caching for HttpUrlConnection - this cache is intended for REST responses (which are
+     * revalidated using ETag/If-Modified-Since) so it's kept small, public images are cached
+     * separately by PhotonImageLoader
      * http://developer.android.com/training/efficient-downloads/redundant_redundant.html
      */
     private static void enableHttpResponseCache(Context context) {
         try {
-            long httpCacheSize = 5 * 1024 * 1024; // 5MB
             File httpCacheDir = new File(context.getCacheDir(), "http");
-            HttpResponseCache.install(httpCacheDir, httpCacheSize);
+            HttpResponseCache.install(httpCacheDir, HTTP_CACHE_SIZE);
         } catch (IOException e) {
             AppLog.w(T.UTILS, "Failed to enable http response cache");
         }
@@ -717,6 +810,10 @@ public class WordPress extends MultiDexApplication {
             }
             AnalyticsTracker.track(AnalyticsTracker.Stat.APPLICATION_CLOSED, properties);
             AnalyticsTracker.endSession(false);
+            if (sPhotonImageLoader != null) {
+                sPhotonImageLoader.logStats();
+            }
+            AppLog.i(T.UTILS, BackgroundExecutors.getSummary());
             // Methods onAppComesFromBackground / onAppGoesToBackground are only workarounds to track when the
             // app goes to or comes from background, but they are not 100% reliable, we should avoid unregistering
             // the receiver twice.
@@ -21,7 +21,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 public class WordPressDB {
-    private static final int DATABASE_VERSION = 58;
+    private static final int DATABASE_VERSION = 60;
 
     // Warning if you rename DATABASE_NAME, that could break previous App backups (see: xml/backup_scheme.xml)
     private static final String DATABASE_NAME = "wordpress";
@@ -193,6 +193,12 @@ public class WordPressDB {
                 // Migrate media optimization settings
                 SiteSettingsTable.migrateMediaOptimizeSettings(db);
                 currentVersion++;
+            case 58:
+                PeopleTable.createSearchIndexes(db);
+                currentVersion++;
+            case 59:
+                ThemeTable.createSearchIndex(db);
+                currentVersion++;
         }
         db.setVersion(DATABASE_VERSION);
     }
@@ -4,7 +4,10 @@ import android.content.ContentValues;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteQueryBuilder;
+import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.text.TextUtils;
 
 import org.wordpress.android.WordPress;
 import org.wordpress.android.models.Person;
@@ -70,6 +73,27 @@ public class PeopleTable {
                 + ");");
     }
 
+    /*
+     * indexes used by searchPeople() - they use NOCASE collation so SQLite can use them for the
+     * case-insensitive prefix LIKE queries performed when searching
+     */
+    public static void createSearchIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_" + TEAM_TABLE + "_display_name ON "
+                + TEAM_TABLE + "(local_blog_id, display_name COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_" + TEAM_TABLE + "_user_name ON "
+                + TEAM_TABLE + "(local_blog_id, user_name COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_" + FOLLOWERS_TABLE + "_display_name ON "
+                + FOLLOWERS_TABLE + "(local_blog_id, display_name COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_" + FOLLOWERS_TABLE + "_user_name ON "
+                + FOLLOWERS_TABLE + "(local_blog_id, user_name COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_" + EMAIL_FOLLOWERS_TABLE + "_display_name ON "
+                + EMAIL_FOLLOWERS_TABLE + "(local_blog_id, display_name COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_" + VIEWERS_TABLE + "_display_name ON "
+                + VIEWERS_TABLE + "(local_blog_id, display_name COLLATE NOCASE)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_" + VIEWERS_TABLE + "_user_name ON "
+                + VIEWERS_TABLE + "(local_blog_id, user_name COLLATE NOCASE)");
+    }
+
     private static void dropTables(SQLiteDatabase db) {
         // People table is not used anymore, each filter now has it's own table
         db.execSQL("DROP TABLE IF EXISTS people");
@@ -82,6 +106,8 @@ public class PeopleTable {
 
     public static void reset(SQLiteDatabase db) {
         AppLog.i(AppLog.T.PEOPLE, "resetting people table");
+        // cached statements may refer to the tables which are about to be dropped
+        SqlUtils.clearStatementCache(db);
         dropTables(db);
         createTables(db);
     }
@@ -135,17 +161,78 @@ public class PeopleTable {
         savePeople(VIEWERS_TABLE, peopleList, localTableBlogId, isFreshList);
     }
 
-    private static void savePeople(String table, List<Person> peopleList, int localTableBlogId, boolean isFreshList) {
+    private static String getInsertSql(String table) {
+        switch (table) {
+            case TEAM_TABLE:
+                return "INSERT OR REPLACE INTO " + TEAM_TABLE
+                        + " (person_id, local_blog_id, display_name, avatar_url, user_name, role)"
+                        + " VALUES (?1,?2,?3,?4,?5,?6)";
+            case FOLLOWERS_TABLE:
+                return "INSERT OR REPLACE INTO " + FOLLOWERS_TABLE
+                        + " (person_id, local_blog_id, display_name, avatar_url, user_name, subscribed)"
+                        + " VALUES (?1,?2,?3,?4,?5,?6)";
+            case EMAIL_FOLLOWERS_TABLE:
+                return "INSERT OR REPLACE INTO " + EMAIL_FOLLOWERS_TABLE
+                        + " (person_id, local_blog_id, display_name, avatar_url, subscribed)"
+                        + " VALUES (?1,?2,?3,?4,?5)";
+            default:
+                return "INSERT OR REPLACE INTO " + VIEWERS_TABLE
+                        + " (person_id, local_blog_id, display_name, avatar_url, user_name)"
+                        + " VALUES (?1,?2,?3,?4,?5)";
+        }
+    }
+
+    private static void bindString(SQLiteStatement stmt, int index, String value) {
+        if (value != null) {
+            stmt.bindString(index, value);
+        } else {
+            stmt.bindNull(index);
+        }
+    }
+
+    /*
+     * people are written through a cached compiled statement, in chunked transactions when the list
+     * is large - a fresh list replaces the existing people in the same transaction so the list is
+     * never seen empty
+     */
+    private static void savePeople(final String table, List<Person> peopleList, int localTableBlogId,
+                                   boolean isFreshList) {
+        SqlUtils.StatementBinder<Person> binder = new SqlUtils.StatementBinder<Person>() {
+            @Override
+            public void bind(SQLiteStatement stmt, Person person) {
+                stmt.bindLong(1, person.getPersonID());
+                stmt.bindLong(2, person.getLocalTableBlogId());
+                bindString(stmt, 3, person.getDisplayName());
+                bindString(stmt, 4, person.getAvatarUrl());
+                switch (table) {
+                    case TEAM_TABLE:
+                        bindString(stmt, 5, person.getUsername());
+                        bindString(stmt, 6, person.getRole());
+                        break;
+                    case FOLLOWERS_TABLE:
+                        bindString(stmt, 5, person.getUsername());
+                        bindString(stmt, 6, person.getSubscribed());
+                        break;
+                    case EMAIL_FOLLOWERS_TABLE:
+                        bindString(stmt, 5, person.getSubscribed());
+                        break;
+                    case VIEWERS_TABLE:
+                        bindString(stmt, 5, person.getUsername());
+                        break;
+                }
+            }
+        };
+
+        if (!isFreshList) {
+            SqlUtils.executeBatch(getWritableDb(), getInsertSql(table), peopleList, binder);
+            return;
+        }
+
         getWritableDb().beginTransaction();
         try {
             // We have a fresh list, remove the previous list of people in case it was deleted on remote
-            if (isFreshList) {
-                PeopleTable.deletePeople(table, localTableBlogId);
-            }
-
-            for (Person person : peopleList) {
-                PeopleTable.save(table, person, getWritableDb());
-            }
+            PeopleTable.deletePeople(table, localTableBlogId);
+            SqlUtils.executeBatch(getWritableDb(), getInsertSql(table), peopleList, binder);
             getWritableDb().setTransactionSuccessful();
         } finally {
             getWritableDb().endTransaction();
@@ -266,6 +353,65 @@ public class PeopleTable {
         return people;
     }
 
+    /**
+     * Returns the people of the passed type whose display name or username starts with the passed
+     * query, ignoring case - the lookups use the indexes created by createSearchIndexes()
+     * @param maxResults - limit the list to this many people
+     */
+    public static List<Person> searchPeople(Person.PersonType personType, int localTableBlogId,
+                                            @NonNull String query, int maxResults) {
+        List<Person> people = new ArrayList<>();
+        String table = getTableForPersonType(personType);
+        String pattern = getPrefixPattern(query);
+        if (table == null || TextUtils.isEmpty(pattern)) {
+            return people;
+        }
+
+        String where = "local_blog_id=?1 AND (display_name LIKE ?2";
+        if (hasUsername(table)) {
+            where += " OR user_name LIKE ?2";
+        }
+        where += ")";
+        String orderBy = shouldOrderAlphabetically(table) ? "lower(display_name), lower(user_name)" : "ROWID";
+        String[] args = {Integer.toString(localTableBlogId), pattern};
+        Cursor c = getReadableDb().rawQuery("SELECT * FROM " + table + " WHERE " + where
+                + " ORDER BY " + orderBy + " LIMIT " + maxResults, args);
+        try {
+            while (c.moveToNext()) {
+                people.add(getPersonFromCursor(c, table, localTableBlogId));
+            }
+        } finally {
+            SqlUtils.closeCursor(c);
+        }
+        return people;
+    }
+
+    /*
+     * returns the LIKE pattern matching values which start with the passed query, or an empty string
+     * if there's nothing to search for. note that an ESCAPE clause would stop older versions of
+     * SQLite from using the index, so instead % is removed from the query and _ is left to match
+     * any single character (which includes an underscore)
+     */
+    static String getPrefixPattern(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return "";
+        }
+        String term = query.trim();
+        if (term.startsWith("@")) {
+            // usernames are shown with a leading @, so users may search for them that way
+            term = term.substring(1);
+        }
+        term = term.replace("%", "");
+        if (term.isEmpty()) {
+            return "";
+        }
+        return term + "%";
+    }
+
+    private static boolean hasUsername(String table) {
+        return !table.equals(EMAIL_FOLLOWERS_TABLE);
+    }
+
     @Nullable
     public static Person getPerson(long personId, int localTableBlogId, Person.PersonType personType) {
         String table = getTableForPersonType(personType);
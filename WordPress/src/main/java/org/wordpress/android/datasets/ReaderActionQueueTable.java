@@ -0,0 +1,138 @@
+package org.wordpress.android.datasets;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import org.wordpress.android.ui.reader.models.ReaderPendingAction;
+import org.wordpress.android.ui.reader.models.ReaderPendingAction.ActionType;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.SqlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * stores reader likes, comment likes and follows which haven't been confirmed by the server yet,
+ * so they survive the app being closed while offline - see ReaderActionQueue
+ */
+public class ReaderActionQueueTable {
+    private static final String COLUMN_NAMES =
+            "action_type, blog_id, post_id, comment_id, is_on, server_is_on, server_count, user_id, date_queued, num_attempts";
+
+    protected static void createTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE tbl_pending_actions ("
+                + " action_type     TEXT NOT NULL,"
+                + " blog_id         INTEGER DEFAULT 0,"
+                + " post_id         INTEGER DEFAULT 0,"
+                + " comment_id      INTEGER DEFAULT 0,"
+                + " is_on           INTEGER DEFAULT 0,"
+                + " server_is_on    INTEGER DEFAULT 0,"
+                + " server_count    INTEGER DEFAULT 0,"
+                + " user_id         INTEGER DEFAULT 0,"
+                + " date_queued     INTEGER DEFAULT 0,"
+                + " num_attempts    INTEGER DEFAULT 0,"
+                + " PRIMARY KEY (action_type, blog_id, post_id, comment_id))");
+    }
+
+    protected static void dropTables(SQLiteDatabase db) {
+        db.execSQL("DROP TABLE IF EXISTS tbl_pending_actions");
+    }
+
+    public static void addOrUpdateAction(ReaderPendingAction action) {
+        if (action == null) {
+            return;
+        }
+
+        SQLiteStatement stmt = ReaderDatabase.getWritableDb().compileStatement(
+                "INSERT OR REPLACE INTO tbl_pending_actions (" + COLUMN_NAMES + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10)");
+        try {
+            stmt.bindString(1, action.actionType.name());
+            stmt.bindLong  (2, action.blogId);
+            stmt.bindLong  (3, action.postId);
+            stmt.bindLong  (4, action.commentId);
+            stmt.bindLong  (5, SqlUtils.boolToSql(action.isOn));
+            stmt.bindLong  (6, SqlUtils.boolToSql(action.serverIsOn));
+            stmt.bindLong  (7, action.serverCount);
+            stmt.bindLong  (8, action.userId);
+            stmt.bindLong  (9, action.dateQueued);
+            stmt.bindLong  (10, action.numAttempts);
+            stmt.execute();
+        } finally {
+            SqlUtils.closeStatement(stmt);
+        }
+    }
+
+    public static void deleteAction(ReaderPendingAction action) {
+        if (action == null) {
+            return;
+        }
+        String[] args = {action.actionType.name(),
+                         Long.toString(action.blogId),
+                         Long.toString(action.postId),
+                         Long.toString(action.commentId)};
+        ReaderDatabase.getWritableDb().delete("tbl_pending_actions",
+                "action_type=? AND blog_id=? AND post_id=? AND comment_id=?", args);
+    }
+
+    /*
+     * returns the pending action for the passed item, or null if there isn't one
+     */
+    public static ReaderPendingAction getAction(ActionType actionType, long blogId, long postId, long commentId) {
+        String[] args = {actionType.name(),
+                         Long.toString(blogId),
+                         Long.toString(postId),
+                         Long.toString(commentId)};
+        Cursor c = ReaderDatabase.getReadableDb().rawQuery(
+                "SELECT " + COLUMN_NAMES + " FROM tbl_pending_actions"
+                + " WHERE action_type=? AND blog_id=? AND post_id=? AND comment_id=?", args);
+        try {
+            return c.moveToFirst() ? getActionFromCursor(c) : null;
+        } finally {
+            SqlUtils.closeCursor(c);
+        }
+    }
+
+    /*
+     * returns all pending actions, oldest first
+     */
+    public static List<ReaderPendingAction> getPendingActions() {
+        List<ReaderPendingAction> actions = new ArrayList<>();
+        Cursor c = ReaderDatabase.getReadableDb().rawQuery(
+                "SELECT " + COLUMN_NAMES + " FROM tbl_pending_actions ORDER BY date_queued", null);
+        try {
+            while (c.moveToNext()) {
+                ReaderPendingAction action = getActionFromCursor(c);
+                if (action != null) {
+                    actions.add(action);
+                }
+            }
+            return actions;
+        } finally {
+            SqlUtils.closeCursor(c);
+        }
+    }
+
+    public static int getNumPendingActions() {
+        return SqlUtils.intForQuery(ReaderDatabase.getReadableDb(), "SELECT count(*) FROM tbl_pending_actions", null);
+    }
+
+    private static ReaderPendingAction getActionFromCursor(Cursor c) {
+        ActionType actionType;
+        try {
+            actionType = ActionType.valueOf(c.getString(0));
+        } catch (IllegalArgumentException e) {
+            AppLog.e(AppLog.T.READER, e);
+            return null;
+        }
+
+        ReaderPendingAction action = new ReaderPendingAction(actionType, c.getLong(1), c.getLong(2), c.getLong(3));
+        action.isOn = SqlUtils.sqlToBool(c.getInt(4));
+        action.serverIsOn = SqlUtils.sqlToBool(c.getInt(5));
+        action.serverCount = c.getInt(6);
+        action.userId = c.getLong(7);
+        action.dateQueued = c.getLong(8);
+        action.numAttempts = c.getInt(9);
+        return action;
+    }
+}
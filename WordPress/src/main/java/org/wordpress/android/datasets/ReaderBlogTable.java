@@ -11,6 +11,7 @@ import org.wordpress.android.models.ReaderBlogList;
 import org.wordpress.android.models.ReaderRecommendBlogList;
 import org.wordpress.android.models.ReaderRecommendedBlog;
 import org.wordpress.android.models.ReaderUrlList;
+import org.wordpress.android.ui.prefs.AppPrefs;
 import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.DateTimeUtils;
@@ -153,6 +154,9 @@ public class ReaderBlogTable {
         } finally {
             SqlUtils.closeStatement(stmt);
         }
+        // the follow state may have changed, so the next followed blogs response has to be compared
+        // with the local list even if it's identical to the last one
+        AppPrefs.clearReaderFollowedBlogsHash();
     }
 
     /*
@@ -227,6 +231,7 @@ public class ReaderBlogTable {
                         + SqlUtils.boolToSql(isFollowed)
                         + " WHERE blog_id=?",
                 new String[]{Long.toString(blogId)});
+        AppPrefs.clearReaderFollowedBlogsHash();
     }
 
     public static void setIsFollowedFeedId(long feedId, boolean isFollowed) {
@@ -235,6 +240,7 @@ public class ReaderBlogTable {
                         + SqlUtils.boolToSql(isFollowed)
                         + " WHERE feed_id=?",
                 new String[]{Long.toString(feedId)});
+        AppPrefs.clearReaderFollowedBlogsHash();
     }
 
     public static boolean hasFollowedBlogs() {
@@ -53,6 +53,8 @@ public class ReaderCommentTable {
                 + " page_number         INTEGER DEFAULT 0,"
                 + " PRIMARY KEY (blog_id, post_id, comment_id))");
         db.execSQL("CREATE INDEX idx_page_number ON tbl_comments(page_number)");
+        // used to find comment likes whose comment no longer exists
+        db.execSQL("CREATE INDEX idx_comments_blog_id_comment_id ON tbl_comments(blog_id, comment_id)");
     }
 
     protected static void dropTables(SQLiteDatabase db) {
@@ -64,12 +66,18 @@ public class ReaderCommentTable {
         createTables(db);
     }
 
-    protected static int purge(SQLiteDatabase db) {
+    protected static int purge(SQLiteDatabase db, int maxRows) {
         // purge comments attached to posts that no longer exist
-        int numDeleted = db.delete("tbl_comments", "post_id NOT IN (SELECT DISTINCT post_id FROM tbl_posts)", null);
-
-        // purge all but the first page of comments
-        numDeleted += db.delete("tbl_comments", "page_number != 1", null);
+        int numDeleted = SqlUtils.deleteBatch(db, "tbl_comments",
+                "NOT EXISTS (SELECT 1 FROM tbl_posts WHERE tbl_posts.post_id=tbl_comments.post_id"
+                + " AND tbl_posts.blog_id=tbl_comments.blog_id)",
+                null, null, maxRows);
+
+        // purge all but the first page of comments with whatever's left of this batch
+        if (numDeleted < maxRows) {
+            numDeleted += SqlUtils.deleteBatch(db, "tbl_comments", "page_number != 1", null, null,
+                    maxRows - numDeleted);
+        }
 
         return numDeleted;
     }
@@ -153,43 +161,44 @@ public class ReaderCommentTable {
         addOrUpdateComments(comments);
     }
 
+    private static final String SQL_INSERT_COMMENT =
+            "INSERT OR REPLACE INTO tbl_comments ("
+                    + COLUMN_NAMES
+                    + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13,?14,?15,?16)";
+
     public static void addOrUpdateComments(ReaderCommentList comments) {
         if (comments == null || comments.size() == 0) {
             return;
         }
 
+        // written in a single transaction so a page of comments is never partially stored
         SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
-        SQLiteStatement stmt = db.compileStatement("INSERT OR REPLACE INTO tbl_comments ("
-                                                  + COLUMN_NAMES
-                                                  + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13,?14,?15,?16)");
+        ReaderDatabase.beginWriteTransaction(db);
         try {
-            for (ReaderComment comment: comments) {
-                stmt.bindLong  (1,  comment.blogId);
-                stmt.bindLong  (2,  comment.postId);
-                stmt.bindLong  (3,  comment.commentId);
-                stmt.bindLong  (4,  comment.parentId);
-                stmt.bindString(5,  comment.getAuthorName());
-                stmt.bindString(6,  comment.getAuthorAvatar());
-                stmt.bindString(7,  comment.getAuthorUrl());
-                stmt.bindLong  (8,  comment.authorId);
-                stmt.bindLong  (9,  comment.authorBlogId);
-                stmt.bindString(10, comment.getPublished());
-                stmt.bindLong  (11, comment.timestamp);
-                stmt.bindString(12, comment.getStatus());
-                stmt.bindString(13, comment.getText());
-                stmt.bindLong  (14, comment.numLikes);
-                stmt.bindLong  (15, SqlUtils.boolToSql(comment.isLikedByCurrentUser));
-                stmt.bindLong  (16, comment.pageNumber);
-
-                stmt.execute();
-            }
-
+            SqlUtils.executeBatch(db, SQL_INSERT_COMMENT, comments, new SqlUtils.StatementBinder<ReaderComment>() {
+                @Override
+                public void bind(SQLiteStatement stmt, ReaderComment comment) {
+                    stmt.bindLong  (1,  comment.blogId);
+                    stmt.bindLong  (2,  comment.postId);
+                    stmt.bindLong  (3,  comment.commentId);
+                    stmt.bindLong  (4,  comment.parentId);
+                    stmt.bindString(5,  comment.getAuthorName());
+                    stmt.bindString(6,  comment.getAuthorAvatar());
+                    stmt.bindString(7,  comment.getAuthorUrl());
+                    stmt.bindLong  (8,  comment.authorId);
+                    stmt.bindLong  (9,  comment.authorBlogId);
+                    stmt.bindString(10, comment.getPublished());
+                    stmt.bindLong  (11, comment.timestamp);
+                    stmt.bindString(12, comment.getStatus());
+                    stmt.bindString(13, comment.getText());
+                    stmt.bindLong  (14, comment.numLikes);
+                    stmt.bindLong  (15, SqlUtils.boolToSql(comment.isLikedByCurrentUser));
+                    stmt.bindLong  (16, comment.pageNumber);
+                }
+            });
             db.setTransactionSuccessful();
-
         } finally {
             db.endTransaction();
-            SqlUtils.closeStatement(stmt);
         }
     }
 
@@ -3,23 +3,32 @@ package org.wordpress.android.datasets;
 import android.content.Context;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import org.wordpress.android.WordPress;
+import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.BackgroundExecutors;
+import org.wordpress.android.util.SqlUtils;
 
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * database for all reader information
  */
 public class ReaderDatabase extends SQLiteOpenHelper {
     protected static final String DB_NAME = "wpreader.db";
-    private static final int DB_VERSION = 133;
+    private static final int DB_VERSION = 137;
 
     /*
      * version history
@@ -85,6 +94,11 @@ public class ReaderDatabase extends SQLiteOpenHelper {
      *  131 - added tbl_posts.card_type
      *  132 - no schema changes, simply clearing to accommodate gallery card_type
      *  133 - no schema changes, simply clearing to accommodate video card_type
+     *  134 - added ReaderSearchIndexTable
+     *  135 - added ReaderActionQueueTable
+     *  136 - replaced tbl_posts tag_name index with (tag_name, tag_type, sort column) indexes,
+     *        added tbl_comments (blog_id, comment_id) index
+     *  137 - added tbl_pending_actions.num_attempts
      */
 
     /*
@@ -112,13 +126,26 @@ public class ReaderDatabase extends SQLiteOpenHelper {
         return getDatabase().getWritableDatabase();
     }
 
+    private SQLiteDatabase mOpenDb;
+
     @Override
     public void onOpen(SQLiteDatabase db) {
         super.onOpen(db);
+        mOpenDb = db;
         //copyDatabase(db);
         //getDatabase().reset(db);
     }
 
+    @Override
+    public synchronized void close() {
+        // cached statements hold a reference to the database, so release them before closing it
+        if (mOpenDb != null) {
+            SqlUtils.clearStatementCache(mOpenDb);
+            mOpenDb = null;
+        }
+        super.close();
+    }
+
     /*
      * resets (clears) the reader database
      */
@@ -131,6 +158,55 @@ public class ReaderDatabase extends SQLiteOpenHelper {
 
     public ReaderDatabase(Context context) {
         super(context, DB_NAME, null, DB_VERSION);
+        // write-ahead logging enables readers (such as the post list) to query the database on
+        // their own connections while a large write (such as a purge or sync) is in progress
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    /*
+     * single-writer queue - background mutations of reader tables should be performed through
+     * this so they run one at a time rather than contending with each other for the write lock
+     */
+    private static final String WRITER_LANE = "reader-db-writer";
+
+    public static void executeWrite(@NonNull Runnable task) {
+        BackgroundExecutors.serial(WRITER_LANE).execute(task);
+    }
+
+    /*
+     * begins a write transaction, recording how long it took to acquire the write lock
+     */
+    private static final long SLOW_LOCK_WAIT_MS = 100;
+    private static final AtomicLong sNumWriteTransactions = new AtomicLong();
+    private static final AtomicLong sTotalLockWaitMs = new AtomicLong();
+    private static final AtomicLong sMaxLockWaitMs = new AtomicLong();
+
+    public static void beginWriteTransaction(@NonNull SQLiteDatabase db) {
+        long start = SystemClock.elapsedRealtime();
+        db.beginTransactionNonExclusive();
+        long waitMs = SystemClock.elapsedRealtime() - start;
+
+        sNumWriteTransactions.incrementAndGet();
+        sTotalLockWaitMs.addAndGet(waitMs);
+        long maxWaitMs;
+        do {
+            maxWaitMs = sMaxLockWaitMs.get();
+        } while (waitMs > maxWaitMs && !sMaxLockWaitMs.compareAndSet(maxWaitMs, waitMs));
+
+        if (waitMs >= SLOW_LOCK_WAIT_MS) {
+            AppLog.w(T.DB, "reader db > waited " + waitMs + " ms for write lock");
+        }
+    }
+
+    /*
+     * returns a summary of write lock waits since the app started, for logging
+     */
+    public static String getLockWaitSummary() {
+        long numTransactions = sNumWriteTransactions.get();
+        long totalWaitMs = sTotalLockWaitMs.get();
+        long avgWaitMs = numTransactions > 0 ? totalWaitMs / numTransactions : 0;
+        return String.format(Locale.US, "%d write transactions, avg lock wait %d ms, max lock wait %d ms",
+                numTransactions, avgWaitMs, sMaxLockWaitMs.get());
     }
 
     @Override
@@ -162,6 +238,8 @@ public class ReaderDatabase extends SQLiteOpenHelper {
         ReaderThumbnailTable.createTables(db);
         ReaderBlogTable.createTables(db);
         ReaderSearchTable.createTables(db);
+        ReaderSearchIndexTable.createTables(db);
+        ReaderActionQueueTable.createTables(db);
     }
 
     private void dropAllTables(SQLiteDatabase db) {
@@ -173,12 +251,17 @@ public class ReaderDatabase extends SQLiteOpenHelper {
         ReaderThumbnailTable.dropTables(db);
         ReaderBlogTable.dropTables(db);
         ReaderSearchTable.dropTables(db);
+        ReaderSearchIndexTable.dropTables(db);
+        ReaderActionQueueTable.dropTables(db);
     }
 
     /*
      * drop & recreate all tables (essentially clears the db of all data)
      */
     private void reset(SQLiteDatabase db) {
+        // cached statements may refer to tables which are about to be dropped
+        SqlUtils.clearStatementCache(db);
+
         db.beginTransaction();
         try {
             dropAllTables(db);
@@ -190,49 +273,181 @@ public class ReaderDatabase extends SQLiteOpenHelper {
     }
 
     /*
-     * purge older/unattached data - use purgeAsync() to do this in the background
+     * purge older/unattached data - this is done incrementally: each step deletes rows in small
+     * batches, each in its own short transaction so the write lock is never held for long, and
+     * the purge stops once the passed time budget is used up. steps are idempotent, so an
+     * incomplete purge simply picks up where it left off the next time it's run. use purgeAsync()
+     * to do this in the background
      */
-    private static void purge() {
-        SQLiteDatabase db = getWritableDb();
-        db.beginTransaction();
-        try {
-            int numPostsDeleted = ReaderPostTable.purge(db);
+    private static final int PURGE_BATCH_SIZE = 200;
+    private static final long PURGE_TIME_BUDGET_MS = 500;
+    private static final long MAX_DB_SIZE_BYTES = ReaderConstants.READER_MAX_DB_SIZE_MB * 1024L * 1024L;
 
-            // don't bother purging other data unless posts were purged
-            if (numPostsDeleted > 0) {
-                AppLog.i(T.READER, String.format("%d total posts purged", numPostsDeleted));
+    private interface PurgeStep {
+        String getName();
+        int purgeBatch(SQLiteDatabase db, int maxRows);
+    }
 
-                // purge unattached comments
-                int numCommentsDeleted = ReaderCommentTable.purge(db);
-                if (numCommentsDeleted > 0) {
-                    AppLog.i(T.READER, String.format("%d comments purged", numCommentsDeleted));
-                }
+    public static class PurgeResult {
+        public final int numRowsPurged;
+        public final long elapsedMs;
+        public final boolean isComplete;
+
+        private PurgeResult(int numRowsPurged, long elapsedMs, boolean isComplete) {
+            this.numRowsPurged = numRowsPurged;
+            this.elapsedMs = elapsedMs;
+            this.isComplete = isComplete;
+        }
+    }
 
-                // purge unattached likes
-                int numLikesDeleted = ReaderLikeTable.purge(db);
-                if (numLikesDeleted > 0) {
-                    AppLog.i(T.READER, String.format("%d likes purged", numLikesDeleted));
+    public static PurgeResult purge(long maxTimeMs) {
+        return purge(maxTimeMs, null);
+    }
+
+    /*
+     * same as above, but also stops between batches once isStopped is set
+     */
+    public static PurgeResult purge(long maxTimeMs, @Nullable AtomicBoolean isStopped) {
+        SQLiteDatabase db = getWritableDb();
+        long startTime = SystemClock.elapsedRealtime();
+        int totalPurged = 0;
+        boolean isComplete = true;
+
+        for (PurgeStep step: getPurgeSteps(db)) {
+            int numPurged = 0;
+            int batchCount;
+            do {
+                if (SystemClock.elapsedRealtime() - startTime >= maxTimeMs
+                        || (isStopped != null && isStopped.get())) {
+                    isComplete = false;
+                    break;
+                }
+                beginWriteTransaction(db);
+                try {
+                    batchCount = step.purgeBatch(db, PURGE_BATCH_SIZE);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
                 }
+                numPurged += batchCount;
+            } while (batchCount >= PURGE_BATCH_SIZE);
 
-                // purge unattached thumbnails
-                int numThumbsPurged = ReaderThumbnailTable.purge(db);
-                if (numThumbsPurged > 0) {
-                    AppLog.i(T.READER, String.format("%d thumbnails purged", numThumbsPurged));
+            if (numPurged > 0) {
+                AppLog.i(T.READER, String.format(Locale.US, "%d %s purged", numPurged, step.getName()));
+                totalPurged += numPurged;
+            }
+            if (!isComplete) {
+                break;
+            }
+        }
+
+        long elapsedMs = SystemClock.elapsedRealtime() - startTime;
+        AppLog.i(T.READER, String.format(Locale.US, "reader db > purged %d rows in %d ms%s",
+                totalPurged, elapsedMs, isComplete ? "" : " (incomplete)"));
+
+        return new PurgeResult(totalPurged, elapsedMs, isComplete);
+    }
+
+    private static PurgeStep[] getPurgeSteps(SQLiteDatabase db) {
+        // if the database is larger than the max size, the oldest posts are purged first - the
+        // number of posts to remove is estimated from the average size of a post (all reader data
+        // is attributed to posts, since comments/likes/etc. are purged along with their posts)
+        final int numPostsOverSize = getNumPostsOverMaxSize(db);
+
+        return new PurgeStep[] {
+            new PurgeStep() {
+                private int mNumRemaining = numPostsOverSize;
+                @Override public String getName() {
+                    return "posts over max size";
+                }
+                @Override public int purgeBatch(SQLiteDatabase db, int maxRows) {
+                    if (mNumRemaining <= 0) {
+                        return 0;
+                    }
+                    int numPurged = ReaderPostTable.purgeOldestPosts(db, Math.min(maxRows, mNumRemaining));
+                    mNumRemaining -= numPurged;
+                    return numPurged;
+                }
+            },
+            new PurgeStep() {
+                @Override public String getName() {
+                    return "posts";
+                }
+                @Override public int purgeBatch(SQLiteDatabase db, int maxRows) {
+                    return ReaderPostTable.purge(db, maxRows);
+                }
+            },
+            new PurgeStep() {
+                @Override public String getName() {
+                    return "comments";
+                }
+                @Override public int purgeBatch(SQLiteDatabase db, int maxRows) {
+                    return ReaderCommentTable.purge(db, maxRows);
+                }
+            },
+            new PurgeStep() {
+                @Override public String getName() {
+                    return "likes";
+                }
+                @Override public int purgeBatch(SQLiteDatabase db, int maxRows) {
+                    return ReaderLikeTable.purge(db, maxRows);
+                }
+            },
+            new PurgeStep() {
+                @Override public String getName() {
+                    return "thumbnails";
+                }
+                @Override public int purgeBatch(SQLiteDatabase db, int maxRows) {
+                    return ReaderThumbnailTable.purge(db, maxRows);
+                }
+            },
+            new PurgeStep() {
+                @Override public String getName() {
+                    return "search index entries";
+                }
+                @Override public int purgeBatch(SQLiteDatabase db, int maxRows) {
+                    return ReaderSearchIndexTable.purge(db, maxRows);
                 }
             }
-            db.setTransactionSuccessful();
-        } finally {
-            db.endTransaction();
+        };
+    }
+
+    /*
+     * returns the number of bytes used by the database, excluding free pages (which SQLite
+     * reuses, so the file won't grow past this plus the space freed by the last purge)
+     */
+    public static long getDatabaseSizeBytes(SQLiteDatabase db) {
+        long numPages = SqlUtils.longForQuery(db, "PRAGMA page_count", null);
+        long numFreePages = SqlUtils.longForQuery(db, "PRAGMA freelist_count", null);
+        return (numPages - numFreePages) * db.getPageSize();
+    }
+
+    private static int getNumPostsOverMaxSize(SQLiteDatabase db) {
+        long sizeBytes = getDatabaseSizeBytes(db);
+        if (sizeBytes <= MAX_DB_SIZE_BYTES) {
+            return 0;
+        }
+
+        long numPosts = SqlUtils.getRowCount(db, "tbl_posts");
+        if (numPosts == 0) {
+            return 0;
         }
+
+        long bytesPerPost = Math.max(1, sizeBytes / numPosts);
+        int numOverSize = (int) Math.min(numPosts, ((sizeBytes - MAX_DB_SIZE_BYTES) / bytesPerPost) + 1);
+        AppLog.i(T.READER, String.format(Locale.US, "reader db > %d bytes exceeds max size, purging %d posts",
+                sizeBytes, numOverSize));
+        return numOverSize;
     }
 
     public static void purgeAsync() {
-        new Thread() {
+        executeWrite(new Runnable() {
             @Override
             public void run() {
-                purge();
+                purge(PURGE_TIME_BUDGET_MS);
+                AppLog.i(T.DB, "reader db > " + getLockWaitSummary());
             }
-        }.start();
+        });
     }
 
     /*
@@ -41,9 +41,17 @@ public class ReaderLikeTable {
     /*
      * purge likes attached to posts/comments that no longer exist
      */
-    protected static int purge(SQLiteDatabase db) {
-        int numDeleted = db.delete("tbl_post_likes", "post_id NOT IN (SELECT DISTINCT post_id FROM tbl_posts)", null);
-        numDeleted += db.delete("tbl_comment_likes", "comment_id NOT IN (SELECT DISTINCT comment_id FROM tbl_comments)", null);
+    protected static int purge(SQLiteDatabase db, int maxRows) {
+        int numDeleted = SqlUtils.deleteBatch(db, "tbl_post_likes",
+                "NOT EXISTS (SELECT 1 FROM tbl_posts WHERE tbl_posts.post_id=tbl_post_likes.post_id"
+                + " AND tbl_posts.blog_id=tbl_post_likes.blog_id)",
+                null, null, maxRows);
+        if (numDeleted < maxRows) {
+            numDeleted += SqlUtils.deleteBatch(db, "tbl_comment_likes",
+                    "NOT EXISTS (SELECT 1 FROM tbl_comments WHERE tbl_comments.blog_id=tbl_comment_likes.blog_id"
+                    + " AND tbl_comments.comment_id=tbl_comment_likes.comment_id)",
+                    null, null, maxRows - numDeleted);
+        }
         return numDeleted;
     }
 
@@ -95,34 +103,35 @@ public class ReaderLikeTable {
         }
     }
 
-    public static void setLikesForPost(ReaderPost post, ReaderUserIdList userIds) {
+    private static final String SQL_INSERT_POST_LIKE =
+            "INSERT INTO tbl_post_likes (blog_id, post_id, user_id) VALUES (?1,?2,?3)";
+
+    public static void setLikesForPost(final ReaderPost post, ReaderUserIdList userIds) {
         if (post == null) {
             return;
         }
 
         SQLiteDatabase db = ReaderDatabase.getWritableDb();
         db.beginTransaction();
-        SQLiteStatement stmt = db.compileStatement("INSERT INTO tbl_post_likes (blog_id, post_id, user_id) VALUES (?1,?2,?3)");
         try {
             // first delete all likes for this post
             String[] args = {Long.toString(post.blogId), Long.toString(post.postId)};
             db.delete("tbl_post_likes", "blog_id=? AND post_id=?", args);
 
             // now insert the passed likes
-            if (userIds != null) {
-                stmt.bindLong(1, post.blogId);
-                stmt.bindLong(2, post.postId);
-                for (Long userId: userIds) {
+            SqlUtils.executeBatch(db, SQL_INSERT_POST_LIKE, userIds, new SqlUtils.StatementBinder<Long>() {
+                @Override
+                public void bind(SQLiteStatement stmt, Long userId) {
+                    stmt.bindLong(1, post.blogId);
+                    stmt.bindLong(2, post.postId);
                     stmt.bindLong(3, userId);
-                    stmt.execute();
                 }
-            }
+            });
 
             db.setTransactionSuccessful();
 
         } finally {
             db.endTransaction();
-            SqlUtils.closeStatement(stmt);
         }
     }
 
@@ -184,34 +193,34 @@ public class ReaderLikeTable {
         }
     }
 
-    public static void setLikesForComment(ReaderComment comment, ReaderUserIdList userIds) {
+    private static final String SQL_INSERT_COMMENT_LIKE =
+            "INSERT INTO tbl_comment_likes (blog_id, comment_id, user_id) VALUES (?1,?2,?3)";
+
+    public static void setLikesForComment(final ReaderComment comment, ReaderUserIdList userIds) {
         if (comment == null) {
             return;
         }
 
         SQLiteDatabase db = ReaderDatabase.getWritableDb();
         db.beginTransaction();
-        SQLiteStatement stmt = db.compileStatement(
-                "INSERT INTO tbl_comment_likes (blog_id, comment_id, user_id) VALUES (?1,?2,?3)");
         try {
             String[] args = {Long.toString(comment.blogId),
                              Long.toString(comment.commentId)};
             db.delete("tbl_comment_likes", "blog_id=? AND comment_id=?", args);
 
-            if (userIds != null) {
-                stmt.bindLong(1, comment.blogId);
-                stmt.bindLong(2, comment.commentId);
-                for (Long userId: userIds) {
+            SqlUtils.executeBatch(db, SQL_INSERT_COMMENT_LIKE, userIds, new SqlUtils.StatementBinder<Long>() {
+                @Override
+                public void bind(SQLiteStatement stmt, Long userId) {
+                    stmt.bindLong(1, comment.blogId);
+                    stmt.bindLong(2, comment.commentId);
                     stmt.bindLong(3, userId);
-                    stmt.execute();
                 }
-            }
+            });
 
             db.setTransactionSuccessful();
 
         } finally {
             db.endTransaction();
-            SqlUtils.closeStatement(stmt);
         }
     }
 }
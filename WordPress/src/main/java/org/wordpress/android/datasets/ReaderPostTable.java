@@ -174,7 +174,11 @@ public class ReaderPostTable {
         db.execSQL("CREATE INDEX idx_posts_post_id_blog_id ON tbl_posts(post_id, blog_id)");
         db.execSQL("CREATE INDEX idx_posts_date_published ON tbl_posts(date_published)");
         db.execSQL("CREATE INDEX idx_posts_date_tagged ON tbl_posts(date_tagged)");
-        db.execSQL("CREATE INDEX idx_posts_tag_name ON tbl_posts(tag_name)");
+        // the sort columns used by getSortColumnForTag(), so the per-tag cutoff used by the purge
+        // and the oldest date in a tag are found without sorting the tag's posts
+        db.execSQL("CREATE INDEX idx_posts_tag_date_published ON tbl_posts(tag_name, tag_type, date_published)");
+        db.execSQL("CREATE INDEX idx_posts_tag_date_tagged ON tbl_posts(tag_name, tag_type, date_tagged)");
+        db.execSQL("CREATE INDEX idx_posts_tag_date_liked ON tbl_posts(tag_name, tag_type, date_liked)");
     }
 
     protected static void dropTables(SQLiteDatabase db) {
@@ -187,49 +191,73 @@ public class ReaderPostTable {
     }
 
     /*
-     * purge table of unattached/older posts - no need to wrap this in a transaction since it's
-     * only called from ReaderDatabase.purge() which already creates a transaction
+     * purge a batch of older posts, deleting at most maxRows - returns the number of posts
+     * deleted, so callers should repeat this until it returns less than maxRows. no need
+     * to wrap this in a transaction since it's only called from ReaderDatabase's purge,
+     * which creates one for each batch
      */
-    protected static int purge(SQLiteDatabase db) {
-        // delete posts attached to tags that no longer exist
-        int numDeleted = db.delete("tbl_posts", "tag_name NOT IN (SELECT DISTINCT tag_name FROM tbl_tags)", null);
+    protected static int purge(SQLiteDatabase db, int maxRows) {
+        int numDeleted = 0;
 
         // delete excess posts on a per-tag basis
         ReaderTagList tags = ReaderTagTable.getAllTags();
         for (ReaderTag tag: tags) {
-            numDeleted += purgePostsForTag(db, tag);
+            if (numDeleted >= maxRows) {
+                return numDeleted;
+            }
+            numDeleted += purgePostsForTag(db, tag, maxRows - numDeleted);
         }
 
         // delete search results
-        numDeleted += purgeSearchResults(db);
+        if (numDeleted < maxRows) {
+            numDeleted += purgeSearchResults(db, maxRows - numDeleted);
+        }
 
         return numDeleted;
     }
 
     /*
-     * purge excess posts in the passed tag
+     * purge at most maxRows excess posts in the passed tag - posts sorted after the newest
+     * MAX_POSTS_PER_TAG posts in the tag are deleted
      */
     private static final int MAX_POSTS_PER_TAG = ReaderConstants.READER_MAX_POSTS_TO_DISPLAY;
-    private static int purgePostsForTag(SQLiteDatabase db, ReaderTag tag) {
-        int numPosts = getNumPostsWithTag(tag);
-        if (numPosts <= MAX_POSTS_PER_TAG) {
+    private static int purgePostsForTag(SQLiteDatabase db, ReaderTag tag, int maxRows) {
+        String sortColumn = getSortColumnForTag(tag);
+        String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt())};
+
+        // get the sort value of the oldest post to keep, if there isn't one then there aren't
+        // any excess posts in this tag
+        String cutoff = SqlUtils.stringForQuery(db,
+                "SELECT " + sortColumn + " FROM tbl_posts WHERE tag_name=? AND tag_type=?"
+                + " ORDER BY " + sortColumn + " DESC LIMIT 1 OFFSET " + (MAX_POSTS_PER_TAG - 1),
+                args);
+        if (TextUtils.isEmpty(cutoff)) {
             return 0;
         }
 
-        String[] args = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt()), Integer.toString(MAX_POSTS_PER_TAG)};
-        String where = "pseudo_id NOT IN (SELECT DISTINCT pseudo_id FROM tbl_posts WHERE tag_name=? AND "
-                       + "tag_type=? ORDER BY " + getSortColumnForTag(tag) + " DESC LIMIT ?)";
-        int numDeleted = db.delete("tbl_posts", where, args);
-        AppLog.d(AppLog.T.READER, String.format("reader post table > purged %d posts in tag %s", numDeleted, tag.getTagNameForLog()));
+        String[] deleteArgs = {tag.getTagSlug(), Integer.toString(tag.tagType.toInt()), cutoff};
+        int numDeleted = SqlUtils.deleteBatch(db, "tbl_posts",
+                "tag_name=? AND tag_type=? AND " + sortColumn + " < ?", deleteArgs, null, maxRows);
+        if (numDeleted > 0) {
+            AppLog.d(AppLog.T.READER, String.format("reader post table > purged %d posts in tag %s", numDeleted, tag.getTagNameForLog()));
+        }
         return numDeleted;
     }
 
     /*
-     * purge all posts that were retained from previous searches
+     * purge at most maxRows posts that were retained from previous searches
      */
-    private static int purgeSearchResults(SQLiteDatabase db) {
+    private static int purgeSearchResults(SQLiteDatabase db, int maxRows) {
         String[] args = {Integer.toString(ReaderTagType.SEARCH.toInt())};
-        return db.delete("tbl_posts", "tag_type=?", args);
+        return SqlUtils.deleteBatch(db, "tbl_posts", "tag_type=?", args, null, maxRows);
+    }
+
+    /*
+     * purge at most maxRows of the oldest posts regardless of their tag - used to keep the
+     * reader database under its maximum size
+     */
+    protected static int purgeOldestPosts(SQLiteDatabase db, int maxRows) {
+        return SqlUtils.deleteBatch(db, "tbl_posts", null, null, "date_published", maxRows);
     }
 
     public static int getNumPostsInBlog(long blogId) {
@@ -260,6 +288,45 @@ public class ReaderPostTable {
                     args);
     }
 
+    /*
+     * returns the number of posts in the passed search tag that were returned by the server,
+     * which excludes local matches added by addLocalSearchResults()
+     */
+    public static int getNumServerPostsWithSearchTag(ReaderTag searchTag) {
+        if (searchTag == null) {
+            return 0;
+        }
+        String[] args = {searchTag.getTagSlug(), Integer.toString(searchTag.tagType.toInt())};
+        return SqlUtils.intForQuery(ReaderDatabase.getReadableDb(),
+                "SELECT count(*) FROM tbl_posts WHERE tag_name=? AND tag_type=? AND IFNULL(score, 0) >= 0",
+                args);
+    }
+
+    /*
+     * adds cached posts matching the passed query to the passed search tag so they can be shown
+     * before (or without) results from the server. local matches are given negative scores so
+     * they sort after server results, and they're replaced when the server returns the same post
+     */
+    private static final int MAX_LOCAL_SEARCH_RESULTS = ReaderConstants.READER_MAX_SEARCH_POSTS_TO_REQUEST * 5;
+    public static int addLocalSearchResults(@NonNull ReaderTag searchTag, @NonNull String query) {
+        ReaderBlogIdPostIdList idList = ReaderSearchIndexTable.searchPosts(query, MAX_LOCAL_SEARCH_RESULTS);
+        if (idList.size() == 0) {
+            return 0;
+        }
+
+        ReaderPostList posts = new ReaderPostList();
+        for (ReaderBlogIdPostId ids: idList) {
+            ReaderPost post = getBlogPost(ids.getBlogId(), ids.getPostId(), false);
+            if (post != null) {
+                post.score = -(posts.size() + 1);
+                posts.add(post);
+            }
+        }
+        addOrUpdatePosts(searchTag, posts);
+
+        return posts.size();
+    }
+
     public static void updatePost(@NonNull ReaderPost post) {
         // we need to update a few important fields across all instances of this post - this is
         // necessary because a post can exist multiple times in the table with different tags
@@ -706,79 +773,82 @@ public class ReaderPostTable {
         }
     }
 
+    private static final String SQL_INSERT_POST =
+            "INSERT OR REPLACE INTO tbl_posts ("
+                    + COLUMN_NAMES
+                    + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13,?14,?15,?16,?17,?18,?19,?20,?21,?22,?23,?24,?25,?26,?27,?28,?29,?30,?31,?32,?33,?34,?35,?36,?37,?38,?39,?40,?41,?42,?43,?44)";
+
     public static void addOrUpdatePosts(final ReaderTag tag, ReaderPostList posts) {
         if (posts == null || posts.size() == 0) {
             return;
         }
 
-        SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        SQLiteStatement stmtPosts = db.compileStatement(
-                "INSERT OR REPLACE INTO tbl_posts ("
-                        + COLUMN_NAMES
-                        + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13,?14,?15,?16,?17,?18,?19,?20,?21,?22,?23,?24,?25,?26,?27,?28,?29,?30,?31,?32,?33,?34,?35,?36,?37,?38,?39,?40,?41,?42,?43,?44)");
+        final String tagName = (tag != null ? tag.getTagSlug() : "");
+        final int tagType = (tag != null ? tag.tagType.toInt() : 0);
 
-        db.beginTransaction();
+        // we can safely assume there's no gap marker because any existing gap marker is
+        // already removed before posts are updated
+        final boolean hasGapMarker = false;
+
+        SQLiteDatabase db = ReaderDatabase.getWritableDb();
+        ReaderDatabase.beginWriteTransaction(db);
         try {
-            String tagName = (tag != null ? tag.getTagSlug() : "");
-            int tagType = (tag != null ? tag.tagType.toInt() : 0);
-
-            // we can safely assume there's no gap marker because any existing gap marker is
-            // already removed before posts are updated
-            boolean hasGapMarker = false;
-
-            for (ReaderPost post: posts) {
-                stmtPosts.bindLong  (1,  post.postId);
-                stmtPosts.bindLong  (2,  post.blogId);
-                stmtPosts.bindLong  (3,  post.feedId);
-                stmtPosts.bindLong  (4,  post.feedItemId);
-                stmtPosts.bindString(5,  post.getPseudoId());
-                stmtPosts.bindString(6,  post.getAuthorName());
-                stmtPosts.bindString(7,  post.getAuthorFirstName());
-                stmtPosts.bindLong  (8,  post.authorId);
-                stmtPosts.bindString(9,  post.getTitle());
-                stmtPosts.bindString(10, maxText(post));
-                stmtPosts.bindString(11, post.getExcerpt());
-                stmtPosts.bindString(12, post.getFormat());
-                stmtPosts.bindString(13, post.getUrl());
-                stmtPosts.bindString(14, post.getShortUrl());
-                stmtPosts.bindString(15, post.getBlogName());
-                stmtPosts.bindString(16, post.getBlogUrl());
-                stmtPosts.bindString(17, post.getBlogImageUrl());
-                stmtPosts.bindString(18, post.getFeaturedImage());
-                stmtPosts.bindString(19, post.getFeaturedVideo());
-                stmtPosts.bindString(20, post.getPostAvatar());
-                stmtPosts.bindDouble(21, post.score);
-                stmtPosts.bindString(22, post.getDatePublished());
-                stmtPosts.bindString(23, post.getDateLiked());
-                stmtPosts.bindString(24, post.getDateTagged());
-                stmtPosts.bindLong  (25, post.numReplies);
-                stmtPosts.bindLong  (26, post.numLikes);
-                stmtPosts.bindLong  (27, SqlUtils.boolToSql(post.isLikedByCurrentUser));
-                stmtPosts.bindLong  (28, SqlUtils.boolToSql(post.isFollowedByCurrentUser));
-                stmtPosts.bindLong  (29, SqlUtils.boolToSql(post.isCommentsOpen));
-                stmtPosts.bindLong  (30, SqlUtils.boolToSql(post.isExternal));
-                stmtPosts.bindLong  (31, SqlUtils.boolToSql(post.isPrivate));
-                stmtPosts.bindLong  (32, SqlUtils.boolToSql(post.isVideoPress));
-                stmtPosts.bindLong  (33, SqlUtils.boolToSql(post.isJetpack));
-                stmtPosts.bindString(34, post.getPrimaryTag());
-                stmtPosts.bindString(35, post.getSecondaryTag());
-                stmtPosts.bindString(36, post.getAttachmentsJson());
-                stmtPosts.bindString(37, post.getDiscoverJson());
-                stmtPosts.bindLong  (38, post.xpostPostId);
-                stmtPosts.bindLong  (39, post.xpostBlogId);
-                stmtPosts.bindString(40, post.getRailcarJson());
-                stmtPosts.bindString(41, tagName);
-                stmtPosts.bindLong  (42, tagType);
-                stmtPosts.bindLong  (43, SqlUtils.boolToSql(hasGapMarker));
-                stmtPosts.bindString(44, ReaderCardType.toString(post.getCardType()));
-                stmtPosts.execute();
-            }
+            SqlUtils.executeBatch(db, SQL_INSERT_POST, posts, new SqlUtils.StatementBinder<ReaderPost>() {
+                @Override
+                public void bind(SQLiteStatement stmtPosts, ReaderPost post) {
+                    stmtPosts.bindLong  (1,  post.postId);
+                    stmtPosts.bindLong  (2,  post.blogId);
+                    stmtPosts.bindLong  (3,  post.feedId);
+                    stmtPosts.bindLong  (4,  post.feedItemId);
+                    stmtPosts.bindString(5,  post.getPseudoId());
+                    stmtPosts.bindString(6,  post.getAuthorName());
+                    stmtPosts.bindString(7,  post.getAuthorFirstName());
+                    stmtPosts.bindLong  (8,  post.authorId);
+                    stmtPosts.bindString(9,  post.getTitle());
+                    stmtPosts.bindString(10, maxText(post));
+                    stmtPosts.bindString(11, post.getExcerpt());
+                    stmtPosts.bindString(12, post.getFormat());
+                    stmtPosts.bindString(13, post.getUrl());
+                    stmtPosts.bindString(14, post.getShortUrl());
+                    stmtPosts.bindString(15, post.getBlogName());
+                    stmtPosts.bindString(16, post.getBlogUrl());
+                    stmtPosts.bindString(17, post.getBlogImageUrl());
+                    stmtPosts.bindString(18, post.getFeaturedImage());
+                    stmtPosts.bindString(19, post.getFeaturedVideo());
+                    stmtPosts.bindString(20, post.getPostAvatar());
+                    stmtPosts.bindDouble(21, post.score);
+                    stmtPosts.bindString(22, post.getDatePublished());
+                    stmtPosts.bindString(23, post.getDateLiked());
+                    stmtPosts.bindString(24, post.getDateTagged());
+                    stmtPosts.bindLong  (25, post.numReplies);
+                    stmtPosts.bindLong  (26, post.numLikes);
+                    stmtPosts.bindLong  (27, SqlUtils.boolToSql(post.isLikedByCurrentUser));
+                    stmtPosts.bindLong  (28, SqlUtils.boolToSql(post.isFollowedByCurrentUser));
+                    stmtPosts.bindLong  (29, SqlUtils.boolToSql(post.isCommentsOpen));
+                    stmtPosts.bindLong  (30, SqlUtils.boolToSql(post.isExternal));
+                    stmtPosts.bindLong  (31, SqlUtils.boolToSql(post.isPrivate));
+                    stmtPosts.bindLong  (32, SqlUtils.boolToSql(post.isVideoPress));
+                    stmtPosts.bindLong  (33, SqlUtils.boolToSql(post.isJetpack));
+                    stmtPosts.bindString(34, post.getPrimaryTag());
+                    stmtPosts.bindString(35, post.getSecondaryTag());
+                    stmtPosts.bindString(36, post.getAttachmentsJson());
+                    stmtPosts.bindString(37, post.getDiscoverJson());
+                    stmtPosts.bindLong  (38, post.xpostPostId);
+                    stmtPosts.bindLong  (39, post.xpostBlogId);
+                    stmtPosts.bindString(40, post.getRailcarJson());
+                    stmtPosts.bindString(41, tagName);
+                    stmtPosts.bindLong  (42, tagType);
+                    stmtPosts.bindLong  (43, SqlUtils.boolToSql(hasGapMarker));
+                    stmtPosts.bindString(44, ReaderCardType.toString(post.getCardType()));
+                }
+            });
 
-            db.setTransactionSuccessful();
+            // keep the local search index in sync with the posts table
+            ReaderSearchIndexTable.indexPosts(db, posts);
 
+            db.setTransactionSuccessful();
         } finally {
             db.endTransaction();
-            SqlUtils.closeStatement(stmtPosts);
         }
     }
 
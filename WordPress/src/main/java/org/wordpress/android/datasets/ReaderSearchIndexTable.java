@@ -0,0 +1,254 @@
+package org.wordpress.android.datasets;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
+import android.text.TextUtils;
+
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.models.ReaderPostList;
+import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
+import org.wordpress.android.ui.reader.models.ReaderBlogIdPostIdList;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.SqlUtils;
+import org.wordpress.android.util.StringUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * full-text index of cached reader posts, enabling instant offline search of posts the user
+ * has already seen. tbl_search_index is an FTS4 table whose docid maps to a row in
+ * tbl_search_index_docs, which links the indexed text to the post's pseudo_id - this is
+ * necessary because the same post may exist multiple times in tbl_posts (once per tag).
+ *
+ * note that FTS5 and the unicode61 tokenizer aren't available on all of the Android
+ * versions we support, so this uses FTS4 with the default "simple" tokenizer
+ */
+public class ReaderSearchIndexTable {
+    private static final int MAX_QUERY_TERMS = 8;
+
+    // relative weight of each indexed column when ranking results - order must match the
+    // column order in tbl_search_index
+    private static final double[] COLUMN_WEIGHTS = {
+            4.0,    // title
+            1.0,    // excerpt
+            2.0,    // author_name
+            2.0     // blog_name
+    };
+
+    protected static void createTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE tbl_search_index_docs ("
+                 + "    docid           INTEGER PRIMARY KEY AUTOINCREMENT,"
+                 + "    pseudo_id       TEXT NOT NULL,"
+                 + "    blog_id         INTEGER DEFAULT 0,"
+                 + "    post_id         INTEGER DEFAULT 0,"
+                 + "    date_published  TEXT)");
+        db.execSQL("CREATE UNIQUE INDEX idx_search_index_docs_pseudo_id ON tbl_search_index_docs(pseudo_id)");
+
+        db.execSQL("CREATE VIRTUAL TABLE tbl_search_index USING fts4("
+                 + "    title,"
+                 + "    excerpt,"
+                 + "    author_name,"
+                 + "    blog_name)");
+    }
+
+    protected static void dropTables(SQLiteDatabase db) {
+        db.execSQL("DROP TABLE IF EXISTS tbl_search_index");
+        db.execSQL("DROP TABLE IF EXISTS tbl_search_index_docs");
+    }
+
+    private static final String SQL_GET_DOC_ID =
+            "SELECT docid FROM tbl_search_index_docs WHERE pseudo_id=?1";
+    private static final String SQL_ADD_DOC =
+            "INSERT INTO tbl_search_index_docs (pseudo_id, blog_id, post_id, date_published) VALUES (?1,?2,?3,?4)";
+    private static final String SQL_UPDATE_DOC =
+            "UPDATE tbl_search_index_docs SET date_published=?1 WHERE docid=?2";
+    private static final String SQL_DELETE_TEXT =
+            "DELETE FROM tbl_search_index WHERE docid=?1";
+    private static final String SQL_ADD_TEXT =
+            "INSERT INTO tbl_search_index (docid, title, excerpt, author_name, blog_name) VALUES (?1,?2,?3,?4,?5)";
+
+    /*
+     * adds the passed posts to the index, replacing any existing entries for them - no need to
+     * wrap this in a transaction since it's only called from ReaderPostTable.addOrUpdatePosts()
+     * which already creates one
+     */
+    protected static void indexPosts(SQLiteDatabase db, ReaderPostList posts) {
+        if (posts == null || posts.size() == 0) {
+            return;
+        }
+
+        SQLiteStatement stmtGetDocId = SqlUtils.acquireStatement(db, SQL_GET_DOC_ID);
+        SQLiteStatement stmtAddDoc = SqlUtils.acquireStatement(db, SQL_ADD_DOC);
+        SQLiteStatement stmtUpdateDoc = SqlUtils.acquireStatement(db, SQL_UPDATE_DOC);
+        SQLiteStatement stmtDeleteText = SqlUtils.acquireStatement(db, SQL_DELETE_TEXT);
+        SQLiteStatement stmtAddText = SqlUtils.acquireStatement(db, SQL_ADD_TEXT);
+
+        try {
+            for (ReaderPost post: posts) {
+                long docId;
+                stmtGetDocId.bindString(1, post.getPseudoId());
+                try {
+                    docId = stmtGetDocId.simpleQueryForLong();
+                } catch (SQLiteDoneException e) {
+                    docId = 0;
+                }
+
+                if (docId != 0) {
+                    stmtUpdateDoc.bindString(1, post.getDatePublished());
+                    stmtUpdateDoc.bindLong  (2, docId);
+                    stmtUpdateDoc.execute();
+
+                    stmtDeleteText.bindLong(1, docId);
+                    stmtDeleteText.execute();
+                } else {
+                    stmtAddDoc.bindString(1, post.getPseudoId());
+                    stmtAddDoc.bindLong  (2, post.blogId);
+                    stmtAddDoc.bindLong  (3, post.postId);
+                    stmtAddDoc.bindString(4, post.getDatePublished());
+                    docId = stmtAddDoc.executeInsert();
+                }
+
+                stmtAddText.bindLong  (1, docId);
+                stmtAddText.bindString(2, post.getTitle());
+                stmtAddText.bindString(3, post.getExcerpt());
+                stmtAddText.bindString(4, post.getAuthorName());
+                stmtAddText.bindString(5, post.getBlogName());
+                stmtAddText.execute();
+            }
+        } finally {
+            SqlUtils.releaseStatement(db, SQL_GET_DOC_ID, stmtGetDocId);
+            SqlUtils.releaseStatement(db, SQL_ADD_DOC, stmtAddDoc);
+            SqlUtils.releaseStatement(db, SQL_UPDATE_DOC, stmtUpdateDoc);
+            SqlUtils.releaseStatement(db, SQL_DELETE_TEXT, stmtDeleteText);
+            SqlUtils.releaseStatement(db, SQL_ADD_TEXT, stmtAddText);
+        }
+    }
+
+    /*
+     * removes at most maxRows index entries for posts that no longer exist in tbl_posts - no
+     * need to wrap this in a transaction since it's only called from ReaderDatabase's purge
+     */
+    protected static int purge(SQLiteDatabase db, int maxRows) {
+        String orphans = "SELECT docid FROM tbl_search_index_docs"
+                       + " WHERE NOT EXISTS (SELECT 1 FROM tbl_posts"
+                       + " WHERE tbl_posts.pseudo_id=tbl_search_index_docs.pseudo_id)"
+                       + " ORDER BY docid LIMIT " + maxRows;
+        db.delete("tbl_search_index", "docid IN (" + orphans + ")", null);
+        return db.delete("tbl_search_index_docs", "docid IN (" + orphans + ")", null);
+    }
+
+    /**
+     * Returns the blogId/postId pairs of cached posts matching the passed query, ordered by
+     * relevance (most relevant first)
+     * @param query - the search query as entered by the user
+     * @param maxResults - limit the list to this many posts (pass zero for no limit)
+     */
+    public static ReaderBlogIdPostIdList searchPosts(@NonNull String query, int maxResults) {
+        ReaderBlogIdPostIdList idList = new ReaderBlogIdPostIdList();
+        String match = SqlUtils.getFtsMatchExpression(query, MAX_QUERY_TERMS);
+        if (TextUtils.isEmpty(match)) {
+            return idList;
+        }
+
+        long startTime = System.currentTimeMillis();
+        String sql = "SELECT d.blog_id, d.post_id, d.date_published, matchinfo(tbl_search_index, 'pcx')"
+                   + " FROM tbl_search_index"
+                   + " INNER JOIN tbl_search_index_docs d ON d.docid = tbl_search_index.docid"
+                   + " WHERE tbl_search_index MATCH ?"
+                   + " AND EXISTS (SELECT 1 FROM tbl_posts p WHERE p.pseudo_id = d.pseudo_id)";
+
+        ArrayList<RankedPost> rankedPosts = new ArrayList<>();
+        Cursor cursor = ReaderDatabase.getReadableDb().rawQuery(sql, new String[]{match});
+        try {
+            if (cursor.moveToFirst()) {
+                do {
+                    RankedPost rankedPost = new RankedPost();
+                    rankedPost.blogId = cursor.getLong(0);
+                    rankedPost.postId = cursor.getLong(1);
+                    rankedPost.datePublished = StringUtils.notNullStr(cursor.getString(2));
+                    rankedPost.rank = getRank(cursor.getBlob(3));
+                    rankedPosts.add(rankedPost);
+                } while (cursor.moveToNext());
+            }
+        } finally {
+            SqlUtils.closeCursor(cursor);
+        }
+
+        Collections.sort(rankedPosts, RANK_COMPARATOR);
+
+        int numResults = maxResults > 0 ? Math.min(maxResults, rankedPosts.size()) : rankedPosts.size();
+        for (int i = 0; i < numResults; i++) {
+            RankedPost rankedPost = rankedPosts.get(i);
+            idList.add(new ReaderBlogIdPostId(rankedPost.blogId, rankedPost.postId));
+        }
+
+        AppLog.d(AppLog.T.READER, String.format(Locale.US,
+                "reader search index > %d matches for %s in %d ms",
+                rankedPosts.size(), match, System.currentTimeMillis() - startTime));
+
+        return idList;
+    }
+
+    /*
+     * calculates the rank of a single match from the result of matchinfo(..., 'pcx'), which is
+     * an array of 32-bit unsigned integers in native byte order: the # phrases, the # columns,
+     * then for each phrase/column pair the # hits in this row, the # hits in all rows and the
+     * # rows containing a hit. the rank is the sum of each column's weight multiplied by the
+     * ratio of hits in this row to hits in all rows (see the rank function in the SQLite FTS
+     * documentation)
+     */
+    static double getRank(byte[] matchInfo) {
+        if (matchInfo == null || matchInfo.length < 8) {
+            return 0;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int numPhrases = buffer.getInt(0);
+        int numColumns = buffer.getInt(4);
+
+        double rank = 0;
+        for (int phrase = 0; phrase < numPhrases; phrase++) {
+            for (int column = 0; column < numColumns && column < COLUMN_WEIGHTS.length; column++) {
+                int offset = 4 * (2 + 3 * (phrase * numColumns + column));
+                if (offset + 8 > matchInfo.length) {
+                    return rank;
+                }
+                int hitsThisRow = buffer.getInt(offset);
+                int hitsAllRows = buffer.getInt(offset + 4);
+                if (hitsThisRow > 0 && hitsAllRows > 0) {
+                    rank += COLUMN_WEIGHTS[column] * ((double) hitsThisRow / (double) hitsAllRows);
+                }
+            }
+        }
+        return rank;
+    }
+
+    private static class RankedPost {
+        long blogId;
+        long postId;
+        String datePublished;
+        double rank;
+    }
+
+    /*
+     * sorts by rank (descending) then by publish date (newest first)
+     */
+    private static final Comparator<RankedPost> RANK_COMPARATOR = new Comparator<RankedPost>() {
+        @Override
+        public int compare(RankedPost post1, RankedPost post2) {
+            int result = Double.compare(post2.rank, post1.rank);
+            if (result != 0) {
+                return result;
+            }
+            return post2.datePublished.compareTo(post1.datePublished);
+        }
+    };
+}
@@ -24,8 +24,10 @@ public class ReaderThumbnailTable {
     /*
      * purge table of thumbnails attached to posts that no longer exist
      */
-    protected static int purge(SQLiteDatabase db) {
-        return db.delete("tbl_thumbnails", "post_id NOT IN (SELECT DISTINCT post_id FROM tbl_posts)", null);
+    protected static int purge(SQLiteDatabase db, int maxRows) {
+        return SqlUtils.deleteBatch(db, "tbl_thumbnails",
+                "NOT EXISTS (SELECT 1 FROM tbl_posts WHERE tbl_posts.post_id=tbl_thumbnails.post_id)",
+                null, null, maxRows);
     }
 
     public static void addThumbnail(long postId, String fullUrl, String thumbnailUrl) {
@@ -49,30 +49,32 @@ public class ReaderUserTable {
         + " profile_url,"   // 6
         + " avatar_url";    // 7
 
+    private static final String SQL_INSERT_USER =
+            "INSERT OR REPLACE INTO tbl_users (" + COLUMN_NAMES + ") VALUES (?1,?2,?3,?4,?5,?6,?7)";
+
     public static void addOrUpdateUsers(ReaderUserList users) {
         if (users==null || users.size()==0)
             return;
 
+        // written in a single transaction so a list of users is never partially stored
         SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
-        SQLiteStatement stmt = db.compileStatement("INSERT OR REPLACE INTO tbl_users (" + COLUMN_NAMES + ") VALUES (?1,?2,?3,?4,?5,?6,?7)");
+        ReaderDatabase.beginWriteTransaction(db);
         try {
-            for (ReaderUser user: users) {
-                stmt.bindLong  (1, user.userId);
-                stmt.bindLong  (2, user.blogId);
-                stmt.bindString(3, user.getUserName());
-                stmt.bindString(4, user.getDisplayName());
-                stmt.bindString(5, user.getUrl());
-                stmt.bindString(6, user.getProfileUrl());
-                stmt.bindString(7, user.getAvatarUrl());
-                stmt.execute();
-            }
-
+            SqlUtils.executeBatch(db, SQL_INSERT_USER, users, new SqlUtils.StatementBinder<ReaderUser>() {
+                @Override
+                public void bind(SQLiteStatement stmt, ReaderUser user) {
+                    stmt.bindLong  (1, user.userId);
+                    stmt.bindLong  (2, user.blogId);
+                    stmt.bindString(3, user.getUserName());
+                    stmt.bindString(4, user.getDisplayName());
+                    stmt.bindString(5, user.getUrl());
+                    stmt.bindString(6, user.getProfileUrl());
+                    stmt.bindString(7, user.getAvatarUrl());
+                }
+            });
             db.setTransactionSuccessful();
-
         } finally {
             db.endTransaction();
-            SqlUtils.closeStatement(stmt);
         }
     }
 
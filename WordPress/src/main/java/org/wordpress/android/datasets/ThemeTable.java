@@ -5,13 +5,22 @@ import android.database.Cursor;
 import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
+import android.text.TextUtils;
 
 import org.wordpress.android.models.Theme;
+import org.wordpress.android.util.SqlUtils;
+
+import java.util.Collections;
+import java.util.List;
 
 public class ThemeTable {
     private static final String COLUMN_NAME_ID = "_id";
     private static final String THEMES_TABLE = "themes";
+    private static final String THEMES_SEARCH_TABLE = "themes_search";
     private static final String DROP_TABLE_PREFIX = "DROP TABLE IF EXISTS ";
+    // searches use at most this many terms from the search query
+    private static final int MAX_SEARCH_TERMS = 8;
     private static final String CREATE_TABLE_THEMES = "create table if not exists themes ("
             + COLUMN_NAME_ID + " integer primary key autoincrement, "
             + Theme.ID + " text, "
@@ -30,37 +39,131 @@ public class ThemeTable {
     }
 
     public static void resetTables(SQLiteDatabase db) {
+        // cached statements may refer to the tables which are about to be dropped
+        SqlUtils.clearStatementCache(db);
         db.execSQL(DROP_TABLE_PREFIX + THEMES_TABLE);
+        db.execSQL(DROP_TABLE_PREFIX + THEMES_SEARCH_TABLE);
         db.execSQL(CREATE_TABLE_THEMES);
     }
 
+    /*
+     * creates the index used to look up a blog's themes and the full-text index of theme names and
+     * authors used when searching. the full-text index is kept in sync with the themes table by
+     * triggers, and is rebuilt here in case it was created after the themes were stored
+     */
+    public static void createSearchIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_themes_blog_id ON " + THEMES_TABLE
+                + "(" + Theme.BLOG_ID + ", " + Theme.ID + ")");
+
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS " + THEMES_SEARCH_TABLE + " USING fts4("
+                + Theme.NAME + ", " + Theme.AUTHOR + ")");
+
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS themes_search_insert AFTER INSERT ON " + THEMES_TABLE
+                + " BEGIN"
+                + " INSERT INTO " + THEMES_SEARCH_TABLE + " (docid, " + Theme.NAME + ", " + Theme.AUTHOR + ")"
+                + " VALUES (new." + COLUMN_NAME_ID + ", new." + Theme.NAME + ", new." + Theme.AUTHOR + ");"
+                + " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS themes_search_update AFTER UPDATE OF "
+                + Theme.NAME + ", " + Theme.AUTHOR + " ON " + THEMES_TABLE
+                + " BEGIN"
+                + " DELETE FROM " + THEMES_SEARCH_TABLE + " WHERE docid=old." + COLUMN_NAME_ID + ";"
+                + " INSERT INTO " + THEMES_SEARCH_TABLE + " (docid, " + Theme.NAME + ", " + Theme.AUTHOR + ")"
+                + " VALUES (new." + COLUMN_NAME_ID + ", new." + Theme.NAME + ", new." + Theme.AUTHOR + ");"
+                + " END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS themes_search_delete AFTER DELETE ON " + THEMES_TABLE
+                + " BEGIN"
+                + " DELETE FROM " + THEMES_SEARCH_TABLE + " WHERE docid=old." + COLUMN_NAME_ID + ";"
+                + " END");
+
+        db.execSQL("DELETE FROM " + THEMES_SEARCH_TABLE);
+        db.execSQL("INSERT INTO " + THEMES_SEARCH_TABLE + " (docid, " + Theme.NAME + ", " + Theme.AUTHOR + ")"
+                + " SELECT " + COLUMN_NAME_ID + ", " + Theme.NAME + ", " + Theme.AUTHOR + " FROM " + THEMES_TABLE);
+    }
+
+    private static final String SQL_UPDATE_THEME = "UPDATE " + THEMES_TABLE + " SET "
+            + Theme.AUTHOR + "=?1, "
+            + Theme.SCREENSHOT + "=?2, "
+            + Theme.AUTHOR_URI + "=?3, "
+            + Theme.DEMO_URI + "=?4, "
+            + Theme.NAME + "=?5, "
+            + Theme.STYLESHEET + "=?6, "
+            + Theme.PRICE + "=?7, "
+            + Theme.IS_CURRENT + "=?8"
+            + " WHERE " + Theme.BLOG_ID + "=?9 AND " + Theme.ID + "=?10";
+    private static final String SQL_INSERT_THEME = "INSERT INTO " + THEMES_TABLE + " ("
+            + Theme.AUTHOR + ", "
+            + Theme.SCREENSHOT + ", "
+            + Theme.AUTHOR_URI + ", "
+            + Theme.DEMO_URI + ", "
+            + Theme.NAME + ", "
+            + Theme.STYLESHEET + ", "
+            + Theme.PRICE + ", "
+            + Theme.IS_CURRENT + ", "
+            + Theme.BLOG_ID + ", "
+            + Theme.ID + ") VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10)";
+
     private static final Object mSyncObject = new Object();
     public static boolean saveTheme(SQLiteDatabase db, Theme theme) {
-        boolean returnValue = false;
+        return saveThemes(db, Collections.singletonList(theme)) > 0;
+    }
 
-        ContentValues values = new ContentValues();
-        values.put(Theme.ID, theme.getId());
-        values.put(Theme.AUTHOR, theme.getAuthor());
-        values.put(Theme.SCREENSHOT, theme.getScreenshot());
-        values.put(Theme.AUTHOR_URI, theme.getAuthorURI());
-        values.put(Theme.DEMO_URI, theme.getDemoURI());
-        values.put(Theme.NAME, theme.getName());
-        values.put(Theme.STYLESHEET, theme.getStylesheet());
-        values.put(Theme.PRICE, theme.getPrice());
-        values.put(Theme.BLOG_ID, theme.getBlogId());
-        values.put(Theme.IS_CURRENT, theme.getIsCurrent() ? 1 : 0);
+    /*
+     * adds or updates the passed themes in a single transaction using compiled statements - themes
+     * are matched by blog and theme id. returns the number of themes saved
+     */
+    public static int saveThemes(SQLiteDatabase db, List<Theme> themes) {
+        if (themes == null || themes.isEmpty()) {
+            return 0;
+        }
 
+        int numSaved = 0;
         synchronized (mSyncObject) {
-            int result = db.update(
-                    THEMES_TABLE,
-                    values,
-                    Theme.ID + "=?",
-                    new String[]{theme.getId()});
-            if (result == 0)
-                returnValue = db.insert(THEMES_TABLE, null, values) > 0;
+            SQLiteStatement stmtUpdate = SqlUtils.acquireStatement(db, SQL_UPDATE_THEME);
+            SQLiteStatement stmtInsert = SqlUtils.acquireStatement(db, SQL_INSERT_THEME);
+            db.beginTransaction();
+            try {
+                for (Theme theme : themes) {
+                    bindTheme(stmtUpdate, theme);
+                    if (stmtUpdate.executeUpdateDelete() > 0) {
+                        numSaved++;
+                    } else {
+                        bindTheme(stmtInsert, theme);
+                        if (stmtInsert.executeInsert() > 0) {
+                            numSaved++;
+                        }
+                    }
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+                SqlUtils.releaseStatement(db, SQL_UPDATE_THEME, stmtUpdate);
+                SqlUtils.releaseStatement(db, SQL_INSERT_THEME, stmtInsert);
+            }
         }
 
-        return (returnValue);
+        return numSaved;
+    }
+
+    // both statements take the same parameters
+    private static void bindTheme(SQLiteStatement stmt, Theme theme) {
+        bindString(stmt, 1, theme.getAuthor());
+        bindString(stmt, 2, theme.getScreenshot());
+        bindString(stmt, 3, theme.getAuthorURI());
+        bindString(stmt, 4, theme.getDemoURI());
+        bindString(stmt, 5, theme.getName());
+        bindString(stmt, 6, theme.getStylesheet());
+        bindString(stmt, 7, theme.getPrice());
+        stmt.bindLong(8, theme.getIsCurrent() ? 1 : 0);
+        bindString(stmt, 9, theme.getBlogId());
+        bindString(stmt, 10, theme.getId());
+    }
+
+    private static void bindString(SQLiteStatement stmt, int index, String value) {
+        if (value != null) {
+            stmt.bindString(index, value);
+        } else {
+            stmt.bindNull(index);
+        }
     }
 
     public static Cursor getThemesAll(SQLiteDatabase db, String blogId) {
@@ -111,11 +214,22 @@ public class ThemeTable {
         return getThemesAll(db, blogId).getCount();
     }
 
+    /*
+     * returns the blog's themes whose name or author contains words starting with the words in the
+     * passed search term, using the full-text index
+     */
     public static Cursor getThemes(SQLiteDatabase db, String blogId, String searchTerm) {
+        String match = SqlUtils.getFtsMatchExpression(searchTerm, MAX_SEARCH_TERMS);
+        if (TextUtils.isEmpty(match)) {
+            return getThemesAll(db, blogId);
+        }
+
         String[] columns = {COLUMN_NAME_ID, Theme.ID, Theme.NAME, Theme.SCREENSHOT, Theme.PRICE, Theme.IS_CURRENT};
-        String[] selection = {blogId, "%" + searchTerm + "%"};
+        String[] selection = {blogId, match};
+        String where = Theme.BLOG_ID + "=? AND " + COLUMN_NAME_ID + " IN (SELECT docid FROM " + THEMES_SEARCH_TABLE
+                + " WHERE " + THEMES_SEARCH_TABLE + " MATCH ?)";
 
-        return db.query(THEMES_TABLE, columns, Theme.BLOG_ID + "=? AND " + Theme.NAME + " LIKE ?", selection, null, null, null);
+        return db.query(THEMES_TABLE, columns, where, selection, null, null, null);
     }
 
     public static Theme getTheme(SQLiteDatabase db, String blogId, String themeId) {
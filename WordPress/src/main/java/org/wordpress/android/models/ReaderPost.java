@@ -606,16 +606,24 @@ public class ReaderPost {
      * retrieved to determine which ones are new/changed/unchanged
      */
     public boolean isSamePost(ReaderPost post) {
+        return hasSameContent(post)
+                && post.numLikes == this.numLikes
+                && post.numReplies == this.numReplies
+                && post.isFollowedByCurrentUser == this.isFollowedByCurrentUser
+                && post.isLikedByCurrentUser == this.isLikedByCurrentUser
+                && post.isCommentsOpen == this.isCommentsOpen;
+    }
+
+    /*
+     * same as isSamePost() but ignores like & comment counts and like & follow status - used to
+     * determine whether only those have changed
+     */
+    public boolean hasSameContent(ReaderPost post) {
         return post != null
                 && post.blogId == this.blogId
                 && post.postId == this.postId
                 && post.feedId == this.feedId
                 && post.feedItemId == this.feedItemId
-                && post.numLikes == this.numLikes
-                && post.numReplies == this.numReplies
-                && post.isFollowedByCurrentUser == this.isFollowedByCurrentUser
-                && post.isLikedByCurrentUser == this.isLikedByCurrentUser
-                && post.isCommentsOpen == this.isCommentsOpen
                 && post.getTitle().equals(this.getTitle())
                 && post.getExcerpt().equals(this.getExcerpt())
                 && post.getText().equals(this.getText());
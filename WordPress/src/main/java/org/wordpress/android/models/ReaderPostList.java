@@ -75,6 +75,24 @@ public class ReaderPostList extends ArrayList<ReaderPost> {
         return true;
     }
 
+    /*
+     * returns true if the passed list starts with the same posts as this list, in the same order,
+     * and has more posts after them - ie: it's this list with older posts appended
+     */
+    public boolean isStartOf(ReaderPostList posts) {
+        if (posts == null || posts.size() <= this.size() || this.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < this.size(); i++) {
+            if (!this.get(i).isSamePost(posts.get(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     /*
      * returns posts in this list which are in the passed blog
      */
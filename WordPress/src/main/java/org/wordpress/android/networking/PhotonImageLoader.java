@@ -0,0 +1,326 @@
+package org.wordpress.android.networking;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.net.http.HttpResponseCache;
+import android.os.StatFs;
+import android.support.annotation.NonNull;
+import android.text.TextUtils;
+import android.widget.ImageView.ScaleType;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.DiskBasedCache;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.android.volley.toolbox.HurlStack;
+import com.android.volley.toolbox.ImageLoader;
+import com.android.volley.toolbox.ImageRequest;
+
+import org.wordpress.android.WordPress;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.PhotonUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ImageLoader for public images served by Photon or Gravatar. These use their own request queue
+ * backed by a dedicated disk cache rather than the small HttpResponseCache shared by REST requests,
+ * so a screen full of images no longer evicts cached API responses (and vice versa). Entries in the
+ * disk cache are keyed by the normalized image url, so the same image requested through different
+ * Photon hosts is only stored once.
+ *
+ * Images which may require authentication (private blogs, self-hosted sites using HTTP auth) must
+ * continue to use WordPress.sImageLoader - use WordPress.getImageLoader(url) to pick the right one.
+ */
+public class PhotonImageLoader extends ImageLoader {
+    private static final String DISK_CACHE_DIR = "images";
+
+    // the disk cache uses 10% of the free space available to the cache dir, within these limits
+    private static final long MIN_DISK_CACHE_SIZE = 20 * 1024 * 1024;  // 20MB
+    private static final long MAX_DISK_CACHE_SIZE = 250 * 1024 * 1024; // 250MB
+    private static final int DISK_CACHE_PERCENT = 10;
+
+    private static final int NUM_NETWORK_THREADS = 4;
+
+    private final RequestQueue mRequestQueue;
+    private final ImageDiskCache mDiskCache;
+
+    public PhotonImageLoader(Context context, ImageCache imageCache) {
+        this(context, imageCache, getDefaultDiskCacheSize(context));
+    }
+
+    public PhotonImageLoader(Context context, ImageCache imageCache, int diskCacheSizeBytes) {
+        this(createDiskCache(context, diskCacheSizeBytes), imageCache);
+    }
+
+    private PhotonImageLoader(ImageDiskCache diskCache, ImageCache imageCache) {
+        this(diskCache, new RequestQueue(diskCache, new BasicNetwork(new UncachedHurlStack()), NUM_NETWORK_THREADS),
+                imageCache);
+    }
+
+    private PhotonImageLoader(ImageDiskCache diskCache, RequestQueue requestQueue, ImageCache imageCache) {
+        super(requestQueue, imageCache);
+        mDiskCache = diskCache;
+        mRequestQueue = requestQueue;
+        mRequestQueue.start();
+    }
+
+    private static ImageDiskCache createDiskCache(Context context, int maxSizeBytes) {
+        return new ImageDiskCache(new File(context.getCacheDir(), DISK_CACHE_DIR), maxSizeBytes);
+    }
+
+    /*
+     * returns true if the passed url can be loaded by this loader - only public image hosts which
+     * never require authentication are supported
+     */
+    public static boolean canLoad(String imageUrl) {
+        if (TextUtils.isEmpty(imageUrl)) {
+            return false;
+        }
+        if (PhotonUtils.isPhotonUrl(imageUrl)) {
+            return true;
+        }
+        String host = Uri.parse(imageUrl).getHost();
+        if (host == null) {
+            return false;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        return host.equals("gravatar.com") || host.endsWith(".gravatar.com");
+    }
+
+    @SuppressWarnings("deprecation")
+    private static int getDefaultDiskCacheSize(Context context) {
+        long size;
+        try {
+            StatFs statFs = new StatFs(context.getCacheDir().getAbsolutePath());
+            long available = (long) statFs.getAvailableBlocks() * (long) statFs.getBlockSize();
+            size = available * DISK_CACHE_PERCENT / 100;
+        } catch (IllegalArgumentException e) {
+            size = MIN_DISK_CACHE_SIZE;
+        }
+        return (int) Math.max(MIN_DISK_CACHE_SIZE, Math.min(size, MAX_DISK_CACHE_SIZE));
+    }
+
+    public RequestQueue getRequestQueue() {
+        return mRequestQueue;
+    }
+
+    public void clearDiskCache() {
+        mRequestQueue.getCache().clear();
+        mDiskCache.resetStats();
+    }
+
+    /*
+     * downloads the passed image into the disk cache at low priority without decoding it, so it
+     * can be shown without a network request when it's needed - does nothing if the image is
+     * already cached or can't be loaded by this loader
+     */
+    public void prefetch(String imageUrl) {
+        if (canLoad(imageUrl)) {
+            mRequestQueue.add(new PrefetchRequest(imageUrl));
+        }
+    }
+
+    @Override
+    protected Request<Bitmap> makeImageRequest(String requestUrl, int maxWidth, int maxHeight,
+                                               ScaleType scaleType, final String cacheKey) {
+        return new PhotonImageRequest(requestUrl, new Response.Listener<Bitmap>() {
+            @Override
+            public void onResponse(Bitmap response) {
+                onGetImageSuccess(cacheKey, response);
+            }
+        }, maxWidth, maxHeight, scaleType, new Response.ErrorListener() {
+            @Override
+            public void onErrorResponse(VolleyError error) {
+                onGetImageError(cacheKey, error);
+            }
+        });
+    }
+
+    /*
+     * image request whose disk cache key is the normalized Photon url, and which records the bytes
+     * we didn't have to download when the server tells us our cached copy is still valid
+     */
+    private class PhotonImageRequest extends ImageRequest {
+        PhotonImageRequest(String url, Response.Listener<Bitmap> listener, int maxWidth, int maxHeight,
+                           ScaleType scaleType, Response.ErrorListener errorListener) {
+            super(url, listener, maxWidth, maxHeight, scaleType, Bitmap.Config.RGB_565, errorListener);
+        }
+
+        @Override
+        public String getCacheKey() {
+            return PhotonUtils.getNormalizedPhotonUrl(getUrl());
+        }
+
+        @Override
+        public Map<String, String> getHeaders() throws AuthFailureError {
+            Map<String, String> headers = new HashMap<>();
+            headers.put("User-Agent", WordPress.getUserAgent());
+            return headers;
+        }
+
+        @Override
+        protected Response<Bitmap> parseNetworkResponse(NetworkResponse response) {
+            if (response.notModified && response.data != null) {
+                mDiskCache.recordRevalidation(response.data.length);
+            }
+            return super.parseNetworkResponse(response);
+        }
+    }
+
+    private static class PrefetchRequest extends Request<Void> {
+        PrefetchRequest(String url) {
+            super(Method.GET, url, null);
+        }
+
+        @Override
+        public Priority getPriority() {
+            return Priority.LOW;
+        }
+
+        @Override
+        public String getCacheKey() {
+            return PhotonUtils.getNormalizedPhotonUrl(getUrl());
+        }
+
+        @Override
+        public Map<String, String> getHeaders() throws AuthFailureError {
+            Map<String, String> headers = new HashMap<>();
+            headers.put("User-Agent", WordPress.getUserAgent());
+            return headers;
+        }
+
+        @Override
+        protected Response<Void> parseNetworkResponse(NetworkResponse response) {
+            // the response is written to the disk cache by the request queue
+            return Response.success(null, HttpHeaderParser.parseCacheHeaders(response));
+        }
+
+        @Override
+        protected void deliverResponse(Void response) {
+            // nothing to deliver
+        }
+    }
+
+    /*
+     * disables HttpURLConnection's own caching for image requests, otherwise every image would
+     * also be written to (and evict REST responses from) the installed HttpResponseCache
+     */
+    private static class UncachedHurlStack extends HurlStack {
+        @Override
+        protected HttpURLConnection createConnection(URL url) throws IOException {
+            HttpURLConnection connection = super.createConnection(url);
+            connection.setUseCaches(false);
+            return connection;
+        }
+    }
+
+    public CacheStats getStats() {
+        return mDiskCache.getStats();
+    }
+
+    public static class CacheStats {
+        public final long numHits;
+        public final long numMisses;
+        public final long numRevalidated;
+        public final long bytesSaved;
+
+        CacheStats(long numHits, long numMisses, long numRevalidated, long bytesSaved) {
+            this.numHits = numHits;
+            this.numMisses = numMisses;
+            this.numRevalidated = numRevalidated;
+            this.bytesSaved = bytesSaved;
+        }
+
+        /*
+         * returns the ratio of requests served from the disk cache (including those revalidated
+         * with the server) to total requests, or zero if nothing has been requested yet
+         */
+        public double getHitRatio() {
+            long total = numHits + numMisses;
+            return total > 0 ? (double) (numHits + numRevalidated) / (double) total : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "hits %d, misses %d, revalidated %d, hit ratio %.2f, %d KB saved",
+                    numHits, numMisses, numRevalidated, getHitRatio(), bytesSaved / 1024);
+        }
+    }
+
+    /*
+     * Volley's LRU disk cache with hit/miss accounting - a "hit" is an entry which can be used
+     * without contacting the server, a "miss" is either a missing or stale entry (stale entries
+     * are revalidated by Volley using ETag/If-Modified-Since, which is tracked separately)
+     */
+    private static class ImageDiskCache extends DiskBasedCache {
+        private final AtomicLong mNumHits = new AtomicLong();
+        private final AtomicLong mNumMisses = new AtomicLong();
+        private final AtomicLong mNumRevalidated = new AtomicLong();
+        private final AtomicLong mBytesSaved = new AtomicLong();
+
+        ImageDiskCache(File rootDirectory, int maxCacheSizeInBytes) {
+            super(rootDirectory, maxCacheSizeInBytes);
+        }
+
+        @Override
+        public synchronized Entry get(String key) {
+            Entry entry = super.get(key);
+            if (entry != null && entry.data != null && !entry.isExpired()) {
+                mNumHits.incrementAndGet();
+                mBytesSaved.addAndGet(entry.data.length);
+            } else {
+                mNumMisses.incrementAndGet();
+            }
+            return entry;
+        }
+
+        void recordRevalidation(int numBytes) {
+            mNumRevalidated.incrementAndGet();
+            mBytesSaved.addAndGet(numBytes);
+        }
+
+        void resetStats() {
+            mNumHits.set(0);
+            mNumMisses.set(0);
+            mNumRevalidated.set(0);
+            mBytesSaved.set(0);
+        }
+
+        @NonNull CacheStats getStats() {
+            return new CacheStats(mNumHits.get(), mNumMisses.get(), mNumRevalidated.get(), mBytesSaved.get());
+        }
+    }
+
+    /*
+     * logs the image cache stats along with those of the HttpResponseCache used by REST requests
+     */
+    public void logStats() {
+        AppLog.i(T.UTILS, "image disk cache > " + getStats());
+
+        HttpResponseCache httpCache = HttpResponseCache.getInstalled();
+        if (httpCache != null) {
+            int numRequests = httpCache.getRequestCount();
+            int numHits = httpCache.getHitCount();
+            AppLog.i(T.UTILS, String.format(Locale.US,
+                    "http response cache > requests %d, hits %d, network %d, hit ratio %.2f, size %d KB of %d KB",
+                    numRequests, numHits, httpCache.getNetworkCount(),
+                    numRequests > 0 ? (double) numHits / (double) numRequests : 0,
+                    httpCache.size() / 1024, httpCache.maxSize() / 1024));
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package org.wordpress.android.networking;
+
+import android.content.SharedPreferences;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+import android.util.Base64;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * uploads a file in chunks using the tus resumable upload protocol (https://tus.io/protocols/resumable-upload.html).
+ * the upload's url is persisted along with the last acknowledged offset, so an upload which is interrupted -
+ * by a dropped connection or by the app being killed - continues from its last acknowledged chunk rather than
+ * starting over. servers which don't support the protocol fail the upload with a NotSupportedException so the
+ * caller can fall back to a single-shot upload
+ */
+public class ResumableUpload {
+    public static final int CHUNK_SIZE = 1024 * 1024;
+
+    private static final String TUS_VERSION = "1.0.0";
+    private static final MediaType OFFSET_CONTENT_TYPE = MediaType.parse("application/offset+octet-stream");
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String PREF_URL = "_url";
+    private static final String PREF_FINGERPRINT = "_fingerprint";
+    private static final String PREF_OFFSET = "_offset";
+
+    public interface ProgressListener {
+        void onProgress(long uploadedBytes, long totalBytes);
+    }
+
+    /*
+     * the server doesn't support resumable uploads at the requested endpoint
+     */
+    public static class NotSupportedException extends Exception {
+        NotSupportedException(String message) {
+            super(message);
+        }
+    }
+
+    /*
+     * the server rejected the upload - unlike an IOException, retrying won't help
+     */
+    public static class UploadFailedException extends Exception {
+        public final int statusCode;
+
+        UploadFailedException(int statusCode, String message) {
+            super(message);
+            this.statusCode = statusCode;
+        }
+    }
+
+    private final OkHttpClient mClient;
+    private final SharedPreferences mPrefs;
+    private final String mKey;
+    private final String mEndpoint;
+    private final File mFile;
+    private final Map<String, String> mMetadata;
+
+    private volatile Call mCurrentCall;
+    private volatile boolean mIsCanceled;
+
+    /*
+     * key identifies the upload in the passed prefs, metadata is sent to the server when the upload is created
+     */
+    public ResumableUpload(@NonNull OkHttpClient client, @NonNull SharedPreferences prefs, @NonNull String key,
+                           @NonNull String endpoint, @NonNull File file, @NonNull Map<String, String> metadata) {
+        mClient = client;
+        mPrefs = prefs;
+        mKey = key;
+        mEndpoint = endpoint;
+        mFile = file;
+        mMetadata = metadata;
+    }
+
+    /*
+     * uploads whatever's left of the file and returns the body of the server's response to the last chunk.
+     * an IOException means the upload was interrupted and can be resumed by calling this again
+     */
+    public String upload(@Nullable ProgressListener listener)
+            throws IOException, NotSupportedException, UploadFailedException {
+        long totalBytes = mFile.length();
+        String uploadUrl = mPrefs.getString(mKey + PREF_URL, null);
+        long offset = -1;
+
+        // resume the saved upload if it's for this version of the file and the server still has it
+        if (uploadUrl != null && getFingerprint(mFile).equals(mPrefs.getString(mKey + PREF_FINGERPRINT, null))) {
+            offset = fetchOffset(uploadUrl);
+            if (offset >= 0) {
+                AppLog.i(T.MEDIA, "ResumableUpload > Resuming " + mKey + " at " + offset + " of " + totalBytes);
+            }
+        }
+        if (offset < 0) {
+            uploadUrl = create(totalBytes);
+            offset = 0;
+            mPrefs.edit()
+                  .putString(mKey + PREF_URL, uploadUrl)
+                  .putString(mKey + PREF_FINGERPRINT, getFingerprint(mFile))
+                  .putLong(mKey + PREF_OFFSET, 0)
+                  .apply();
+        }
+
+        while (true) {
+            long chunkLength = Math.min(CHUNK_SIZE, totalBytes - offset);
+            Request request = newRequestBuilder(uploadUrl)
+                    .header("Upload-Offset", Long.toString(offset))
+                    .patch(new StreamingRequest(mFile, OFFSET_CONTENT_TYPE, offset, chunkLength))
+                    .build();
+            Response response = execute(request);
+            String body;
+            try {
+                if (!response.isSuccessful()) {
+                    throw new UploadFailedException(response.code(), "Chunk at " + offset + " was rejected");
+                }
+                body = response.body().string();
+            } finally {
+                response.close();
+            }
+
+            long ackedOffset = parseOffset(response);
+            if (ackedOffset <= offset) {
+                throw new UploadFailedException(response.code(), "Chunk at " + offset + " wasn't acknowledged");
+            }
+            offset = ackedOffset;
+            mPrefs.edit().putLong(mKey + PREF_OFFSET, offset).apply();
+            if (listener != null) {
+                listener.onProgress(offset, totalBytes);
+            }
+
+            if (offset >= totalBytes) {
+                clearSession(mPrefs, mKey);
+                return body;
+            }
+        }
+    }
+
+    /*
+     * stops the upload in progress - the server's copy is kept so the upload can still be resumed
+     */
+    public void cancel() {
+        mIsCanceled = true;
+        Call call = mCurrentCall;
+        if (call != null) {
+            call.cancel();
+        }
+    }
+
+    public boolean isCanceled() {
+        return mIsCanceled;
+    }
+
+    /*
+     * returns the last offset the server acknowledged for the saved upload with the passed key, or -1 if
+     * there's no saved upload
+     */
+    public static long getSavedOffset(@NonNull SharedPreferences prefs, @NonNull String key) {
+        if (!prefs.contains(key + PREF_URL)) {
+            return -1;
+        }
+        return prefs.getLong(key + PREF_OFFSET, 0);
+    }
+
+    /*
+     * forgets the saved upload with the passed key, so the next upload starts from zero
+     */
+    public static void clearSession(@NonNull SharedPreferences prefs, @NonNull String key) {
+        prefs.edit()
+             .remove(key + PREF_URL)
+             .remove(key + PREF_FINGERPRINT)
+             .remove(key + PREF_OFFSET)
+             .apply();
+    }
+
+    private String create(long totalBytes) throws IOException, NotSupportedException, UploadFailedException {
+        Request.Builder builder = newRequestBuilder(mEndpoint)
+                .header("Upload-Length", Long.toString(totalBytes))
+                .post(RequestBody.create(null, new byte[0]));
+        String metadata = encodeMetadata(mMetadata);
+        if (!metadata.isEmpty()) {
+            builder.header("Upload-Metadata", metadata);
+        }
+        Response response = execute(builder.build());
+        try {
+            if (isNotSupported(response)) {
+                throw new NotSupportedException("Server returned " + response.code() + " for " + mEndpoint);
+            }
+            if (!response.isSuccessful()) {
+                throw new UploadFailedException(response.code(), "Unable to create upload");
+            }
+            String location = response.header("Location");
+            HttpUrl uploadUrl = location != null ? response.request().url().resolve(location) : null;
+            if (uploadUrl == null) {
+                throw new UploadFailedException(response.code(), "Server didn't return the upload's location");
+            }
+            return uploadUrl.toString();
+        } finally {
+            response.close();
+        }
+    }
+
+    /*
+     * asks the server how much of the upload it has, returns -1 if it no longer has the upload
+     */
+    private long fetchOffset(@NonNull String uploadUrl) throws IOException, UploadFailedException {
+        Request request = newRequestBuilder(uploadUrl).head().build();
+        Response response = execute(request);
+        try {
+            if (response.code() == 404 || response.code() == 410) {
+                return -1;
+            }
+            if (!response.isSuccessful()) {
+                throw new UploadFailedException(response.code(), "Unable to get the upload's offset");
+            }
+            return parseOffset(response);
+        } finally {
+            response.close();
+        }
+    }
+
+    private Response execute(@NonNull Request request) throws IOException {
+        if (mIsCanceled) {
+            throw new IOException("Canceled");
+        }
+        Call call = mClient.newCall(request);
+        mCurrentCall = call;
+        try {
+            return call.execute();
+        } finally {
+            mCurrentCall = null;
+        }
+    }
+
+    private static Request.Builder newRequestBuilder(@NonNull String url) {
+        return new Request.Builder()
+                .url(url)
+                .header("Tus-Resumable", TUS_VERSION);
+    }
+
+    private static boolean isNotSupported(@NonNull Response response) {
+        int code = response.code();
+        return code == 404 || code == 405 || code == 501 || response.header("Tus-Resumable") == null;
+    }
+
+    private static long parseOffset(@NonNull Response response) throws UploadFailedException {
+        try {
+            return Long.parseLong(response.header("Upload-Offset"));
+        } catch (NumberFormatException e) {
+            throw new UploadFailedException(response.code(), "Invalid upload offset");
+        }
+    }
+
+    /*
+     * a saved upload is only resumed for the same version of the same file
+     */
+    static String getFingerprint(@NonNull File file) {
+        return file.getPath() + ":" + file.length() + ":" + file.lastModified();
+    }
+
+    static String encodeMetadata(@NonNull Map<String, String> metadata) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            if (TextUtils.isEmpty(entry.getValue())) {
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(entry.getKey()).append(' ').append(
+                    Base64.encodeToString(entry.getValue().getBytes(UTF_8), Base64.NO_WRAP));
+        }
+        return builder.toString();
+    }
+}
@@ -1,36 +1,67 @@
 package org.wordpress.android.networking;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.internal.Util;
+import okio.Buffer;
 import okio.BufferedSink;
 import okio.Okio;
 import okio.Source;
 
 public class StreamingRequest extends RequestBody {
-    public static final int CHUNK_SIZE = 2048;
+    // flushing after every chunk means small chunks add a lot of overhead to large uploads
+    public static final int CHUNK_SIZE = 64 * 1024;
 
     private final File mFile;
+    private final MediaType mContentType;
+    private final long mOffset;
+    private final long mLength;
 
     public StreamingRequest(File file) {
+        this(file, MediaType.parse("multipart/form-data"), 0, file.length());
+    }
+
+    /*
+     * streams only the given range of the file - used to send one chunk of a resumable upload
+     */
+    public StreamingRequest(File file, MediaType contentType, long offset, long length) {
         mFile = file;
+        mContentType = contentType;
+        mOffset = offset;
+        mLength = length;
     }
 
     @Override
     public MediaType contentType() {
-        return MediaType.parse("multipart/form-data");
+        return mContentType;
+    }
+
+    @Override
+    public long contentLength() {
+        // a known length lets the request be sent with a content length rather than chunked encoding
+        return mLength;
     }
 
     @Override
     public void writeTo(BufferedSink sink) throws IOException {
         Source source = null;
         try {
-            source = Okio.source(mFile);
+            FileInputStream inputStream = new FileInputStream(mFile);
+            source = Okio.source(inputStream);
+            inputStream.getChannel().position(mOffset);
 
-            while (source.read(sink.buffer(), CHUNK_SIZE) != -1) {
+            Buffer buffer = sink.buffer();
+            long remaining = mLength;
+            while (remaining > 0) {
+                long read = source.read(buffer, Math.min(CHUNK_SIZE, remaining));
+                if (read == -1) {
+                    throw new IOException("File ended before the end of the requested range");
+                }
+                remaining -= read;
                 sink.flush();
             }
         } finally {
@@ -38,4 +69,3 @@ public class StreamingRequest extends RequestBody {
         }
     }
 };
-
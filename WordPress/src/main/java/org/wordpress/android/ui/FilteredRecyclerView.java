@@ -483,6 +483,20 @@ public class FilteredRecyclerView extends RelativeLayout {
         return (child != null && mRecyclerView.getLayoutManager().getPosition(child) == 0);
     }
 
+    /*
+     * returns true if the last item is visible in the RecyclerView, or if the list is empty
+     */
+    public boolean isLastItemVisible() {
+        if (mRecyclerView == null
+                || mRecyclerView.getLayoutManager() == null) {
+            return false;
+        }
+
+        RecyclerView.LayoutManager layoutManager = mRecyclerView.getLayoutManager();
+        View child = layoutManager.getChildAt(layoutManager.getChildCount() - 1);
+        return (child == null || layoutManager.getPosition(child) == layoutManager.getItemCount() - 1);
+    }
+
 
     /**
      * implement this interface to use FilterRecyclerView
@@ -59,6 +59,7 @@ import org.wordpress.android.ui.prefs.AppSettingsFragment;
 import org.wordpress.android.ui.prefs.SiteSettingsFragment;
 import org.wordpress.android.ui.reader.ReaderPostListFragment;
 import org.wordpress.android.ui.reader.ReaderPostPagerActivity;
+import org.wordpress.android.ui.reader.actions.ReaderActionQueue;
 import org.wordpress.android.util.AnalyticsUtils;
 import org.wordpress.android.util.AniUtils;
 import org.wordpress.android.util.AppLog;
@@ -710,6 +711,9 @@ public class WPMainActivity extends AppCompatActivity {
     @SuppressWarnings("unused")
     public void onEventMainThread(ConnectionChangeReceiver.ConnectionChangeEvent event) {
         updateConnectionBar(event.isConnected());
+        if (event.isConnected()) {
+            ReaderActionQueue.flush();
+        }
     }
 
     private void checkConnection() {
@@ -4,9 +4,10 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Color;
 import android.graphics.PorterDuff;
-import android.os.AsyncTask;
 import android.os.Handler;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
@@ -24,6 +25,7 @@ import org.wordpress.android.fluxc.model.MediaModel.MediaUploadState;
 import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.util.AniUtils;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.DisplayUtils;
 import org.wordpress.android.util.ImageUtils.BitmapWorkerCallback;
 import org.wordpress.android.util.ImageUtils.BitmapWorkerTask;
@@ -35,7 +37,9 @@ import org.wordpress.android.util.WPMediaUtils;
 import org.wordpress.android.widgets.WPNetworkImageView;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.RejectedExecutionException;
 
 /**
@@ -59,6 +63,14 @@ public class MediaGridAdapter extends RecyclerView.Adapter<MediaGridAdapter.Grid
     private final ArrayList<MediaModel> mMediaList = new ArrayList<>();
     private final ArrayList<Integer> mSelectedItems = new ArrayList<>();
 
+    // incremented whenever mMediaList changes, so a diff calculated in the background can be
+    // discarded if the list changed while it was being calculated
+    private int mListVersion;
+
+    // lists larger than this are replaced rather than diffed, since diffing very different large
+    // lists (ex: all media vs. a handful of search results) costs more than it saves
+    static final int MAX_DIFF_SIZE = 2000;
+
     private final int mThumbWidth;
     private final int mThumbHeight;
 
@@ -106,10 +118,66 @@ public class MediaGridAdapter extends RecyclerView.Adapter<MediaGridAdapter.Grid
         if (!isSameList(mediaList)) {
             mMediaList.clear();
             mMediaList.addAll(mediaList);
+            mListVersion++;
             notifyDataSetChanged();
         }
     }
 
+    /*
+     * replaces the list using a diff calculated by calculateDiff() against the list at baseVersion,
+     * falling back to a full reset if there's no diff or the list has changed since
+     */
+    void setMediaList(@NonNull List<MediaModel> mediaList, @Nullable DiffUtil.DiffResult diff, int baseVersion) {
+        if (diff == null || baseVersion != mListVersion) {
+            setMediaList(mediaList);
+            return;
+        }
+        mMediaList.clear();
+        mMediaList.addAll(mediaList);
+        mListVersion++;
+        diff.dispatchUpdatesTo(this);
+    }
+
+    int getListVersion() {
+        return mListVersion;
+    }
+
+    List<MediaModel> getMediaListCopy() {
+        return new ArrayList<>(mMediaList);
+    }
+
+    /*
+     * returns the changes which turn oldList into newList, or null if the lists are too large
+     * to diff - may be called from a background thread
+     */
+    static @Nullable DiffUtil.DiffResult calculateDiff(@NonNull final List<MediaModel> oldList,
+                                                       @NonNull final List<MediaModel> newList) {
+        if (oldList.size() > MAX_DIFF_SIZE || newList.size() > MAX_DIFF_SIZE) {
+            return null;
+        }
+        return DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldList.get(oldItemPosition).getId() == newList.get(newItemPosition).getId();
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldList.get(oldItemPosition).equals(newList.get(newItemPosition));
+            }
+        }, false);
+    }
+
     @Override
     public GridViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
         View view = mInflater.inflate(R.layout.media_grid_item, parent, false);
@@ -440,7 +508,7 @@ public class MediaGridAdapter extends RecyclerView.Adapter<MediaGridAdapter.Grid
                             }
                         });
                     }
-                }).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR, filePath);
+                }).executeOnExecutor(BackgroundExecutors.cpu(), filePath);
             } catch (RejectedExecutionException e) {
                 AppLog.e(AppLog.T.MEDIA, e);
             }
@@ -580,6 +648,7 @@ public class MediaGridAdapter extends RecyclerView.Adapter<MediaGridAdapter.Grid
         int index = indexOfMedia(media);
         if (index > -1 && (forceUpdate || !media.equals(mMediaList.get(index)))) {
             mMediaList.set(index, media);
+            mListVersion++;
             notifyItemChanged(index);
         }
     }
@@ -588,6 +657,7 @@ public class MediaGridAdapter extends RecyclerView.Adapter<MediaGridAdapter.Grid
         int index = indexOfMedia(media);
         if (index > -1) {
             mMediaList.remove(index);
+            mListVersion++;
             notifyItemRemoved(index);
         }
     }
@@ -613,8 +683,12 @@ public class MediaGridAdapter extends RecyclerView.Adapter<MediaGridAdapter.Grid
             return false;
         }
 
+        Set<Integer> ids = new HashSet<>(mMediaList.size());
+        for (MediaModel media : mMediaList) {
+            ids.add(media.getId());
+        }
         for (MediaModel otherMedia : otherList) {
-            if (!mediaExists(otherMedia)) {
+            if (!ids.contains(otherMedia.getId())) {
                 return false;
             }
         }
@@ -9,7 +9,9 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.v7.app.AppCompatActivity;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.view.ActionMode;
 import android.support.v7.widget.DefaultItemAnimator;
 import android.support.v7.widget.GridLayoutManager;
@@ -41,9 +43,11 @@ import org.wordpress.android.ui.EmptyViewMessageType;
 import org.wordpress.android.ui.media.MediaBrowserActivity.MediaBrowserType;
 import org.wordpress.android.ui.media.MediaGridAdapter.MediaGridAdapterCallback;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.ListUtils;
 import org.wordpress.android.util.NetworkUtils;
 import org.wordpress.android.util.ToastUtils;
+import org.wordpress.android.util.TraceUtils;
 import org.wordpress.android.util.WPMediaUtils;
 import org.wordpress.android.util.helpers.SwipeToRefreshHelper;
 import org.wordpress.android.util.helpers.SwipeToRefreshHelper.RefreshListener;
@@ -51,6 +55,8 @@ import org.wordpress.android.util.widgets.CustomSwipeRefreshLayout;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.inject.Inject;
 
@@ -146,6 +152,21 @@ public class MediaGridFragment extends Fragment implements MediaGridAdapterCallb
 
     private SiteModel mSite;
 
+    // the search is delayed until the user stops typing, so the store isn't queried on every keystroke
+    private static final long SEARCH_DELAY_MS = 250;
+
+    // media is queried on a single background lane - each load increments the generation, and
+    // a load whose generation is no longer current is abandoned so only the latest results are shown
+    private static final String QUERY_LANE = "media-grid-query";
+    private final AtomicInteger mLoadGeneration = new AtomicInteger();
+    private final Handler mHandler = new Handler();
+    private final Runnable mSearchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            loadMedia();
+        }
+    };
+
     public interface MediaGridListener {
         void onMediaItemSelected(View sourceView, int localMediaId);
         void onRetryUpload(int localMediaId);
@@ -192,6 +213,13 @@ public class MediaGridFragment extends Fragment implements MediaGridAdapterCallb
         super.onStop();
     }
 
+    @Override
+    public void onDestroy() {
+        mHandler.removeCallbacksAndMessages(null);
+        mLoadGeneration.incrementAndGet();
+        super.onDestroy();
+    }
+
     @Override
     public void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
@@ -306,9 +334,13 @@ public class MediaGridFragment extends Fragment implements MediaGridAdapterCallb
         }
     }
 
-    private List<MediaModel> getFilteredMedia() {
-        if (!TextUtils.isEmpty(mSearchTerm)) {
-            return mMediaStore.searchSiteMedia(mSite, mSearchTerm);
+    /*
+     * background - called from the query executor, so it relies on the passed search term and filter
+     * rather than the current ones
+     */
+    private List<MediaModel> getFilteredMedia(String searchTerm, MediaFilter filter) {
+        if (!TextUtils.isEmpty(searchTerm)) {
+            return mMediaStore.searchSiteMedia(mSite, searchTerm);
         }
 
         if (mBrowserType == MediaBrowserType.MULTI_SELECT_IMAGE_AND_VIDEO_PICKER) {
@@ -326,7 +358,7 @@ public class MediaGridFragment extends Fragment implements MediaGridAdapterCallb
         }
 
 
-        switch (mFilter) {
+        switch (filter) {
             case FILTER_IMAGES:
                 return mMediaStore.getSiteImages(mSite);
             case FILTER_DOCUMENTS:
@@ -340,6 +372,62 @@ public class MediaGridFragment extends Fragment implements MediaGridAdapterCallb
         }
     }
 
+    /*
+     * queries the local store for the current filter and search term on a background thread, then
+     * applies the changes to the adapter - small lists are diffed in the background so only the
+     * items which changed are rebound
+     */
+    private void loadMedia() {
+        loadMedia(null);
+    }
+
+    /*
+     * same as above, but runs the passed runnable on the main thread once the loaded media has been
+     * applied to the adapter - it isn't run if the load is superseded by a newer one
+     */
+    private void loadMedia(@Nullable final Runnable onLoaded) {
+        mHandler.removeCallbacks(mSearchRunnable);
+        if (!isAdded()) return;
+
+        final int generation = mLoadGeneration.incrementAndGet();
+        final String searchTerm = mSearchTerm;
+        final MediaFilter filter = mFilter;
+        final List<MediaModel> oldList = getAdapter().getMediaListCopy();
+        final int baseVersion = getAdapter().getListVersion();
+
+        BackgroundExecutors.serial(QUERY_LANE).execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mLoadGeneration.get()) return;
+
+                TraceUtils.Span span = TraceUtils.beginSpan("MediaGridFragment.loadMedia");
+                final List<MediaModel> mediaList;
+                final DiffUtil.DiffResult diff;
+                try {
+                    mediaList = getFilteredMedia(searchTerm, filter);
+                    if (generation != mLoadGeneration.get()) return;
+                    diff = MediaGridAdapter.calculateDiff(oldList, mediaList);
+                } finally {
+                    span.end();
+                }
+                AppLog.d(AppLog.T.MEDIA, String.format(Locale.US, "media grid > loaded %d items in %.1f ms",
+                        mediaList.size(), span.getDurationMs()));
+
+                mHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mLoadGeneration.get() || !isAdded()) return;
+                        getAdapter().setMediaList(mediaList, diff, baseVersion);
+                        updateEmptyView(mEmptyViewMessageType);
+                        if (onLoaded != null) {
+                            onLoaded.run();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
     void setFilter(@NonNull MediaFilter filter) {
         mFilter  = filter;
         getArguments().putSerializable(MediaBrowserActivity.ARG_FILTER, filter);
@@ -349,8 +437,17 @@ public class MediaGridFragment extends Fragment implements MediaGridAdapterCallb
         // temporarily disable animation - otherwise the user will see items animate
         // when they change the filter
         mRecycler.setItemAnimator(null);
-        getAdapter().setMediaList(getFilteredMedia());
-        new Handler().postDelayed(new Runnable() {
+        loadMedia(new Runnable() {
+            @Override
+            public void run() {
+                // the adapter is only known to be empty once the filtered media has loaded, so the
+                // refresh indicator is shown here rather than when the fetch starts
+                if (mIsRefreshing && isEmpty()) {
+                    mSwipeToRefreshHelper.setRefreshing(true);
+                }
+            }
+        });
+        mHandler.postDelayed(new Runnable() {
             @Override
             public void run() {
                 mRecycler.setItemAnimator(new DefaultItemAnimator());
@@ -365,9 +462,6 @@ public class MediaGridFragment extends Fragment implements MediaGridAdapterCallb
 
         boolean hasFetchedThisFilter = mFetchedFilters[filter.value];
         if (!hasFetchedThisFilter && NetworkUtils.isNetworkAvailable(getActivity())) {
-            if (isEmpty()) {
-                mSwipeToRefreshHelper.setRefreshing(true);
-            }
             fetchMediaList(false);
         }
     }
@@ -422,7 +516,7 @@ public class MediaGridFragment extends Fragment implements MediaGridAdapterCallb
      */
     void reload() {
         if (isAdded()) {
-            getAdapter().setMediaList(getFilteredMedia());
+            loadMedia();
         }
     }
 
@@ -448,8 +542,14 @@ public class MediaGridFragment extends Fragment implements MediaGridAdapterCallb
 
     public void search(String searchTerm) {
         mSearchTerm = searchTerm;
-        List<MediaModel> mediaList = mMediaStore.searchSiteMedia(mSite, mSearchTerm);
-        mGridAdapter.setMediaList(mediaList);
+        if (TextUtils.isEmpty(searchTerm)) {
+            loadMedia();
+        } else {
+            // abandon any load for the previous search term while waiting for the user to stop typing
+            mLoadGeneration.incrementAndGet();
+            mHandler.removeCallbacks(mSearchRunnable);
+            mHandler.postDelayed(mSearchRunnable, SEARCH_DELAY_MS);
+        }
     }
 
     public void clearSelection() {
@@ -629,7 +729,7 @@ public class MediaGridFragment extends Fragment implements MediaGridAdapterCallb
             return;
         }
 
-        getAdapter().setMediaList(getFilteredMedia());
+        loadMedia();
 
         boolean hasRetrievedAll = !event.canLoadMore;
         getAdapter().setHasRetrievedAll(hasRetrievedAll);
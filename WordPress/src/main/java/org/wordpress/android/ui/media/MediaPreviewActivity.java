@@ -50,6 +50,7 @@ import org.wordpress.android.fluxc.tools.FluxCImageLoader;
 import org.wordpress.android.util.ActivityUtils;
 import org.wordpress.android.util.AniUtils;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.DateTimeUtils;
 import org.wordpress.android.util.DisplayUtils;
 import org.wordpress.android.util.ImageUtils;
@@ -350,7 +351,7 @@ public class MediaPreviewActivity extends AppCompatActivity implements ActivityC
                 }
             }, size, 0);
         } else {
-            new LocalImageTask(mediaUri, size).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+            new LocalImageTask(mediaUri, size).executeOnExecutor(BackgroundExecutors.cpu());
         }
     }
 
@@ -37,6 +37,7 @@ import org.wordpress.android.ui.reader.actions.ReaderPostActions;
 import org.wordpress.android.ui.reader.services.ReaderCommentService;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.JSONUtils;
 import org.wordpress.android.util.ToastUtils;
 import org.wordpress.android.widgets.WPNetworkImageView.ImageType;
@@ -171,7 +172,7 @@ public class NotificationsDetailListFragment extends ListFragment implements Not
     }
 
     private void reloadNoteBlocks() {
-        new LoadNoteBlocksTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        new LoadNoteBlocksTask().executeOnExecutor(BackgroundExecutors.cpu());
     }
 
     public void setFooterView(ViewGroup footerView) {
@@ -6,10 +6,14 @@ import android.graphics.Canvas;
 import android.graphics.drawable.Drawable;
 import android.os.Bundle;
 import android.support.v4.content.ContextCompat;
+import android.support.v4.view.MenuItemCompat;
 import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.SearchView;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuInflater;
+import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
@@ -41,12 +45,18 @@ import java.util.List;
 import javax.inject.Inject;
 
 public class PeopleListFragment extends Fragment {
+    // start fetching the next page when this many people remain below the last one bound
+    private static final int PREFETCH_THRESHOLD = 10;
+    private static final int MAX_SEARCH_RESULTS = 200;
+
     private SiteModel mSite;
     private OnPersonSelectedListener mOnPersonSelectedListener;
     private OnFetchPeopleListener mOnFetchPeopleListener;
 
     private FilteredRecyclerView mFilteredRecyclerView;
     private PeopleListFilter mPeopleListFilter;
+    private MenuItem mSearchMenuItem;
+    private String mSearchQuery;
 
     @Inject SiteStore mSiteStore;
 
@@ -83,6 +93,54 @@ public class PeopleListFragment extends Fragment {
     public void onCreateOptionsMenu(Menu menu, MenuInflater inflater) {
         inflater.inflate(R.menu.people_list, menu);
         super.onCreateOptionsMenu(menu, inflater);
+
+        mSearchMenuItem = menu.findItem(R.id.menu_search);
+        MenuItemCompat.setOnActionExpandListener(mSearchMenuItem, new MenuItemCompat.OnActionExpandListener() {
+            @Override
+            public boolean onMenuItemActionExpand(MenuItem item) {
+                // people are searched locally, so sync all of them while searching
+                syncAllPeople();
+                return true;
+            }
+
+            @Override
+            public boolean onMenuItemActionCollapse(MenuItem item) {
+                mSearchQuery = null;
+                refreshPeopleList(false);
+                return true;
+            }
+        });
+
+        SearchView searchView = (SearchView) mSearchMenuItem.getActionView();
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                search(query);
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                search(newText);
+                return true;
+            }
+        });
+    }
+
+    private boolean isSearching() {
+        return !TextUtils.isEmpty(mSearchQuery);
+    }
+
+    private void search(String query) {
+        mSearchQuery = query != null ? query.trim() : null;
+        refreshPeopleList(false);
+    }
+
+    private void syncAllPeople() {
+        if (mOnFetchPeopleListener != null && mPeopleListFilter != null
+                && mOnFetchPeopleListener.onSyncAllPeople(mPeopleListFilter)) {
+            mFilteredRecyclerView.showLoadingProgress();
+        }
     }
 
     @Override
@@ -145,6 +203,9 @@ public class PeopleListFragment extends Fragment {
             public void onFilterSelected(int position, FilterCriteria criteria) {
                 mPeopleListFilter = (PeopleListFilter) criteria;
                 AppPrefs.setPeopleListFilter(mPeopleListFilter);
+                if (mSearchMenuItem != null && MenuItemCompat.isActionViewExpanded(mSearchMenuItem)) {
+                    syncAllPeople();
+                }
             }
 
             @Override
@@ -239,22 +300,27 @@ public class PeopleListFragment extends Fragment {
         if (!isAdded()) return;
 
         List<Person> peopleList;
-        switch (mPeopleListFilter) {
-            case TEAM:
-                peopleList = PeopleTable.getUsers(mSite.getId());
-                break;
-            case FOLLOWERS:
-                peopleList = PeopleTable.getFollowers(mSite.getId());
-                break;
-            case EMAIL_FOLLOWERS:
-                peopleList = PeopleTable.getEmailFollowers(mSite.getId());
-                break;
-            case VIEWERS:
-                peopleList = PeopleTable.getViewers(mSite.getId());
-                break;
-            default:
-                peopleList = new ArrayList<>();
-                break;
+        if (isSearching()) {
+            peopleList = PeopleTable.searchPeople(getPersonType(mPeopleListFilter), mSite.getId(), mSearchQuery,
+                    MAX_SEARCH_RESULTS);
+        } else {
+            switch (mPeopleListFilter) {
+                case TEAM:
+                    peopleList = PeopleTable.getUsers(mSite.getId());
+                    break;
+                case FOLLOWERS:
+                    peopleList = PeopleTable.getFollowers(mSite.getId());
+                    break;
+                case EMAIL_FOLLOWERS:
+                    peopleList = PeopleTable.getEmailFollowers(mSite.getId());
+                    break;
+                case VIEWERS:
+                    peopleList = PeopleTable.getViewers(mSite.getId());
+                    break;
+                default:
+                    peopleList = new ArrayList<>();
+                    break;
+            }
         }
         PeopleAdapter peopleAdapter = (PeopleAdapter) mFilteredRecyclerView.getAdapter();
         if (peopleAdapter == null) {
@@ -273,6 +339,35 @@ public class PeopleListFragment extends Fragment {
         }
     }
 
+    private static Person.PersonType getPersonType(PeopleListFilter filter) {
+        switch (filter) {
+            case FOLLOWERS:
+                return Person.PersonType.FOLLOWER;
+            case EMAIL_FOLLOWERS:
+                return Person.PersonType.EMAIL_FOLLOWER;
+            case VIEWERS:
+                return Person.PersonType.VIEWER;
+            default:
+                return Person.PersonType.USER;
+        }
+    }
+
+    /*
+     * called as people are synced while searching - search results are refreshed as each page is
+     * written, whereas the full list is only refreshed once the sync is finished
+     */
+    public void bulkSyncUpdated(PeopleListFilter filter, boolean isFinished) {
+        if (!isAdded() || mPeopleListFilter != filter) {
+            return;
+        }
+        if (isFinished) {
+            mFilteredRecyclerView.hideLoadingProgress();
+        }
+        if (isFinished || isSearching()) {
+            refreshPeopleList(false);
+        }
+    }
+
     // Refresh the role display names after user roles is fetched
     public void refreshUserRoles() {
         PeopleAdapter peopleAdapter = (PeopleAdapter) mFilteredRecyclerView.getAdapter();
@@ -304,6 +399,8 @@ public class PeopleListFragment extends Fragment {
         boolean onFetchFirstPage(PeopleListFilter filter);
 
         boolean onFetchMorePeople(PeopleListFilter filter);
+
+        boolean onSyncAllPeople(PeopleListFilter filter);
     }
 
     public class PeopleAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
@@ -394,8 +491,9 @@ public class PeopleListFragment extends Fragment {
                 }
             }
 
-            // end of list is reached
-            if (position == getItemCount() - 1) {
+            // fetch the next page before the end of the list is reached - search results are local so
+            // there's nothing more to fetch for them
+            if (!isSearching() && position >= getItemCount() - PREFETCH_THRESHOLD) {
                 updatePeople(true);
             }
         }
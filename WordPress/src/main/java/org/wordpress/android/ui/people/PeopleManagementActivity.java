@@ -24,6 +24,7 @@ import org.wordpress.android.fluxc.store.AccountStore;
 import org.wordpress.android.fluxc.store.SiteStore;
 import org.wordpress.android.models.PeopleListFilter;
 import org.wordpress.android.models.Person;
+import org.wordpress.android.ui.people.utils.PeopleBulkSync;
 import org.wordpress.android.ui.people.utils.PeopleUtils;
 import org.wordpress.android.util.AnalyticsUtils;
 import org.wordpress.android.util.AppLog;
@@ -38,7 +39,8 @@ import de.greenrobot.event.EventBus;
 
 
 public class PeopleManagementActivity extends AppCompatActivity
-        implements PeopleListFragment.OnPersonSelectedListener, PeopleListFragment.OnFetchPeopleListener {
+        implements PeopleListFragment.OnPersonSelectedListener, PeopleListFragment.OnFetchPeopleListener,
+        PeopleBulkSync.Listener {
     private static final String KEY_PEOPLE_LIST_FRAGMENT = "people-list-fragment";
     private static final String KEY_PERSON_DETAIL_FRAGMENT = "person-detail-fragment";
     private static final String KEY_PEOPLE_INVITE_FRAGMENT = "people-invite-fragment";
@@ -89,6 +91,9 @@ public class PeopleManagementActivity extends AppCompatActivity
 
     private SiteModel mSite;
 
+    // syncs all of the people for a filter while the list is being searched
+    private PeopleBulkSync mBulkSync;
+
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -231,6 +236,15 @@ public class PeopleManagementActivity extends AppCompatActivity
         super.onStop();
     }
 
+    @Override
+    protected void onDestroy() {
+        if (mBulkSync != null) {
+            mBulkSync.cancel();
+            mBulkSync = null;
+        }
+        super.onDestroy();
+    }
+
     @Override
     public void onBackPressed() {
         if (!navigateBackToPeopleListFragment()) {
@@ -629,8 +643,84 @@ public class PeopleManagementActivity extends AppCompatActivity
         return personDetailFragment.loadPerson();
     }
 
+    private boolean isBulkSyncRunning(PeopleListFilter filter) {
+        return mBulkSync != null && mBulkSync.isRunning() && mBulkSync.getFilter() == filter;
+    }
+
+    private boolean isEndOfListReached(PeopleListFilter filter) {
+        switch (filter) {
+            case TEAM:
+                return mUsersEndOfListReached;
+            case FOLLOWERS:
+                return mFollowersEndOfListReached;
+            case EMAIL_FOLLOWERS:
+                return mEmailFollowersEndOfListReached;
+            case VIEWERS:
+                return mViewersEndOfListReached;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean onSyncAllPeople(PeopleListFilter filter) {
+        if (isBulkSyncRunning(filter)) {
+            return true;
+        }
+        if (isEndOfListReached(filter) || !NetworkUtils.isNetworkAvailable(this)) {
+            return false;
+        }
+        if (mBulkSync != null) {
+            mBulkSync.cancel();
+        }
+        mBulkSync = new PeopleBulkSync(mSite, filter, this);
+        mBulkSync.start();
+        return true;
+    }
+
+    @Override
+    public void onPageSynced(PeopleListFilter filter, int numSynced) {
+        PeopleListFragment peopleListFragment = getListFragment();
+        if (peopleListFragment != null) {
+            peopleListFragment.bulkSyncUpdated(filter, false);
+        }
+    }
+
+    @Override
+    public void onSyncFinished(PeopleListFilter filter, boolean isSuccessful, int numSynced) {
+        // the list now holds the people the bulk sync wrote, so paging continues from there
+        switch (filter) {
+            case TEAM:
+                mHasRefreshedUsers = true;
+                mUsersEndOfListReached = isSuccessful;
+                break;
+            case FOLLOWERS:
+                mHasRefreshedFollowers = true;
+                mFollowersEndOfListReached = isSuccessful;
+                mFollowersLastFetchedPage = numSynced / PeopleUtils.FETCH_LIMIT;
+                break;
+            case EMAIL_FOLLOWERS:
+                mHasRefreshedEmailFollowers = true;
+                mEmailFollowersEndOfListReached = isSuccessful;
+                mEmailFollowersLastFetchedPage = numSynced / PeopleUtils.FETCH_LIMIT;
+                break;
+            case VIEWERS:
+                mHasRefreshedViewers = true;
+                mViewersEndOfListReached = isSuccessful;
+                break;
+        }
+
+        PeopleListFragment peopleListFragment = getListFragment();
+        if (peopleListFragment != null) {
+            peopleListFragment.bulkSyncUpdated(filter, true);
+        }
+    }
+
     @Override
     public boolean onFetchFirstPage(PeopleListFilter filter) {
+        if (isBulkSyncRunning(filter)) {
+            return false;
+        }
+
         if (filter == PeopleListFilter.TEAM && !mHasRefreshedUsers) {
             return fetchUsersList(mSite, 0);
         } else if (filter == PeopleListFilter.FOLLOWERS && !mHasRefreshedFollowers) {
@@ -645,6 +735,10 @@ public class PeopleManagementActivity extends AppCompatActivity
 
     @Override
     public boolean onFetchMorePeople(PeopleListFilter filter) {
+        if (isBulkSyncRunning(filter)) {
+            return false;
+        }
+
         if (filter == PeopleListFilter.TEAM && !mUsersEndOfListReached) {
             int count = PeopleTable.getUsersCountForLocalBlogId(mSite.getId());
             return fetchUsersList(mSite, count);
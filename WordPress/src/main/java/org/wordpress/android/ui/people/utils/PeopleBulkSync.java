@@ -0,0 +1,230 @@
+package org.wordpress.android.ui.people.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.datasets.PeopleTable;
+import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.models.PeopleListFilter;
+import org.wordpress.android.models.Person;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.BackgroundExecutors;
+import org.wordpress.android.util.TraceUtils;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * syncs all of a site's people for one filter (up to MAX_PEOPLE) so they can be browsed and
+ * searched locally. people are fetched in pages of BULK_FETCH_LIMIT, and the next page is
+ * requested as soon as a page arrives while that page is written to PeopleTable on a background
+ * thread. writes happen in the order the pages were fetched, so the first page (which replaces
+ * the existing list) is always written first. must be started and cancelled on the main thread,
+ * and the listener is always called on the main thread.
+ */
+public class PeopleBulkSync {
+    public static final int MAX_PEOPLE = 50000;
+
+    // pages are written one at a time on this lane, in the order they were fetched
+    private static final String WRITE_LANE = "people-bulk-sync";
+
+    public interface Listener {
+        void onPageSynced(PeopleListFilter filter, int numSynced);
+        void onSyncFinished(PeopleListFilter filter, boolean isSuccessful, int numSynced);
+    }
+
+    private final SiteModel mSite;
+    private final PeopleListFilter mFilter;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Listener mListener;
+
+    private int mNumSynced;
+    private int mNumPendingWrites;
+    private boolean mIsStarted;
+    private boolean mIsEndOfList;
+    private boolean mHasFailed;
+    private boolean mIsFinished;
+    private long mStartTime;
+    private long mElapsedMs;
+
+    public PeopleBulkSync(@NonNull SiteModel site, @NonNull PeopleListFilter filter, Listener listener) {
+        mSite = site;
+        mFilter = filter;
+        mListener = listener;
+    }
+
+    public PeopleListFilter getFilter() {
+        return mFilter;
+    }
+
+    public void start() {
+        if (mIsStarted) {
+            return;
+        }
+        mIsStarted = true;
+        mStartTime = SystemClock.elapsedRealtime();
+        fetchPage(1);
+    }
+
+    /*
+     * stops fetching further pages - pages which have already been fetched are still written, and
+     * the listener is told the sync didn't complete once they have been
+     */
+    public void cancel() {
+        if (mIsStarted && !mHasFailed) {
+            mHasFailed = true;
+            finishIfDone();
+        }
+    }
+
+    public boolean isRunning() {
+        return mIsStarted && !mIsFinished;
+    }
+
+    /*
+     * returns the number of people written per second, or zero if the sync hasn't finished
+     */
+    public double getPeoplePerSecond() {
+        if (!mIsFinished || mElapsedMs == 0) {
+            return 0;
+        }
+        return mNumSynced * 1000d / mElapsedMs;
+    }
+
+    private void fetchPage(final int page) {
+        int offset = (page - 1) * PeopleUtils.BULK_FETCH_LIMIT;
+        switch (mFilter) {
+            case TEAM:
+                PeopleUtils.fetchUsers(mSite, offset, PeopleUtils.BULK_FETCH_LIMIT,
+                        new PeopleUtils.FetchUsersCallback() {
+                            @Override
+                            public void onSuccess(List<Person> peopleList, boolean isEndOfList) {
+                                onPageFetched(page, peopleList, isEndOfList);
+                            }
+
+                            @Override
+                            public void onError() {
+                                onPageFailed(page);
+                            }
+                        });
+                break;
+            case FOLLOWERS:
+            case EMAIL_FOLLOWERS:
+                PeopleUtils.fetchFollowers(mSite, page, PeopleUtils.BULK_FETCH_LIMIT,
+                        MAX_PEOPLE / PeopleUtils.BULK_FETCH_LIMIT, new PeopleUtils.FetchFollowersCallback() {
+                            @Override
+                            public void onSuccess(List<Person> peopleList, int pageFetched, boolean isEndOfList) {
+                                onPageFetched(page, peopleList, isEndOfList);
+                            }
+
+                            @Override
+                            public void onError() {
+                                onPageFailed(page);
+                            }
+                        }, mFilter == PeopleListFilter.EMAIL_FOLLOWERS);
+                break;
+            case VIEWERS:
+                PeopleUtils.fetchViewers(mSite, offset, PeopleUtils.BULK_FETCH_LIMIT,
+                        new PeopleUtils.FetchViewersCallback() {
+                            @Override
+                            public void onSuccess(List<Person> peopleList, boolean isEndOfList) {
+                                onPageFetched(page, peopleList, isEndOfList);
+                            }
+
+                            @Override
+                            public void onError() {
+                                onPageFailed(page);
+                            }
+                        });
+                break;
+        }
+    }
+
+    private void onPageFetched(int page, final List<Person> peopleList, boolean isEndOfList) {
+        if (mHasFailed) {
+            return;
+        }
+
+        if (peopleList != null && !peopleList.isEmpty()) {
+            final boolean isFreshList = page == 1;
+            mNumPendingWrites++;
+            BackgroundExecutors.serial(WRITE_LANE).execute(new Runnable() {
+                @Override
+                public void run() {
+                    TraceUtils.Span span = TraceUtils.beginSpan("PeopleBulkSync.savePeople");
+                    try {
+                        savePeople(peopleList, isFreshList);
+                    } finally {
+                        span.end();
+                    }
+                    mHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onPageWritten(peopleList.size());
+                        }
+                    });
+                }
+            });
+        }
+
+        if (isEndOfList || peopleList == null || peopleList.isEmpty()
+                || page * PeopleUtils.BULK_FETCH_LIMIT >= MAX_PEOPLE) {
+            mIsEndOfList = true;
+            finishIfDone();
+        } else {
+            // request the next page while this one is being written
+            fetchPage(page + 1);
+        }
+    }
+
+    private void onPageFailed(int page) {
+        AppLog.w(T.PEOPLE, "PeopleBulkSync > failed to fetch page " + page + " of " + mFilter.name());
+        mHasFailed = true;
+        finishIfDone();
+    }
+
+    private void onPageWritten(int numPeople) {
+        mNumPendingWrites--;
+        mNumSynced += numPeople;
+        if (mListener != null) {
+            mListener.onPageSynced(mFilter, mNumSynced);
+        }
+        finishIfDone();
+    }
+
+    private void finishIfDone() {
+        if (mIsFinished || mNumPendingWrites > 0 || !(mIsEndOfList || mHasFailed)) {
+            return;
+        }
+
+        mIsFinished = true;
+        mElapsedMs = SystemClock.elapsedRealtime() - mStartTime;
+        AppLog.i(T.PEOPLE, String.format(Locale.US, "PeopleBulkSync > synced %d %s in %d ms (%.1f people/sec)",
+                mNumSynced, mFilter.name(), mElapsedMs, getPeoplePerSecond()));
+
+        if (mListener != null) {
+            mListener.onSyncFinished(mFilter, !mHasFailed, mNumSynced);
+        }
+    }
+
+    private void savePeople(List<Person> peopleList, boolean isFreshList) {
+        int localTableBlogId = mSite.getId();
+        switch (mFilter) {
+            case TEAM:
+                PeopleTable.saveUsers(peopleList, localTableBlogId, isFreshList);
+                break;
+            case FOLLOWERS:
+                PeopleTable.saveFollowers(peopleList, localTableBlogId, isFreshList);
+                break;
+            case EMAIL_FOLLOWERS:
+                PeopleTable.saveEmailFollowers(peopleList, localTableBlogId, isFreshList);
+                break;
+            case VIEWERS:
+                PeopleTable.saveViewers(peopleList, localTableBlogId, isFreshList);
+                break;
+        }
+    }
+}
@@ -25,7 +25,15 @@ public class PeopleUtils {
     public static int FOLLOWER_PAGE_LIMIT = 50;
     public static int FETCH_LIMIT = 20;
 
+    // larger pages used when syncing all of a site's people in the background - see PeopleBulkSync
+    public static final int BULK_FETCH_LIMIT = 100;
+
     public static void fetchUsers(final SiteModel site, final int offset, final FetchUsersCallback callback) {
+        fetchUsers(site, offset, FETCH_LIMIT, callback);
+    }
+
+    public static void fetchUsers(final SiteModel site, final int offset, final int number,
+                                  final FetchUsersCallback callback) {
         com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
             @Override
             public void onResponse(JSONObject jsonObject) {
@@ -56,7 +64,7 @@ public class PeopleUtils {
         };
 
         Map<String, String> params = new HashMap<>();
-        params.put("number", Integer.toString(PeopleUtils.FETCH_LIMIT));
+        params.put("number", Integer.toString(number));
         params.put("offset", Integer.toString(offset));
         params.put("order_by", "display_name");
         params.put("order", "ASC");
@@ -65,16 +73,20 @@ public class PeopleUtils {
     }
 
     public static void fetchFollowers(final SiteModel site, final int page, final FetchFollowersCallback callback) {
-        fetchFollowers(site, page, callback, false);
+        fetchFollowers(site, page, FETCH_LIMIT, FOLLOWER_PAGE_LIMIT, callback, false);
     }
 
     public static void fetchEmailFollowers(final SiteModel site, final int page,
                                            final FetchFollowersCallback callback) {
-        fetchFollowers(site, page, callback, true);
+        fetchFollowers(site, page, FETCH_LIMIT, FOLLOWER_PAGE_LIMIT, callback, true);
     }
 
-    private static void fetchFollowers(final SiteModel site, final int page, final FetchFollowersCallback callback,
-                                       final boolean isEmailFollower) {
+    /*
+     * fetches a page of followers of the passed size - the list is treated as ended once pageLimit
+     * pages have been fetched
+     */
+    public static void fetchFollowers(final SiteModel site, final int page, final int number, final int pageLimit,
+                                      final FetchFollowersCallback callback, final boolean isEmailFollower) {
         com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
             @Override
             public void onResponse(JSONObject jsonObject) {
@@ -86,7 +98,7 @@ public class PeopleUtils {
                         List<Person> people = peopleListFromJSON(jsonArray, site.getId(), personType);
                         int pageFetched = jsonObject.optInt("page");
                         int numberOfPages = jsonObject.optInt("pages");
-                        boolean isEndOfList = page >= numberOfPages || page >= FOLLOWER_PAGE_LIMIT;
+                        boolean isEndOfList = page >= numberOfPages || page >= pageLimit;
                         callback.onSuccess(people, pageFetched, isEndOfList);
                     }
                     catch (JSONException e) {
@@ -109,7 +121,7 @@ public class PeopleUtils {
         };
 
         Map<String, String> params = new HashMap<>();
-        params.put("max", Integer.toString(FETCH_LIMIT));
+        params.put("max", Integer.toString(number));
         params.put("page", Integer.toString(page));
         params.put("type", isEmailFollower ? "email" : "wp_com");
         String path = String.format(Locale.US, "sites/%d/stats/followers", site.getSiteId());
@@ -117,6 +129,11 @@ public class PeopleUtils {
     }
 
     public static void fetchViewers(final SiteModel site, final int offset, final FetchViewersCallback callback) {
+        fetchViewers(site, offset, FETCH_LIMIT, callback);
+    }
+
+    public static void fetchViewers(final SiteModel site, final int offset, final int number,
+                                    final FetchViewersCallback callback) {
         com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
             @Override
             public void onResponse(JSONObject jsonObject) {
@@ -147,9 +164,9 @@ public class PeopleUtils {
             }
         };
 
-        int page = (offset / FETCH_LIMIT) + 1;
+        int page = (offset / number) + 1;
         Map<String, String> params = new HashMap<>();
-        params.put("number", Integer.toString(FETCH_LIMIT));
+        params.put("number", Integer.toString(number));
         params.put("page", Integer.toString(page));
         String path = String.format(Locale.US, "sites/%d/viewers", site.getSiteId());
         WordPress.getRestClientUtilsV1_1().get(path, params, null, listener, errorListener);
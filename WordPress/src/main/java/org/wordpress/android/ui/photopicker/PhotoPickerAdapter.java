@@ -20,6 +20,7 @@ import org.wordpress.android.ui.media.MediaPreviewActivity;
 import org.wordpress.android.util.AnalyticsUtils;
 import org.wordpress.android.util.AniUtils;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.DisplayUtils;
 import org.wordpress.android.util.SqlUtils;
 
@@ -115,7 +116,7 @@ class PhotoPickerAdapter extends RecyclerView.Adapter<PhotoPickerAdapter.Thumbna
             mustReload = forceReload;
         }
 
-        new BuildDeviceMediaListTask(mustReload).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        new BuildDeviceMediaListTask(mustReload).executeOnExecutor(BackgroundExecutors.io());
     }
 
     @Override
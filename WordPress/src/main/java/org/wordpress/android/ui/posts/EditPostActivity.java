@@ -106,6 +106,7 @@ import org.wordpress.android.util.AniUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.wordpress.android.util.AutolinkUtils;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.CrashlyticsUtils;
 import org.wordpress.android.util.DateTimeUtils;
 import org.wordpress.android.util.DisplayUtils;
@@ -139,6 +140,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -179,6 +181,10 @@ public class EditPostActivity extends AppCompatActivity implements
     private static final String ASYNC_PROMO_DIALOG_TAG = "async_promo";
 
     private Handler mHandler;
+    // autosaves, background saves and publishing run one at a time in the order they were queued on
+    // this lane, and an autosave is skipped if the previous one is still waiting to run
+    private static final String SAVE_LANE = "post-save";
+    private final AtomicBoolean mIsAutoSaveQueued = new AtomicBoolean();
     private boolean mShowAztecEditor;
     private boolean mShowNewEditor;
 
@@ -446,24 +452,40 @@ public class EditPostActivity extends AppCompatActivity implements
     private Runnable mAutoSave = new Runnable() {
         @Override
         public void run() {
-            new Thread(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        updatePostObject(true);
-                    } catch (IllegalEditorStateException e) {
-                        AppLog.e(T.EDITOR, "Impossible to save the post, we weren't able to update it.");
-                        return;
-                    }
-                    savePostToDb();
-                    if (mHandler != null) {
-                        mHandler.postDelayed(mAutoSave, AUTOSAVE_INTERVAL_MILLIS);
+            if (mIsAutoSaveQueued.compareAndSet(false, true)) {
+                BackgroundExecutors.serial(SAVE_LANE).execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        mIsAutoSaveQueued.set(false);
+                        autoSavePost();
                     }
-                }
-            }).start();
+                });
+            }
+            if (mHandler != null) {
+                mHandler.postDelayed(mAutoSave, AUTOSAVE_INTERVAL_MILLIS);
+            }
         }
     };
 
+    /*
+     * only reads the title and content from the editor if it reports they've changed, and only
+     * writes the post if it differs from the last saved copy
+     */
+    private synchronized void autoSavePost() {
+        if (mEditorFragment != null && mEditorFragment.consumeContentChanged()) {
+            try {
+                updatePostObject(true);
+            } catch (IllegalEditorStateException e) {
+                AppLog.e(T.EDITOR, "Impossible to save the post, we weren't able to update it.");
+                mEditorFragment.markContentChanged();
+                return;
+            }
+        }
+        if (PostUtils.postHasEdits(mOriginalPost, mPost)) {
+            savePostToDb();
+        }
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -854,7 +876,8 @@ public class EditPostActivity extends AppCompatActivity implements
     }
 
     private void savePostOnlineAndFinishAsync(boolean isFirstTimePublish) {
-        new SavePostOnlineAndFinishTask(isFirstTimePublish).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        // run on the save lane so the final save can't race an autosave which is still in progress
+        new SavePostOnlineAndFinishTask(isFirstTimePublish).executeOnExecutor(BackgroundExecutors.serial(SAVE_LANE));
     }
 
     private void onUploadSuccess(MediaModel media) {
@@ -985,7 +1008,7 @@ public class EditPostActivity extends AppCompatActivity implements
     }
 
     private void savePostAsync(final AfterSavePostListener listener) {
-        new Thread(new Runnable() {
+        BackgroundExecutors.serial(SAVE_LANE).execute(new Runnable() {
             @Override
             public void run() {
                 try {
@@ -999,7 +1022,7 @@ public class EditPostActivity extends AppCompatActivity implements
                     listener.onPostSave();
                 }
             }
-        }).start();
+        });
     }
 
     @Override
@@ -1167,10 +1190,10 @@ public class EditPostActivity extends AppCompatActivity implements
             return;
         }
 
-        // Update post, save to db and publish in its own Thread, because 1. update can be pretty slow with a lot of
+        // Update post, save to db and publish on the save lane, because 1. update can be pretty slow with a lot of
         // text 2. better not to call `updatePostObject()` from the UI thread due to weird thread blocking behavior
         // on API 16 (and 21) with the visual editor.
-        new Thread(new Runnable() {
+        BackgroundExecutors.serial(SAVE_LANE).execute(new Runnable() {
             @Override
             public void run() {
                 boolean isFirstTimePublish = isFirstTimePublish();
@@ -1214,7 +1237,7 @@ public class EditPostActivity extends AppCompatActivity implements
                     });
                 }
             }
-        }).start();
+        });
     }
 
     private void showRemoveFailedUploadsDialog() {
@@ -1230,10 +1253,10 @@ public class EditPostActivity extends AppCompatActivity implements
     }
 
     private void savePostAndFinish() {
-        // Update post, save to db and post online in its own Thread, because 1. update can be pretty slow with a lot of
+        // Update post, save to db and post online on the save lane, because 1. update can be pretty slow with a lot of
         // text 2. better not to call `updatePostObject()` from the UI thread due to weird thread blocking behavior
         // on API 16 (and 21) with the visual editor.
-        new Thread(new Runnable() {
+        BackgroundExecutors.serial(SAVE_LANE).execute(new Runnable() {
             @Override
             public void run() {
                 // check if the opened post had some unsaved local changes
@@ -1289,7 +1312,7 @@ public class EditPostActivity extends AppCompatActivity implements
                     finish();
                 }
             }
-        }).start();
+        });
     }
 
     private boolean isFirstTimePublish() {
@@ -1319,7 +1342,8 @@ public class EditPostActivity extends AppCompatActivity implements
     }
 
     private void savePostLocallyAndFinishAsync() {
-        new SavePostLocallyAndFinishTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        // run on the save lane so the final save can't race an autosave which is still in progress
+        new SavePostLocallyAndFinishTask().executeOnExecutor(BackgroundExecutors.serial(SAVE_LANE));
     }
 
     /**
@@ -1527,7 +1551,7 @@ public class EditPostActivity extends AppCompatActivity implements
                 if (mPost.isLocalDraft() && !mShowNewEditor && !mShowAztecEditor) {
                     // TODO: Unnecessary for new editor, as all images are uploaded right away, even for local drafts
                     // Load local post content in the background, as it may take time to generate images
-                    new LoadPostContentTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR,
+                    new LoadPostContentTask().executeOnExecutor(BackgroundExecutors.cpu(),
                             mPost.getContent().replaceAll("\uFFFC", ""));
                 } else {
                     // TODO: Might be able to drop .replaceAll() when legacy editor is removed
@@ -16,6 +16,7 @@ import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.StringUtils;
 import org.wordpress.android.util.ToastUtils;
 import org.wordpress.android.util.WPHtml;
@@ -117,7 +118,7 @@ public class EditPostPreviewFragment extends Fragment {
     private void loadCurrentPost() {
         if (mLoadTask == null) {
             mLoadTask = new LoadPostPreviewTask();
-            mLoadTask.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+            mLoadTask.executeOnExecutor(BackgroundExecutors.cpu());
         }
     }
 
@@ -5,7 +5,8 @@ import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
-import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 
 import com.android.volley.VolleyError;
 import com.android.volley.toolbox.ImageLoader;
@@ -13,14 +14,40 @@ import com.android.volley.toolbox.ImageLoader;
 import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.editor.AztecEditorFragment;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.BackgroundExecutors;
+import org.wordpress.android.util.DiskCacheUtils;
 import org.wordpress.android.util.ImageUtils;
+import org.wordpress.android.util.StringUtils;
 import org.wordpress.aztec.Html;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AztecImageLoader implements Html.ImageGetter {
+    /*
+     * thumbnails of local images are decoded on a background thread and cached both in memory and
+     * on disk, keyed by the image path, its modification time and the thumbnail width - so reopening
+     * a draft with many local images decodes each of them at most once. once the disk cache exceeds
+     * MAX_THUMBNAIL_DIR_BYTES the least recently used thumbnails are removed. the cache is checked on
+     * the first write and then every TRIM_INTERVAL_WRITES writes, rather than listing it on each write
+     */
+    private static final String THUMBNAIL_DIR = "editor_thumbnails";
+    private static final long MAX_THUMBNAIL_DIR_BYTES = 20L * 1024 * 1024;
+    private static final int THUMBNAIL_QUALITY = 85;
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final int TRIM_INTERVAL_WRITES = 20;
+    // a temp file this old was left behind by a write which never finished, e.g. because the app was killed
+    private static final long STALE_TEMP_FILE_MS = 60 * 60 * 1000;
 
-    private Context context;
+    private static final AtomicInteger sWritesUntilTrim = new AtomicInteger();
+
+    private final Context context;
+    private final Handler handler = new Handler(Looper.getMainLooper());
 
     public AztecImageLoader(Context context) {
         this.context = context;
@@ -31,27 +58,15 @@ public class AztecImageLoader implements Html.ImageGetter {
         // Ignore the maxWidth passed from Aztec, since it's the MAX of screen width/height
         final int maxWidthForEditor = ImageUtils.getMaximumThumbnailWidthForEditor(context);
 
-        if (new File(url).exists()) {
-            int orientation = ImageUtils.getImageOrientation(this.context, url);
-            byte[] bytes = ImageUtils.createThumbnailFromUri(
-                   context, Uri.parse(url), maxWidthForEditor, null, orientation);
-            if (bytes != null) {
-                Bitmap bitmap = BitmapFactory.decodeByteArray(bytes, 0, bytes.length);
-                BitmapDrawable bitmapDrawable = new BitmapDrawable(context.getResources(), bitmap);
-                callbacks.onImageLoaded(bitmapDrawable);
-            } else {
-                callbacks.onImageFailed();
-            }
+        final File file = new File(url);
+        if (file.exists()) {
+            loadLocalImage(file, callbacks, maxWidthForEditor);
             return;
         }
 
-        Drawable drawable = context.getResources().getDrawable(R.drawable.ic_gridicons_image);
-        drawable.setBounds(0, 0,
-                AztecEditorFragment.DEFAULT_MEDIA_PLACEHOLDER_DIMENSION_DP,
-                AztecEditorFragment.DEFAULT_MEDIA_PLACEHOLDER_DIMENSION_DP);
-        callbacks.onImageLoading(drawable);
+        callbacks.onImageLoading(getPlaceholder());
 
-        WordPress.sImageLoader.get(url, new ImageLoader.ImageListener() {
+        WordPress.getImageLoader(url).get(url, new ImageLoader.ImageListener() {
             @Override
             public void onResponse(ImageLoader.ImageContainer response, boolean isImmediate) {
                 Bitmap bitmap = response.getBitmap();
@@ -71,4 +86,131 @@ public class AztecImageLoader implements Html.ImageGetter {
             }
         }, maxWidthForEditor, 0);
     }
+
+    private Drawable getPlaceholder() {
+        Drawable drawable = context.getResources().getDrawable(R.drawable.ic_gridicons_image);
+        drawable.setBounds(0, 0,
+                AztecEditorFragment.DEFAULT_MEDIA_PLACEHOLDER_DIMENSION_DP,
+                AztecEditorFragment.DEFAULT_MEDIA_PLACEHOLDER_DIMENSION_DP);
+        return drawable;
+    }
+
+    private void loadLocalImage(final File file, final Callbacks callbacks, final int maxWidth) {
+        final String cacheKey = getThumbnailKey(file, maxWidth);
+
+        Bitmap cached = WordPress.getBitmapCache().getBitmap(cacheKey);
+        if (cached != null) {
+            callbacks.onImageLoaded(new BitmapDrawable(context.getResources(), cached));
+            return;
+        }
+
+        callbacks.onImageLoading(getPlaceholder());
+
+        // decoding and scaling the image is cpu-bound, so keep it off the io lane
+        BackgroundExecutors.cpu().execute(new Runnable() {
+            @Override
+            public void run() {
+                final Bitmap bitmap = getThumbnail(file, cacheKey, maxWidth);
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (bitmap != null) {
+                            callbacks.onImageLoaded(new BitmapDrawable(context.getResources(), bitmap));
+                        } else {
+                            callbacks.onImageFailed();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private static String getThumbnailKey(File file, int maxWidth) {
+        return "aztec:" + file.getAbsolutePath() + ":" + file.lastModified() + ":" + maxWidth;
+    }
+
+    /*
+     * background - returns the thumbnail from the disk cache if it's there, otherwise decodes it
+     * from the original image and writes it to the disk cache
+     */
+    private Bitmap getThumbnail(File file, String cacheKey, int maxWidth) {
+        File thumbnailFile = new File(getThumbnailDir(), StringUtils.getMd5Hash(cacheKey));
+
+        Bitmap bitmap = null;
+        if (thumbnailFile.exists()) {
+            bitmap = BitmapFactory.decodeFile(thumbnailFile.getAbsolutePath());
+            if (bitmap != null) {
+                DiskCacheUtils.touch(thumbnailFile);
+            }
+        }
+
+        if (bitmap == null) {
+            String path = file.getAbsolutePath();
+            int orientation = ImageUtils.getImageOrientation(context, path);
+            bitmap = ImageUtils.decodeThumbnailFromFile(path, maxWidth, orientation);
+            if (bitmap == null) {
+                return null;
+            }
+            writeThumbnail(bitmap, thumbnailFile);
+            if (sWritesUntilTrim.getAndDecrement() <= 0) {
+                sWritesUntilTrim.set(TRIM_INTERVAL_WRITES - 1);
+                trimThumbnailDir(thumbnailFile.getParentFile());
+            }
+        }
+
+        WordPress.getBitmapCache().putBitmap(cacheKey, bitmap);
+        return bitmap;
+    }
+
+    private static void trimThumbnailDir(File dir) {
+        DiskCacheUtils.deleteStaleFiles(dir, TEMP_EXTENSION, STALE_TEMP_FILE_MS);
+        DiskCacheUtils.trimToSize(dir, MAX_THUMBNAIL_DIR_BYTES, new DiskCacheUtils.EvictionFilter() {
+            @Override
+            public boolean canEvict(File file) {
+                // the remaining temp files belong to thumbnails which are still being written
+                return !file.getName().endsWith(TEMP_EXTENSION);
+            }
+        });
+    }
+
+    private File getThumbnailDir() {
+        File dir = new File(context.getCacheDir(), THUMBNAIL_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            AppLog.w(T.EDITOR, "Unable to create editor thumbnail dir");
+        }
+        return dir;
+    }
+
+    private static void writeThumbnail(Bitmap bitmap, File thumbnailFile) {
+        // write to a temp file first so a partially written thumbnail is never read - the temp file's
+        // name is unique so two threads decoding the same image don't write to the same file
+        File tempFile = null;
+        OutputStream out = null;
+        try {
+            tempFile = File.createTempFile(thumbnailFile.getName() + "-", TEMP_EXTENSION,
+                    thumbnailFile.getParentFile());
+            out = new FileOutputStream(tempFile);
+            Bitmap.CompressFormat format = bitmap.hasAlpha() ? Bitmap.CompressFormat.PNG : Bitmap.CompressFormat.JPEG;
+            if (bitmap.compress(format, THUMBNAIL_QUALITY, out)) {
+                out.close();
+                out = null;
+                if (!tempFile.renameTo(thumbnailFile)) {
+                    AppLog.w(T.EDITOR, "Unable to save editor thumbnail " + thumbnailFile.getName());
+                }
+            }
+        } catch (IOException e) {
+            AppLog.e(T.EDITOR, "Unable to write editor thumbnail", e);
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+            if (tempFile != null && tempFile.exists() && !tempFile.delete()) {
+                AppLog.w(T.EDITOR, "Unable to delete " + tempFile.getName());
+            }
+        }
+    }
 }
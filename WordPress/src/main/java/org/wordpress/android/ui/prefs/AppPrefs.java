@@ -48,6 +48,9 @@ public class AppPrefs {
         // title of the last active page in ReaderSubsActivity
         READER_SUBS_PAGE_TITLE,
 
+        // fingerprint of the last followed blogs response, used to skip parsing unchanged lists
+        READER_FOLLOWED_BLOGS_HASH,
+
         // index of the last active tab in main activity
         MAIN_TAB_INDEX,
 
@@ -57,7 +60,7 @@ public class AppPrefs {
         // Keep the associations between each widget_id/blog_id added to the app
         STATS_WIDGET_KEYS_BLOGS,
 
-        // last data stored for the Stats Widgets
+        // data for the Stats Widgets, which is now stored in the stats db - only kept so it can be migrated
         STATS_WIDGET_DATA,
 
         // aztec editor enabled
@@ -280,6 +283,18 @@ public class AppPrefs {
         setString(DeletablePrefKey.READER_SUBS_PAGE_TITLE, pageTitle);
     }
 
+    public static String getReaderFollowedBlogsHash() {
+        return getString(DeletablePrefKey.READER_FOLLOWED_BLOGS_HASH);
+    }
+
+    public static void setReaderFollowedBlogsHash(String hash) {
+        setString(DeletablePrefKey.READER_FOLLOWED_BLOGS_HASH, hash);
+    }
+
+    public static void clearReaderFollowedBlogsHash() {
+        remove(DeletablePrefKey.READER_FOLLOWED_BLOGS_HASH);
+    }
+
     public static StatsTimeframe getStatsTimeframe() {
         int idx = getInt(DeletablePrefKey.STATS_ITEM_INDEX);
         StatsTimeframe[] timeframeValues = StatsTimeframe.values();
@@ -389,10 +404,6 @@ public class AppPrefs {
         return getString(DeletablePrefKey.STATS_WIDGET_DATA);
     }
 
-    public static void setStatsWidgetsData(String widgetData) {
-        setString(DeletablePrefKey.STATS_WIDGET_DATA, widgetData);
-    }
-
     public static void resetStatsWidgetsData() {
         remove(DeletablePrefKey.STATS_WIDGET_DATA);
     }
@@ -18,6 +18,7 @@ import org.wordpress.android.models.PublicizeConnectionList;
 import org.wordpress.android.models.PublicizeService;
 import org.wordpress.android.models.PublicizeServiceList;
 import org.wordpress.android.ui.publicize.PublicizeConstants;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.PhotonUtils;
 import org.wordpress.android.widgets.WPNetworkImageView;
 
@@ -68,7 +69,7 @@ public class PublicizeServiceAdapter extends RecyclerView.Adapter<PublicizeServi
 
     public void refresh() {
         if (!mIsTaskRunning) {
-            new LoadServicesTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+            new LoadServicesTask().executeOnExecutor(BackgroundExecutors.uiRead());
         }
     }
 
@@ -8,6 +8,9 @@ public class ReaderConstants {
     public static final int  READER_MAX_USERS_TO_DISPLAY        = 500;      // max # users to show in ReaderUserListActivity
     public static final long READER_AUTO_UPDATE_DELAY_MINUTES   = 10;       // 10 minute delay between automatic updates
     public static final int  READER_MAX_RECOMMENDED_TO_REQUEST  = 20;       // max # of recommended blogs to request
+    public static final int  READER_MAX_DB_SIZE_MB              = 50;       // max size of the reader database before older posts are purged
+    public static final int  READER_PREFETCH_THRESHOLD          = 8;        // # posts from the end of the list at which older posts are requested
+    public static final int  READER_PREFETCH_IMAGE_COUNT        = 4;        // # featured images to prefetch when older posts are added to the list
 
     public static final int MIN_FEATURED_IMAGE_WIDTH = 640;                 // min width for an image to be suitable featured image
 
@@ -88,6 +88,20 @@ public class ReaderEvents {
             return mOffset;
         }
     }
+    public static class SearchPostsLocalResults {
+        private final String mQuery;
+        private final int mNumResults;
+        public SearchPostsLocalResults(@NonNull String query, int numResults) {
+            mQuery = query;
+            mNumResults = numResults;
+        }
+        public String getQuery() {
+            return mQuery;
+        }
+        public int getNumResults() {
+            return mNumResults;
+        }
+    }
     public static class SearchPostsEnded {
         private final String mQuery;
         private final boolean mDidSucceed;
@@ -59,6 +59,7 @@ import org.wordpress.android.util.AnalyticsUtils;
 import org.wordpress.android.util.AniUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.DateTimeUtils;
 import org.wordpress.android.util.HtmlUtils;
 import org.wordpress.android.util.NetworkUtils;
@@ -913,7 +914,7 @@ public class ReaderPostDetailFragment extends Fragment
             return;
         }
 
-        new ShowPostTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        new ShowPostTask().executeOnExecutor(BackgroundExecutors.uiRead());
     }
 
     /*
@@ -53,6 +53,7 @@ import org.wordpress.android.ui.reader.adapters.ReaderMenuAdapter;
 import org.wordpress.android.ui.reader.adapters.ReaderPostAdapter;
 import org.wordpress.android.ui.reader.adapters.ReaderSearchSuggestionAdapter;
 import org.wordpress.android.ui.reader.services.ReaderPostService;
+import org.wordpress.android.ui.reader.services.ReaderPurgeJobService;
 import org.wordpress.android.ui.reader.services.ReaderPostService.UpdateAction;
 import org.wordpress.android.ui.reader.services.ReaderSearchService;
 import org.wordpress.android.ui.reader.services.ReaderUpdateService;
@@ -63,6 +64,7 @@ import org.wordpress.android.util.AnalyticsUtils;
 import org.wordpress.android.util.AniUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.DateTimeUtils;
 import org.wordpress.android.util.DisplayUtils;
 import org.wordpress.android.util.NetworkUtils;
@@ -113,6 +115,7 @@ public class ReaderPostListFragment extends Fragment
     private int mRestorePosition;
 
     private boolean mIsUpdating;
+    private boolean mIsUpdatingOlderPosts;
     private boolean mWasPaused;
     private boolean mHasUpdatedPosts;
     private boolean mIsAnimatingOutNewPostsBar;
@@ -425,6 +428,7 @@ public class ReaderPostListFragment extends Fragment
 
         mRecyclerView.setLogT(AppLog.T.READER);
         mRecyclerView.setCustomEmptyView(mEmptyView);
+        mRecyclerView.addOnScrollListener(mLoadMoreScrollListener);
         mRecyclerView.setFilterListener(new FilteredRecyclerView.FilterListener() {
             @Override
             public List<FilterCriteria> onLoadFilterCriteriaOptions(boolean refresh) {
@@ -730,6 +734,17 @@ public class ReaderPostListFragment extends Fragment
         setEmptyTitleAndDescription(false);
     }
 
+    @SuppressWarnings("unused")
+    public void onEventMainThread(ReaderEvents.SearchPostsLocalResults event) {
+        if (!isAdded()) return;
+
+        // show cached posts matching the query while waiting for results from the server
+        if (getPostListType() == ReaderPostListType.SEARCH_RESULTS
+                && event.getQuery().equals(mCurrentSearchQuery)) {
+            refreshPosts();
+        }
+    }
+
     @SuppressWarnings("unused")
     public void onEventMainThread(ReaderEvents.SearchPostsEnded event) {
         if (!isAdded()) return;
@@ -959,8 +974,10 @@ public class ReaderPostListFragment extends Fragment
     private final ReaderActions.DataRequestedListener mDataRequestedListener = new ReaderActions.DataRequestedListener() {
         @Override
         public void onRequestData() {
-            // skip if update is already in progress
-            if (isUpdating()) {
+            // skip if update is already in progress or we're offline, and let the adapter ask
+            // again the next time it binds a post near the end
+            if (isUpdating() || !NetworkUtils.isNetworkAvailable(getActivity())) {
+                getPostAdapter().clearLoadMoreRequest();
                 return;
             }
 
@@ -990,7 +1007,7 @@ public class ReaderPostListFragment extends Fragment
 
                 case SEARCH_RESULTS:
                     ReaderTag searchTag = ReaderSearchService.getTagForSearchQuery(mCurrentSearchQuery);
-                    int offset = ReaderPostTable.getNumPostsWithTag(searchTag);
+                    int offset = ReaderPostTable.getNumServerPostsWithSearchTag(searchTag);
                     if (offset < ReaderConstants.READER_MAX_POSTS_TO_DISPLAY) {
                         updatePostsInCurrentSearch(offset);
                         AnalyticsTracker.track(AnalyticsTracker.Stat.READER_INFINITE_SCROLL);
@@ -1126,7 +1143,7 @@ public class ReaderPostListFragment extends Fragment
      * load tags on which the main data will be filtered
      */
     private void loadTags(FilteredRecyclerView.FilterCriteriaAsyncLoaderListener listener) {
-        new LoadTagsTask(listener).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        new LoadTagsTask(listener).executeOnExecutor(BackgroundExecutors.uiRead());
     }
 
     /*
@@ -1190,6 +1207,12 @@ public class ReaderPostListFragment extends Fragment
             return;
         }
 
+        if (event.getAction() == UpdateAction.REQUEST_OLDER
+                && event.getResult() == ReaderActions.UpdateResult.FAILED
+                && hasPostAdapter()) {
+            getPostAdapter().clearLoadMoreRequest();
+        }
+
         // don't show new posts if user is searching - posts will automatically
         // appear when search is exited
         if (isSearchViewExpanded()
@@ -1252,7 +1275,7 @@ public class ReaderPostListFragment extends Fragment
         if (!isAdded() || !hasCurrentTag()) {
             return;
         }
-        new Thread() {
+        BackgroundExecutors.io().execute(new Runnable() {
             @Override
             public void run() {
                 if (ReaderTagTable.shouldAutoUpdateTag(getCurrentTag()) && isAdded()) {
@@ -1264,7 +1287,7 @@ public class ReaderPostListFragment extends Fragment
                     });
                 }
             }
-        }.start();
+        });
     }
 
     private boolean isUpdating() {
@@ -1291,8 +1314,11 @@ public class ReaderPostListFragment extends Fragment
         }
 
         if (updateAction == UpdateAction.REQUEST_OLDER) {
-            // show/hide progress bar at bottom if these are older posts
-            showLoadingProgress(isUpdating);
+            // older posts are requested before the user reaches the end of the list, so only show
+            // the progress bar at the bottom if they've already reached it - otherwise it's shown
+            // by mLoadMoreScrollListener if they get there before the older posts arrive
+            mIsUpdatingOlderPosts = isUpdating;
+            showLoadingProgress(isUpdating && mRecyclerView.isLastItemVisible());
         } else if (isUpdating && isPostAdapterEmpty()) {
             // show swipe-to-refresh if update started and no posts are showing
             mRecyclerView.setRefreshing(true);
@@ -1324,6 +1350,20 @@ public class ReaderPostListFragment extends Fragment
         return (mNewPostsBar != null && mNewPostsBar.getVisibility() == View.VISIBLE);
     }
 
+    /*
+     * scroll listener which shows the progress bar at the bottom if the user reaches the end of
+     * the list while older posts are still being requested
+     */
+    private final RecyclerView.OnScrollListener mLoadMoreScrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+            super.onScrolled(recyclerView, dx, dy);
+            if (mIsUpdatingOlderPosts && dy > 0 && mRecyclerView.isLastItemVisible()) {
+                showLoadingProgress(true);
+            }
+        }
+    };
+
     /*
      * scroll listener assigned to the recycler when the "new posts" bar is shown to hide
      * it upon scrolling
@@ -1533,6 +1573,7 @@ public class ReaderPostListFragment extends Fragment
             AppLog.d(T.READER, "reader post list > purging database");
             mHasPurgedReaderDb = true;
             ReaderDatabase.purgeAsync();
+            ReaderPurgeJobService.schedule(getActivity());
         }
     }
 
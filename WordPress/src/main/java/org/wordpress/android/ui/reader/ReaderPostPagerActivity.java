@@ -40,6 +40,7 @@ import org.wordpress.android.ui.reader.services.ReaderPostService;
 import org.wordpress.android.util.AnalyticsUtils;
 import org.wordpress.android.util.AniUtils;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.NetworkUtils;
 import org.wordpress.android.util.ToastUtils;
 import org.wordpress.android.widgets.WPSwipeSnackbar;
@@ -646,7 +647,7 @@ public class ReaderPostPagerActivity extends AppCompatActivity
      * one will be made active
      */
     private void loadPosts(final long blogId, final long postId) {
-        new Thread() {
+        BackgroundExecutors.uiRead().execute(new Runnable() {
             @Override
             public void run() {
                 final ReaderBlogIdPostIdList idList;
@@ -697,7 +698,7 @@ public class ReaderPostPagerActivity extends AppCompatActivity
                     }
                 });
             }
-        }.start();
+        });
     }
 
     private ReaderTag getCurrentTag() {
@@ -17,6 +17,7 @@ import org.wordpress.android.ui.reader.utils.ReaderImageScanner;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.ui.reader.views.ReaderWebView;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.DisplayUtils;
 import org.wordpress.android.util.PhotonUtils;
 import org.wordpress.android.util.StringUtils;
@@ -75,7 +76,7 @@ class ReaderPostRenderer {
         final Handler handler = new Handler();
         mRenderBuilder = new StringBuilder(getPostContent());
 
-        new Thread() {
+        BackgroundExecutors.cpu().execute(new Runnable() {
             @Override
             public void run() {
                 final boolean hasTiledGallery = hasTiledGallery(mRenderBuilder.toString());
@@ -99,7 +100,7 @@ class ReaderPostRenderer {
                     }
                 });
             }
-        }.start();
+        });
     }
 
     public static boolean hasTiledGallery(String text) {
@@ -0,0 +1,413 @@
+package org.wordpress.android.ui.reader.actions;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.VisibleForTesting;
+
+import com.android.volley.VolleyError;
+import com.wordpress.rest.RestRequest;
+
+import org.json.JSONObject;
+import org.wordpress.android.WordPress;
+import org.wordpress.android.datasets.ReaderActionQueueTable;
+import org.wordpress.android.datasets.ReaderBlogTable;
+import org.wordpress.android.datasets.ReaderCommentTable;
+import org.wordpress.android.datasets.ReaderLikeTable;
+import org.wordpress.android.datasets.ReaderPostTable;
+import org.wordpress.android.models.ReaderComment;
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.ui.reader.actions.ReaderActions.ActionListener;
+import org.wordpress.android.ui.reader.models.ReaderPendingAction;
+import org.wordpress.android.ui.reader.models.ReaderPendingAction.ActionType;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.JSONUtils;
+import org.wordpress.android.util.NetworkUtils;
+import org.wordpress.android.util.VolleyUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * local-first queue of reader likes, comment likes and blog follows. callers apply each change to
+ * the local db before queueing it, the queue stores it in ReaderActionQueueTable so it survives the
+ * app being closed, and it's sent to the server after a short delay so that rapid toggles collapse
+ * into a single request - or none at all if the user ends up back where they started. changes which
+ * can't be sent because the device is offline are replayed when the connection returns (see
+ * flush), changes which fail because the server can't be reached are retried with a backoff, and
+ * changes the server rejects - or which still fail after MAX_SEND_ATTEMPTS or MAX_ACTION_AGE_MS -
+ * are reverted locally. there's only ever one pending change and one request in flight per item.
+ * must only be called on the main thread.
+ */
+public class ReaderActionQueue {
+    private static final long FLUSH_DELAY_MS = 1000;
+    private static final int MAX_CONCURRENT_REQUESTS = 3;
+
+    // failed sends are retried after RETRY_DELAY_MS, doubling with each attempt up to MAX_RETRY_DELAY_MS
+    private static final long RETRY_DELAY_MS = 5000;
+    private static final long MAX_RETRY_DELAY_MS = 10 * 60 * 1000;
+
+    // an action which still can't be sent after this many attempts, or this long after it was queued,
+    // is given up on
+    static final int MAX_SEND_ATTEMPTS = 8;
+    private static final long MAX_ACTION_AGE_MS = 3 * 24 * 60 * 60 * 1000L;
+
+    enum SendResult {
+        SUCCEEDED,
+        REJECTED,       // the server refused the change, so it's reverted locally
+        NETWORK_FAILED  // the server couldn't be reached, so the change is kept for replay
+    }
+
+    interface SendCallback {
+        void onSendResult(SendResult result);
+    }
+
+    interface ActionSender {
+        boolean isConnected();
+        void send(ReaderPendingAction action, SendCallback callback);
+    }
+
+    private static ActionSender sSender = new RestActionSender();
+
+    // keys of actions with a request in flight, and the listeners waiting for each action
+    private static final Set<String> sInFlight = new HashSet<>();
+    private static final Map<String, List<ActionListener>> sListeners = new HashMap<>();
+
+    private static boolean sIsFlushing;
+    private static boolean sIsFlushRequested;
+
+    private static final Handler sHandler = new Handler(Looper.getMainLooper());
+    private static final Runnable sFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    private ReaderActionQueue() {
+        throw new AssertionError();
+    }
+
+    /*
+     * replaces the sender used to send actions - passing null restores the default REST sender
+     */
+    @VisibleForTesting
+    static void setSender(ActionSender sender) {
+        sSender = sender != null ? sender : new RestActionSender();
+    }
+
+    /*
+     * queues a post like/unlike - numLikesBefore is the post's like count before the caller
+     * applied the change locally
+     */
+    public static void enqueuePostLike(@NonNull ReaderPost post,
+                                       boolean isAskingToLike,
+                                       int numLikesBefore,
+                                       long wpComUserId) {
+        ReaderPendingAction action = new ReaderPendingAction(ActionType.LIKE_POST, post.blogId, post.postId, 0);
+        action.isOn = isAskingToLike;
+        action.serverCount = numLikesBefore;
+        action.userId = wpComUserId;
+        enqueue(action, null);
+    }
+
+    public static void enqueueCommentLike(@NonNull ReaderComment comment,
+                                          boolean isAskingToLike,
+                                          int numLikesBefore,
+                                          long wpComUserId) {
+        ReaderPendingAction action = new ReaderPendingAction(
+                ActionType.LIKE_COMMENT, comment.blogId, comment.postId, comment.commentId);
+        action.isOn = isAskingToLike;
+        action.serverCount = numLikesBefore;
+        action.userId = wpComUserId;
+        enqueue(action, null);
+    }
+
+    /*
+     * queues a blog follow/unfollow - the listener is told the follow succeeded once it's been sent
+     * (or kept for replay because the device is offline) and that it failed if the server rejects it
+     */
+    public static void enqueueFollowBlog(long blogId, boolean isAskingToFollow, ActionListener actionListener) {
+        ReaderPendingAction action = new ReaderPendingAction(ActionType.FOLLOW_BLOG, blogId, 0, 0);
+        action.isOn = isAskingToFollow;
+        enqueue(action, actionListener);
+    }
+
+    private static void enqueue(@NonNull ReaderPendingAction newAction, ActionListener actionListener) {
+        ReaderPendingAction action = ReaderActionQueueTable.getAction(
+                newAction.actionType, newAction.blogId, newAction.postId, newAction.commentId);
+        if (action != null) {
+            // an earlier change to this item is still pending, so replace what the user asked for
+            // but keep what the server last knew
+            action.isOn = newAction.isOn;
+        } else {
+            action = newAction;
+            action.serverIsOn = !newAction.isOn;
+            action.dateQueued = System.currentTimeMillis();
+        }
+
+        String key = action.getKey();
+        addListener(key, actionListener);
+
+        // the user toggled this item back before the earlier change was sent, so there's nothing
+        // to send unless a request for the earlier change is already in flight
+        if (action.isRedundant() && !sInFlight.contains(key)) {
+            ReaderActionQueueTable.deleteAction(action);
+            notifyListeners(key, true);
+            return;
+        }
+
+        ReaderActionQueueTable.addOrUpdateAction(action);
+        sHandler.removeCallbacks(sFlushRunnable);
+        sHandler.postDelayed(sFlushRunnable, FLUSH_DELAY_MS);
+    }
+
+    /*
+     * sends all pending actions which don't already have a request in flight - called a moment
+     * after an action is queued, and should be called when the connection is restored so actions
+     * queued while offline (including before the app was last closed) are replayed
+     */
+    public static void flush() {
+        sHandler.removeCallbacks(sFlushRunnable);
+
+        // requests may complete synchronously, in which case they ask for another pass rather
+        // than flushing while this pass is still iterating
+        if (sIsFlushing) {
+            sIsFlushRequested = true;
+            return;
+        }
+
+        sIsFlushing = true;
+        try {
+            do {
+                sIsFlushRequested = false;
+                sendPendingActions();
+            } while (sIsFlushRequested);
+        } finally {
+            sIsFlushing = false;
+        }
+    }
+
+    private static void sendPendingActions() {
+        boolean isConnected = sSender.isConnected();
+        for (ReaderPendingAction action : ReaderActionQueueTable.getPendingActions()) {
+            String key = action.getKey();
+            if (sInFlight.contains(key)) {
+                continue;
+            }
+            if (action.isRedundant()) {
+                ReaderActionQueueTable.deleteAction(action);
+                notifyListeners(key, true);
+            } else if (!isConnected) {
+                // kept for replay - the change has already been applied locally
+                notifyListeners(key, true);
+            } else if (sInFlight.size() < MAX_CONCURRENT_REQUESTS) {
+                send(action);
+            }
+        }
+    }
+
+    private static void send(@NonNull final ReaderPendingAction action) {
+        final String key = action.getKey();
+        sInFlight.add(key);
+        AppLog.d(T.READER, "reader action queue > sending " + key + (action.isOn ? " on" : " off"));
+        sSender.send(action, new SendCallback() {
+            @Override
+            public void onSendResult(SendResult result) {
+                onActionSent(action, result);
+            }
+        });
+    }
+
+    private static void onActionSent(@NonNull ReaderPendingAction sentAction, SendResult result) {
+        String key = sentAction.getKey();
+        sInFlight.remove(key);
+
+        // the user may have changed this item again while the request was in flight
+        ReaderPendingAction action = ReaderActionQueueTable.getAction(
+                sentAction.actionType, sentAction.blogId, sentAction.postId, sentAction.commentId);
+        if (action == null) {
+            notifyListeners(key, result != SendResult.REJECTED);
+            return;
+        }
+
+        switch (result) {
+            case SUCCEEDED:
+                if (action.isLike() && action.serverIsOn != sentAction.isOn) {
+                    action.serverCount = Math.max(0, action.serverCount + (sentAction.isOn ? 1 : -1));
+                }
+                action.serverIsOn = sentAction.isOn;
+                if (action.isRedundant()) {
+                    ReaderActionQueueTable.deleteAction(action);
+                    notifyListeners(key, true);
+                } else {
+                    ReaderActionQueueTable.addOrUpdateAction(action);
+                }
+                flush();
+                break;
+
+            case REJECTED:
+                AppLog.w(T.READER, "reader action queue > server rejected " + key);
+                // if the user has since changed their mind, what's pending is what they want now
+                // and the next flush will discard it
+                if (action.isOn == sentAction.isOn) {
+                    revertLocalChange(action);
+                    ReaderActionQueueTable.deleteAction(action);
+                    notifyListeners(key, false);
+                }
+                flush();
+                break;
+
+            case NETWORK_FAILED:
+                action.numAttempts++;
+                if (action.numAttempts >= MAX_SEND_ATTEMPTS
+                        || System.currentTimeMillis() - action.dateQueued > MAX_ACTION_AGE_MS) {
+                    AppLog.w(T.READER, "reader action queue > giving up on " + key + " after "
+                            + action.numAttempts + " attempts");
+                    revertLocalChange(action);
+                    ReaderActionQueueTable.deleteAction(action);
+                    notifyListeners(key, false);
+                    break;
+                }
+
+                // kept for replay - retried after a backoff rather than flushed again here so an
+                // unreachable server isn't retried in a loop
+                long retryDelayMs = Math.min(RETRY_DELAY_MS << (action.numAttempts - 1), MAX_RETRY_DELAY_MS);
+                AppLog.w(T.READER, "reader action queue > unable to send " + key + ", will retry in "
+                        + retryDelayMs + " ms");
+                ReaderActionQueueTable.addOrUpdateAction(action);
+                notifyListeners(key, true);
+                sHandler.removeCallbacks(sFlushRunnable);
+                sHandler.postDelayed(sFlushRunnable, retryDelayMs);
+                break;
+        }
+    }
+
+    /*
+     * restores the local db to the state the server last knew about
+     */
+    private static void revertLocalChange(@NonNull ReaderPendingAction action) {
+        switch (action.actionType) {
+            case LIKE_POST:
+                ReaderPost post = new ReaderPost();
+                post.blogId = action.blogId;
+                post.postId = action.postId;
+                ReaderPostTable.setLikesForPost(post, action.serverCount, action.serverIsOn);
+                ReaderLikeTable.setCurrentUserLikesPost(post, action.serverIsOn, action.userId);
+                break;
+            case LIKE_COMMENT:
+                ReaderComment comment = new ReaderComment();
+                comment.blogId = action.blogId;
+                comment.postId = action.postId;
+                comment.commentId = action.commentId;
+                ReaderCommentTable.setLikesForComment(comment, action.serverCount, action.serverIsOn);
+                ReaderLikeTable.setCurrentUserLikesComment(comment, action.serverIsOn, action.userId);
+                break;
+            case FOLLOW_BLOG:
+                ReaderBlogTable.setIsFollowedBlogId(action.blogId, action.serverIsOn);
+                ReaderPostTable.setFollowStatusForPostsInBlog(action.blogId, action.serverIsOn);
+                break;
+        }
+    }
+
+    private static void addListener(String key, ActionListener actionListener) {
+        if (actionListener == null) {
+            return;
+        }
+        List<ActionListener> listeners = sListeners.get(key);
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+            sListeners.put(key, listeners);
+        }
+        listeners.add(actionListener);
+    }
+
+    private static void notifyListeners(String key, boolean succeeded) {
+        List<ActionListener> listeners = sListeners.remove(key);
+        if (listeners != null) {
+            for (ActionListener actionListener : listeners) {
+                ReaderActions.callActionListener(actionListener, succeeded);
+            }
+        }
+    }
+
+    /*
+     * sends actions through the REST api - responses with an http status are treated as rejections
+     * except server errors, which like connection failures and timeouts are retried later
+     */
+    private static class RestActionSender implements ActionSender {
+        @Override
+        public boolean isConnected() {
+            return NetworkUtils.isNetworkAvailable(WordPress.getContext());
+        }
+
+        @Override
+        public void send(final ReaderPendingAction action, final SendCallback callback) {
+            final String path;
+            switch (action.actionType) {
+                case LIKE_POST:
+                    path = "sites/" + action.blogId + "/posts/" + action.postId + "/likes/"
+                            + (action.isOn ? "new" : "mine/delete");
+                    break;
+                case LIKE_COMMENT:
+                    path = "sites/" + action.blogId + "/comments/" + action.commentId + "/likes/"
+                            + (action.isOn ? "new" : "mine/delete");
+                    break;
+                default:
+                    path = "sites/" + action.blogId + "/follows/"
+                            + (action.isOn ? "new?source=android" : "mine/delete");
+                    break;
+            }
+
+            RestRequest.Listener listener = new RestRequest.Listener() {
+                @Override
+                public void onResponse(JSONObject jsonObject) {
+                    boolean success;
+                    switch (action.actionType) {
+                        case LIKE_COMMENT:
+                            success = jsonObject != null && JSONUtils.getBool(jsonObject, "success");
+                            break;
+                        case FOLLOW_BLOG:
+                            success = ReaderBlogActions.isFollowActionSuccessful(jsonObject, action.isOn);
+                            break;
+                        default:
+                            success = true;
+                            break;
+                    }
+                    if (!success) {
+                        AppLog.w(T.READER, "reader action queue > unsuccessful response - " + path);
+                    }
+                    callback.onSendResult(success ? SendResult.SUCCEEDED : SendResult.REJECTED);
+                }
+            };
+            RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
+                @Override
+                public void onErrorResponse(VolleyError volleyError) {
+                    AppLog.e(T.READER, volleyError);
+                    int status = VolleyUtils.statusCodeFromVolleyError(volleyError);
+                    if (status == 0 || status >= 500) {
+                        callback.onSendResult(SendResult.NETWORK_FAILED);
+                    } else if (status == 403 && action.actionType == ActionType.FOLLOW_BLOG && !action.isOn) {
+                        // a 403 when unfollowing means the blog no longer exists, in which case we
+                        // unfollow it by url instead
+                        ReaderBlogActions.internalUnfollowBlogByUrl(action.blogId, new ActionListener() {
+                            @Override
+                            public void onActionResult(boolean succeeded) {
+                                callback.onSendResult(succeeded ? SendResult.SUCCEEDED : SendResult.REJECTED);
+                            }
+                        });
+                    } else {
+                        callback.onSendResult(SendResult.REJECTED);
+                    }
+                }
+            };
+
+            WordPress.getRestClientUtilsV1_1().post(path, listener, errorListener);
+        }
+    }
+}
@@ -55,46 +55,15 @@ public class ReaderBlogActions {
             AnalyticsUtils.trackWithSiteId(AnalyticsTracker.Stat.READER_BLOG_UNFOLLOWED, blogId);
         }
 
-        final String actionName = (isAskingToFollow ? "follow" : "unfollow");
-        final String path = "sites/" + blogId + "/follows/" + (isAskingToFollow ? "new?source=android" : "mine/delete");
-
-        com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
-            @Override
-            public void onResponse(JSONObject jsonObject) {
-                boolean success = isFollowActionSuccessful(jsonObject, isAskingToFollow);
-                if (success) {
-                    AppLog.d(T.READER, "blog " + actionName + " succeeded");
-                } else {
-                    AppLog.w(T.READER, "blog " + actionName + " failed - " + jsonToString(jsonObject) + " - " + path);
-                    localRevertFollowBlogId(blogId, isAskingToFollow);
-                }
-                ReaderActions.callActionListener(actionListener, success);
-            }
-        };
-        RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
-            @Override
-            public void onErrorResponse(VolleyError volleyError) {
-                AppLog.w(T.READER, "blog " + actionName + " failed with error");
-                AppLog.e(T.READER, volleyError);
-                // check if we get a 403 when unfollowing - this will happen when we attempt
-                // to unfollow a blog that no longer exists - the workaround is to unfollow
-                // by url - note that the v1.2 endpoint will return a 404 in this situation
-                int status = VolleyUtils.statusCodeFromVolleyError(volleyError);
-                if (status == 403 && !isAskingToFollow) {
-                    internalUnfollowBlogByUrl(blogId, actionListener);
-                } else {
-                    localRevertFollowBlogId(blogId, isAskingToFollow);
-                    ReaderActions.callActionListener(actionListener, false);
-                }
-            }
-        };
-        WordPress.getRestClientUtilsV1_1().post(path, listener, errorListener);
+        // the server is updated by the action queue, which reverts the local change if the
+        // server rejects it
+        ReaderActionQueue.enqueueFollowBlog(blogId, isAskingToFollow, actionListener);
 
         return true;
     }
 
-    private static void internalUnfollowBlogByUrl(long blogId,
-                                                  final ActionListener actionListener) {
+    static void internalUnfollowBlogByUrl(long blogId,
+                                          final ActionListener actionListener) {
         String blogUrl = ReaderBlogTable.getBlogUrl(blogId);
         if (TextUtils.isEmpty(blogUrl)) {
             AppLog.w(T.READER, "URL not found for blogId " + blogId);
@@ -251,12 +220,8 @@ public class ReaderBlogActions {
     }
 
     /*
-     * called when a follow/unfollow fails, restores local data to previous state
+     * called when a feed follow/unfollow fails, restores local data to previous state
      */
-    private static void localRevertFollowBlogId(long blogId, boolean isAskingToFollow) {
-        ReaderBlogTable.setIsFollowedBlogId(blogId, !isAskingToFollow);
-        ReaderPostTable.setFollowStatusForPostsInBlog(blogId, !isAskingToFollow);
-    }
     private static void localRevertFollowFeedId(long feedId, boolean isAskingToFollow) {
         ReaderBlogTable.setIsFollowedFeedId(feedId, !isAskingToFollow);
         ReaderPostTable.setFollowStatusForPostsInFeed(feedId, !isAskingToFollow);
@@ -269,7 +234,7 @@ public class ReaderBlogActions {
      *      site/$site/follows/new
      *      site/$site/follows/mine/delete
      */
-    private static boolean isFollowActionSuccessful(JSONObject json, boolean isAskingToFollow) {
+    static boolean isFollowActionSuccessful(JSONObject json, boolean isAskingToFollow) {
         if (json == null) {
             return false;
         }
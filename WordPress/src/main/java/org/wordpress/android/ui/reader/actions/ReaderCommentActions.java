@@ -17,8 +17,6 @@ import org.wordpress.android.models.ReaderUser;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.wordpress.android.util.DateTimeUtils;
-import org.wordpress.android.util.JSONUtils;
-import org.wordpress.android.util.VolleyUtils;
 
 import java.util.Date;
 import java.util.HashMap;
@@ -141,45 +139,8 @@ public class ReaderCommentActions {
         ReaderCommentTable.setLikesForComment(comment, newNumLikes, isAskingToLike);
         ReaderLikeTable.setCurrentUserLikesComment(comment, isAskingToLike, wpComUserId);
 
-        // sites/$site/comments/$comment_ID/likes/new
-        final String actionName = isAskingToLike ? "like" : "unlike";
-        String path = "sites/" + comment.blogId + "/comments/" + comment.commentId + "/likes/";
-        if (isAskingToLike) {
-            path += "new";
-        } else {
-            path += "mine/delete";
-        }
-
-        RestRequest.Listener listener = new RestRequest.Listener() {
-            @Override
-            public void onResponse(JSONObject jsonObject) {
-                boolean success = (jsonObject != null && JSONUtils.getBool(jsonObject, "success"));
-                if (success) {
-                    AppLog.d(T.READER, String.format("comment %s succeeded", actionName));
-                } else {
-                    AppLog.w(T.READER, String.format("comment %s failed", actionName));
-                    ReaderCommentTable.setLikesForComment(comment, comment.numLikes, comment.isLikedByCurrentUser);
-                    ReaderLikeTable.setCurrentUserLikesComment(comment, comment.isLikedByCurrentUser, wpComUserId);
-                }
-            }
-        };
-
-        RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
-            @Override
-            public void onErrorResponse(VolleyError volleyError) {
-                String error = VolleyUtils.errStringFromVolleyError(volleyError);
-                if (TextUtils.isEmpty(error)) {
-                    AppLog.w(T.READER, String.format("comment %s failed", actionName));
-                } else {
-                    AppLog.w(T.READER, String.format("comment %s failed (%s)", actionName, error));
-                }
-                AppLog.e(T.READER, volleyError);
-                ReaderCommentTable.setLikesForComment(comment, comment.numLikes, comment.isLikedByCurrentUser);
-                ReaderLikeTable.setCurrentUserLikesComment(comment, comment.isLikedByCurrentUser, wpComUserId);
-            }
-        };
-
-        WordPress.getRestClientUtilsV1_1().post(path, listener, errorListener);
+        // sent by the action queue, which collapses rapid toggles and replays offline changes
+        ReaderActionQueue.enqueueCommentLike(comment, isAskingToLike, comment.numLikes, wpComUserId);
         return true;
     }
 }
@@ -2,7 +2,6 @@ package org.wordpress.android.ui.reader.actions;
 
 import android.os.Handler;
 import android.support.annotation.NonNull;
-import android.text.TextUtils;
 
 import com.android.volley.AuthFailureError;
 import com.android.volley.Request;
@@ -14,6 +13,7 @@ import com.wordpress.rest.RestRequest;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.wordpress.android.WordPress;
+import org.wordpress.android.datasets.ReaderDatabase;
 import org.wordpress.android.datasets.ReaderLikeTable;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.datasets.ReaderUserTable;
@@ -30,6 +30,7 @@ import org.wordpress.android.ui.reader.models.ReaderSimplePost;
 import org.wordpress.android.ui.reader.models.ReaderSimplePostList;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.JSONUtils;
 import org.wordpress.android.util.UrlUtils;
 import org.wordpress.android.util.VolleyUtils;
@@ -73,37 +74,9 @@ public class ReaderPostActions {
         ReaderPostTable.setLikesForPost(post, newNumLikes, isAskingToLike);
         ReaderLikeTable.setCurrentUserLikesPost(post, isAskingToLike, wpComUserId);
 
-        final String actionName = isAskingToLike ? "like" : "unlike";
-        String path = "sites/" + post.blogId + "/posts/" + post.postId + "/likes/";
-        if (isAskingToLike) {
-            path += "new";
-        } else {
-            path += "mine/delete";
-        }
-
-        com.wordpress.rest.RestRequest.Listener listener = new RestRequest.Listener() {
-            @Override
-            public void onResponse(JSONObject jsonObject) {
-                AppLog.d(T.READER, String.format("post %s succeeded", actionName));
-            }
-        };
-
-        RestRequest.ErrorListener errorListener = new RestRequest.ErrorListener() {
-            @Override
-            public void onErrorResponse(VolleyError volleyError) {
-                String error = VolleyUtils.errStringFromVolleyError(volleyError);
-                if (TextUtils.isEmpty(error)) {
-                    AppLog.w(T.READER, String.format("post %s failed", actionName));
-                } else {
-                    AppLog.w(T.READER, String.format("post %s failed (%s)", actionName, error));
-                }
-                AppLog.e(T.READER, volleyError);
-                ReaderPostTable.setLikesForPost(post, post.numLikes, post.isLikedByCurrentUser);
-                ReaderLikeTable.setCurrentUserLikesPost(post, post.isLikedByCurrentUser, wpComUserId);
-            }
-        };
-
-        WordPress.getRestClientUtilsV1_1().post(path, listener, errorListener);
+        // the change is sent by the action queue, which collapses rapid toggles into a single
+        // request and replays the change once the connection returns if the device is offline
+        ReaderActionQueue.enqueuePostLike(post, isAskingToLike, numCurrentLikes, wpComUserId);
         return true;
     }
 
@@ -146,7 +119,7 @@ public class ReaderPostActions {
 
         final Handler handler = new Handler();
 
-        new Thread() {
+        ReaderDatabase.executeWrite(new Runnable() {
             @Override
             public void run() {
                 ReaderPost serverPost = ReaderPost.fromJson(jsonObject);
@@ -196,7 +169,7 @@ public class ReaderPostActions {
                     });
                 }
             }
-        }.start();
+        });
     }
 
     /*
@@ -386,7 +359,7 @@ public class ReaderPostActions {
                                                    final JSONObject jsonObject) {
         if (jsonObject == null) return;
 
-        new Thread() {
+        BackgroundExecutors.cpu().execute(new Runnable() {
             @Override
             public void run() {
                 JSONArray jsonPosts = jsonObject.optJSONArray("posts");
@@ -405,7 +378,7 @@ public class ReaderPostActions {
                     EventBus.getDefault().post(new ReaderEvents.RelatedPostsUpdated(sourcePost, localRelatedPosts, globalRelatedPosts));
                 }
             }
-        }.start();
+        });
 
     }
 }
@@ -2,6 +2,10 @@ package org.wordpress.android.ui.reader.adapters;
 
 import android.content.Context;
 import android.os.AsyncTask;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
 import android.support.v7.widget.CardView;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
@@ -22,6 +26,7 @@ import org.wordpress.android.models.ReaderPost;
 import org.wordpress.android.models.ReaderPostDiscoverData;
 import org.wordpress.android.models.ReaderPostList;
 import org.wordpress.android.models.ReaderTag;
+import org.wordpress.android.networking.PhotonImageLoader;
 import org.wordpress.android.ui.reader.ReaderActivityLauncher;
 import org.wordpress.android.ui.reader.ReaderAnim;
 import org.wordpress.android.ui.reader.ReaderConstants;
@@ -31,6 +36,7 @@ import org.wordpress.android.ui.reader.actions.ReaderActions;
 import org.wordpress.android.ui.reader.actions.ReaderBlogActions;
 import org.wordpress.android.ui.reader.actions.ReaderPostActions;
 import org.wordpress.android.ui.reader.models.ReaderBlogIdPostId;
+import org.wordpress.android.ui.reader.utils.ReaderThumbnailResolver;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.ui.reader.utils.ReaderXPostUtils;
 import org.wordpress.android.ui.reader.views.ReaderFollowButton;
@@ -41,14 +47,17 @@ import org.wordpress.android.ui.reader.views.ReaderTagHeaderView;
 import org.wordpress.android.ui.reader.views.ReaderThumbnailStrip;
 import org.wordpress.android.util.AnalyticsUtils;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.DateTimeUtils;
 import org.wordpress.android.util.DisplayUtils;
 import org.wordpress.android.util.GravatarUtils;
 import org.wordpress.android.util.NetworkUtils;
 import org.wordpress.android.util.ToastUtils;
+import org.wordpress.android.util.TraceUtils;
 import org.wordpress.android.widgets.WPNetworkImageView;
 
 import java.util.HashSet;
+import java.util.List;
 
 import javax.inject.Inject;
 
@@ -65,12 +74,26 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     private final int mMarginLarge;
 
     private boolean mCanRequestMorePosts;
+    private int mLoadMoreRequestedAtCount = -1;
     private final boolean mIsLoggedOutReader;
 
     private final ReaderTypes.ReaderPostListType mPostListType;
     private final ReaderPostList mPosts = new ReaderPostList();
     private final HashSet<String> mRenderedIds = new HashSet<>();
 
+    // incremented whenever posts are added to or removed from mPosts, so a diff calculated in
+    // the background can be skipped if the list changed while it was being calculated
+    private int mListVersion;
+
+    // number of full and partial (payload only) binds since posts were last loaded
+    private int mNumFullBinds;
+    private int mNumPartialBinds;
+
+    // payloads passed when only part of a post has changed, so only that part is rebound
+    static final int PAYLOAD_LIKES    = 1;
+    static final int PAYLOAD_COMMENTS = 2;
+    static final int PAYLOAD_FOLLOW   = 4;
+
     private ReaderInterfaces.OnPostSelectedListener mPostSelectedListener;
     private ReaderInterfaces.OnPostPopupListener mOnPostPopupListener;
     private ReaderInterfaces.DataLoadedListener mDataLoadedListener;
@@ -304,11 +327,53 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
         }
     }
 
+    @Override
+    public void onBindViewHolder(RecyclerView.ViewHolder holder, int position, List<Object> payloads) {
+        int changes = getPayloadChanges(payloads);
+        if (changes == 0 || !(holder instanceof ReaderPostViewHolder)) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        ReaderPost post = getItem(position);
+        if (post == null) {
+            return;
+        }
+
+        mNumPartialBinds++;
+        ReaderPostViewHolder postHolder = (ReaderPostViewHolder) holder;
+        if ((changes & PAYLOAD_LIKES) != 0) {
+            showLikes(postHolder, post);
+        }
+        if ((changes & PAYLOAD_COMMENTS) != 0) {
+            showComments(postHolder, post);
+        }
+        if ((changes & PAYLOAD_FOLLOW) != 0 && shouldShowFollowButton()) {
+            postHolder.followButton.setIsFollowed(post.isFollowedByCurrentUser);
+        }
+    }
+
+    /*
+     * returns the combined PAYLOAD_ flags in the passed payloads, or zero if the item needs a full bind
+     */
+    private static int getPayloadChanges(List<Object> payloads) {
+        int changes = 0;
+        for (Object payload : payloads) {
+            if (!(payload instanceof Integer)) {
+                return 0;
+            }
+            changes |= (Integer) payload;
+        }
+        return changes;
+    }
+
     @Override
     public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
         if (holder instanceof ReaderPostViewHolder) {
+            mNumFullBinds++;
             renderPost(position, (ReaderPostViewHolder) holder);
         } else if (holder instanceof ReaderXPostViewHolder) {
+            mNumFullBinds++;
             renderXPost(position, (ReaderXPostViewHolder) holder);
         } else if (holder instanceof SiteHeaderViewHolder) {
             SiteHeaderViewHolder siteHolder = (SiteHeaderViewHolder) holder;
@@ -514,16 +579,51 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     }
 
     /*
-     * if we're nearing the end of the posts, fire request to load more
+     * if we're nearing the end of the posts, fire request to load more - this is done a few posts
+     * before the end so older posts are usually in place before the user reaches the end, and
+     * only once for each number of posts so binding the last few posts doesn't repeat the request
      */
     private void checkLoadMore(int position) {
+        int itemCount = getItemCount();
         if (mCanRequestMorePosts
                 && mDataRequestedListener != null
-                && (position >= getItemCount() - 1)) {
+                && itemCount != mLoadMoreRequestedAtCount
+                && (position >= itemCount - ReaderConstants.READER_PREFETCH_THRESHOLD)) {
+            mLoadMoreRequestedAtCount = itemCount;
             mDataRequestedListener.onRequestData();
         }
     }
 
+    /*
+     * called when a request for more posts failed so it's fired again the next time the user
+     * nears the end of the list
+     */
+    public void clearLoadMoreRequest() {
+        mLoadMoreRequestedAtCount = -1;
+    }
+
+    /*
+     * downloads the featured images of the first few of the passed posts into the image cache -
+     * used when older posts are appended so their images are ready by the time they scroll into view
+     */
+    private void prefetchFeaturedImages(List<ReaderPost> posts) {
+        PhotonImageLoader imageLoader = WordPress.sPhotonImageLoader;
+        if (imageLoader == null) {
+            return;
+        }
+        int numPrefetched = 0;
+        for (ReaderPost post : posts) {
+            if (post.hasFeaturedImage()
+                    && post.getCardType() != ReaderCardType.GALLERY
+                    && post.getCardType() != ReaderCardType.VIDEO) {
+                imageLoader.prefetch(post.getFeaturedImageForDisplay(mPhotonWidth, mPhotonHeight));
+                if (++numPrefetched == ReaderConstants.READER_PREFETCH_IMAGE_COUNT) {
+                    break;
+                }
+            }
+        }
+    }
+
     private void showDiscoverData(final ReaderPostViewHolder postHolder,
                                   final ReaderPost post) {
         final ReaderPostDiscoverData discoverData = post.getDiscoverData();
@@ -668,6 +768,7 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     public void clear() {
         if (!mPosts.isEmpty()) {
             mPosts.clear();
+            mListVersion++;
             notifyDataSetChanged();
         }
     }
@@ -681,6 +782,7 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
      */
     public void reload() {
         clear();
+        mLoadMoreRequestedAtCount = -1;
         loadPosts();
     }
 
@@ -695,6 +797,7 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             }
         }
         if (numRemoved > 0) {
+            mListVersion++;
             notifyDataSetChanged();
         }
     }
@@ -704,7 +807,7 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             AppLog.w(AppLog.T.READER, "reader posts task already running");
             return;
         }
-        new LoadPostsTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
+        new LoadPostsTask().executeOnExecutor(BackgroundExecutors.uiRead());
     }
 
     private ReaderPost getItem(int position) {
@@ -873,13 +976,15 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
     }
 
     public void setFollowStatusForBlog(long blogId, boolean isFollowing) {
+        // adapter positions are offset by one when there's a custom first item
+        int offset = hasCustomFirstItem() ? 1 : 0;
         ReaderPost post;
         for (int i = 0; i < mPosts.size(); i++) {
             post = mPosts.get(i);
             if (post.blogId == blogId && post.isFollowedByCurrentUser != isFollowing) {
                 post.isFollowedByCurrentUser = isFollowing;
                 mPosts.set(i, post);
-                notifyItemChanged(i);
+                notifyItemChanged(i + offset, PAYLOAD_FOLLOW);
             }
         }
     }
@@ -894,6 +999,94 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
         }
     }
 
+    /*
+     * calculates the changes needed to go from the old list of posts to the new one, with posts
+     * identified by blogId/postId - posts whose only changes are their like/comment counts or
+     * like/follow status are updated with a PAYLOAD_ payload so just those views are rebound.
+     * may be called from a background thread, returns null if a full reload makes more sense
+     */
+    static @Nullable DiffUtil.DiffResult calculateDiff(@NonNull final ReaderPostList oldPosts,
+                                                       @NonNull final ReaderPostList newPosts) {
+        // nothing to preserve when either list is empty
+        if (oldPosts.isEmpty() || newPosts.isEmpty()) {
+            return null;
+        }
+
+        return DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldPosts.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newPosts.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                ReaderPost oldPost = oldPosts.get(oldItemPosition);
+                ReaderPost newPost = newPosts.get(newItemPosition);
+                return oldPost.blogId == newPost.blogId && oldPost.postId == newPost.postId;
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldPosts.get(oldItemPosition).isSamePost(newPosts.get(newItemPosition));
+            }
+
+            @Override
+            public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+                ReaderPost oldPost = oldPosts.get(oldItemPosition);
+                ReaderPost newPost = newPosts.get(newItemPosition);
+                if (!oldPost.hasSameContent(newPost)) {
+                    return null;
+                }
+
+                int changes = 0;
+                if (oldPost.numLikes != newPost.numLikes
+                        || oldPost.isLikedByCurrentUser != newPost.isLikedByCurrentUser) {
+                    changes |= PAYLOAD_LIKES;
+                }
+                if (oldPost.numReplies != newPost.numReplies
+                        || oldPost.isCommentsOpen != newPost.isCommentsOpen) {
+                    changes |= PAYLOAD_COMMENTS;
+                }
+                if (oldPost.isFollowedByCurrentUser != newPost.isFollowedByCurrentUser) {
+                    changes |= PAYLOAD_FOLLOW;
+                }
+                return changes;
+            }
+        }, false);
+    }
+
+    /*
+     * passes list updates to the adapter, offset by the custom first item if there is one
+     */
+    private class PostListUpdateCallback implements ListUpdateCallback {
+        private final int mOffset = hasCustomFirstItem() ? 1 : 0;
+
+        @Override
+        public void onInserted(int position, int count) {
+            notifyItemRangeInserted(position + mOffset, count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            notifyItemRangeRemoved(position + mOffset, count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            notifyItemMoved(fromPosition + mOffset, toPosition + mOffset);
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            notifyItemRangeChanged(position + mOffset, count, payload);
+        }
+    }
+
     /*
      * AsyncTask to load posts in the current tag
      */
@@ -901,10 +1094,26 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
 
     private class LoadPostsTask extends AsyncTask<Void, Void, Boolean> {
         ReaderPostList allPosts;
+        boolean isAppend;
+        DiffUtil.DiffResult diffResult;
+
+        // copy of the posts being displayed when the task started, so the background thread
+        // doesn't read mPosts while it's being changed on the main thread
+        final ReaderPostList existingPosts = new ReaderPostList();
+        int baseListVersion;
 
         @Override
         protected void onPreExecute() {
             mIsTaskRunning = true;
+            existingPosts.addAll(mPosts);
+            baseListVersion = mListVersion;
+
+            if (mNumFullBinds > 0 || mNumPartialBinds > 0) {
+                AppLog.d(AppLog.T.READER, "reader post adapter > " + mNumFullBinds + " full binds, "
+                        + mNumPartialBinds + " partial binds since last load");
+                mNumFullBinds = 0;
+                mNumPartialBinds = 0;
+            }
         }
 
         @Override
@@ -935,7 +1144,7 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
                     return false;
             }
 
-            if (mPosts.isSameList(allPosts)) {
+            if (existingPosts.isSameList(allPosts)) {
                 return false;
             }
 
@@ -944,8 +1153,22 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
             mCanRequestMorePosts = (numExisting < ReaderConstants.READER_MAX_POSTS_TO_DISPLAY);
 
             // determine whether a gap marker exists - only applies to tagged posts
+            int oldGapMarkerPosition = mGapMarkerPosition;
             mGapMarkerPosition = getGapMarkerPosition();
 
+            // older posts added to the end of the list (the usual result of scrolling to the end)
+            // are inserted without rebinding the posts already showing
+            isAppend = mGapMarkerPosition == oldGapMarkerPosition && existingPosts.isStartOf(allPosts);
+
+            // otherwise calculate which posts were inserted, removed or changed so only those are
+            // updated - skipped when there's a gap marker since it isn't part of the list
+            if (!isAppend && mGapMarkerPosition == -1 && oldGapMarkerPosition == -1) {
+                diffResult = calculateDiff(existingPosts, allPosts);
+            }
+
+            // make sure video thumbnails are resolved before the cards are bound
+            ReaderThumbnailResolver.resolveThumbnails(allPosts);
+
             return true;
         }
 
@@ -983,12 +1206,32 @@ public class ReaderPostAdapter extends RecyclerView.Adapter<RecyclerView.ViewHol
 
         @Override
         protected void onPostExecute(Boolean result) {
-            if (result) {
+            boolean isListUnchanged = baseListVersion == mListVersion;
+            if (result && isAppend && isListUnchanged) {
+                int positionStart = getItemCount();
+                List<ReaderPost> olderPosts = allPosts.subList(mPosts.size(), allPosts.size());
+                mPosts.addAll(olderPosts);
+                notifyItemRangeInserted(positionStart, olderPosts.size());
+                prefetchFeaturedImages(olderPosts);
+            } else if (result && diffResult != null && isListUnchanged) {
+                TraceUtils.Span span = TraceUtils.beginSpan("ReaderPostAdapter.dispatchUpdates");
+                try {
+                    mPosts.clear();
+                    mPosts.addAll(allPosts);
+                    diffResult.dispatchUpdatesTo(new PostListUpdateCallback());
+                } finally {
+                    span.end();
+                }
+            } else if (result) {
                 mPosts.clear();
                 mPosts.addAll(allPosts);
                 notifyDataSetChanged();
             }
 
+            if (result) {
+                mListVersion++;
+            }
+
             if (mDataLoadedListener != null) {
                 mDataLoadedListener.onDataLoaded(isEmpty());
             }
@@ -0,0 +1,54 @@
+package org.wordpress.android.ui.reader.models;
+
+import java.util.Locale;
+
+/**
+ * a like, comment like or follow which has been applied locally but not yet confirmed by the
+ * server - see ReaderActionQueue
+ */
+public class ReaderPendingAction {
+    public enum ActionType {
+        LIKE_POST,
+        LIKE_COMMENT,
+        FOLLOW_BLOG
+    }
+
+    public final ActionType actionType;
+    public final long blogId;
+    public final long postId;    // zero for follows
+    public final long commentId; // zero unless this is a comment like
+
+    public boolean isOn;         // the state the user asked for (liked or followed)
+    public boolean serverIsOn;   // the last state known to the server
+    public int serverCount;      // the like count matching serverIsOn, zero for follows
+    public long userId;          // the wp.com user performing the action
+    public long dateQueued;
+    public int numAttempts;      // the number of sends which failed because the server couldn't be reached
+
+    public ReaderPendingAction(ActionType actionType, long blogId, long postId, long commentId) {
+        this.actionType = actionType;
+        this.blogId = blogId;
+        this.postId = postId;
+        this.commentId = commentId;
+    }
+
+    /*
+     * returns a key which identifies the item this action applies to - there's only ever one
+     * pending action for each key
+     */
+    public String getKey() {
+        return String.format(Locale.US, "%s:%d:%d:%d", actionType.name(), blogId, postId, commentId);
+    }
+
+    /*
+     * returns true if the server is already in the state the user asked for, which happens when
+     * the user toggles something and then toggles it back before the change is sent
+     */
+    public boolean isRedundant() {
+        return isOn == serverIsOn;
+    }
+
+    public boolean isLike() {
+        return actionType == ActionType.LIKE_POST || actionType == ActionType.LIKE_COMMENT;
+    }
+}
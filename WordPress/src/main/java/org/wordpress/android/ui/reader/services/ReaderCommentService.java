@@ -161,12 +161,12 @@ public class ReaderCommentService extends Service {
             return;
         }
 
-        new Thread() {
+        ReaderDatabase.executeWrite(new Runnable() {
             @Override
             public void run() {
                 final boolean hasNewComments;
 
-                ReaderDatabase.getWritableDb().beginTransaction();
+                ReaderDatabase.beginWriteTransaction(ReaderDatabase.getWritableDb());
                 try {
                     // purge existing comments if this was a request for the first page of comments
                     if (pageNumber == 1) {
@@ -207,6 +207,6 @@ public class ReaderCommentService extends Service {
                         (hasNewComments ? ReaderActions.UpdateResult.HAS_NEW : ReaderActions.UpdateResult.UNCHANGED);
                 resultListener.onUpdateResult(result);
             }
-        }.start();
+        });
     }
 }
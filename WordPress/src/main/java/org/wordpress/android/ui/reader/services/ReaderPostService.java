@@ -11,6 +11,7 @@ import com.wordpress.rest.RestRequest;
 
 import org.json.JSONObject;
 import org.wordpress.android.WordPress;
+import org.wordpress.android.datasets.ReaderDatabase;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.datasets.ReaderTagTable;
 import org.wordpress.android.models.ReaderPost;
@@ -21,9 +22,11 @@ import org.wordpress.android.ui.reader.ReaderConstants;
 import org.wordpress.android.ui.reader.ReaderEvents;
 import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResult;
 import org.wordpress.android.ui.reader.actions.ReaderActions.UpdateResultListener;
+import org.wordpress.android.ui.reader.utils.ReaderThumbnailResolver;
 import org.wordpress.android.ui.reader.utils.ReaderUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.StringUtils;
+import org.wordpress.android.util.TraceUtils;
 import org.wordpress.android.util.UrlUtils;
 
 import de.greenrobot.event.EventBus;
@@ -123,12 +126,14 @@ public class ReaderPostService extends Service {
     }
 
     private void updatePostsWithTag(final ReaderTag tag, final UpdateAction action) {
+        final TraceUtils.Span span = TraceUtils.beginAsyncSpan("ReaderPostService.updatePostsWithTag");
         requestPostsWithTag(
                 tag,
                 action,
                 new UpdateResultListener() {
                     @Override
                     public void onUpdateResult(UpdateResult result) {
+                        span.end();
                         EventBus.getDefault().post(new ReaderEvents.UpdatePostsEnded(tag, result, action));
                         stopSelf();
                     }
@@ -136,9 +141,11 @@ public class ReaderPostService extends Service {
     }
 
     private void updatePostsInBlog(long blogId, final UpdateAction action) {
+        final TraceUtils.Span span = TraceUtils.beginAsyncSpan("ReaderPostService.updatePostsInBlog");
         UpdateResultListener listener = new UpdateResultListener() {
             @Override
             public void onUpdateResult(UpdateResult result) {
+                span.end();
                 EventBus.getDefault().post(new ReaderEvents.UpdatePostsEnded(result, action));
                 stopSelf();
             }
@@ -147,9 +154,11 @@ public class ReaderPostService extends Service {
     }
 
     private void updatePostsInFeed(long feedId, final UpdateAction action) {
+        final TraceUtils.Span span = TraceUtils.beginAsyncSpan("ReaderPostService.updatePostsInFeed");
         UpdateResultListener listener = new UpdateResultListener() {
             @Override
             public void onUpdateResult(UpdateResult result) {
+                span.end();
                 EventBus.getDefault().post(new ReaderEvents.UpdatePostsEnded(result, action));
                 stopSelf();
             }
@@ -286,57 +295,77 @@ public class ReaderPostService extends Service {
             return;
         }
 
-        new Thread() {
+        ReaderDatabase.executeWrite(new Runnable() {
             @Override
             public void run() {
-                ReaderPostList serverPosts = ReaderPostList.fromJson(jsonObject);
-                UpdateResult updateResult = ReaderPostTable.comparePosts(serverPosts);
-                if (updateResult.isNewOrChanged()) {
-                    // gap detection - only applies to posts with a specific tag
-                    ReaderPost postWithGap = null;
-                    if (tag != null) {
-                        switch (updateAction) {
-                            case REQUEST_NEWER:
-                                // if there's no overlap between server and local (ie: all server
-                                // posts are new), assume there's a gap between server and local
-                                // provided that local posts exist
-                                int numServerPosts = serverPosts.size();
-                                if (numServerPosts >= 2
-                                        && ReaderPostTable.getNumPostsWithTag(tag) > 0
-                                        && !ReaderPostTable.hasOverlap(serverPosts)) {
-                                    // treat the second to last server post as having a gap
-                                    postWithGap = serverPosts.get(numServerPosts - 2);
-                                    // remove the last server post to deal with the edge case of
-                                    // there actually not being a gap between local & server
-                                    serverPosts.remove(numServerPosts - 1);
-                                    AppLog.d(AppLog.T.READER, "added gap marker to tag " + tag.getTagNameForLog());
-                                }
-                                ReaderPostTable.removeGapMarkerForTag(tag);
-                                break;
-                            case REQUEST_OLDER_THAN_GAP:
-                                // if service was started as a request to fill a gap, delete existing posts
-                                // before the one with the gap marker, then remove the existing gap marker
-                                ReaderPostTable.deletePostsBeforeGapMarkerForTag(tag);
-                                ReaderPostTable.removeGapMarkerForTag(tag);
-                                break;
+                TraceUtils.Span span = TraceUtils.beginSpan("ReaderPostService.handleUpdatePostsResponse");
+                try {
+                    handleUpdatePostsResponseOnWriter(tag, jsonObject, updateAction, resultListener);
+                } finally {
+                    span.end();
+                }
+            }
+        });
+    }
+
+    private static void handleUpdatePostsResponseOnWriter(final ReaderTag tag,
+                                                          final JSONObject jsonObject,
+                                                          final UpdateAction updateAction,
+                                                          final UpdateResultListener resultListener) {
+        TraceUtils.Span parseSpan = TraceUtils.beginSpan("ReaderPostService.parsePosts");
+        ReaderPostList serverPosts = ReaderPostList.fromJson(jsonObject);
+        parseSpan.end();
+
+        UpdateResult updateResult = ReaderPostTable.comparePosts(serverPosts);
+        if (updateResult.isNewOrChanged()) {
+            // gap detection - only applies to posts with a specific tag
+            ReaderPost postWithGap = null;
+            if (tag != null) {
+                switch (updateAction) {
+                    case REQUEST_NEWER:
+                        // if there's no overlap between server and local (ie: all server
+                        // posts are new), assume there's a gap between server and local
+                        // provided that local posts exist
+                        int numServerPosts = serverPosts.size();
+                        if (numServerPosts >= 2
+                                && ReaderPostTable.getNumPostsWithTag(tag) > 0
+                                && !ReaderPostTable.hasOverlap(serverPosts)) {
+                            // treat the second to last server post as having a gap
+                            postWithGap = serverPosts.get(numServerPosts - 2);
+                            // remove the last server post to deal with the edge case of
+                            // there actually not being a gap between local & server
+                            serverPosts.remove(numServerPosts - 1);
+                            AppLog.d(AppLog.T.READER, "added gap marker to tag " + tag.getTagNameForLog());
                         }
-                    }
+                        ReaderPostTable.removeGapMarkerForTag(tag);
+                        break;
+                    case REQUEST_OLDER_THAN_GAP:
+                        // if service was started as a request to fill a gap, delete existing posts
+                        // before the one with the gap marker, then remove the existing gap marker
+                        ReaderPostTable.deletePostsBeforeGapMarkerForTag(tag);
+                        ReaderPostTable.removeGapMarkerForTag(tag);
+                        break;
+                }
+            }
 
-                    ReaderPostTable.addOrUpdatePosts(tag, serverPosts);
+            TraceUtils.Span saveSpan = TraceUtils.beginSpan("ReaderPostService.savePosts");
+            ReaderPostTable.addOrUpdatePosts(tag, serverPosts);
+            saveSpan.end();
 
-                    // gap marker must be set after saving server posts
-                    if (postWithGap != null) {
-                        ReaderPostTable.setGapMarkerForTag(postWithGap.blogId, postWithGap.postId, tag);
-                    }
-                } else if (updateResult == UpdateResult.UNCHANGED && updateAction == UpdateAction.REQUEST_OLDER_THAN_GAP) {
-                    // edge case - request to fill gap returned nothing new, so remove the gap marker
-                    ReaderPostTable.removeGapMarkerForTag(tag);
-                    AppLog.w(AppLog.T.READER, "attempt to fill gap returned nothing new");
-                }
-                AppLog.d(AppLog.T.READER, "requested posts response = " + updateResult.toString());
-                resultListener.onUpdateResult(updateResult);
+            // gap marker must be set after saving server posts
+            if (postWithGap != null) {
+                ReaderPostTable.setGapMarkerForTag(postWithGap.blogId, postWithGap.postId, tag);
             }
-        }.start();
+
+            // resolve video thumbnails now so cards don't have to when they're bound
+            ReaderThumbnailResolver.resolveThumbnails(serverPosts);
+        } else if (updateResult == UpdateResult.UNCHANGED && updateAction == UpdateAction.REQUEST_OLDER_THAN_GAP) {
+            // edge case - request to fill gap returned nothing new, so remove the gap marker
+            ReaderPostTable.removeGapMarkerForTag(tag);
+            AppLog.w(AppLog.T.READER, "attempt to fill gap returned nothing new");
+        }
+        AppLog.d(AppLog.T.READER, "requested posts response = " + updateResult.toString());
+        resultListener.onUpdateResult(updateResult);
     }
 
     /*
@@ -0,0 +1,85 @@
+package org.wordpress.android.ui.reader.services;
+
+import android.annotation.TargetApi;
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.Build;
+
+import org.wordpress.android.datasets.ReaderDatabase;
+import org.wordpress.android.util.AppLog;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * job which purges the reader database while the device is idle and charging - the purge is
+ * incremental, so if it doesn't complete within its time budget the job is rescheduled
+ */
+@TargetApi(Build.VERSION_CODES.LOLLIPOP)
+public class ReaderPurgeJobService extends JobService {
+    private static final int JOB_ID = 5001;
+    private static final long PURGE_TIME_BUDGET_MS = 5000;
+    private static final long PURGE_INTERVAL_MS = TimeUnit.DAYS.toMillis(1);
+
+    // set when the system stops the job, so the purge stops after its current batch
+    private final AtomicBoolean mIsStopped = new AtomicBoolean();
+
+    /*
+     * schedules the periodic purge job - does nothing prior to Lollipop, where the database
+     * is only purged when the reader is shown
+     */
+    public static void schedule(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return;
+        }
+
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        for (JobInfo pendingJob: scheduler.getAllPendingJobs()) {
+            if (pendingJob.getId() == JOB_ID) {
+                return;
+            }
+        }
+
+        JobInfo jobInfo = new JobInfo.Builder(JOB_ID, new ComponentName(context, ReaderPurgeJobService.class))
+                .setRequiresDeviceIdle(true)
+                .setRequiresCharging(true)
+                // like the purge in the post list, only purge when there's a connection so posts
+                // the user would expect to see offline aren't removed
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                .setPeriodic(PURGE_INTERVAL_MS)
+                .build();
+        scheduler.schedule(jobInfo);
+        AppLog.d(AppLog.T.READER, "reader purge job > scheduled");
+    }
+
+    @Override
+    public boolean onStartJob(final JobParameters params) {
+        AppLog.i(AppLog.T.READER, "reader purge job > started");
+        mIsStopped.set(false);
+        ReaderDatabase.executeWrite(new Runnable() {
+            @Override
+            public void run() {
+                ReaderDatabase.PurgeResult result = ReaderDatabase.purge(PURGE_TIME_BUDGET_MS, mIsStopped);
+                // reschedule if the purge didn't complete within its time budget - no need to
+                // report anything if the job was stopped since onStopJob() already asked for that
+                if (!mIsStopped.get()) {
+                    jobFinished(params, !result.isComplete);
+                }
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // the device is no longer idle or charging, so stop the purge after its current batch
+        // and retry it later
+        AppLog.i(AppLog.T.READER, "reader purge job > stopped");
+        mIsStopped.set(true);
+        return true;
+    }
+}
@@ -11,6 +11,7 @@ import com.wordpress.rest.RestRequest;
 
 import org.json.JSONObject;
 import org.wordpress.android.WordPress;
+import org.wordpress.android.datasets.ReaderDatabase;
 import org.wordpress.android.datasets.ReaderPostTable;
 import org.wordpress.android.models.ReaderPostList;
 import org.wordpress.android.models.ReaderTag;
@@ -104,18 +105,44 @@ public class ReaderSearchService extends Service {
 
         AppLog.d(AppLog.T.READER, "reader search service > starting search for " + query);
         EventBus.getDefault().post(new ReaderEvents.SearchPostsStarted(query, offset));
-        WordPress.getRestClientUtilsV1_2().get(path, null, null, listener, errorListener);
+
+        if (offset == 0) {
+            searchLocalPostsThenServer(query, path, listener, errorListener);
+        } else {
+            WordPress.getRestClientUtilsV1_2().get(path, null, null, listener, errorListener);
+        }
+    }
+
+    /*
+     * adds matching cached posts to the search results before requesting results from the server,
+     * so the user sees results instantly (and offline) - the server request is made only after
+     * the local results are stored so they can't replace server results which arrive first
+     */
+    private static void searchLocalPostsThenServer(final String query,
+                                                   final String path,
+                                                   final RestRequest.Listener listener,
+                                                   final RestRequest.ErrorListener errorListener) {
+        ReaderDatabase.executeWrite(new Runnable() {
+            @Override
+            public void run() {
+                int numLocal = ReaderPostTable.addLocalSearchResults(getTagForSearchQuery(query), query);
+                if (numLocal > 0) {
+                    EventBus.getDefault().post(new ReaderEvents.SearchPostsLocalResults(query, numLocal));
+                }
+                WordPress.getRestClientUtilsV1_2().get(path, null, null, listener, errorListener);
+            }
+        });
     }
 
     private static void handleSearchResponse(final String query, final int offset, final JSONObject jsonObject) {
-        new Thread() {
+        ReaderDatabase.executeWrite(new Runnable() {
             @Override
             public void run() {
                 ReaderPostList serverPosts = ReaderPostList.fromJson(jsonObject);
                 ReaderPostTable.addOrUpdatePosts(getTagForSearchQuery(query), serverPosts);
                 EventBus.getDefault().post(new ReaderEvents.SearchPostsEnded(query, offset, true));
             }
-        }.start();
+        });
     }
 
     /*
@@ -22,12 +22,18 @@ import org.wordpress.android.models.ReaderTag;
 import org.wordpress.android.models.ReaderTagList;
 import org.wordpress.android.models.ReaderTagType;
 import org.wordpress.android.ui.reader.ReaderConstants;
+import org.wordpress.android.ui.prefs.AppPrefs;
 import org.wordpress.android.ui.reader.ReaderEvents;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.JSONUtils;
+import org.wordpress.android.util.StringUtils;
+import org.wordpress.android.util.TraceUtils;
 
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.Locale;
 
 import javax.inject.Inject;
 
@@ -46,7 +52,9 @@ public class ReaderUpdateService extends Service {
         RECOMMENDED_BLOGS
     }
 
-    private EnumSet<UpdateTask> mCurrentTasks;
+    // tasks which are in progress, mapped to the span which times them - accessed from the
+    // main thread and the threads which complete the tasks, so synchronize on it
+    private final EnumMap<UpdateTask, TraceUtils.Span> mCurrentTasks = new EnumMap<>(UpdateTask.class);
     private static final String ARG_UPDATE_TASKS = "update_tasks";
 
     @Inject AccountStore mAccountStore;
@@ -90,24 +98,48 @@ public class ReaderUpdateService extends Service {
     }
 
     private void performTasks(EnumSet<UpdateTask> tasks) {
-        mCurrentTasks = EnumSet.copyOf(tasks);
+        // the service may be started again while tasks are still running, so skip those rather
+        // than running them twice
+        EnumSet<UpdateTask> newTasks = EnumSet.noneOf(UpdateTask.class);
+        synchronized (mCurrentTasks) {
+            for (UpdateTask task : tasks) {
+                if (!mCurrentTasks.containsKey(task)) {
+                    mCurrentTasks.put(task, TraceUtils.beginAsyncSpan("ReaderUpdateService." + task.name()));
+                    newTasks.add(task);
+                }
+            }
+        }
 
         // perform in priority order - we want to update tags first since without them
         // the Reader can't show anything
-        if (tasks.contains(UpdateTask.TAGS)) {
+        if (newTasks.contains(UpdateTask.TAGS)) {
             updateTags();
         }
-        if (tasks.contains(UpdateTask.FOLLOWED_BLOGS)) {
+        if (newTasks.contains(UpdateTask.FOLLOWED_BLOGS)) {
             updateFollowedBlogs();
         }
-        if (tasks.contains(UpdateTask.RECOMMENDED_BLOGS)) {
+        if (newTasks.contains(UpdateTask.RECOMMENDED_BLOGS)) {
             updateRecommendedBlogs();
         }
     }
 
+    /*
+     * called from the main thread when a request fails, otherwise from the db writer thread
+     */
     private void taskCompleted(UpdateTask task) {
-        mCurrentTasks.remove(task);
-        if (mCurrentTasks.isEmpty()) {
+        TraceUtils.Span span;
+        boolean isLastTask;
+        synchronized (mCurrentTasks) {
+            span = mCurrentTasks.remove(task);
+            isLastTask = mCurrentTasks.isEmpty();
+        }
+
+        if (span != null) {
+            span.end();
+            AppLog.d(AppLog.T.READER, String.format(Locale.US,
+                    "reader service > %s completed in %.0f ms", task.name(), span.getDurationMs()));
+        }
+        if (isLastTask) {
             allTasksCompleted();
         }
     }
@@ -140,51 +172,74 @@ public class ReaderUpdateService extends Service {
         WordPress.getRestClientUtilsV1_2().get("read/menu", null, null, listener, errorListener);
     }
 
+    /*
+     * responses are parsed on the shared cpu executor, then compared with & written to the db
+     * through ReaderDatabase.executeWrite() so the tasks don't contend for the writer
+     */
     private void handleUpdateTagsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        BackgroundExecutors.cpu().execute(new Runnable() {
             @Override
             public void run() {
                 // get server topics, both default & followed - but use "recommended" for logged-out
                 // reader since user won't have any followed tags
-                ReaderTagList serverTopics = new ReaderTagList();
-                serverTopics.addAll(parseTags(jsonObject, "default", ReaderTagType.DEFAULT));
-                if (!mAccountStore.hasAccessToken()) {
-                    serverTopics.addAll(parseTags(jsonObject, "recommended", ReaderTagType.FOLLOWED));
-                } else {
-                    serverTopics.addAll(parseTags(jsonObject, "subscribed", ReaderTagType.FOLLOWED));
-                }
-
-                // parse topics from the response, detect whether they're different from local
-                ReaderTagList localTopics = new ReaderTagList();
-                localTopics.addAll(ReaderTagTable.getDefaultTags());
-                localTopics.addAll(ReaderTagTable.getFollowedTags());
-                localTopics.addAll(ReaderTagTable.getCustomListTags());
-
-                if (!localTopics.isSameList(serverTopics)) {
-                    AppLog.d(AppLog.T.READER, "reader service > followed topics changed");
-                    // if any local topics have been removed from the server, make sure to delete
-                    // them locally (including their posts)
-                    deleteTags(localTopics.getDeletions(serverTopics));
-                    // now replace local topics with the server topics
-                    ReaderTagTable.replaceTags(serverTopics);
-                    // broadcast the fact that there are changes
-                    EventBus.getDefault().post(new ReaderEvents.FollowedTagsChanged());
+                final ReaderTagList serverTopics = new ReaderTagList();
+                final ReaderTagList serverRecommended;
+                TraceUtils.Span span = TraceUtils.beginSpan("ReaderUpdateService.parseTags");
+                try {
+                    serverTopics.addAll(parseTags(jsonObject, "default", ReaderTagType.DEFAULT));
+                    if (!mAccountStore.hasAccessToken()) {
+                        serverTopics.addAll(parseTags(jsonObject, "recommended", ReaderTagType.FOLLOWED));
+                        serverRecommended = null;
+                    } else {
+                        serverTopics.addAll(parseTags(jsonObject, "subscribed", ReaderTagType.FOLLOWED));
+                        serverRecommended = parseTags(jsonObject, "recommended", ReaderTagType.RECOMMENDED);
+                    }
+                } finally {
+                    span.end();
                 }
 
-                // save changes to recommended topics
-                if (mAccountStore.hasAccessToken()) {
-                    ReaderTagList serverRecommended = parseTags(jsonObject, "recommended", ReaderTagType.RECOMMENDED);
-                    ReaderTagList localRecommended = ReaderTagTable.getRecommendedTags(false);
-                    if (!serverRecommended.isSameList(localRecommended)) {
-                        AppLog.d(AppLog.T.READER, "reader service > recommended topics changed");
-                        ReaderTagTable.setRecommendedTags(serverRecommended);
-                        EventBus.getDefault().post(new ReaderEvents.RecommendedTagsChanged());
+                ReaderDatabase.executeWrite(new Runnable() {
+                    @Override
+                    public void run() {
+                        saveTags(serverTopics, serverRecommended);
+                        taskCompleted(UpdateTask.TAGS);
                     }
-                }
+                });
+            }
+        });
+    }
 
-                taskCompleted(UpdateTask.TAGS);
+    /*
+     * compares the parsed server topics with the local ones and saves any changes - must be
+     * called on the db writer thread
+     */
+    private static void saveTags(ReaderTagList serverTopics, ReaderTagList serverRecommended) {
+        // detect whether server topics are different from local
+        ReaderTagList localTopics = new ReaderTagList();
+        localTopics.addAll(ReaderTagTable.getDefaultTags());
+        localTopics.addAll(ReaderTagTable.getFollowedTags());
+        localTopics.addAll(ReaderTagTable.getCustomListTags());
+
+        if (!localTopics.isSameList(serverTopics)) {
+            AppLog.d(AppLog.T.READER, "reader service > followed topics changed");
+            // if any local topics have been removed from the server, make sure to delete
+            // them locally (including their posts)
+            deleteTags(localTopics.getDeletions(serverTopics));
+            // now replace local topics with the server topics
+            ReaderTagTable.replaceTags(serverTopics);
+            // broadcast the fact that there are changes
+            EventBus.getDefault().post(new ReaderEvents.FollowedTagsChanged());
+        }
+
+        // save changes to recommended topics (null for logged-out reader)
+        if (serverRecommended != null) {
+            ReaderTagList localRecommended = ReaderTagTable.getRecommendedTags(false);
+            if (!serverRecommended.isSameList(localRecommended)) {
+                AppLog.d(AppLog.T.READER, "reader service > recommended topics changed");
+                ReaderTagTable.setRecommendedTags(serverRecommended);
+                EventBus.getDefault().post(new ReaderEvents.RecommendedTagsChanged());
             }
-        }.start();
+        }
     }
 
     /*
@@ -231,7 +286,7 @@ public class ReaderUpdateService extends Service {
         }
 
         SQLiteDatabase db = ReaderDatabase.getWritableDb();
-        db.beginTransaction();
+        ReaderDatabase.beginWriteTransaction(db);
         try {
             for (ReaderTag tag: tagList) {
                 ReaderTagTable.deleteTag(tag);
@@ -268,29 +323,61 @@ public class ReaderUpdateService extends Service {
     }
 
     private void handleFollowedBlogsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        BackgroundExecutors.cpu().execute(new Runnable() {
             @Override
             public void run() {
-                ReaderBlogList serverBlogs = ReaderBlogList.fromJson(jsonObject);
-                ReaderBlogList localBlogs = ReaderBlogTable.getFollowedBlogs();
-
-                if (!localBlogs.isSameList(serverBlogs)) {
-                    // always update the list of followed blogs if there are *any* changes between
-                    // server and local (including subscription count, description, etc.)
-                    ReaderBlogTable.setFollowedBlogs(serverBlogs);
-                    // ...but only update the follow status and alert that followed blogs have
-                    // changed if the server list doesn't have the same blogs as the local list
-                    // (ie: a blog has been followed/unfollowed since local was last updated)
-                    if (!localBlogs.hasSameBlogs(serverBlogs)) {
-                        ReaderPostTable.updateFollowedStatus();
-                        AppLog.i(AppLog.T.READER, "reader blogs service > followed blogs changed");
-                        EventBus.getDefault().post(new ReaderEvents.FollowedBlogsChanged());
-                    }
+                // the response is usually identical to the previous one, in which case there's no
+                // need to build a ReaderBlogList from it and compare that with the local list. the
+                // hash still re-serializes the whole response, so this only saves the model parsing
+                // and the db work. the hash is cleared whenever the local follow state changes, so
+                // local changes made since the last response are still reconciled
+                final String responseHash = jsonObject != null ? StringUtils.getMd5Hash(jsonObject.toString()) : "";
+                if (responseHash.equals(AppPrefs.getReaderFollowedBlogsHash())
+                        && ReaderBlogTable.hasFollowedBlogs()) {
+                    AppLog.d(AppLog.T.READER, "reader service > followed blogs unchanged");
+                    taskCompleted(UpdateTask.FOLLOWED_BLOGS);
+                    return;
                 }
 
-                taskCompleted(UpdateTask.FOLLOWED_BLOGS);
+                final ReaderBlogList serverBlogs;
+                TraceUtils.Span span = TraceUtils.beginSpan("ReaderUpdateService.parseFollowedBlogs");
+                try {
+                    serverBlogs = ReaderBlogList.fromJson(jsonObject);
+                } finally {
+                    span.end();
+                }
+
+                ReaderDatabase.executeWrite(new Runnable() {
+                    @Override
+                    public void run() {
+                        saveFollowedBlogs(serverBlogs);
+                        AppPrefs.setReaderFollowedBlogsHash(responseHash);
+                        taskCompleted(UpdateTask.FOLLOWED_BLOGS);
+                    }
+                });
             }
-        }.start();
+        });
+    }
+
+    /*
+     * must be called on the db writer thread
+     */
+    private static void saveFollowedBlogs(ReaderBlogList serverBlogs) {
+        ReaderBlogList localBlogs = ReaderBlogTable.getFollowedBlogs();
+
+        if (!localBlogs.isSameList(serverBlogs)) {
+            // always update the list of followed blogs if there are *any* changes between
+            // server and local (including subscription count, description, etc.)
+            ReaderBlogTable.setFollowedBlogs(serverBlogs);
+            // ...but only update the follow status and alert that followed blogs have
+            // changed if the server list doesn't have the same blogs as the local list
+            // (ie: a blog has been followed/unfollowed since local was last updated)
+            if (!localBlogs.hasSameBlogs(serverBlogs)) {
+                ReaderPostTable.updateFollowedStatus();
+                AppLog.i(AppLog.T.READER, "reader blogs service > followed blogs changed");
+                EventBus.getDefault().post(new ReaderEvents.FollowedBlogsChanged());
+            }
+        }
     }
 
     /***
@@ -318,19 +405,24 @@ public class ReaderUpdateService extends Service {
         WordPress.getRestClientUtilsV1_1().get(path, listener, errorListener);
     }
     private void handleRecommendedBlogsResponse(final JSONObject jsonObject) {
-        new Thread() {
+        BackgroundExecutors.cpu().execute(new Runnable() {
             @Override
             public void run() {
-                ReaderRecommendBlogList serverBlogs = ReaderRecommendBlogList.fromJson(jsonObject);
-                ReaderRecommendBlogList localBlogs = ReaderBlogTable.getRecommendedBlogs();
-
-                if (!localBlogs.isSameList(serverBlogs)) {
-                    ReaderBlogTable.setRecommendedBlogs(serverBlogs);
-                    EventBus.getDefault().post(new ReaderEvents.RecommendedBlogsChanged());
-                }
-
-                taskCompleted(UpdateTask.RECOMMENDED_BLOGS);
+                final ReaderRecommendBlogList serverBlogs = ReaderRecommendBlogList.fromJson(jsonObject);
+
+                ReaderDatabase.executeWrite(new Runnable() {
+                    @Override
+                    public void run() {
+                        ReaderRecommendBlogList localBlogs = ReaderBlogTable.getRecommendedBlogs();
+                        if (!localBlogs.isSameList(serverBlogs)) {
+                            ReaderBlogTable.setRecommendedBlogs(serverBlogs);
+                            EventBus.getDefault().post(new ReaderEvents.RecommendedBlogsChanged());
+                        }
+
+                        taskCompleted(UpdateTask.RECOMMENDED_BLOGS);
+                    }
+                });
             }
-        }.start();
+        });
     }
 }
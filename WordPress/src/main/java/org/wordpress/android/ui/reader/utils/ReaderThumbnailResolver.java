@@ -0,0 +1,211 @@
+package org.wordpress.android.ui.reader.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+import android.util.LruCache;
+
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+
+import org.wordpress.android.datasets.ReaderDatabase;
+import org.wordpress.android.datasets.ReaderThumbnailTable;
+import org.wordpress.android.models.ReaderPost;
+import org.wordpress.android.models.ReaderPostList;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * resolves the thumbnails of videos featured in reader posts. thumbnails are resolved in the
+ * background when posts are synced or loaded for display, and kept in memory so reader cards can
+ * look them up when they're bound without querying the db or the network. vimeo thumbnails, which
+ * require a network request, are requested at most once at a time per video and only a few
+ * requests are in flight at once.
+ */
+public class ReaderThumbnailResolver {
+    private static final int MAX_CACHED_THUMBNAILS = 500;
+    private static final int MAX_CONCURRENT_REQUESTS = 2;
+    private static final long FAILED_REQUEST_RETRY_MS = 60 * 1000;
+
+    // maps video urls to their thumbnail urls - videos which vimeo says have no thumbnail map to an
+    // empty string so they're not requested again
+    private static final LruCache<String, String> sThumbnailUrls = new LruCache<>(MAX_CACHED_THUMBNAILS);
+
+    // maps video urls whose thumbnail request failed with a network error to when it failed, so
+    // they're retried after a short while rather than hammering the network while offline (and
+    // rather than being treated as having no thumbnail) - only accessed on the main thread
+    private static final LruCache<String, Long> sFailedRequests = new LruCache<>(MAX_CACHED_THUMBNAILS);
+
+    // video urls with a queued or in-flight thumbnail request, mapped to the listeners waiting for
+    // them - this and the request queue are only accessed on the main thread
+    private static final Map<String, List<ReaderVideoUtils.VideoThumbnailListener>> sPendingRequests =
+            new HashMap<>();
+    private static final ArrayDeque<ThumbnailRequest> sRequestQueue = new ArrayDeque<>();
+    private static int sNumRequestsInFlight;
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private static class ThumbnailRequest {
+        final String videoUrl;
+        final long postId;
+
+        ThumbnailRequest(String videoUrl, long postId) {
+            this.videoUrl = videoUrl;
+            this.postId = postId;
+        }
+    }
+
+    private ReaderThumbnailResolver() {
+        throw new AssertionError();
+    }
+
+    /*
+     * returns the thumbnail url for the passed video if it's been resolved (which will be empty if it
+     * couldn't be resolved) or null if it hasn't, without any db or network access - safe to call
+     * when binding views
+     */
+    public static @Nullable String getThumbnailUrl(String videoUrl) {
+        if (TextUtils.isEmpty(videoUrl)) {
+            return null;
+        }
+        if (ReaderVideoUtils.isYouTubeVideoLink(videoUrl)) {
+            return ReaderVideoUtils.getYouTubeThumbnailUrl(videoUrl);
+        }
+        return sThumbnailUrls.get(videoUrl);
+    }
+
+    /*
+     * background - resolves the thumbnails of the videos featured in the passed posts, first from the
+     * thumbnail table and then, for vimeo videos, from the network
+     */
+    public static void resolveThumbnails(@NonNull ReaderPostList posts) {
+        for (ReaderPost post : posts) {
+            if (!post.hasFeaturedVideo()) {
+                continue;
+            }
+            String videoUrl = post.getFeaturedVideo();
+            if (getThumbnailUrl(videoUrl) != null) {
+                continue;
+            }
+            String thumbnailUrl = ReaderThumbnailTable.getThumbnailUrl(videoUrl);
+            if (!TextUtils.isEmpty(thumbnailUrl)) {
+                sThumbnailUrls.put(videoUrl, thumbnailUrl);
+            } else if (ReaderVideoUtils.isVimeoLink(videoUrl)) {
+                requestThumbnail(videoUrl, post.postId, null);
+            }
+        }
+    }
+
+    /*
+     * requests the thumbnail for the passed vimeo video unless it's already been requested, in
+     * which case the listener is called when that request completes - may be called from any thread
+     * but the listener is always called on the main thread
+     */
+    public static void requestThumbnail(@NonNull final String videoUrl,
+                                        final long postId,
+                                        @Nullable final ReaderVideoUtils.VideoThumbnailListener listener) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            sMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    requestThumbnail(videoUrl, postId, listener);
+                }
+            });
+            return;
+        }
+
+        // the thumbnail may have been resolved since this was posted
+        String thumbnailUrl = getThumbnailUrl(videoUrl);
+        if (thumbnailUrl != null) {
+            if (listener != null) {
+                listener.onResponse(!thumbnailUrl.isEmpty(), thumbnailUrl);
+            }
+            return;
+        }
+
+        Long failedAt = sFailedRequests.get(videoUrl);
+        if (failedAt != null) {
+            if (SystemClock.elapsedRealtime() - failedAt < FAILED_REQUEST_RETRY_MS) {
+                if (listener != null) {
+                    listener.onResponse(false, null);
+                }
+                return;
+            }
+            sFailedRequests.remove(videoUrl);
+        }
+
+        List<ReaderVideoUtils.VideoThumbnailListener> listeners = sPendingRequests.get(videoUrl);
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+            sPendingRequests.put(videoUrl, listeners);
+            sRequestQueue.add(new ThumbnailRequest(videoUrl, postId));
+        }
+        if (listener != null) {
+            listeners.add(listener);
+        }
+
+        startQueuedRequests();
+    }
+
+    private static void startQueuedRequests() {
+        while (sNumRequestsInFlight < MAX_CONCURRENT_REQUESTS && !sRequestQueue.isEmpty()) {
+            final ThumbnailRequest request = sRequestQueue.removeFirst();
+            sNumRequestsInFlight++;
+            ReaderVideoUtils.VideoThumbnailListener listener = new ReaderVideoUtils.VideoThumbnailListener() {
+                @Override
+                public void onResponse(boolean successful, String thumbnailUrl) {
+                    onRequestCompleted(request, successful, thumbnailUrl, false);
+                }
+            };
+            Response.ErrorListener errorListener = new Response.ErrorListener() {
+                @Override
+                public void onErrorResponse(VolleyError volleyError) {
+                    onRequestCompleted(request, false, null, true);
+                }
+            };
+            ReaderVideoUtils.requestVimeoThumbnail(request.videoUrl, listener, errorListener);
+        }
+    }
+
+    private static void onRequestCompleted(final ThumbnailRequest request,
+                                           boolean successful,
+                                           final String thumbnailUrl,
+                                           boolean isNetworkError) {
+        sNumRequestsInFlight--;
+
+        if (successful) {
+            sThumbnailUrls.put(request.videoUrl, thumbnailUrl);
+            ReaderDatabase.executeWrite(new Runnable() {
+                @Override
+                public void run() {
+                    ReaderThumbnailTable.addThumbnail(request.postId, request.videoUrl, thumbnailUrl);
+                }
+            });
+        } else if (isNetworkError) {
+            // don't cache the failure as "no thumbnail" since the request may succeed later
+            AppLog.d(T.READER, "reader thumbnails > request failed for " + request.videoUrl);
+            sFailedRequests.put(request.videoUrl, SystemClock.elapsedRealtime());
+        } else {
+            AppLog.d(T.READER, "reader thumbnails > no thumbnail for " + request.videoUrl);
+            sThumbnailUrls.put(request.videoUrl, "");
+        }
+
+        List<ReaderVideoUtils.VideoThumbnailListener> listeners = sPendingRequests.remove(request.videoUrl);
+        if (listeners != null) {
+            for (ReaderVideoUtils.VideoThumbnailListener listener : listeners) {
+                listener.onResponse(successful, thumbnailUrl);
+            }
+        }
+
+        startQueuedRequests();
+    }
+}
@@ -1,6 +1,7 @@
 package org.wordpress.android.ui.reader.utils;
 
 import android.net.Uri;
+import android.support.annotation.Nullable;
 import android.text.TextUtils;
 
 import com.android.volley.Response;
@@ -130,6 +131,17 @@ public class ReaderVideoUtils {
      * unlike YouTube thumbnails, Vimeo thumbnails require network request
      */
     public static void requestVimeoThumbnail(final String videoUrl, final VideoThumbnailListener thumbListener) {
+        requestVimeoThumbnail(videoUrl, thumbListener, null);
+    }
+
+    /*
+     * same as above, but if networkErrorListener isn't null network errors are passed to it rather
+     * than reported as an unsuccessful response, so callers can tell a video without a thumbnail
+     * from a request which failed
+     */
+    public static void requestVimeoThumbnail(final String videoUrl,
+                                             final VideoThumbnailListener thumbListener,
+                                             @Nullable final Response.ErrorListener networkErrorListener) {
         // useless without a listener
         if (thumbListener==null)
             return;
@@ -159,7 +171,11 @@ public class ReaderVideoUtils {
             @Override
             public void onErrorResponse(VolleyError volleyError) {
                 AppLog.e(T.READER, volleyError);
-                thumbListener.onResponse(false, null);
+                if (networkErrorListener != null) {
+                    networkErrorListener.onErrorResponse(volleyError);
+                } else {
+                    thumbListener.onResponse(false, null);
+                }
             }
         };
 
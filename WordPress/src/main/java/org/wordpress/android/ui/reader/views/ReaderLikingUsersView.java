@@ -14,6 +14,7 @@ import org.wordpress.android.datasets.ReaderUserTable;
 import org.wordpress.android.fluxc.store.AccountStore;
 import org.wordpress.android.models.ReaderPost;
 import org.wordpress.android.models.ReaderUserIdList;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.widgets.WPNetworkImageView;
 
 import java.util.ArrayList;
@@ -48,7 +49,7 @@ public class ReaderLikingUsersView extends LinearLayout {
         }
 
         final Handler handler = new Handler();
-        new Thread() {
+        BackgroundExecutors.uiRead().execute(new Runnable() {
             @Override
             public void run() {
                 // get avatar URLs of liking users up to the max, sized to fit
@@ -66,7 +67,7 @@ public class ReaderLikingUsersView extends LinearLayout {
                     }
                 });
             }
-        }.start();
+        });
     }
 
     /*
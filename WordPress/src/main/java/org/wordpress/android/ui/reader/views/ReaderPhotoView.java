@@ -122,7 +122,7 @@ public class ReaderPhotoView extends RelativeLayout {
 
         showProgress();
 
-        mLoResContainer = WordPress.sImageLoader.get(mLoResImageUrl,
+        mLoResContainer = WordPress.getImageLoader(mLoResImageUrl).get(mLoResImageUrl,
                 new ImageLoader.ImageListener() {
                     @Override
                     public void onErrorResponse(VolleyError error) {
@@ -156,7 +156,7 @@ public class ReaderPhotoView extends RelativeLayout {
         Point pt = DisplayUtils.getDisplayPixelSize(this.getContext());
         int maxSize = Math.max(pt.x, pt.y);
 
-        mHiResContainer = WordPress.sImageLoader.get(mHiResImageUrl,
+        mHiResContainer = WordPress.getImageLoader(mHiResImageUrl).get(mHiResImageUrl,
                 new ImageLoader.ImageListener() {
                     @Override
                     public void onErrorResponse(VolleyError error) {
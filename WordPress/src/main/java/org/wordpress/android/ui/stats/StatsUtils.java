@@ -44,11 +44,46 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
 public class StatsUtils {
+    /*
+     * SimpleDateFormat is expensive to create and isn't thread-safe, so formatters are cached per
+     * thread and per pattern - the cache is cleared when the default locale or timezone changes
+     */
+    private static final ThreadLocal<Map<String, SimpleDateFormat>> sDateFormats =
+            new ThreadLocal<Map<String, SimpleDateFormat>>() {
+                @Override
+                protected Map<String, SimpleDateFormat> initialValue() {
+                    return new HashMap<>();
+                }
+            };
+    private static final ThreadLocal<String> sDateFormatsLocaleAndTimeZone = new ThreadLocal<>();
+
+    /**
+     * Returns a formatter for the passed pattern in the default locale and timezone which is shared
+     * by the calling thread - callers must not change its timezone or other settings
+     */
     @SuppressLint("SimpleDateFormat")
+    public static SimpleDateFormat getDateFormat(String pattern) {
+        Map<String, SimpleDateFormat> formats = sDateFormats.get();
+        String localeAndTimeZone = Locale.getDefault().toString() + "|" + TimeZone.getDefault().getID();
+        if (!localeAndTimeZone.equals(sDateFormatsLocaleAndTimeZone.get())) {
+            formats.clear();
+            sDateFormatsLocaleAndTimeZone.set(localeAndTimeZone);
+        }
+        SimpleDateFormat sdf = formats.get(pattern);
+        if (sdf == null) {
+            sdf = new SimpleDateFormat(pattern);
+            formats.put(pattern, sdf);
+        }
+        return sdf;
+    }
+
     private static long toMs(String date, String pattern) {
         if (date == null || date.equals("null")) {
             AppLog.w(T.UTILS, "Trying to parse a 'null' Stats Date.");
@@ -60,7 +95,7 @@ public class StatsUtils {
             return -1;
         }
 
-        SimpleDateFormat sdf = new SimpleDateFormat(pattern);
+        SimpleDateFormat sdf = getDateFormat(pattern);
         try {
             return sdf.parse(date).getTime();
         } catch (ParseException e) {
@@ -77,7 +112,7 @@ public class StatsUtils {
     }
 
     public static String msToString(long ms, String format) {
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
+        SimpleDateFormat sdf = getDateFormat(format);
         return sdf.format(new Date(ms));
     }
 
@@ -182,8 +217,8 @@ public class StatsUtils {
     }
 
     public static String parseDate(String timestamp, String fromFormat, String toFormat) {
-        SimpleDateFormat from = new SimpleDateFormat(fromFormat);
-        SimpleDateFormat to = new SimpleDateFormat(toFormat);
+        SimpleDateFormat from = getDateFormat(fromFormat);
+        SimpleDateFormat to = getDateFormat(toFormat);
         try {
             Date date = from.parse(timestamp);
             return to.format(date);
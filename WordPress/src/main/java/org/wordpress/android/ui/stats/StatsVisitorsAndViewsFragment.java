@@ -21,7 +21,7 @@ import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
 import org.wordpress.android.analytics.AnalyticsTracker;
 import org.wordpress.android.fluxc.model.SiteModel;
-import org.wordpress.android.ui.stats.models.VisitModel;
+import org.wordpress.android.ui.stats.models.VisitsGraphSeries;
 import org.wordpress.android.ui.stats.models.VisitsModel;
 import org.wordpress.android.ui.stats.service.StatsService;
 import org.wordpress.android.util.AnalyticsUtils;
@@ -31,12 +31,13 @@ import org.wordpress.android.util.FormatUtils;
 import org.wordpress.android.util.NetworkUtils;
 import org.wordpress.android.util.SiteUtils;
 import org.wordpress.android.util.StringUtils;
+import org.wordpress.android.util.TraceUtils;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.List;
 
 public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
         implements StatsBarGraph.OnGestureListener {
@@ -51,6 +52,8 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
     private LinearLayout mGraphContainer;
     private LinearLayout mNoActivtyThisPeriodContainer;
     private StatsBarGraph mGraphView;
+    private GraphViewSeries mMainSeries;
+    private GraphViewSeries mSecondarySeries;
     private LinearLayout mModuleButtonsContainer;
     private TextView mDateTextView;
     private String[] mStatsDate;
@@ -311,21 +314,45 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
         setupNoResultsUI(true);
     }
 
-    private VisitModel[] getDataToShowOnGraph(VisitsModel visitsData) {
-        List<VisitModel> visitModels = visitsData.getVisits();
-        int numPoints = Math.min(StatsUIHelper.getNumOfBarsToShow(), visitModels.size());
-        int currentPointIndex = numPoints - 1;
-        VisitModel[] visitModelsToShow = new VisitModel[numPoints];
+    /*
+     * returns the index of the first point in the series shown on the graph - only the most recent
+     * points that fit on the screen are shown
+     */
+    private static int getFirstPointToShow(VisitsGraphSeries series) {
+        return series.size() - Math.min(StatsUIHelper.getNumOfBarsToShow(), series.size());
+    }
+
+    private static int[] getValuesForOverviewItem(VisitsGraphSeries series, OverviewLabel item) {
+        switch (item) {
+            case VISITORS:
+                return series.getVisitors();
+            case LIKES:
+                return series.getLikes();
+            case COMMENTS:
+                return series.getComments();
+            default:
+                return series.getViews();
+        }
+    }
 
-        for (int i = visitModels.size() -1; i >= 0 && currentPointIndex >= 0; i--) {
-            VisitModel currentVisitModel = visitModels.get(i);
-            visitModelsToShow[currentPointIndex] = currentVisitModel;
-            currentPointIndex--;
+    private static GraphView.GraphViewData[] getGraphData(int[] values, int firstPoint) {
+        GraphView.GraphViewData[] data = new GraphView.GraphViewData[values.length - firstPoint];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new GraphView.GraphViewData(i, values[firstPoint + i]);
         }
-        return visitModelsToShow;
+        return data;
     }
 
     protected void updateUI() {
+        TraceUtils.Span span = TraceUtils.beginSpan("StatsVisitorsAndViewsFragment.updateUI");
+        try {
+            updateGraph();
+        } finally {
+            span.end();
+        }
+    }
+
+    private void updateGraph() {
         if (!isAdded()) {
             return;
         }
@@ -335,12 +362,15 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
             return;
         }
 
-        final VisitModel[] dataToShowOnGraph = getDataToShowOnGraph(mVisitsData);
-        if (dataToShowOnGraph == null || dataToShowOnGraph.length == 0) {
+        final VisitsGraphSeries series = mVisitsData.getGraphSeries();
+        if (series.size() == 0) {
             setupNoResultsUI(false);
             return;
         }
 
+        final int firstPoint = getFirstPointToShow(series);
+        final int numPoints = series.size() - firstPoint;
+
         // Hide the "no-activity this period" message
         mNoActivtyThisPeriodContainer.setVisibility(View.GONE);
 
@@ -361,70 +391,20 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
                 break;
         }
 
-        // Setting Up labels and prepare variables that hold series
-        final String[] horLabels = new String[dataToShowOnGraph.length];
-        mStatsDate = new String[dataToShowOnGraph.length];
-        GraphView.GraphViewData[] mainSeriesItems = new GraphView.GraphViewData[dataToShowOnGraph.length];
-
-        GraphView.GraphViewData[] secondarySeriesItems = null;
-        if (mIsCheckboxChecked && selectedStatsType == OverviewLabel.VIEWS) {
-            secondarySeriesItems = new GraphView.GraphViewData[dataToShowOnGraph.length];
-        }
-
-        // index of days that should be XXX on the graph
-        final boolean[] weekendDays;
-        if (getTimeframe() == StatsTimeframe.DAY) {
-            weekendDays = new boolean[dataToShowOnGraph.length];
-        } else {
-            weekendDays = null;
-        }
+        // Labels, dates and weekend days are precomputed for the whole series, so only the points
+        // on screen need to be copied
+        final String[] horLabels = Arrays.copyOfRange(series.getBarLabels(), firstPoint, series.size());
+        mStatsDate = Arrays.copyOfRange(series.getPeriods(), firstPoint, series.size());
+        final boolean[] weekendDays = series.getWeekendDays() != null
+                ? Arrays.copyOfRange(series.getWeekendDays(), firstPoint, series.size()) : null;
 
         // Check we have at least one result in the current section.
+        int[] values = getValuesForOverviewItem(series, selectedStatsType);
         boolean atLeastOneResultIsAvailable = false;
-
-        // Fill series variables with data
-        for (int i = 0; i < dataToShowOnGraph.length; i++) {
-            int currentItemValue = 0;
-            switch(selectedStatsType) {
-                case VIEWS:
-                    currentItemValue = dataToShowOnGraph[i].getViews();
-                    break;
-                case VISITORS:
-                    currentItemValue = dataToShowOnGraph[i].getVisitors();
-                    break;
-                case LIKES:
-                    currentItemValue = dataToShowOnGraph[i].getLikes();
-                    break;
-                case COMMENTS:
-                    currentItemValue = dataToShowOnGraph[i].getComments();
-                    break;
-            }
-            mainSeriesItems[i] = new GraphView.GraphViewData(i, currentItemValue);
-
-            if (currentItemValue > 0) {
+        for (int i = firstPoint; i < values.length; i++) {
+            if (values[i] > 0) {
                 atLeastOneResultIsAvailable = true;
-            }
-
-            if (mIsCheckboxChecked && secondarySeriesItems != null) {
-                secondarySeriesItems[i] = new GraphView.GraphViewData(i, dataToShowOnGraph[i].getVisitors());
-            }
-
-            String currentItemStatsDate = dataToShowOnGraph[i].getPeriod();
-            horLabels[i] = getDateLabelForBarInGraph(currentItemStatsDate);
-            mStatsDate[i] = currentItemStatsDate;
-
-            if (weekendDays != null) {
-                SimpleDateFormat from = new SimpleDateFormat(StatsConstants.STATS_INPUT_DATE_FORMAT);
-                try {
-                    Date date = from.parse(currentItemStatsDate);
-                    Calendar c = Calendar.getInstance();
-                    c.setFirstDayOfWeek(Calendar.MONDAY);
-                    c.setTimeInMillis(date.getTime());
-                    weekendDays[i] = c.get(Calendar.DAY_OF_WEEK) == Calendar.SUNDAY || c.get(Calendar.DAY_OF_WEEK) == Calendar.SATURDAY;
-                } catch (ParseException e) {
-                    weekendDays[i] = false;
-                    AppLog.e(AppLog.T.STATS, e);
-                }
+                break;
             }
         }
 
@@ -434,25 +414,41 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
             mGraphContainer.removeAllViews();
             mGraphView = new StatsBarGraph(getActivity());
             mGraphContainer.addView(mGraphView);
+            mMainSeries = null;
+            mSecondarySeries = null;
+        }
+
+        // The series are added to the graph once and then only have their data replaced, rather than
+        // removing them and styling new ones every time the tab changes
+        GraphView.GraphViewData[] mainSeriesItems = getGraphData(values, firstPoint);
+        if (mMainSeries == null) {
+            mGraphView.removeAllSeries();
+            mMainSeries = new GraphViewSeries(mainSeriesItems);
+            mMainSeries.getStyle().color = getResources().getColor(R.color.stats_bar_graph_main_series);
+            mMainSeries.getStyle().outerColor = getResources().getColor(R.color.grey_lighten_30_translucent_50);
+            mMainSeries.getStyle().highlightColor = getResources().getColor(R.color.stats_bar_graph_main_series_highlight);
+            mMainSeries.getStyle().outerhighlightColor = getResources().getColor(R.color.stats_bar_graph_outer_highlight);
+            mMainSeries.getStyle().padding = DisplayUtils.dpToPx(getActivity(), 5);
+            mGraphView.addSeries(mMainSeries);
+        } else {
+            mMainSeries.resetData(mainSeriesItems);
         }
 
-        mGraphView.removeAllSeries();
-
-        GraphViewSeries mainSeriesOnScreen = new GraphViewSeries(mainSeriesItems);
-        mainSeriesOnScreen.getStyle().color = getResources().getColor(R.color.stats_bar_graph_main_series);
-        mainSeriesOnScreen.getStyle().outerColor = getResources().getColor(R.color.grey_lighten_30_translucent_50);
-        mainSeriesOnScreen.getStyle().highlightColor = getResources().getColor(R.color.stats_bar_graph_main_series_highlight);
-        mainSeriesOnScreen.getStyle().outerhighlightColor = getResources().getColor(R.color.stats_bar_graph_outer_highlight);
-        mainSeriesOnScreen.getStyle().padding = DisplayUtils.dpToPx(getActivity(), 5);
-        mGraphView.addSeries(mainSeriesOnScreen);
-
-        // Add the Visitors series if it's checked in the legend
-        if (mIsCheckboxChecked && secondarySeriesItems != null && selectedStatsType == OverviewLabel.VIEWS) {
-            GraphViewSeries secondarySeries = new GraphViewSeries(secondarySeriesItems);
-            secondarySeries.getStyle().padding = DisplayUtils.dpToPx(getActivity(), 10);
-            secondarySeries.getStyle().color = getResources().getColor(R.color.stats_bar_graph_secondary_series);
-            secondarySeries.getStyle().highlightColor = getResources().getColor(R.color.orange_fire);
-            mGraphView.addSeries(secondarySeries);
+        // Show the Visitors series if it's checked in the legend
+        if (mIsCheckboxChecked && selectedStatsType == OverviewLabel.VIEWS) {
+            GraphView.GraphViewData[] secondarySeriesItems = getGraphData(series.getVisitors(), firstPoint);
+            if (mSecondarySeries == null) {
+                mSecondarySeries = new GraphViewSeries(secondarySeriesItems);
+                mSecondarySeries.getStyle().padding = DisplayUtils.dpToPx(getActivity(), 10);
+                mSecondarySeries.getStyle().color = getResources().getColor(R.color.stats_bar_graph_secondary_series);
+                mSecondarySeries.getStyle().highlightColor = getResources().getColor(R.color.orange_fire);
+                mGraphView.addSeries(mSecondarySeries);
+            } else {
+                mSecondarySeries.resetData(secondarySeriesItems);
+            }
+        } else if (mSecondarySeries != null) {
+            mGraphView.removeSeries(mSecondarySeries);
+            mSecondarySeries = null;
         }
 
         // Setup the Y-axis on Visitors and Views Tabs.
@@ -460,7 +456,7 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
         // the purpose of making these bars visually easily to compare.
         switch(selectedStatsType) {
             case VISITORS:
-                double maxYValue = getMaxYValueForVisitorsAndView(dataToShowOnGraph);
+                double maxYValue = getMaxYValueForVisitorsAndView(series, firstPoint);
                 mGraphView.setManualYAxisBounds(maxYValue, 0d);
                 break;
             default:
@@ -469,7 +465,7 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
         }
 
         // Set the Graph Style
-        mGraphView.getGraphViewStyle().setNumHorizontalLabels(dataToShowOnGraph.length);
+        mGraphView.getGraphViewStyle().setNumHorizontalLabels(numPoints);
         // Set the maximum size a column can get on the screen in PX
         mGraphView.getGraphViewStyle().setMaxColumnWidth(
                 DisplayUtils.dpToPx(getActivity(), StatsConstants.STATS_GRAPH_BAR_MAX_COLUMN_WIDTH_DP)
@@ -486,24 +482,24 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
 
         // Reset the bar selected upon rotation of the device when the no. of bars can change with orientation.
         // Only happens on 720DP tablets
-        if (mPrevNumberOfBarsGraph != -1 && mPrevNumberOfBarsGraph != dataToShowOnGraph.length) {
+        if (mPrevNumberOfBarsGraph != -1 && mPrevNumberOfBarsGraph != numPoints) {
             mSelectedBarGraphBarIndex = -1;
-            mPrevNumberOfBarsGraph = dataToShowOnGraph.length;
-            onBarTapped(dataToShowOnGraph.length - 1);
-            mGraphView.highlightBar(dataToShowOnGraph.length - 1);
+            mPrevNumberOfBarsGraph = numPoints;
+            onBarTapped(numPoints - 1);
+            mGraphView.highlightBar(numPoints - 1);
             return;
         }
 
-        mPrevNumberOfBarsGraph = dataToShowOnGraph.length;
+        mPrevNumberOfBarsGraph = numPoints;
         int barSelectedOnGraph;
         if (mSelectedBarGraphBarIndex == -1) {
             // No previous bar was highlighted, highlight the most recent one
-            barSelectedOnGraph = dataToShowOnGraph.length - 1;
-        } else if (mSelectedBarGraphBarIndex < dataToShowOnGraph.length) {
+            barSelectedOnGraph = numPoints - 1;
+        } else if (mSelectedBarGraphBarIndex < numPoints) {
             barSelectedOnGraph = mSelectedBarGraphBarIndex;
         } else {
             // A previous bar was highlighted, but it's out of the screen now. This should never happen atm.
-            barSelectedOnGraph = dataToShowOnGraph.length - 1;
+            barSelectedOnGraph = numPoints - 1;
             mSelectedBarGraphBarIndex = barSelectedOnGraph;
         }
 
@@ -513,16 +509,16 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
 
     // Find the max value in Visitors and Views data.
     // Only checks the Views data, since Visitors is for sure less-equals than Views.
-    private double getMaxYValueForVisitorsAndView(final VisitModel[] dataToShowOnGraph) {
-        if (dataToShowOnGraph == null || dataToShowOnGraph.length == 0) {
+    private double getMaxYValueForVisitorsAndView(VisitsGraphSeries series, int firstPoint) {
+        if (series.size() == 0) {
             return 0d;
         }
         double largest = Integer.MIN_VALUE;
 
-        for (VisitModel aDataToShowOnGraph : dataToShowOnGraph) {
-            int currentItemValue = aDataToShowOnGraph.getViews();
-            if (currentItemValue > largest) {
-                largest = currentItemValue;
+        int[] views = series.getViews();
+        for (int i = firstPoint; i < views.length; i++) {
+            if (views[i] > largest) {
+                largest = views[i];
             }
         }
         return largest;
@@ -539,17 +535,19 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
             return;
         }
 
-        final VisitModel[] dataToShowOnGraph = getDataToShowOnGraph(mVisitsData);
+        final VisitsGraphSeries series = mVisitsData.getGraphSeries();
+        final int firstPoint = getFirstPointToShow(series);
+        final int numPoints = series.size() - firstPoint;
 
         // Make sure we've data to show on the screen
-        if (dataToShowOnGraph.length == 0) {
+        if (numPoints == 0) {
             return;
         }
 
         // This check should never be true, since we put a check on the index in the calling function updateUI()
-        if (dataToShowOnGraph.length <= itemPosition || itemPosition == -1) {
+        if (numPoints <= itemPosition || itemPosition == -1) {
             // Make sure we're not highlighting
-            itemPosition = dataToShowOnGraph.length -1;
+            itemPosition = numPoints -1;
         }
 
         String date =  mStatsDate[itemPosition];
@@ -560,26 +558,12 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
 
         mDateTextView.setText(getDateForDisplayInLabels(date, getTimeframe()));
 
-        VisitModel modelTapped = dataToShowOnGraph[itemPosition];
+        int pointTapped = firstPoint + itemPosition;
         for (int i=0 ; i < mModuleButtonsContainer.getChildCount(); i++) {
             View o = mModuleButtonsContainer.getChildAt(i);
             if (o instanceof LinearLayout && o.getTag() instanceof  TabViewHolder) {
                 TabViewHolder tabViewHolder = (TabViewHolder)o.getTag();
-                int currentValue = 0;
-                switch (tabViewHolder.labelItem) {
-                    case VIEWS:
-                        currentValue = modelTapped.getViews();
-                        break;
-                    case VISITORS:
-                        currentValue = modelTapped.getVisitors();
-                        break;
-                    case LIKES:
-                        currentValue = modelTapped.getLikes();
-                        break;
-                    case COMMENTS:
-                        currentValue = modelTapped.getComments();
-                        break;
-                }
+                int currentValue = getValuesForOverviewItem(series, tabViewHolder.labelItem)[pointTapped];
                 tabViewHolder.value.setText(FormatUtils.formatDecimal(currentValue));
                 tabViewHolder.updateBackGroundAndIcon(currentValue);
             }
@@ -601,7 +585,7 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
                     // followed by Wxx where xx is the month
                     // followed by Wxx where xx is the day of the month
                     // ex: 2013W07W22 = July 22, 2013
-                    sdf = new SimpleDateFormat("yyyy'W'MM'W'dd");
+                    sdf = StatsUtils.getDateFormat("yyyy'W'MM'W'dd");
                     //Calculate the end of the week
                     parsedDate = sdf.parse(date);
                     c = Calendar.getInstance();
@@ -626,32 +610,6 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
         return "";
     }
 
-    /**
-     * Return the date string that is displayed under each bar in the graph
-     */
-    private String getDateLabelForBarInGraph(String dateToFormat) {
-        switch (getTimeframe()) {
-            case DAY:
-                return StatsUtils.parseDate(
-                        dateToFormat,
-                        StatsConstants.STATS_INPUT_DATE_FORMAT,
-                        StatsConstants.STATS_OUTPUT_DATE_MONTH_SHORT_DAY_SHORT_FORMAT
-                );
-            case WEEK:
-                // first four digits are the year
-                // followed by Wxx where xx is the month
-                // followed by Wxx where xx is the day of the month
-                // ex: 2013W07W22 = July 22, 2013
-                return StatsUtils.parseDate(dateToFormat, "yyyy'W'MM'W'dd", StatsConstants.STATS_OUTPUT_DATE_MONTH_SHORT_DAY_SHORT_FORMAT);
-            case MONTH:
-                return StatsUtils.parseDate(dateToFormat, "yyyy-MM", "MMM");
-            case YEAR:
-                return StatsUtils.parseDate(dateToFormat, StatsConstants.STATS_INPUT_DATE_FORMAT, StatsConstants.STATS_OUTPUT_DATE_YEAR_FORMAT);
-            default:
-                return dateToFormat;
-        }
-    }
-
     private void setupNoResultsUI(boolean isLoading) {
         if (!isAdded()) {
             return;
@@ -767,7 +725,7 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
                     // followed by Wxx where xx is the month
                     // followed by Wxx where xx is the day of the month
                     // ex: 2013W07W22 = July 22, 2013
-                    sdf = new SimpleDateFormat("yyyy'W'MM'W'dd");
+                    sdf = StatsUtils.getDateFormat("yyyy'W'MM'W'dd");
                     //Calculate the end of the week
                     parsedDate = sdf.parse(date);
                     c.setTime(parsedDate);
@@ -778,7 +736,7 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
                     calculatedDate = StatsUtils.msToString(c.getTimeInMillis(), StatsConstants.STATS_INPUT_DATE_FORMAT);
                     break;
                 case MONTH:
-                    sdf = new SimpleDateFormat("yyyy-MM");
+                    sdf = StatsUtils.getDateFormat("yyyy-MM");
                     //Calculate the end of the month
                     parsedDate = sdf.parse(date);
                     c.setTime(parsedDate);
@@ -787,7 +745,7 @@ public class StatsVisitorsAndViewsFragment extends StatsAbstractFragment
                     calculatedDate = StatsUtils.msToString(c.getTimeInMillis(), StatsConstants.STATS_INPUT_DATE_FORMAT);
                     break;
                 case YEAR:
-                    sdf = new SimpleDateFormat(StatsConstants.STATS_INPUT_DATE_FORMAT);
+                    sdf = StatsUtils.getDateFormat(StatsConstants.STATS_INPUT_DATE_FORMAT);
                     //Calculate the end of the week
                     parsedDate = sdf.parse(date);
                     c.setTime(parsedDate);
@@ -6,6 +6,8 @@ import android.appwidget.AppWidgetProvider;
 import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
+import android.os.SystemClock;
+import android.support.annotation.VisibleForTesting;
 import android.util.SparseArray;
 import android.view.View;
 import android.widget.RemoteViews;
@@ -25,6 +27,7 @@ import org.wordpress.android.fluxc.model.SiteModel;
 import org.wordpress.android.fluxc.store.SiteStore;
 import org.wordpress.android.ui.main.WPMainActivity;
 import org.wordpress.android.ui.prefs.AppPrefs;
+import org.wordpress.android.ui.stats.datasets.StatsWidgetTable;
 import org.wordpress.android.ui.stats.exceptions.StatsError;
 import org.wordpress.android.ui.stats.models.VisitModel;
 import org.wordpress.android.ui.stats.service.StatsService;
@@ -35,10 +38,25 @@ import org.wordpress.android.util.NetworkUtils;
 import org.wordpress.android.util.SiteUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.inject.Inject;
 
 public class StatsWidgetProvider extends AppWidgetProvider {
+    // a refresh requested for a blog within this long of the previous one is skipped unless the previous
+    // one has completed, so widgets which show the same blog (or several update triggers in a row) share
+    // a single request
+    static final long MIN_REFRESH_INTERVAL_MS = 60 * 1000;
+
+    // remote blog ids mapped to the time their last refresh was requested, removed when it completes
+    private static final Map<Long, Long> sPendingRefreshes = new HashMap<>();
+
+    // parsed widget id -> remote blog id associations, along with the prefs value they were parsed
+    // from so they're only parsed again when prefs change (ex: when they're cleared on logout)
+    private static JSONObject sWidgetKeys;
+    private static String sWidgetKeysString;
+
     @Inject SiteStore mSiteStore;
 
     @Override
@@ -89,7 +107,8 @@ public class StatsWidgetProvider extends AppWidgetProvider {
         }
     }
 
-    private static void showStatsData(Context context, int[] allWidgets, SiteModel site, JSONObject data) {
+    private static void showStatsData(Context context, int[] allWidgets, SiteModel site,
+                                      StatsWidgetTable.Snapshot data) {
         if (allWidgets.length == 0){
             return;
         }
@@ -107,16 +126,16 @@ public class StatsWidgetProvider extends AppWidgetProvider {
             remoteViews.setViewVisibility(R.id.stats_widget_values_container, View.VISIBLE);
 
             // Update Views
-            updateTabValue(context, remoteViews, R.id.stats_widget_views, data.optString("views", " 0"));
+            updateTabValue(context, remoteViews, R.id.stats_widget_views, String.valueOf(data.views));
 
             // Update Visitors
-            updateTabValue(context, remoteViews, R.id.stats_widget_visitors, data.optString("visitors", " 0"));
+            updateTabValue(context, remoteViews, R.id.stats_widget_visitors, String.valueOf(data.visitors));
 
             // Update Comments
-            updateTabValue(context, remoteViews, R.id.stats_widget_comments, data.optString("comments", " 0"));
+            updateTabValue(context, remoteViews, R.id.stats_widget_comments, String.valueOf(data.comments));
 
             // Update Likes
-            updateTabValue(context, remoteViews, R.id.stats_widget_likes, data.optString("likes", " 0"));
+            updateTabValue(context, remoteViews, R.id.stats_widget_likes, String.valueOf(data.likes));
 
             Intent intent = new Intent(context, StatsActivity.class);
             intent.putExtra(WordPress.SITE, site);
@@ -145,7 +164,7 @@ public class StatsWidgetProvider extends AppWidgetProvider {
         String currentDate = StatsUtils.getCurrentDateTZ(site);
 
         // Show cached data if available
-        JSONObject cache = getCacheDataForBlog(site.getSiteId(), currentDate);
+        StatsWidgetTable.Snapshot cache = getCacheDataForBlog(context, site.getSiteId(), currentDate);
         if (cache != null) {
             showStatsData(context, widgetIDs, site, cache);
         } else {
@@ -164,6 +183,8 @@ public class StatsWidgetProvider extends AppWidgetProvider {
             return;
         }
 
+        onRefreshCompleted(site.getSiteId());
+
         // If it's an auth error, show it in the widget UI
         if (error instanceof com.android.volley.AuthFailureError) {
             int[] widgetIDs = getWidgetIDsFromRemoteBlogID(site.getSiteId());
@@ -193,6 +214,10 @@ public class StatsWidgetProvider extends AppWidgetProvider {
             return;
         }
 
+        if (site != null) {
+            onRefreshCompleted(site.getSiteId());
+        }
+
         ShowCacheIfAvailableOrGenericError(context, site, siteStore);
     }
 
@@ -205,46 +230,21 @@ public class StatsWidgetProvider extends AppWidgetProvider {
 
         AppLog.d(AppLog.T.STATS, "updateWidgets called for the blogID " + site.getSiteId());
 
+        onRefreshCompleted(site.getSiteId());
+
         int[] widgetIDs = getWidgetIDsFromRemoteBlogID(site.getSiteId());
         if (widgetIDs.length == 0) {
             return;
         }
 
-        try {
-            String currentDate = StatsUtils.getCurrentDateTZ(site);
-            JSONObject newData = new JSONObject();
-            newData.put("blog_id", data.getBlogID());
-            newData.put("date", currentDate);
-            newData.put("views", data.getViews());
-            newData.put("visitors", data.getVisitors());
-            newData.put("comments", data.getComments());
-            newData.put("likes", data.getLikes());
-
-            // Store new data in cache
-            String prevDataAsString = AppPrefs.getStatsWidgetsData();
-            JSONObject prevData = null;
-            if (!StringUtils.isEmpty(prevDataAsString)) {
-                try {
-                    prevData = new JSONObject(prevDataAsString);
-                } catch (JSONException e) {
-                    AppLog.e(AppLog.T.STATS, e);
-                }
-            }
-            try {
-                if (prevData == null) {
-                    prevData = new JSONObject();
-                }
-                prevData.put(String.valueOf(data.getBlogID()), newData);
-                AppPrefs.setStatsWidgetsData(prevData.toString());
-            } catch (JSONException e) {
-                AppLog.e(AppLog.T.STATS, e);
-            }
+        // Store new data in cache - only this blog's snapshot is written
+        String currentDate = StatsUtils.getCurrentDateTZ(site);
+        StatsWidgetTable.Snapshot newData = new StatsWidgetTable.Snapshot(site.getSiteId(), currentDate,
+                data.getViews(), data.getVisitors(), data.getComments(), data.getLikes());
+        StatsWidgetTable.setSnapshot(context, newData);
 
-            // Show data on the screen now!
-            showStatsData(context, widgetIDs, site, newData);
-        } catch (JSONException e) {
-            AppLog.e(AppLog.T.STATS, e);
-        }
+        // Show data on the screen now!
+        showStatsData(context, widgetIDs, site, newData);
     }
 
     // This is called to update the App Widget at intervals defined by the updatePeriodMillis attribute in the AppWidgetProviderInfo.
@@ -277,7 +277,7 @@ public class StatsWidgetProvider extends AppWidgetProvider {
         AnalyticsTracker.track(AnalyticsTracker.Stat.STATS_WIDGET_REMOVED);
         AnalyticsTracker.flush();
         AppPrefs.resetStatsWidgetsKeys();
-        AppPrefs.resetStatsWidgetsData();
+        StatsWidgetTable.deleteAllSnapshots(context);
     }
 
     /**
@@ -291,6 +291,16 @@ public class StatsWidgetProvider extends AppWidgetProvider {
     }
 
     public static void enqueueStatsRequestForBlog(Context context, long remoteBlogID, String date) {
+        synchronized (sPendingRefreshes) {
+            long now = SystemClock.elapsedRealtime();
+            Long requestedAt = sPendingRefreshes.get(remoteBlogID);
+            if (requestedAt != null && now - requestedAt < MIN_REFRESH_INTERVAL_MS) {
+                AppLog.d(AppLog.T.STATS, "Stats widget refresh already pending for the blogID " + remoteBlogID);
+                return;
+            }
+            sPendingRefreshes.put(remoteBlogID, now);
+        }
+
         // start service to get stats
         Intent intent = new Intent(context, StatsService.class);
         intent.putExtra(StatsService.ARG_BLOG_ID, remoteBlogID);
@@ -300,77 +310,70 @@ public class StatsWidgetProvider extends AppWidgetProvider {
         context.startService(intent);
     }
 
-    private static synchronized JSONObject getCacheDataForBlog(long remoteBlogID, String date) {
-        String prevDataAsString = AppPrefs.getStatsWidgetsData();
-        if (StringUtils.isEmpty(prevDataAsString)) {
-            AppLog.i(AppLog.T.STATS, "No cache found for the widgets");
-            return null;
+    @VisibleForTesting
+    static void onRefreshCompleted(long remoteBlogID) {
+        synchronized (sPendingRefreshes) {
+            sPendingRefreshes.remove(remoteBlogID);
         }
+    }
 
-        try {
-            JSONObject prevData = new JSONObject(prevDataAsString);
-            if (!prevData.has(String.valueOf(remoteBlogID))) {
-                AppLog.i(AppLog.T.STATS, "No cache found for the blog ID " + remoteBlogID);
-                return null;
-            }
+    @VisibleForTesting
+    static void clearPendingRefreshes() {
+        synchronized (sPendingRefreshes) {
+            sPendingRefreshes.clear();
+        }
+    }
 
-            JSONObject cache = prevData.getJSONObject(String.valueOf(remoteBlogID));
-            String dateStoredInCache = cache.optString("date");
-            if (date.equals(dateStoredInCache)) {
-                AppLog.i(AppLog.T.STATS, "Cache found for the blog ID " + remoteBlogID);
-                return cache;
-            } else {
-                AppLog.i(AppLog.T.STATS, "Cache found for the blog ID " + remoteBlogID + " but the date value doesn't match!!");
-                return null;
-            }
-        } catch (JSONException e) {
-            AppLog.e(AppLog.T.STATS, e);
-            return null;
+    private static StatsWidgetTable.Snapshot getCacheDataForBlog(Context context, long remoteBlogID, String date) {
+        StatsWidgetTable.Snapshot cache = StatsWidgetTable.getSnapshot(context, remoteBlogID, date);
+        if (cache == null) {
+            AppLog.i(AppLog.T.STATS, "No cache found for the blog ID " + remoteBlogID + " and date " + date);
+        } else {
+            AppLog.i(AppLog.T.STATS, "Cache found for the blog ID " + remoteBlogID);
         }
+        return cache;
     }
 
-    public static synchronized boolean isBlogDisplayedInWidget(long remoteBlogID) {
+    /*
+     * returns the widget id -> remote blog id associations, which are only parsed from prefs when
+     * they've changed
+     */
+    private static synchronized JSONObject getWidgetKeys() {
         String prevWidgetKeysString = AppPrefs.getStatsWidgetsKeys();
-        if (StringUtils.isEmpty(prevWidgetKeysString)) {
-            return false;
-        }
-        try {
-            JSONObject prevKeys = new JSONObject(prevWidgetKeysString);
-            JSONArray allKeys = prevKeys.names();
-            if (allKeys == null) {
-                return false;
-            }
-            for (int i=0; i < allKeys.length(); i ++) {
-                String currentKey = allKeys.getString(i);
-                int currentBlogID = prevKeys.getInt(currentKey);
-                if (currentBlogID == remoteBlogID) {
-                    return true;
+        if (sWidgetKeys == null || !StringUtils.equals(prevWidgetKeysString, sWidgetKeysString)) {
+            sWidgetKeys = null;
+            sWidgetKeysString = prevWidgetKeysString;
+            if (!StringUtils.isEmpty(prevWidgetKeysString)) {
+                try {
+                    sWidgetKeys = new JSONObject(prevWidgetKeysString);
+                } catch (JSONException e) {
+                    AppLog.e(AppLog.T.STATS, e);
                 }
             }
-        } catch (JSONException e) {
-            AppLog.e(AppLog.T.STATS, e);
+            if (sWidgetKeys == null) {
+                sWidgetKeys = new JSONObject();
+            }
         }
-        return false;
+        return sWidgetKeys;
+    }
+
+    public static synchronized boolean isBlogDisplayedInWidget(long remoteBlogID) {
+        return getWidgetIDsFromRemoteBlogID(remoteBlogID).length > 0;
     }
 
     private static synchronized int[] getWidgetIDsFromRemoteBlogID(long remoteBlogID) {
-        String prevWidgetKeysString = AppPrefs.getStatsWidgetsKeys();
-        if (StringUtils.isEmpty(prevWidgetKeysString)) {
+        JSONObject prevKeys = getWidgetKeys();
+        JSONArray allKeys = prevKeys.names();
+        if (allKeys == null) {
             return new int[0];
         }
         ArrayList<Integer> widgetIDs = new ArrayList<>();
 
         try {
-            JSONObject prevKeys = new JSONObject(prevWidgetKeysString);
-            JSONArray allKeys = prevKeys.names();
-            if (allKeys == null) {
-                return new int[0];
-            }
             for (int i=0; i < allKeys.length(); i ++) {
                 String currentKey = allKeys.getString(i);
                 int currentBlogID = prevKeys.getInt(currentKey);
                 if (currentBlogID == remoteBlogID) {
-                    AppLog.d(AppLog.T.STATS, "The blog with remoteID " + remoteBlogID + " is displayed in the widget " + currentKey);
                     widgetIDs.add(Integer.parseInt(currentKey));
                 }
             }
@@ -381,44 +384,22 @@ public class StatsWidgetProvider extends AppWidgetProvider {
     }
 
     private static synchronized int getRemoteBlogIDFromWidgetID(int widgetID) {
-        String prevWidgetKeysString = AppPrefs.getStatsWidgetsKeys();
-        if (StringUtils.isEmpty(prevWidgetKeysString)) {
-            return 0;
-        }
-        try {
-            JSONObject prevKeys = new JSONObject(prevWidgetKeysString);
-            return prevKeys.optInt(String.valueOf(widgetID), 0);
-        } catch (JSONException e) {
-            AppLog.e(AppLog.T.STATS, e);
-        }
-        return 0;
+        return getWidgetKeys().optInt(String.valueOf(widgetID), 0);
     }
 
 
     // Store the association between widgetIDs and the remote blog id into prefs.
-    private static void setRemoteBlogIDForWidgetIDs(int[] widgetIDs, long remoteBlogID) {
-        String prevWidgetKeysString = AppPrefs.getStatsWidgetsKeys();
-        JSONObject prevKeys = null;
-        if (!StringUtils.isEmpty(prevWidgetKeysString)) {
-            try {
-                prevKeys = new JSONObject(prevWidgetKeysString);
-            } catch (JSONException e) {
-                AppLog.e(AppLog.T.STATS, e);
-            }
-        }
-
-        if (prevKeys == null) {
-            prevKeys = new JSONObject();
-        }
-
+    private static synchronized void setRemoteBlogIDForWidgetIDs(int[] widgetIDs, long remoteBlogID) {
+        JSONObject prevKeys = getWidgetKeys();
         for (int widgetID : widgetIDs) {
             try {
                 prevKeys.put(String.valueOf(widgetID), remoteBlogID);
-                AppPrefs.setStatsWidgetsKeys(prevKeys.toString());
             } catch (JSONException e) {
                 AppLog.e(AppLog.T.STATS, e);
             }
         }
+        sWidgetKeysString = prevKeys.toString();
+        AppPrefs.setStatsWidgetsKeys(sWidgetKeysString);
     }
 
     // This is called by the Widget config activity at the end if the process
@@ -453,7 +434,7 @@ public class StatsWidgetProvider extends AppWidgetProvider {
         String currentDate = StatsUtils.getCurrentDateTZ(site);
 
         // Load cached data if available and show it immediately
-        JSONObject cache = getCacheDataForBlog(remoteBlogID, currentDate);
+        StatsWidgetTable.Snapshot cache = getCacheDataForBlog(context, remoteBlogID, currentDate);
         if (cache != null) {
             showStatsData(context, new int[] {widgetID}, site, cache);
             return;
@@ -507,7 +488,7 @@ public class StatsWidgetProvider extends AppWidgetProvider {
             String currentDate = StatsUtils.getCurrentDateTZ(site);
 
             // Load cached data if available and show it immediately
-            JSONObject cache = getCacheDataForBlog(remoteBlogID, currentDate);
+            StatsWidgetTable.Snapshot cache = getCacheDataForBlog(context, remoteBlogID, currentDate);
             if (cache != null) {
                 showStatsData(context, currentWidgets, site, cache);
             }
@@ -17,7 +17,7 @@ import java.io.OutputStream;
  */
 public class StatsDatabaseHelper extends SQLiteOpenHelper {
     private static final String DB_NAME = "stats.db";
-    private static final int DB_VERSION = 1;
+    private static final int DB_VERSION = 2;
 
     /*
 	 *  database singleton
@@ -77,6 +77,7 @@ public class StatsDatabaseHelper extends SQLiteOpenHelper {
     @Override
     public void onCreate(SQLiteDatabase db) {
         createAllTables(db);
+        StatsWidgetTable.migrateFromPrefs(db);
     }
 
     @Override
@@ -84,6 +85,12 @@ public class StatsDatabaseHelper extends SQLiteOpenHelper {
         // for now just reset the db when upgrading, future versions may want to avoid this
         // and modify table structures, etc., on upgrade while preserving data
         AppLog.i(AppLog.T.STATS, "Upgrading database from version " + oldVersion + " to version " + newVersion);
+        if (oldVersion == 1 && newVersion == 2) {
+            // version 2 only added the widget snapshot table, so keep the cached stats
+            StatsWidgetTable.createTables(db);
+            StatsWidgetTable.migrateFromPrefs(db);
+            return;
+        }
         reset();
     }
 
@@ -96,10 +103,12 @@ public class StatsDatabaseHelper extends SQLiteOpenHelper {
 
     private void createAllTables(SQLiteDatabase db) {
         StatsTable.createTables(db);
+        StatsWidgetTable.createTables(db);
     }
 
     private void dropAllTables(SQLiteDatabase db) {
         StatsTable.dropTables(db);
+        StatsWidgetTable.dropTables(db);
     }
 
     /*
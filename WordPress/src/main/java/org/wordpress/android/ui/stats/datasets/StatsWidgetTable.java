@@ -0,0 +1,129 @@
+package org.wordpress.android.ui.stats.datasets;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.text.TextUtils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wordpress.android.ui.prefs.AppPrefs;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.SqlUtils;
+
+/**
+ * stores the snapshot shown by the stats widget for each blog - one row per blog, so updating a
+ * blog's snapshot doesn't touch the others
+ */
+public class StatsWidgetTable {
+    private static final String TABLE_NAME = "tbl_widget_snapshots";
+
+    public static class Snapshot {
+        public final long blogId;
+        public final String date;
+        public final int views;
+        public final int visitors;
+        public final int comments;
+        public final int likes;
+
+        public Snapshot(long blogId, String date, int views, int visitors, int comments, int likes) {
+            this.blogId = blogId;
+            this.date = date;
+            this.views = views;
+            this.visitors = visitors;
+            this.comments = comments;
+            this.likes = likes;
+        }
+    }
+
+    static void createTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_NAME + " ("
+                + " blog_id     INTEGER PRIMARY KEY," // The remote blog_id
+                + " date        TEXT NOT NULL,"       // The date (in the blog's timezone) the snapshot is for
+                + " views       INTEGER DEFAULT 0,"
+                + " visitors    INTEGER DEFAULT 0,"
+                + " comments    INTEGER DEFAULT 0,"
+                + " likes       INTEGER DEFAULT 0,"
+                + " timestamp   INTEGER NOT NULL"     // When the snapshot was stored
+                + ")");
+    }
+
+    static void dropTables(SQLiteDatabase db) {
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_NAME);
+    }
+
+    /*
+     * widget snapshots used to be stored in prefs as a single json object keyed by blog id - this copies
+     * them into the table and removes the pref, so it only happens once
+     */
+    static void migrateFromPrefs(SQLiteDatabase db) {
+        String prefsData = AppPrefs.getStatsWidgetsData();
+        if (TextUtils.isEmpty(prefsData)) {
+            return;
+        }
+
+        try {
+            JSONObject json = new JSONObject(prefsData);
+            JSONArray blogIds = json.names();
+            int numBlogs = blogIds != null ? blogIds.length() : 0;
+            for (int i = 0; i < numBlogs; i++) {
+                JSONObject data = json.optJSONObject(blogIds.getString(i));
+                if (data == null || data.optLong("blog_id") == 0 || TextUtils.isEmpty(data.optString("date"))) {
+                    continue;
+                }
+                addSnapshot(db, new Snapshot(data.optLong("blog_id"), data.optString("date"), data.optInt("views"),
+                        data.optInt("visitors"), data.optInt("comments"), data.optInt("likes")));
+            }
+            AppLog.i(AppLog.T.STATS, "Migrated stats widget data for " + numBlogs + " blogs from prefs");
+        } catch (JSONException e) {
+            AppLog.e(AppLog.T.STATS, e);
+        }
+        AppPrefs.resetStatsWidgetsData();
+    }
+
+    public static void setSnapshot(Context ctx, Snapshot snapshot) {
+        addSnapshot(StatsDatabaseHelper.getWritableDb(ctx), snapshot);
+    }
+
+    private static void addSnapshot(SQLiteDatabase db, Snapshot snapshot) {
+        SQLiteStatement stmt = db.compileStatement(
+                "INSERT OR REPLACE INTO " + TABLE_NAME
+                + " (blog_id, date, views, visitors, comments, likes, timestamp) VALUES (?1,?2,?3,?4,?5,?6,?7)");
+        try {
+            stmt.bindLong(1, snapshot.blogId);
+            stmt.bindString(2, snapshot.date);
+            stmt.bindLong(3, snapshot.views);
+            stmt.bindLong(4, snapshot.visitors);
+            stmt.bindLong(5, snapshot.comments);
+            stmt.bindLong(6, snapshot.likes);
+            stmt.bindLong(7, System.currentTimeMillis());
+            stmt.execute();
+        } finally {
+            SqlUtils.closeStatement(stmt);
+        }
+    }
+
+    /*
+     * returns the snapshot for the passed blog, or null if there isn't one for the passed date
+     */
+    public static Snapshot getSnapshot(Context ctx, long blogId, String date) {
+        String[] args = {Long.toString(blogId), date};
+        Cursor cursor = StatsDatabaseHelper.getReadableDb(ctx).rawQuery(
+                "SELECT views, visitors, comments, likes FROM " + TABLE_NAME + " WHERE blog_id=? AND date=?", args);
+        try {
+            if (cursor.moveToFirst()) {
+                return new Snapshot(blogId, date, cursor.getInt(0), cursor.getInt(1), cursor.getInt(2),
+                        cursor.getInt(3));
+            }
+            return null;
+        } finally {
+            SqlUtils.closeCursor(cursor);
+        }
+    }
+
+    public static void deleteAllSnapshots(Context ctx) {
+        StatsDatabaseHelper.getWritableDb(ctx).delete(TABLE_NAME, null, null);
+    }
+}
@@ -0,0 +1,132 @@
+package org.wordpress.android.ui.stats.models;
+
+import org.wordpress.android.ui.stats.StatsConstants;
+import org.wordpress.android.ui.stats.StatsTimeframe;
+import org.wordpress.android.ui.stats.StatsUtils;
+import org.wordpress.android.util.AppLog;
+
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * the visits of a VisitsModel laid out for the bar graph - one primitive array per stat and the
+ * preformatted label under each bar - so switching tabs or rotating the device doesn't have to
+ * walk the visits or format any dates
+ */
+public class VisitsGraphSeries {
+    private final String[] mPeriods;
+    private final String[] mBarLabels;
+    private final int[] mViews;
+    private final int[] mVisitors;
+    private final int[] mLikes;
+    private final int[] mComments;
+    private final boolean[] mWeekendDays; // null unless the timeframe is DAY
+
+    VisitsGraphSeries(List<VisitModel> visits, StatsTimeframe timeframe) {
+        int numPoints = visits.size();
+        mPeriods = new String[numPoints];
+        mBarLabels = new String[numPoints];
+        mViews = new int[numPoints];
+        mVisitors = new int[numPoints];
+        mLikes = new int[numPoints];
+        mComments = new int[numPoints];
+        mWeekendDays = timeframe == StatsTimeframe.DAY ? new boolean[numPoints] : null;
+
+        Calendar c = Calendar.getInstance();
+        c.setFirstDayOfWeek(Calendar.MONDAY);
+        for (int i = 0; i < numPoints; i++) {
+            VisitModel visit = visits.get(i);
+            mPeriods[i] = visit.getPeriod();
+            mBarLabels[i] = getBarLabel(visit.getPeriod(), timeframe);
+            mViews[i] = visit.getViews();
+            mVisitors[i] = visit.getVisitors();
+            mLikes[i] = visit.getLikes();
+            mComments[i] = visit.getComments();
+            if (mWeekendDays != null) {
+                mWeekendDays[i] = isWeekendDay(visit.getPeriod(), c);
+            }
+        }
+    }
+
+    public int size() {
+        return mPeriods.length;
+    }
+
+    public String[] getPeriods() {
+        return mPeriods;
+    }
+
+    public String[] getBarLabels() {
+        return mBarLabels;
+    }
+
+    public int[] getViews() {
+        return mViews;
+    }
+
+    public int[] getVisitors() {
+        return mVisitors;
+    }
+
+    public int[] getLikes() {
+        return mLikes;
+    }
+
+    public int[] getComments() {
+        return mComments;
+    }
+
+    public boolean[] getWeekendDays() {
+        return mWeekendDays;
+    }
+
+    /*
+     * returns the timeframe matching the unit of a visits response
+     */
+    static StatsTimeframe getTimeframeForUnit(String unit) {
+        for (StatsTimeframe timeframe : StatsTimeframe.values()) {
+            if (timeframe != StatsTimeframe.INSIGHTS && timeframe.getLabelForRestCall().equals(unit)) {
+                return timeframe;
+            }
+        }
+        return StatsTimeframe.DAY;
+    }
+
+    /*
+     * returns the date string that is displayed under each bar in the graph
+     */
+    private static String getBarLabel(String period, StatsTimeframe timeframe) {
+        switch (timeframe) {
+            case DAY:
+                return StatsUtils.parseDate(
+                        period,
+                        StatsConstants.STATS_INPUT_DATE_FORMAT,
+                        StatsConstants.STATS_OUTPUT_DATE_MONTH_SHORT_DAY_SHORT_FORMAT
+                );
+            case WEEK:
+                // first four digits are the year
+                // followed by Wxx where xx is the month
+                // followed by Wxx where xx is the day of the month
+                // ex: 2013W07W22 = July 22, 2013
+                return StatsUtils.parseDate(period, "yyyy'W'MM'W'dd", StatsConstants.STATS_OUTPUT_DATE_MONTH_SHORT_DAY_SHORT_FORMAT);
+            case MONTH:
+                return StatsUtils.parseDate(period, "yyyy-MM", "MMM");
+            case YEAR:
+                return StatsUtils.parseDate(period, StatsConstants.STATS_INPUT_DATE_FORMAT, StatsConstants.STATS_OUTPUT_DATE_YEAR_FORMAT);
+            default:
+                return period;
+        }
+    }
+
+    private static boolean isWeekendDay(String period, Calendar c) {
+        try {
+            c.setTime(StatsUtils.getDateFormat(StatsConstants.STATS_INPUT_DATE_FORMAT).parse(period));
+            int dayOfWeek = c.get(Calendar.DAY_OF_WEEK);
+            return dayOfWeek == Calendar.SUNDAY || dayOfWeek == Calendar.SATURDAY;
+        } catch (ParseException e) {
+            AppLog.e(AppLog.T.STATS, e);
+            return false;
+        }
+    }
+}
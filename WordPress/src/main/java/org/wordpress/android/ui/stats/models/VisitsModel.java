@@ -18,6 +18,8 @@ public class VisitsModel extends BaseStatsModel {
     private String mDate;
     private long mBlogID;
     private List<VisitModel> mVisits;
+    // built when the response is parsed, and rebuilt on demand when the model is deserialized
+    private transient VisitsGraphSeries mGraphSeries;
 
     public VisitsModel(long blogID, JSONObject response) throws JSONException {
         this.setBlogID(blogID);
@@ -80,12 +82,21 @@ public class VisitsModel extends BaseStatsModel {
                 }
             }
         }
+
+        mGraphSeries = new VisitsGraphSeries(mVisits, VisitsGraphSeries.getTimeframeForUnit(mUnit));
     }
 
     public List<VisitModel> getVisits() {
         return mVisits;
     }
 
+    public synchronized VisitsGraphSeries getGraphSeries() {
+        if (mGraphSeries == null) {
+            mGraphSeries = new VisitsGraphSeries(mVisits, VisitsGraphSeries.getTimeframeForUnit(mUnit));
+        }
+        return mGraphSeries;
+    }
+
     public long getBlogID() {
         return mBlogID;
     }
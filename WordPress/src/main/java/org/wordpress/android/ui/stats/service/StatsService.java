@@ -41,6 +41,7 @@ import org.wordpress.android.ui.stats.models.VisitModel;
 import org.wordpress.android.ui.stats.models.VisitsModel;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.TraceUtils;
 
 import java.io.Serializable;
 import java.util.Iterator;
@@ -519,6 +520,7 @@ public class StatsService extends Service {
         private final String mDate;
         private Request<JSONObject> currentRequest;
         private final int mMaxResultsRequested, mPageRequested;
+        private final TraceUtils.Span mRequestSpan = TraceUtils.beginAsyncSpan("StatsService.request");
 
         public RestListener(StatsEndpointsEnum endpointName, long blogId, StatsTimeframe timeframe, String date,
                             final int maxResultsRequested, final int pageRequested) {
@@ -532,37 +534,57 @@ public class StatsService extends Service {
 
         @Override
         public void onResponse(final JSONObject response) {
+            mRequestSpan.end();
             singleThreadNetworkHandler.submit(new Thread() {
                 @Override
                 public void run() {
-                    // do other stuff here
-                    BaseStatsModel mResponseObjectModel = null;
-                    if (response != null) {
+                    TraceUtils.Span span = TraceUtils.beginSpan("StatsService.handleResponse");
+                    try {
+                        handleResponse(response);
+                    } finally {
+                        span.end();
+                    }
+                }
+            });
+        }
+
+        private void handleResponse(final JSONObject response) {
+            BaseStatsModel mResponseObjectModel = null;
+            if (response != null) {
+                try {
+                    TraceUtils.Span parseSpan = TraceUtils.beginSpan("StatsService.parseResponse");
+                    try {
+                        mResponseObjectModel = StatsUtils.parseResponse(mEndpointName, mRequestBlogId, response);
+                    } finally {
+                        parseSpan.end();
+                    }
+                    if (isCacheEnabled()) {
+                        TraceUtils.Span cacheSpan = TraceUtils.beginSpan("StatsService.insertStats");
                         try {
-                            mResponseObjectModel = StatsUtils.parseResponse(mEndpointName, mRequestBlogId, response);
-                            if (isCacheEnabled()) {
-                                StatsTable.insertStats(StatsService.this, mRequestBlogId, mTimeframe, mDate, mEndpointName,
-                                        mMaxResultsRequested, mPageRequested,
-                                        response.toString(), System.currentTimeMillis());
-                            }
-                        } catch (JSONException e) {
-                            AppLog.e(AppLog.T.STATS, e);
+                            StatsTable.insertStats(StatsService.this, mRequestBlogId, mTimeframe, mDate,
+                                    mEndpointName, mMaxResultsRequested, mPageRequested,
+                                    response.toString(), System.currentTimeMillis());
+                        } finally {
+                            cacheSpan.end();
                         }
                     }
+                } catch (JSONException e) {
+                    AppLog.e(AppLog.T.STATS, e);
+                }
+            }
 
-                    EventBus.getDefault().post(
-                            mEndpointName.getEndpointUpdateEvent(mRequestBlogId, mTimeframe, mDate,
-                            mMaxResultsRequested, mPageRequested, mResponseObjectModel)
-                    );
+            EventBus.getDefault().post(
+                    mEndpointName.getEndpointUpdateEvent(mRequestBlogId, mTimeframe, mDate,
+                    mMaxResultsRequested, mPageRequested, mResponseObjectModel)
+            );
 
-                    updateWidgetsUI(mRequestBlogId, mEndpointName, mTimeframe, mDate, mPageRequested, mResponseObjectModel);
-                    checkAllRequestsFinished(currentRequest);
-                }
-            });
+            updateWidgetsUI(mRequestBlogId, mEndpointName, mTimeframe, mDate, mPageRequested, mResponseObjectModel);
+            checkAllRequestsFinished(currentRequest);
         }
 
         @Override
         public void onErrorResponse(final VolleyError volleyError) {
+            mRequestSpan.end();
             singleThreadNetworkHandler.submit(new Thread() {
                 @Override
                 public void run() {
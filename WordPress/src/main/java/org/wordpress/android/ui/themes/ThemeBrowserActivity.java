@@ -518,20 +518,20 @@ public class ThemeBrowserActivity extends AppCompatActivity implements ThemeBrow
                 return null;
             }
 
-            // convert JSON themes to Theme models and store them in database
-            final ArrayList<Theme> themes = new ArrayList<>();
+            // convert JSON themes to Theme models and store them in database in a single transaction
+            final ArrayList<Theme> themes = new ArrayList<>(array.length());
             for (int i = 0; i < array.length(); i++) {
                 try {
                     JSONObject object = array.getJSONObject(i);
                     Theme theme = Theme.fromJSONV1_2(object, mSite);
                     if (theme != null) {
-                        ThemeTable.saveTheme(WordPress.wpDB.getDatabase(), theme);
                         themes.add(theme);
                     }
                 } catch (JSONException e) {
                     AppLog.e(T.THEMES, e);
                 }
             }
+            ThemeTable.saveThemes(WordPress.wpDB.getDatabase(), themes);
 
             fetchCurrentTheme();
 
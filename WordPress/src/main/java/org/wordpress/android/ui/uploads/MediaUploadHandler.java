@@ -1,5 +1,7 @@
 package org.wordpress.android.ui.uploads;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
 
 import org.greenrobot.eventbus.Subscribe;
@@ -9,12 +11,18 @@ import org.wordpress.android.analytics.AnalyticsTracker;
 import org.wordpress.android.fluxc.Dispatcher;
 import org.wordpress.android.fluxc.generated.MediaActionBuilder;
 import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.fluxc.model.MediaModel.MediaUploadState;
 import org.wordpress.android.fluxc.model.PostModel;
 import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.store.AccountStore;
 import org.wordpress.android.fluxc.store.MediaStore.CancelMediaPayload;
+import org.wordpress.android.fluxc.store.MediaStore.MediaError;
+import org.wordpress.android.fluxc.store.MediaStore.MediaErrorType;
 import org.wordpress.android.fluxc.store.MediaStore.MediaPayload;
 import org.wordpress.android.fluxc.store.MediaStore.OnMediaUploaded;
+import org.wordpress.android.fluxc.store.MediaStore.ProgressPayload;
 import org.wordpress.android.fluxc.store.SiteStore;
+import org.wordpress.android.networking.ConnectionChangeReceiver;
 import org.wordpress.android.util.AnalyticsUtils;
 import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
@@ -32,10 +40,19 @@ import javax.inject.Inject;
 
 import de.greenrobot.event.EventBus;
 
-public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptimizer.VideoOptimizationListener {
+public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptimizer.VideoOptimizationListener,
+        ResumableMediaUploader.ResumableUploadListener {
+    // interrupted resumable uploads are retried with an increasing delay, and immediately when the
+    // connection comes back - after this many attempts the upload fails, but keeps its saved offset
+    private static final long RESUME_DELAY_MS = 5000;
+    private static final int MAX_RESUME_ATTEMPTS = 6;
+
     private static final List<MediaModel> sPendingUploads = new ArrayList<>();
     private static final List<MediaModel> sInProgressUploads = new ArrayList<>();
 
+    // resumable uploads which were interrupted and are waiting to be resumed, mapped to their resume attempts
+    private static final Map<Integer, Integer> sInterruptedUploads = new ConcurrentHashMap<>();
+
     // TODO This should be moved to FluxC, perhaps in a new UploadMediaTable
     private static final ConcurrentHashMap<Integer, Float> sUploadProgressByMediaId = new ConcurrentHashMap<>();
     private static final ConcurrentHashMap<Integer, Float> sOptimizationProgressByMediaId = new ConcurrentHashMap<>();
@@ -44,6 +61,17 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
     Dispatcher mDispatcher;
     @Inject
     SiteStore mSiteStore;
+    @Inject
+    AccountStore mAccountStore;
+
+    private final Map<Integer, ResumableMediaUploader> mResumableUploaders = new ConcurrentHashMap<>();
+    private final Handler mResumeHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mResumeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            resumeInterruptedUploads();
+        }
+    };
 
     MediaUploadHandler() {
         ((WordPress) WordPress.getContext()).component().inject(this);
@@ -53,6 +81,8 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
     }
 
     void unregister() {
+        mResumeHandler.removeCallbacks(mResumeRunnable);
+        sInterruptedUploads.clear();
         sUploadProgressByMediaId.clear();
         sOptimizationProgressByMediaId.clear();
         mDispatcher.unregister(this);
@@ -160,6 +190,25 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
         return false;
     }
 
+    /*
+     * returns the file paths of media which are queued or uploading
+     */
+    static List<String> getPendingOrInProgressFilePaths() {
+        List<String> paths = new ArrayList<>();
+        synchronized (sInProgressUploads) {
+            for (MediaModel uploadingMedia : sInProgressUploads) {
+                paths.add(uploadingMedia.getFilePath());
+            }
+        }
+
+        synchronized (sPendingUploads) {
+            for (MediaModel queuedMedia : sPendingUploads) {
+                paths.add(queuedMedia.getFilePath());
+            }
+        }
+        return paths;
+    }
+
     /**
      * Returns the last recorded progress value for the given {@param media}. If there is no record for that media,
      * it's assumed to be a completed upload.
@@ -279,7 +328,9 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
     private void cancelUpload(MediaModel oneUpload, boolean delete) {
         if (oneUpload != null) {
             SiteModel site = mSiteStore.getSiteByLocalId(oneUpload.getLocalSiteId());
-            if (site != null) {
+            if (site != null && isResumableUpload(oneUpload)) {
+                cancelResumableUpload(oneUpload, site, delete);
+            } else if (site != null) {
                 dispatchCancelAction(oneUpload, site, delete);
             } else {
                 AppLog.w(T.MEDIA, "MediaUploadHandler > Unexpected state, site is null. "
@@ -307,15 +358,156 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
             return;
         }
 
-        AppLog.i(T.MEDIA, "MediaUploadHandler > Dispatching upload action for media with local id: "
-                + media.getId() + " and path: " + media.getFilePath());
         addUniqueMediaToInProgressUploads(media);
 
+        if (mAccountStore.hasAccessToken() && ResumableMediaUploader.canUpload(site, media)) {
+            startResumableUpload(media, site);
+        } else {
+            dispatchSingleShotUpload(media, site);
+        }
+
+        optimizeNextQueuedVideo();
+    }
+
+    private void dispatchSingleShotUpload(@NonNull MediaModel media, @NonNull SiteModel site) {
+        AppLog.i(T.MEDIA, "MediaUploadHandler > Dispatching upload action for media with local id: "
+                + media.getId() + " and path: " + media.getFilePath());
         mDispatcher.dispatch(MediaActionBuilder.newUpdateMediaAction(media));
         MediaPayload payload = new MediaPayload(site, media);
         mDispatcher.dispatch(MediaActionBuilder.newUploadMediaAction(payload));
     }
 
+    private void startResumableUpload(@NonNull MediaModel media, @NonNull SiteModel site) {
+        AppLog.i(T.MEDIA, "MediaUploadHandler > Starting resumable upload for media with local id: "
+                + media.getId() + " and path: " + media.getFilePath());
+        media.setUploadState(MediaUploadState.UPLOADING);
+        mDispatcher.dispatch(MediaActionBuilder.newUpdateMediaAction(media));
+
+        ResumableMediaUploader uploader = new ResumableMediaUploader(WordPress.getContext(), media, site,
+                mAccountStore.getAccessToken(), mDispatcher, this);
+        mResumableUploaders.put(media.getId(), uploader);
+        uploader.start();
+    }
+
+    private boolean isResumableUpload(@NonNull MediaModel media) {
+        return mResumableUploaders.containsKey(media.getId()) || sInterruptedUploads.containsKey(media.getId());
+    }
+
+    /*
+     * stops a resumable upload - its saved offset is kept so uploading the media again resumes it, unless
+     * the media is being deleted
+     */
+    private void cancelResumableUpload(@NonNull final MediaModel media, @NonNull SiteModel site, boolean delete) {
+        AppLog.i(T.MEDIA, "MediaUploadHandler > Canceling resumable upload for media with local id: "
+                + media.getId());
+        ResumableMediaUploader uploader = mResumableUploaders.remove(media.getId());
+        if (uploader != null) {
+            uploader.cancel();
+        }
+        sInterruptedUploads.remove(media.getId());
+
+        if (delete) {
+            ResumableMediaUploader.clearSavedUpload(WordPress.getContext(), media);
+            // FluxC deletes the media, but since it isn't uploading it there's no canceled event to wait for.
+            // completing is posted since callers may be iterating the in-progress uploads
+            dispatchCancelAction(media, site, true);
+            mResumeHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    trackUploadMediaEvents(AnalyticsTracker.Stat.MEDIA_UPLOAD_CANCELED,
+                            getMediaFromInProgressQueueById(media.getId()), null);
+                    completeUploadWithId(media.getId());
+                    uploadNextInQueue();
+                }
+            });
+        } else {
+            media.setUploadState(MediaUploadState.FAILED);
+            ProgressPayload payload = new ProgressPayload(media, 0, false, true);
+            mDispatcher.dispatch(MediaActionBuilder.newUploadedMediaAction(payload));
+        }
+    }
+
+    private void resumeInterruptedUploads() {
+        mResumeHandler.removeCallbacks(mResumeRunnable);
+        for (Integer mediaId : sInterruptedUploads.keySet()) {
+            if (mResumableUploaders.containsKey(mediaId)) {
+                // already resumed, and hasn't been interrupted again
+                continue;
+            }
+            MediaModel media = getMediaFromInProgressQueueById(mediaId);
+            SiteModel site = media != null ? mSiteStore.getSiteByLocalId(media.getLocalSiteId()) : null;
+            if (site == null || !mAccountStore.hasAccessToken()) {
+                sInterruptedUploads.remove(mediaId);
+                continue;
+            }
+            AppLog.i(T.MEDIA, "MediaUploadHandler > Resuming upload for media with local id: " + mediaId);
+            ResumableMediaUploader uploader = new ResumableMediaUploader(WordPress.getContext(), media, site,
+                    mAccountStore.getAccessToken(), mDispatcher, this);
+            mResumableUploaders.put(mediaId, uploader);
+            uploader.start();
+        }
+    }
+
+    @Override
+    public void onResumableUploadInterrupted(@NonNull MediaModel media) {
+        if (mResumableUploaders.remove(media.getId()) == null) {
+            // canceled while the interruption was being reported
+            return;
+        }
+
+        Integer attempts = sInterruptedUploads.get(media.getId());
+        int nextAttempt = attempts == null ? 1 : attempts + 1;
+        if (nextAttempt > MAX_RESUME_ATTEMPTS) {
+            AppLog.w(T.MEDIA, "MediaUploadHandler > Giving up on resuming media with local id: " + media.getId());
+            sInterruptedUploads.remove(media.getId());
+            media.setUploadState(MediaUploadState.FAILED);
+            ProgressPayload payload = new ProgressPayload(media, 0, false,
+                    new MediaError(MediaErrorType.CONNECTION_ERROR));
+            mDispatcher.dispatch(MediaActionBuilder.newUploadedMediaAction(payload));
+            return;
+        }
+
+        sInterruptedUploads.put(media.getId(), nextAttempt);
+        long delayMs = RESUME_DELAY_MS << (nextAttempt - 1);
+        AppLog.i(T.MEDIA, "MediaUploadHandler > Upload interrupted for media with local id: " + media.getId()
+                + ", resuming in " + delayMs + " ms or when the connection is back");
+        mResumeHandler.removeCallbacks(mResumeRunnable);
+        mResumeHandler.postDelayed(mResumeRunnable, delayMs);
+    }
+
+    @Override
+    public void onResumableUploadNotSupported(@NonNull MediaModel media) {
+        if (mResumableUploaders.remove(media.getId()) == null) {
+            return;
+        }
+        SiteModel site = mSiteStore.getSiteByLocalId(media.getLocalSiteId());
+        if (site != null) {
+            dispatchSingleShotUpload(media, site);
+        }
+    }
+
+    /*
+     * optimizes the next queued video while this media uploads, so it can be uploaded as soon as it
+     * reaches the front of the queue - when it does, its VideoOptimizer either finds the optimized
+     * video in the cache or waits for this optimization to complete
+     */
+    private void optimizeNextQueuedVideo() {
+        if (!WPMediaUtils.isVideoOptimizationEnabled() || VideoOptimizer.isOptimizing()) {
+            return;
+        }
+
+        synchronized (sPendingUploads) {
+            for (MediaModel queuedMedia : sPendingUploads) {
+                if (queuedMedia.isVideo()) {
+                    AppLog.d(T.MEDIA, "MediaUploadHandler > Optimizing queued video with local id: "
+                            + queuedMedia.getId());
+                    VideoOptimizer.optimizeAhead(queuedMedia);
+                    return;
+                }
+            }
+        }
+    }
+
     private void dispatchCancelAction(@NonNull final MediaModel media, @NonNull final SiteModel site, boolean delete) {
         AppLog.i(T.MEDIA, "MediaUploadHandler > Dispatching cancel upload action for media with local id: "
                 + media.getId() + " and path: " + media.getFilePath());
@@ -354,6 +546,20 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
         }
     }
 
+    /*
+     * resumes interrupted uploads as soon as the connection is back rather than waiting for their next attempt
+     */
+    @SuppressWarnings("unused")
+    public void onEventMainThread(ConnectionChangeReceiver.ConnectionChangeEvent event) {
+        if (event.isConnected() && !sInterruptedUploads.isEmpty()) {
+            // uploads get a fresh set of attempts each time the connection comes back
+            for (Integer mediaId : sInterruptedUploads.keySet()) {
+                sInterruptedUploads.put(mediaId, 0);
+            }
+            resumeInterruptedUploads();
+        }
+    }
+
     // FluxC events
 
     /**
@@ -368,6 +574,12 @@ public class MediaUploadHandler implements UploadHandler<MediaModel>, VideoOptim
             return;
         }
 
+        // an upload which completed, failed or was canceled is no longer resumable
+        if (event.isError() || event.completed || event.canceled) {
+            mResumableUploaders.remove(event.media.getId());
+            sInterruptedUploads.remove(event.media.getId());
+        }
+
         if (event.isError()) {
             handleOnMediaUploadedError(event);
         } else {
@@ -0,0 +1,163 @@
+package org.wordpress.android.ui.uploads;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.DiskCacheUtils;
+import org.wordpress.android.util.MediaUtils;
+import org.wordpress.android.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * disk cache of optimized videos, so a video whose upload is retried or re-queued isn't transcoded
+ * again. entries are keyed by the source video's path, size and modification time along with the
+ * optimization settings, so changing the source or the settings results in a new entry. videos which
+ * couldn't be made smaller are recorded with an empty marker file so they're not transcoded again
+ * either. once the cache exceeds MAX_CACHE_BYTES the least recently used entries are removed, other
+ * than those belonging to uploads which are queued or in progress.
+ */
+class OptimizedVideoCache {
+    private static final String CACHE_DIR_NAME = "optimized_videos";
+    static final long MAX_CACHE_BYTES = 500L * 1024 * 1024;
+
+    private static final String VIDEO_EXTENSION = ".mp4";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final String NO_SAVINGS_EXTENSION = ".none";
+
+    private OptimizedVideoCache() {
+        throw new AssertionError();
+    }
+
+    static @Nullable File getCacheDir(@NonNull Context context) {
+        File diskCacheDir = MediaUtils.getDiskCacheDir(context);
+        if (diskCacheDir == null) {
+            return null;
+        }
+        File cacheDir = new File(diskCacheDir, CACHE_DIR_NAME);
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            AppLog.w(T.MEDIA, "OptimizedVideoCache > cannot create cache dir");
+            return null;
+        }
+        return cacheDir;
+    }
+
+    static @NonNull String getKey(@NonNull String inputPath, int width, int quality) {
+        File file = new File(inputPath);
+        return StringUtils.getMd5Hash(inputPath + ":" + file.length() + ":" + file.lastModified()
+                + ":" + width + ":" + quality);
+    }
+
+    /*
+     * returns true if the passed path is an optimized video in the cache, which doesn't need to be
+     * optimized again
+     */
+    static boolean isOptimizedVideo(@NonNull File cacheDir, @Nullable String path) {
+        return path != null && path.startsWith(cacheDir.getPath() + File.separator);
+    }
+
+    static @NonNull File getVideoFile(@NonNull File cacheDir, @NonNull String key) {
+        return new File(cacheDir, key + VIDEO_EXTENSION);
+    }
+
+    static @NonNull File getTempFile(@NonNull File cacheDir, @NonNull String key) {
+        return new File(cacheDir, key + TEMP_EXTENSION);
+    }
+
+    /*
+     * returns the cached optimized video for the passed key, or null if there isn't one - the entry
+     * is touched so it's treated as recently used
+     */
+    static @Nullable File getCachedVideo(@NonNull File cacheDir, @NonNull String key) {
+        File file = getVideoFile(cacheDir, key);
+        if (file.length() > 0) {
+            DiskCacheUtils.touch(file);
+            return file;
+        }
+        return null;
+    }
+
+    /*
+     * returns true if optimizing the video with the passed key has already been found not to
+     * reduce its size
+     */
+    static boolean hasNoSavings(@NonNull File cacheDir, @NonNull String key) {
+        File marker = new File(cacheDir, key + NO_SAVINGS_EXTENSION);
+        if (marker.exists()) {
+            DiskCacheUtils.touch(marker);
+            return true;
+        }
+        return false;
+    }
+
+    /*
+     * returns the cached videos used by the passed upload paths, which must not be evicted - a path
+     * is either an optimized video in the cache (an upload which is in progress) or the source of a
+     * video which may have been optimized ahead (an upload which is queued)
+     */
+    static @NonNull Set<File> getVideosInUse(@NonNull File cacheDir,
+                                             @NonNull Collection<String> uploadPaths,
+                                             int width,
+                                             int quality) {
+        Set<File> videos = new HashSet<>();
+        for (String path : uploadPaths) {
+            if (isOptimizedVideo(cacheDir, path)) {
+                videos.add(new File(path));
+            } else if (path != null) {
+                videos.add(getVideoFile(cacheDir, getKey(path, width, quality)));
+            }
+        }
+        return videos;
+    }
+
+    /*
+     * moves a completed optimization from its temp file into the cache, then trims the cache without
+     * evicting the passed videos which are in use
+     */
+    static @Nullable File putVideo(@NonNull File cacheDir,
+                                   @NonNull String key,
+                                   @NonNull File tempFile,
+                                   @NonNull Set<File> videosInUse) {
+        File file = getVideoFile(cacheDir, key);
+        if (!tempFile.renameTo(file)) {
+            AppLog.w(T.MEDIA, "OptimizedVideoCache > unable to add " + file.getName());
+            return null;
+        }
+        Set<File> keep = new HashSet<>(videosInUse);
+        keep.add(file);
+        trim(cacheDir, MAX_CACHE_BYTES, keep);
+        return file;
+    }
+
+    static void putNoSavings(@NonNull File cacheDir, @NonNull String key) {
+        try {
+            File marker = new File(cacheDir, key + NO_SAVINGS_EXTENSION);
+            if (!marker.createNewFile()) {
+                DiskCacheUtils.touch(marker);
+            }
+        } catch (IOException e) {
+            AppLog.w(T.MEDIA, "OptimizedVideoCache > unable to add marker " + e.getMessage());
+        }
+    }
+
+    /*
+     * removes the least recently used entries until the cache is under maxBytes - temp files belong
+     * to optimizations which are still running, and the passed videos belong to uploads, so they're
+     * counted but never removed
+     */
+    static void trim(@NonNull File cacheDir, long maxBytes, @NonNull final Set<File> videosInUse) {
+        DiskCacheUtils.trimToSize(cacheDir, maxBytes, new DiskCacheUtils.EvictionFilter() {
+            @Override
+            public boolean canEvict(@NonNull File file) {
+                return !file.getName().endsWith(TEMP_EXTENSION) && !videosInUse.contains(file);
+            }
+        });
+    }
+}
@@ -0,0 +1,261 @@
+package org.wordpress.android.ui.uploads;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wordpress.android.fluxc.Dispatcher;
+import org.wordpress.android.fluxc.generated.MediaActionBuilder;
+import org.wordpress.android.fluxc.model.MediaModel;
+import org.wordpress.android.fluxc.model.MediaModel.MediaUploadState;
+import org.wordpress.android.fluxc.model.SiteModel;
+import org.wordpress.android.fluxc.store.MediaStore.MediaError;
+import org.wordpress.android.fluxc.store.MediaStore.MediaErrorType;
+import org.wordpress.android.fluxc.store.MediaStore.ProgressPayload;
+import org.wordpress.android.networking.ResumableUpload;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+import org.wordpress.android.util.BackgroundExecutors;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * uploads large media to wp.com sites in resumable chunks (see ResumableUpload), reporting progress and
+ * completion through FluxC the same way a regular media upload does. an interrupted upload is reported to
+ * the listener so it can be resumed once the connection is back, and since the upload's offset is saved
+ * it also survives the app being killed - the next upload of the same media picks up where it left off
+ */
+class ResumableMediaUploader implements Runnable {
+    // smaller files are quick to upload again, so they're sent in a single request
+    static final long MIN_RESUMABLE_BYTES = 5 * 1024 * 1024;
+
+    private static final String ENDPOINT = "https://public-api.wordpress.com/rest/v1.1/sites/%d/media/resumable";
+    private static final String PREFS_NAME = "resumable_media_uploads";
+    private static final String UPLOAD_LANE = "media-upload";
+
+    // sites whose server turned out not to support resumable uploads, by local id
+    private static final Set<Integer> sUnsupportedSiteIds =
+            Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+
+    interface ResumableUploadListener {
+        /*
+         * the connection was lost - the upload can be resumed by starting a new uploader for the same media
+         */
+        void onResumableUploadInterrupted(@NonNull MediaModel media);
+
+        /*
+         * the site doesn't support resumable uploads, so the media should be uploaded in a single request
+         */
+        void onResumableUploadNotSupported(@NonNull MediaModel media);
+    }
+
+    private final Context mContext;
+    private final MediaModel mMedia;
+    private final SiteModel mSite;
+    private final String mAccessToken;
+    private final Dispatcher mDispatcher;
+    private final ResumableUploadListener mListener;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    private volatile ResumableUpload mUpload;
+    private volatile boolean mIsCanceled;
+
+    ResumableMediaUploader(@NonNull Context context, @NonNull MediaModel media, @NonNull SiteModel site,
+                           @NonNull String accessToken, @NonNull Dispatcher dispatcher,
+                           @NonNull ResumableUploadListener listener) {
+        mContext = context.getApplicationContext();
+        mMedia = media;
+        mSite = site;
+        mAccessToken = accessToken;
+        mDispatcher = dispatcher;
+        mListener = listener;
+    }
+
+    /*
+     * returns true if the passed media should be uploaded in resumable chunks
+     */
+    static boolean canUpload(@NonNull SiteModel site, @NonNull MediaModel media) {
+        if (!site.isUsingWpComRestApi() || sUnsupportedSiteIds.contains(site.getId())) {
+            return false;
+        }
+        File file = media.getFilePath() != null ? new File(media.getFilePath()) : null;
+        return file != null && file.length() >= MIN_RESUMABLE_BYTES;
+    }
+
+    /*
+     * forgets the interrupted upload of the passed media, if any
+     */
+    static void clearSavedUpload(@NonNull Context context, @NonNull MediaModel media) {
+        ResumableUpload.clearSession(getPrefs(context), getKey(media));
+    }
+
+    void start() {
+        BackgroundExecutors.serial(UPLOAD_LANE).execute(this);
+    }
+
+    void cancel() {
+        mIsCanceled = true;
+        ResumableUpload upload = mUpload;
+        if (upload != null) {
+            upload.cancel();
+        }
+    }
+
+    @Override
+    public void run() {
+        if (mIsCanceled) {
+            return;
+        }
+
+        File file = new File(mMedia.getFilePath());
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("filename", mMedia.getFileName());
+        metadata.put("filetype", mMedia.getMimeType());
+        if (mMedia.getPostId() > 0) {
+            metadata.put("post_id", String.valueOf(mMedia.getPostId()));
+        }
+        ResumableUpload upload = new ResumableUpload(createClient(mAccessToken), getPrefs(mContext),
+                getKey(mMedia), String.format(Locale.US, ENDPOINT, mSite.getSiteId()), file, metadata);
+        mUpload = upload;
+        if (mIsCanceled) {
+            return;
+        }
+
+        try {
+            String response = upload.upload(new ResumableUpload.ProgressListener() {
+                @Override
+                public void onProgress(long uploadedBytes, long totalBytes) {
+                    // the last chunk's progress is reported along with the parsed response
+                    if (uploadedBytes < totalBytes) {
+                        dispatchProgress((float) uploadedBytes / totalBytes, false, null);
+                    }
+                }
+            });
+            if (!parseUploadedMedia(response)) {
+                dispatchError(new MediaError(MediaErrorType.PARSE_ERROR));
+                return;
+            }
+            AppLog.i(T.MEDIA, "ResumableMediaUploader > Uploaded media with local id " + mMedia.getId());
+            mMedia.setUploadState(MediaUploadState.UPLOADED);
+            dispatchProgress(1F, true, null);
+        } catch (IOException e) {
+            // the upload is stopped if it's canceled, and the caller takes care of reporting the cancellation
+            if (!upload.isCanceled()) {
+                AppLog.w(T.MEDIA, "ResumableMediaUploader > Upload interrupted: " + e.getMessage());
+                notifyListener(false);
+            }
+        } catch (ResumableUpload.NotSupportedException e) {
+            AppLog.i(T.MEDIA, "ResumableMediaUploader > " + e.getMessage() + ", uploading in a single request");
+            sUnsupportedSiteIds.add(mSite.getId());
+            notifyListener(true);
+        } catch (ResumableUpload.UploadFailedException e) {
+            AppLog.e(T.MEDIA, "ResumableMediaUploader > Upload failed: " + e.getMessage());
+            clearSavedUpload(mContext, mMedia);
+            dispatchError(new MediaError(getErrorType(e.statusCode), e.getMessage()));
+        }
+    }
+
+    private void notifyListener(final boolean isNotSupported) {
+        mMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (isNotSupported) {
+                    mListener.onResumableUploadNotSupported(mMedia);
+                } else {
+                    mListener.onResumableUploadInterrupted(mMedia);
+                }
+            }
+        });
+    }
+
+    private void dispatchProgress(float progress, boolean completed, MediaError error) {
+        ProgressPayload payload = error != null
+                ? new ProgressPayload(mMedia, progress, completed, error)
+                : new ProgressPayload(mMedia, progress, completed, false);
+        mDispatcher.dispatch(MediaActionBuilder.newUploadedMediaAction(payload));
+    }
+
+    private void dispatchError(@NonNull MediaError error) {
+        mMedia.setUploadState(MediaUploadState.FAILED);
+        dispatchProgress(0, false, error);
+    }
+
+    /*
+     * the last chunk's response describes the uploaded media the same way the media/new endpoint does
+     */
+    private boolean parseUploadedMedia(String response) {
+        try {
+            JSONObject json = new JSONObject(response);
+            JSONArray mediaArray = json.optJSONArray("media");
+            JSONObject item = mediaArray != null ? mediaArray.optJSONObject(0) : json;
+            if (item == null || item.optLong("ID") == 0) {
+                return false;
+            }
+            mMedia.setMediaId(item.optLong("ID"));
+            mMedia.setUrl(item.optString("URL"));
+            mMedia.setGuid(item.optString("guid"));
+            JSONObject thumbnails = item.optJSONObject("thumbnails");
+            if (thumbnails != null) {
+                mMedia.setThumbnailUrl(thumbnails.optString("thumbnail"));
+            }
+            return true;
+        } catch (JSONException e) {
+            AppLog.e(T.MEDIA, "ResumableMediaUploader > Unable to parse the uploaded media", e);
+            return false;
+        }
+    }
+
+    private static MediaErrorType getErrorType(int statusCode) {
+        if (statusCode == 401 || statusCode == 403) {
+            return MediaErrorType.AUTHORIZATION_REQUIRED;
+        } else if (statusCode == 413) {
+            return MediaErrorType.REQUEST_TOO_LARGE;
+        } else if (statusCode >= 500) {
+            return MediaErrorType.SERVER_ERROR;
+        }
+        return MediaErrorType.GENERIC_ERROR;
+    }
+
+    private static OkHttpClient createClient(final String accessToken) {
+        return new OkHttpClient.Builder()
+                .connectTimeout(30, TimeUnit.SECONDS)
+                .writeTimeout(60, TimeUnit.SECONDS)
+                .readTimeout(60, TimeUnit.SECONDS)
+                .addInterceptor(new Interceptor() {
+                    @Override
+                    public Response intercept(Interceptor.Chain chain) throws IOException {
+                        Request request = chain.request().newBuilder()
+                                .header("Authorization", "Bearer " + accessToken)
+                                .build();
+                        return chain.proceed(request);
+                    }
+                })
+                .build();
+    }
+
+    private static SharedPreferences getPrefs(@NonNull Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private static String getKey(@NonNull MediaModel media) {
+        return "media_" + media.getId();
+    }
+}
@@ -26,6 +26,7 @@ import org.wordpress.android.util.AppLog;
 import org.wordpress.android.util.AppLog.T;
 import org.wordpress.android.util.DateTimeUtils;
 import org.wordpress.android.util.FluxCUtils;
+import org.wordpress.android.util.TraceUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -63,6 +64,9 @@ public class UploadService extends Service {
     // similar to the above map, this one tracks media failed for a post
     private static final ConcurrentHashMap<Integer, List<MediaModel>> sFailedMediaByPost = new ConcurrentHashMap<>();
 
+    // traces the time taken by each media and post upload, keyed by local media/post id
+    private final ConcurrentHashMap<Integer, TraceUtils.Span> mMediaUploadSpans = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, TraceUtils.Span> mPostUploadSpans = new ConcurrentHashMap<>();
 
     @Inject Dispatcher mDispatcher;
     @Inject MediaStore mMediaStore;
@@ -191,6 +195,9 @@ public class UploadService extends Service {
         List<MediaModel> mediaList = (List<MediaModel>) intent.getSerializableExtra(KEY_MEDIA_LIST);
         if (mediaList != null) {
             for (MediaModel media : mediaList) {
+                if (!mMediaUploadSpans.containsKey(media.getId())) {
+                    mMediaUploadSpans.put(media.getId(), TraceUtils.beginAsyncSpan("UploadService.uploadMedia"));
+                }
                 mMediaUploadHandler.upload(media);
             }
         }
@@ -199,6 +206,10 @@ public class UploadService extends Service {
     private void unpackPostIntent(@NonNull Intent intent) {
         PostModel post = mPostStore.getPostByLocalPostId(intent.getIntExtra(KEY_LOCAL_POST_ID, 0));
         if (post != null) {
+            if (!mPostUploadSpans.containsKey(post.getId())) {
+                mPostUploadSpans.put(post.getId(), TraceUtils.beginAsyncSpan("UploadService.uploadPost"));
+            }
+
             boolean shouldTrackAnalytics = intent.getBooleanExtra(KEY_SHOULD_TRACK_ANALYTICS, false);
             if (shouldTrackAnalytics) {
                 mPostUploadHandler.registerPostForAnalyticsTracking(post);
@@ -533,6 +544,13 @@ public class UploadService extends Service {
         return post;
     }
 
+    private static void endSpan(ConcurrentHashMap<Integer, TraceUtils.Span> spans, int id) {
+        TraceUtils.Span span = spans.remove(id);
+        if (span != null) {
+            span.end();
+        }
+    }
+
     private synchronized void stopServiceIfUploadsComplete() {
         if (mPostUploadHandler != null && mPostUploadHandler.hasInProgressUploads()) {
             return;
@@ -646,6 +664,10 @@ public class UploadService extends Service {
             return;
         }
 
+        if (event.isError() || event.canceled || event.completed) {
+            endSpan(mMediaUploadSpans, event.media.getId());
+        }
+
         if (event.isError()) {
             if (event.media.getLocalPostId() > 0) {
                 AppLog.w(T.MAIN, "UploadService > Media upload failed for post " + event.media.getLocalPostId() + " : "
@@ -735,6 +757,10 @@ public class UploadService extends Service {
     @SuppressWarnings("unused")
     @Subscribe(threadMode = ThreadMode.MAIN, priority = 7)
     public void onPostUploaded(OnPostUploaded event) {
+        if (event.post != null) {
+            endSpan(mPostUploadSpans, event.post.getId());
+        }
+
         if (event.isError()) {
             UploadError reason = new UploadError(event.error);
             addUploadErrorToFailedPosts(event.post, reason);
@@ -2,6 +2,7 @@ package org.wordpress.android.ui.uploads;
 
 import android.content.Context;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import org.m4m.MediaComposer;
 import org.wordpress.android.WordPress;
@@ -17,8 +18,11 @@ import org.wordpress.android.util.WPVideoUtils;
 
 import java.io.File;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.wordpress.android.analytics.AnalyticsTracker.Stat.MEDIA_VIDEO_CANT_OPTIMIZE;
 import static org.wordpress.android.analytics.AnalyticsTracker.Stat.MEDIA_VIDEO_OPTIMIZED;
@@ -40,24 +44,55 @@ public class VideoOptimizer implements org.m4m.IProgressListener {
         }
     }
 
+    /*
+     * optimizations which are currently running, keyed by their OptimizedVideoCache key - an
+     * optimizer started for a video which is already being optimized waits for that one to
+     * complete rather than transcoding it again
+     */
+    private static final Map<String, VideoOptimizer> sRunningOptimizers = new HashMap<>();
+
     private final File mCacheDir;
     private final MediaModel mMedia;
     private final VideoOptimizationListener mListener;
 
     private final String mFilename;
     private final String mInputPath;
+    private String mCacheKey;
+    private int mWidth;
+    private int mQuality;
     private String mOutputPath;
     private long mStartTimeMS;
     private float mLastProgress;
 
-    public VideoOptimizer(@NonNull MediaModel media, @NonNull VideoOptimizationListener listener) {
-        mCacheDir = MediaUtils.getDiskCacheDir(getContext());
+    // optimizers waiting for this one to complete, guarded by sRunningOptimizers
+    private final List<VideoOptimizer> mWaitingOptimizers = new ArrayList<>();
+
+    /*
+     * an optimizer without a listener only adds the optimized video to the cache, it doesn't
+     * update the media
+     */
+    public VideoOptimizer(@NonNull MediaModel media, @Nullable VideoOptimizationListener listener) {
+        mCacheDir = OptimizedVideoCache.getCacheDir(getContext());
         mListener = listener;
         mMedia = media;
         mInputPath = mMedia.getFilePath();
         mFilename = MediaUtils.generateTimeStampedFileName("video/mp4");
     }
 
+    /**
+     * Optimizes the passed video into the cache without changing it, so that it's ready to upload
+     * when it reaches the front of the upload queue
+     */
+    public static void optimizeAhead(@NonNull MediaModel media) {
+        new VideoOptimizer(media, null).start();
+    }
+
+    public static boolean isOptimizing() {
+        synchronized (sRunningOptimizers) {
+            return !sRunningOptimizers.isEmpty();
+        }
+    }
+
     private Context getContext() {
         return WordPress.getContext();
     }
@@ -65,38 +100,66 @@ public class VideoOptimizer implements org.m4m.IProgressListener {
     public void start() {
         if (mInputPath == null) {
             AppLog.w(AppLog.T.MEDIA, "VideoOptimizer > empty input path");
-            mListener.onVideoOptimizationCompleted(mMedia);
+            notifyCompleted(null);
             return;
         }
 
         if (mCacheDir == null) {
             AppLog.w(AppLog.T.MEDIA, "VideoOptimizer > null cache dir");
-            mListener.onVideoOptimizationCompleted(mMedia);
+            notifyCompleted(null);
             return;
         }
 
-        if (!mCacheDir.exists() && !mCacheDir.mkdirs()) {
-            AppLog.w(AppLog.T.MEDIA, "VideoOptimizer > cannot create cache dir");
-            mListener.onVideoOptimizationCompleted(mMedia);
+        // a retried upload may already point to the optimized video
+        if (OptimizedVideoCache.isOptimizedVideo(mCacheDir, mInputPath)) {
+            AppLog.d(AppLog.T.MEDIA, "VideoOptimizer > video is already optimized");
+            notifyCompleted(null);
             return;
         }
 
-        mOutputPath = mCacheDir.getPath() + "/" + mFilename;
+        mWidth = AppPrefs.getVideoOptimizeWidth();
+        mQuality = AppPrefs.getVideoOptimizeQuality();
+        mCacheKey = OptimizedVideoCache.getKey(mInputPath, mWidth, mQuality);
+
+        File cachedVideo;
+        boolean isCached;
+        synchronized (sRunningOptimizers) {
+            VideoOptimizer runningOptimizer = sRunningOptimizers.get(mCacheKey);
+            if (runningOptimizer != null) {
+                AppLog.d(AppLog.T.MEDIA, "VideoOptimizer > waiting for running optimization");
+                runningOptimizer.mWaitingOptimizers.add(this);
+                return;
+            }
+
+            cachedVideo = OptimizedVideoCache.getCachedVideo(mCacheDir, mCacheKey);
+            isCached = cachedVideo != null || OptimizedVideoCache.hasNoSavings(mCacheDir, mCacheKey);
+            if (!isCached) {
+                sRunningOptimizers.put(mCacheKey, this);
+            }
+        }
+
+        if (isCached) {
+            AppLog.d(AppLog.T.MEDIA, "VideoOptimizer > using cached optimization");
+            notifyCompleted(cachedVideo);
+            return;
+        }
+
+        mOutputPath = OptimizedVideoCache.getTempFile(mCacheDir, mCacheKey).getPath();
 
         MediaComposer mediaComposer = WPVideoUtils.getVideoOptimizationComposer(
                 getContext(),
                 mInputPath,
                 mOutputPath,
                 this,
-                AppPrefs.getVideoOptimizeWidth(),
-                AppPrefs.getVideoOptimizeQuality());
+                mWidth,
+                mQuality);
 
         if (mediaComposer == null) {
             AppLog.w(AppLog.T.MEDIA, "VideoOptimizer > null composer");
             AnalyticsTracker.track(MEDIA_VIDEO_CANT_OPTIMIZE,
                     AnalyticsUtils.getMediaProperties(getContext(), true, null, mInputPath)
             );
-            mListener.onVideoOptimizationCompleted(mMedia);
+            completeOptimization(null);
             return;
         }
 
@@ -107,7 +170,49 @@ public class VideoOptimizer implements org.m4m.IProgressListener {
         } catch(IllegalStateException e) {
             AppLog.e(AppLog.T.MEDIA, "VideoOptimizer > failed to start composer", e);
             CrashlyticsUtils.logException(e, AppLog.T.MEDIA);
-            mListener.onVideoOptimizationCompleted(mMedia);
+            completeOptimization(null);
+        }
+    }
+
+    /*
+     * called when this optimizer's transcoding has finished, with the optimized video or null if the
+     * original video should be uploaded - completes this optimizer and any waiting for it
+     */
+    private void completeOptimization(@Nullable File optimizedVideo) {
+        List<VideoOptimizer> waitingOptimizers;
+        synchronized (sRunningOptimizers) {
+            sRunningOptimizers.remove(mCacheKey);
+            waitingOptimizers = new ArrayList<>(mWaitingOptimizers);
+            mWaitingOptimizers.clear();
+        }
+
+        // remove the temp file if the optimized video wasn't moved into the cache
+        File tempFile = new File(mOutputPath);
+        if (tempFile.exists() && !tempFile.delete()) {
+            AppLog.w(AppLog.T.MEDIA, "VideoOptimizer > unable to delete " + tempFile.getName());
+        }
+
+        notifyCompleted(optimizedVideo);
+        for (VideoOptimizer waitingOptimizer : waitingOptimizers) {
+            waitingOptimizer.notifyCompleted(optimizedVideo);
+        }
+    }
+
+    private void notifyCompleted(@Nullable File optimizedVideo) {
+        if (mListener == null) {
+            return;
+        }
+        if (optimizedVideo != null) {
+            // update media object to point to optimized video
+            mMedia.setFilePath(optimizedVideo.getPath());
+            mMedia.setFileName(mFilename);
+        }
+        mListener.onVideoOptimizationCompleted(mMedia);
+    }
+
+    private void notifyProgress(float progress) {
+        if (mListener != null) {
+            mListener.onVideoOptimizationProgress(mMedia, progress);
         }
     }
 
@@ -159,7 +264,14 @@ public class VideoOptimizer implements org.m4m.IProgressListener {
         if (mLastProgress == 0 || (progress - mLastProgress > 0.01F)) {
             AppLog.d(AppLog.T.MEDIA, "VideoOptimizer > " + mMedia.getId() + " - progress: " + progress);
             mLastProgress = progress;
-            mListener.onVideoOptimizationProgress(mMedia, progress);
+            notifyProgress(progress);
+            List<VideoOptimizer> waitingOptimizers;
+            synchronized (sRunningOptimizers) {
+                waitingOptimizers = new ArrayList<>(mWaitingOptimizers);
+            }
+            for (VideoOptimizer waitingOptimizer : waitingOptimizers) {
+                waitingOptimizer.notifyProgress(progress);
+            }
         }
     }
 
@@ -178,13 +290,14 @@ public class VideoOptimizer implements org.m4m.IProgressListener {
         if (savings <= 0) {
             AppLog.w(AppLog.T.MEDIA, "VideoOptimizer > no savings, optimized file is " + strSavingsKb + " larger");
             // no savings, so use original unoptimized media
-            mListener.onVideoOptimizationCompleted(mMedia);
+            OptimizedVideoCache.putNoSavings(mCacheDir, mCacheKey);
+            completeOptimization(null);
         } else {
             AppLog.d(AppLog.T.MEDIA, "VideoOptimizer > reduced by " + strSavingsKb);
-            // update media object to point to optimized video
-            mMedia.setFilePath(mOutputPath);
-            mMedia.setFileName(mFilename);
-            mListener.onVideoOptimizationCompleted(mMedia);
+            // don't let the cache evict videos which other uploads are using or about to use
+            Set<File> videosInUse = OptimizedVideoCache.getVideosInUse(mCacheDir,
+                    MediaUploadHandler.getPendingOrInProgressFilePaths(), mWidth, mQuality);
+            completeOptimization(OptimizedVideoCache.putVideo(mCacheDir, mCacheKey, new File(mOutputPath), videosInUse));
         }
     }
 
@@ -205,6 +318,6 @@ public class VideoOptimizer implements org.m4m.IProgressListener {
     public void onError(Exception e) {
         AppLog.e(AppLog.T.MEDIA, "VideoOptimizer > Can't optimize the video", e);
         trackVideoProcessingEvents(true, e);
-        mListener.onVideoOptimizationCompleted(mMedia);
+        completeOptimization(null);
     }
 }
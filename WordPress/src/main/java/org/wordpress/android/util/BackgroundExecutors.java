@@ -0,0 +1,181 @@
+package org.wordpress.android.util;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * app-wide executors for background work, so callers share a bounded number of threads rather
+ * than each starting their own:
+ *
+ *  cpu()          - parsing, rendering and other cpu-bound work, one thread per core (up to four)
+ *  io()           - disk and network bound work, which spends most of its time waiting
+ *  uiRead()       - short reads the UI is waiting on to show something (a post, a list of users),
+ *                   kept apart from io() so they're never queued behind bulk work
+ *  background()   - low priority housekeeping (cleanups, purges) which can wait
+ *  serial(name)   - a single-thread lane, used to serialize writes to a database or any other
+ *                   work which must run one task at a time in the order it was queued
+ *
+ * all threads are named and run below the priority of the main thread so they don't starve the
+ * UI. queue depth and queue wait times are tracked for each executor - use getSummary() to log them
+ */
+public class BackgroundExecutors {
+    private static final int NUM_CPU_THREADS =
+            Math.max(2, Math.min(Runtime.getRuntime().availableProcessors(), 4));
+    private static final int NUM_IO_THREADS = 4;
+    private static final int NUM_UI_READ_THREADS = 2;
+    private static final int KEEP_ALIVE_SECONDS = 30;
+
+    // tasks which wait in the queue longer than this are logged
+    private static final long SLOW_QUEUE_WAIT_MS = 250;
+
+    private static MeteredExecutor sCpuExecutor;
+    private static MeteredExecutor sIoExecutor;
+    private static MeteredExecutor sUiReadExecutor;
+    private static MeteredExecutor sBackgroundExecutor;
+    private static final Map<String, MeteredExecutor> sSerialExecutors = new HashMap<>();
+
+    private BackgroundExecutors() {
+        throw new AssertionError();
+    }
+
+    public static synchronized Executor cpu() {
+        if (sCpuExecutor == null) {
+            sCpuExecutor = new MeteredExecutor("cpu", NUM_CPU_THREADS,
+                    Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_MORE_FAVORABLE);
+        }
+        return sCpuExecutor;
+    }
+
+    public static synchronized Executor io() {
+        if (sIoExecutor == null) {
+            sIoExecutor = new MeteredExecutor("io", NUM_IO_THREADS, Process.THREAD_PRIORITY_BACKGROUND);
+        }
+        return sIoExecutor;
+    }
+
+    public static synchronized Executor uiRead() {
+        if (sUiReadExecutor == null) {
+            sUiReadExecutor = new MeteredExecutor("ui-read", NUM_UI_READ_THREADS,
+                    Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_MORE_FAVORABLE);
+        }
+        return sUiReadExecutor;
+    }
+
+    public static synchronized Executor background() {
+        if (sBackgroundExecutor == null) {
+            sBackgroundExecutor = new MeteredExecutor("background", 1, Process.THREAD_PRIORITY_LOWEST);
+        }
+        return sBackgroundExecutor;
+    }
+
+    /*
+     * returns the single-thread lane with the passed name, creating it if necessary - callers
+     * which pass the same name share the same lane
+     */
+    public static synchronized Executor serial(@NonNull String name) {
+        MeteredExecutor executor = sSerialExecutors.get(name);
+        if (executor == null) {
+            executor = new MeteredExecutor(name, 1, Process.THREAD_PRIORITY_BACKGROUND);
+            sSerialExecutors.put(name, executor);
+        }
+        return executor;
+    }
+
+    /*
+     * returns the queue stats for every executor which has been used, for logging
+     */
+    public static synchronized String getSummary() {
+        StringBuilder sb = new StringBuilder("background executors >");
+        MeteredExecutor[] executors = {sCpuExecutor, sIoExecutor, sUiReadExecutor, sBackgroundExecutor};
+        for (MeteredExecutor executor : executors) {
+            if (executor != null) {
+                sb.append("\n  ").append(executor.getSummary());
+            }
+        }
+        for (MeteredExecutor executor : sSerialExecutors.values()) {
+            sb.append("\n  ").append(executor.getSummary());
+        }
+        return sb.toString();
+    }
+
+    private static class MeteredExecutor extends ThreadPoolExecutor {
+        private final String mName;
+        private final AtomicInteger mMaxQueueDepth = new AtomicInteger();
+        private final AtomicLong mNumTasks = new AtomicLong();
+        private final AtomicLong mTotalQueueWaitMs = new AtomicLong();
+        private final AtomicLong mMaxQueueWaitMs = new AtomicLong();
+
+        MeteredExecutor(@NonNull final String name, int numThreads, final int threadPriority) {
+            super(numThreads, numThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                        private final AtomicInteger mThreadNum = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(@NonNull final Runnable runnable) {
+                            return new Thread(new Runnable() {
+                                @Override
+                                public void run() {
+                                    Process.setThreadPriority(threadPriority);
+                                    runnable.run();
+                                }
+                            }, "wp-" + name + "-" + mThreadNum.incrementAndGet());
+                        }
+                    });
+            mName = name;
+            // let idle threads die rather than keeping them around for the life of the app
+            allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public void execute(@NonNull final Runnable task) {
+            final long queuedAt = SystemClock.elapsedRealtime();
+            super.execute(new Runnable() {
+                @Override
+                public void run() {
+                    recordQueueWait(SystemClock.elapsedRealtime() - queuedAt);
+                    task.run();
+                }
+            });
+
+            int queueDepth = getQueue().size();
+            int maxDepth;
+            do {
+                maxDepth = mMaxQueueDepth.get();
+            } while (queueDepth > maxDepth && !mMaxQueueDepth.compareAndSet(maxDepth, queueDepth));
+        }
+
+        private void recordQueueWait(long waitMs) {
+            mNumTasks.incrementAndGet();
+            mTotalQueueWaitMs.addAndGet(waitMs);
+            long maxWaitMs;
+            do {
+                maxWaitMs = mMaxQueueWaitMs.get();
+            } while (waitMs > maxWaitMs && !mMaxQueueWaitMs.compareAndSet(maxWaitMs, waitMs));
+
+            if (waitMs >= SLOW_QUEUE_WAIT_MS) {
+                AppLog.w(T.UTILS, "background executors > task waited " + waitMs + " ms in " + mName + " queue");
+            }
+        }
+
+        String getSummary() {
+            long numTasks = mNumTasks.get();
+            long avgWaitMs = numTasks > 0 ? mTotalQueueWaitMs.get() / numTasks : 0;
+            return String.format(Locale.US, "%s: %d tasks, queue depth %d (max %d), wait avg %d ms (max %d ms)",
+                    mName, numTasks, getQueue().size(), mMaxQueueDepth.get(), avgWaitMs, mMaxQueueWaitMs.get());
+        }
+    }
+}
@@ -29,6 +29,17 @@ public class CrashlyticsUtils {
         logException(tr, null, null);
     }
 
+    /*
+     * logs an AppLog message - checks whether Crashlytics is enabled before building the string
+     * since this is called for every message logged by the app
+     */
+    public static void log(AppLog.T tag, AppLog.LogLevel logLevel, String message) {
+        if (!Fabric.isInitialized() || message == null) {
+            return;
+        }
+        Crashlytics.log(logLevel.name() + "/" + AppLog.TAG + "-" + tag.name() + ": " + message);
+    }
+
     public static void log(String message) {
         if (!Fabric.isInitialized() || message == null) {
             return;
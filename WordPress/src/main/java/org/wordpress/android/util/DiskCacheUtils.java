@@ -0,0 +1,111 @@
+package org.wordpress.android.util;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * helpers for simple on-disk caches which keep one file per entry and use each file's modification
+ * time to track when it was last used
+ */
+public class DiskCacheUtils {
+    public interface EvictionFilter {
+        /*
+         * return false to keep the passed file even if it's one of the least recently used
+         */
+        boolean canEvict(@NonNull File file);
+    }
+
+    private DiskCacheUtils() {
+        throw new AssertionError();
+    }
+
+    /*
+     * marks the passed cache entry as recently used
+     */
+    public static void touch(@NonNull File file) {
+        if (!file.setLastModified(System.currentTimeMillis())) {
+            AppLog.w(T.UTILS, "disk cache > unable to touch " + file.getName());
+        }
+    }
+
+    /*
+     * removes the least recently used files in the passed directory until their total size is no
+     * more than maxBytes - files the filter won't evict are counted toward the total but kept.
+     * returns the total size of the files left in the directory
+     */
+    public static long trimToSize(@NonNull File dir, long maxBytes, @Nullable EvictionFilter filter) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return 0;
+        }
+
+        long totalBytes = 0;
+        for (File file : files) {
+            totalBytes += file.length();
+        }
+        if (totalBytes <= maxBytes) {
+            return totalBytes;
+        }
+
+        // sort by modification time before evicting - the times are read once up front since they
+        // may change while sorting, which would break the comparator's contract
+        final long[] modified = new long[files.length];
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            modified[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer index1, Integer index2) {
+                long modified1 = modified[index1];
+                long modified2 = modified[index2];
+                return modified1 < modified2 ? -1 : (modified1 == modified2 ? 0 : 1);
+            }
+        });
+
+        for (Integer index : order) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            File file = files[index];
+            if (filter != null && !filter.canEvict(file)) {
+                continue;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                totalBytes -= length;
+                AppLog.d(T.UTILS, "disk cache > evicted " + file.getName() + " from " + dir.getName());
+            }
+        }
+        return totalBytes;
+    }
+
+    /*
+     * removes files in the passed directory whose names end with the passed suffix and which haven't
+     * been modified for maxAgeMs - such as temp files left behind by a write which never finished.
+     * returns the number of files removed
+     */
+    public static int deleteStaleFiles(@NonNull File dir, @NonNull String suffix, long maxAgeMs) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return 0;
+        }
+
+        long staleTime = System.currentTimeMillis() - maxAgeMs;
+        int numDeleted = 0;
+        for (File file : files) {
+            if (file.getName().endsWith(suffix) && file.lastModified() < staleTime && file.delete()) {
+                numDeleted++;
+                AppLog.d(T.UTILS, "disk cache > deleted stale " + file.getName() + " from " + dir.getName());
+            }
+        }
+        return numDeleted;
+    }
+}
@@ -34,6 +34,7 @@ public class HelpshiftHelper {
     private static String HELPSHIFT_SCREEN_KEY = "helpshift_screen";
     private static String HELPSHIFT_ORIGIN_KEY = "origin";
     private static HelpshiftHelper mInstance = null;
+    private static boolean mIsInitialized;
     private static HashMap<String, Object> mMetadata = new HashMap<String, Object>();
 
     public static final String ENTERED_URL_KEY = "ENTERED_URL_KEY";
@@ -103,7 +104,16 @@ public class HelpshiftHelper {
         return mInstance;
     }
 
-    public static void init(Application application) {
+    /*
+     * init is deferred until after app startup, so entry points which may be reached before that
+     * (ex: a push notification which started the app) call this to make sure it's done
+     */
+    public static synchronized void init(Application application) {
+        if (mIsInitialized) {
+            return;
+        }
+        mIsInitialized = true;
+
         InstallConfig installConfig = new InstallConfig.Builder()
                 .setEnableInAppNotification(true)
                 .setEnableDefaultFallbackLanguage(true)
@@ -193,6 +203,7 @@ public class HelpshiftHelper {
         extraTags = ArrayUtils.add(extraTags, origin);
         addTags(extraTags);
         HashMap config = getHelpshiftConfig(activity, siteStore, wpComUsername);
+        init(activity.getApplication());
         Support.showConversation(activity, config);
     }
 
@@ -218,6 +229,7 @@ public class HelpshiftHelper {
         extraTags = ArrayUtils.add(extraTags, origin);
         addTags(extraTags);
         HashMap config = getHelpshiftConfig(activity, siteStore, wpComUsername);
+        init(activity.getApplication());
         Support.showFAQs(activity, config);
     }
 
@@ -228,6 +240,7 @@ public class HelpshiftHelper {
      */
     public void registerDeviceToken(Context context, String regId) {
         if (!TextUtils.isEmpty(regId)) {
+            init((Application) context.getApplicationContext());
             Core.registerDeviceToken(context, regId);
         }
     }
@@ -276,6 +289,7 @@ public class HelpshiftHelper {
      * Handle push notification
      */
     public void handlePush(Context context, Intent intent) {
+        init((Application) context.getApplicationContext());
         Core.handlePush(context, intent);
     }
 
@@ -0,0 +1,245 @@
+package org.wordpress.android.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.Process;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * runs the app's startup initializers as a dependency graph. each task declares the tasks it
+ * depends on and when it needs to run:
+ *
+ *  BLOCKING   - runs on the calling (main) thread before start() returns, so it's done before the
+ *               first activity is created. blocking tasks may only depend on other blocking tasks
+ *  BACKGROUND - runs on a small background pool as soon as its dependencies complete
+ *  IDLE       - runs on the main thread once it's idle (typically after the first frame is drawn),
+ *               for work which must happen on the main thread but isn't needed right away
+ *
+ * each task is traced with TraceUtils, and the time taken by every task is logged once they've
+ * all completed
+ */
+public class StartupTaskGraph {
+    public enum Mode { BLOCKING, BACKGROUND, IDLE }
+
+    private static final int NUM_BACKGROUND_THREADS = 2;
+    private static final int KEEP_ALIVE_SECONDS = 5;
+
+    private static class Task {
+        final String name;
+        final Mode mode;
+        final Runnable runnable;
+        final List<Task> dependents = new ArrayList<>();
+        final AtomicInteger numPendingDependencies = new AtomicInteger();
+        volatile long elapsedMs;
+
+        Task(String name, Mode mode, Runnable runnable) {
+            this.name = name;
+            this.mode = mode;
+            this.runnable = runnable;
+        }
+    }
+
+    private final Map<String, Task> mTasks = new LinkedHashMap<>();
+    private final AtomicInteger mNumRemaining = new AtomicInteger();
+    private ThreadPoolExecutor mExecutor;
+    private long mStartTime;
+    private volatile long mBlockingEndTime;
+    private boolean mStarted;
+
+    /**
+     * Adds a task to the graph - tasks must be added before any task that depends on them
+     */
+    public StartupTaskGraph add(@NonNull String name, @NonNull Mode mode, @NonNull Runnable runnable,
+                                String... dependsOn) {
+        if (mStarted) {
+            throw new IllegalStateException("Can't add tasks after the graph has started");
+        }
+        if (mTasks.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup task " + name);
+        }
+
+        Task task = new Task(name, mode, runnable);
+        for (String dependencyName : dependsOn) {
+            Task dependency = mTasks.get(dependencyName);
+            if (dependency == null) {
+                throw new IllegalArgumentException("Startup task " + name + " depends on unknown task "
+                        + dependencyName);
+            }
+            if (mode == Mode.BLOCKING && dependency.mode != Mode.BLOCKING) {
+                throw new IllegalArgumentException("Blocking startup task " + name
+                        + " can't depend on non-blocking task " + dependencyName);
+            }
+            dependency.dependents.add(task);
+            task.numPendingDependencies.incrementAndGet();
+        }
+        mTasks.put(name, task);
+        return this;
+    }
+
+    /**
+     * Runs the blocking tasks on the calling thread, then schedules the rest. Since dependencies
+     * must be added before their dependents, insertion order is a valid run order.
+     */
+    public void start() {
+        if (mStarted) {
+            throw new IllegalStateException("Startup graph has already started");
+        }
+        mStarted = true;
+        mStartTime = SystemClock.elapsedRealtime();
+        mNumRemaining.set(mTasks.size());
+
+        for (Task task : mTasks.values()) {
+            if (task.mode == Mode.BLOCKING) {
+                runTask(task);
+            }
+        }
+
+        mBlockingEndTime = SystemClock.elapsedRealtime();
+        AppLog.i(T.UTILS, String.format(Locale.US, "startup > blocking tasks completed in %d ms",
+                mBlockingEndTime - mStartTime));
+
+        // schedule the non-blocking tasks which only depend on blocking ones - the rest are
+        // scheduled as their dependencies complete
+        for (Task task : mTasks.values()) {
+            if (task.mode != Mode.BLOCKING && task.numPendingDependencies.get() == 0) {
+                schedule(task);
+            }
+        }
+    }
+
+    /**
+     * Returns the SystemClock.elapsedRealtime() at which the blocking tasks completed, or 0 if they
+     * haven't yet - non-blocking tasks are only scheduled after that, so they can always use it
+     */
+    public long getBlockingEndTime() {
+        return mBlockingEndTime;
+    }
+
+    private void runTask(Task task) {
+        TraceUtils.Span span = TraceUtils.beginSpan("Startup." + task.name);
+        long startTime = SystemClock.elapsedRealtime();
+        try {
+            task.runnable.run();
+        } catch (RuntimeException e) {
+            // a failing blocking task is fatal just as it would be if it were called directly
+            // from Application.onCreate, but the others are logged so their dependents still run
+            if (task.mode == Mode.BLOCKING) {
+                throw e;
+            }
+            AppLog.e(T.UTILS, "startup > task " + task.name + " failed", e);
+            CrashlyticsUtils.logException(e, T.UTILS, "startup task " + task.name);
+        } finally {
+            task.elapsedMs = SystemClock.elapsedRealtime() - startTime;
+            span.end();
+        }
+        onTaskCompleted(task);
+    }
+
+    private void onTaskCompleted(Task task) {
+        for (Task dependent : task.dependents) {
+            // only non-blocking tasks schedule their dependents - blocking tasks are run in order
+            // by start(), which then schedules any non-blocking tasks they made ready
+            if (dependent.numPendingDependencies.decrementAndGet() == 0 && task.mode != Mode.BLOCKING) {
+                schedule(dependent);
+            }
+        }
+        if (mNumRemaining.decrementAndGet() == 0) {
+            logTimings();
+        }
+    }
+
+    private void schedule(final Task task) {
+        Runnable runnable = new Runnable() {
+            @Override
+            public void run() {
+                runTask(task);
+            }
+        };
+        if (task.mode == Mode.BACKGROUND) {
+            getExecutor().execute(runnable);
+        } else {
+            scheduleWhenIdle(runnable);
+        }
+    }
+
+    private static void scheduleWhenIdle(final Runnable runnable) {
+        // addIdleHandler must be called on the main thread, so post to it if we're not on it
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            new Handler(Looper.getMainLooper()).post(new Runnable() {
+                @Override
+                public void run() {
+                    scheduleWhenIdle(runnable);
+                }
+            });
+            return;
+        }
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                runnable.run();
+                return false;
+            }
+        });
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (mExecutor == null) {
+            final AtomicInteger threadNum = new AtomicInteger();
+            mExecutor = new ThreadPoolExecutor(NUM_BACKGROUND_THREADS, NUM_BACKGROUND_THREADS,
+                    KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(@NonNull final Runnable runnable) {
+                            return new Thread(new Runnable() {
+                                @Override
+                                public void run() {
+                                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                                    runnable.run();
+                                }
+                            }, "startup-" + threadNum.incrementAndGet());
+                        }
+                    });
+            // let the threads die once startup has completed
+            mExecutor.allowCoreThreadTimeOut(true);
+        }
+        return mExecutor;
+    }
+
+    private void logTimings() {
+        StringBuilder sb = new StringBuilder();
+        long mainThreadMs = 0;
+        long backgroundMs = 0;
+        for (Task task : mTasks.values()) {
+            if (task.mode == Mode.BACKGROUND) {
+                backgroundMs += task.elapsedMs;
+            } else {
+                mainThreadMs += task.elapsedMs;
+            }
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(task.name).append(' ').append(task.mode.name().toLowerCase(Locale.ROOT))
+              .append(' ').append(task.elapsedMs).append(" ms");
+        }
+        AppLog.i(T.UTILS, String.format(Locale.US, "startup > all tasks completed in %d ms (%s)",
+                SystemClock.elapsedRealtime() - mStartTime, sb.toString()));
+        // compare these between builds to see what moving a task off the main thread saved
+        AppLog.i(T.UTILS, String.format(Locale.US, "startup > %d ms of tasks ran on the main thread, %d ms in the "
+                + "background", mainThreadMs, backgroundMs));
+    }
+}
@@ -23,9 +23,10 @@ import com.android.volley.toolbox.ImageLoader;
 
 import org.wordpress.android.R;
 import org.wordpress.android.WordPress;
-import org.wordpress.android.datasets.ReaderThumbnailTable;
+import org.wordpress.android.ui.reader.utils.ReaderThumbnailResolver;
 import org.wordpress.android.ui.reader.utils.ReaderVideoUtils;
 import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.BackgroundExecutors;
 import org.wordpress.android.util.DisplayUtils;
 import org.wordpress.android.util.ImageUtils;
 import org.wordpress.android.util.MediaUtils;
@@ -58,6 +59,7 @@ public class WPNetworkImageView extends AppCompatImageView {
 
     private ImageType mImageType = ImageType.NONE;
     private String mUrl;
+    private String mVideoUrl;
     private ImageLoader.ImageContainer mImageContainer;
 
     private int mDefaultImageResId;
@@ -132,14 +134,10 @@ public class WPNetworkImageView extends AppCompatImageView {
             return;
         }
 
-        // if this is a YouTube video we can determine the thumbnail url from the passed url,
-        // otherwise check if we've already cached the thumbnail url for this video
-        String thumbnailUrl;
-        if (ReaderVideoUtils.isYouTubeVideoLink(videoUrl)) {
-            thumbnailUrl = ReaderVideoUtils.getYouTubeThumbnailUrl(videoUrl);
-        } else {
-            thumbnailUrl = ReaderThumbnailTable.getThumbnailUrl(videoUrl);
-        }
+        // thumbnails are resolved in the background when posts are synced or loaded, so this
+        // is normally just an in-memory lookup
+        mVideoUrl = videoUrl;
+        String thumbnailUrl = ReaderThumbnailResolver.getThumbnailUrl(videoUrl);
         if (!TextUtils.isEmpty(thumbnailUrl)) {
             setImageUrl(thumbnailUrl, ImageType.VIDEO);
             return;
@@ -147,14 +145,15 @@ public class WPNetworkImageView extends AppCompatImageView {
 
         if (MediaUtils.isValidImage(videoUrl)) {
             setImageUrl(videoUrl, ImageType.VIDEO);
-        } else if (ReaderVideoUtils.isVimeoLink(videoUrl)) {
-            // vimeo videos require network request to get thumbnail
+        } else if (thumbnailUrl == null && ReaderVideoUtils.isVimeoLink(videoUrl)) {
+            // vimeo thumbnail hasn't been resolved yet, so wait for it - the resolver makes sure
+            // only one request is made for each video
             showDefaultImage();
-            ReaderVideoUtils.requestVimeoThumbnail(videoUrl, new ReaderVideoUtils.VideoThumbnailListener() {
+            ReaderThumbnailResolver.requestThumbnail(videoUrl, postId, new ReaderVideoUtils.VideoThumbnailListener() {
                 @Override
                 public void onResponse(boolean successful, String thumbnailUrl) {
-                    if (successful) {
-                        ReaderThumbnailTable.addThumbnail(postId, videoUrl, thumbnailUrl);
+                    // make sure this view hasn't since been recycled to show something else
+                    if (successful && mImageType == ImageType.VIDEO && videoUrl.equals(mVideoUrl)) {
                         setImageUrl(thumbnailUrl, ImageType.VIDEO);
                     }
                 }
@@ -237,7 +236,7 @@ public class WPNetworkImageView extends AppCompatImageView {
 
         // The pre-existing content of this view didn't match the current URL. Load the new image
         // from the network.
-        ImageLoader.ImageContainer newContainer = WordPress.sImageLoader.get(mUrl,
+        ImageLoader.ImageContainer newContainer = WordPress.getImageLoader(mUrl).get(mUrl,
                 new WPNetworkImageLoaderListener(mUrl, isInLayoutPass, imageLoadListener), maxWidth, maxHeight, scaleType);
         // update the ImageContainer to be the new bitmap container.
         mImageContainer = newContainer;
@@ -329,15 +328,14 @@ public class WPNetworkImageView extends AppCompatImageView {
             try {
                 // Apply circular rounding to avatars in a background task
                 if (mImageType == ImageType.AVATAR) {
-                    new ShapeBitmapTask(ShapeType.CIRCLE, imageLoadListener).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR, bitmap);
+                    new ShapeBitmapTask(ShapeType.CIRCLE, imageLoadListener).executeOnExecutor(BackgroundExecutors.cpu(), bitmap);
                     return;
                 } else if (mImageType == ImageType.PHOTO_ROUNDED) {
-                    new ShapeBitmapTask(ShapeType.ROUNDED, imageLoadListener).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR, bitmap);
+                    new ShapeBitmapTask(ShapeType.ROUNDED, imageLoadListener).executeOnExecutor(BackgroundExecutors.cpu(), bitmap);
                     return;
                 }
             } catch (RejectedExecutionException e) {
-                AppLog.w(AppLog.T.UTILS, "Too many tasks already available in the default AsyncTask.THREAD_POOL_EXECUTOR queue. " +
-                        "The current ShapeBitmapTask was rejected");
+                AppLog.w(AppLog.T.UTILS, "The current ShapeBitmapTask was rejected by the cpu executor");
                 showDefaultImage();
                 return;
             }
@@ -468,13 +466,12 @@ public class WPNetworkImageView extends AppCompatImageView {
     private void showDefaultGravatarImage() {
         if (getContext() == null) return;
         try {
-            new ShapeBitmapTask(ShapeType.CIRCLE, null).executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR, BitmapFactory.decodeResource(
+            new ShapeBitmapTask(ShapeType.CIRCLE, null).executeOnExecutor(BackgroundExecutors.cpu(), BitmapFactory.decodeResource(
                     getContext().getResources(),
                     R.drawable.ic_placeholder_gravatar_grey_lighten_20_100dp
             ));
         } catch (RejectedExecutionException e) {
-            AppLog.w(AppLog.T.UTILS, "Too many tasks already available in the default AsyncTask.THREAD_POOL_EXECUTOR queue. " +
-                    "The current DefaultGravatarImage was rejected");
+            AppLog.w(AppLog.T.UTILS, "The current DefaultGravatarImage was rejected by the cpu executor");
         }
     }
 
@@ -0,0 +1,207 @@
+package org.wordpress.android.networking;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+public class ResumableUploadTest {
+    private static final String KEY = "media_1";
+    private static final String UPLOAD_PATH = "/uploads/1";
+    private static final String RESPONSE_BODY = "{\"media\":[{\"ID\":42}]}";
+    private static final long FILE_LENGTH = ResumableUpload.CHUNK_SIZE * 2 + ResumableUpload.CHUNK_SIZE / 2;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private MockWebServer mServer;
+    private OkHttpClient mClient;
+    private SharedPreferences mPrefs;
+    private File mFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mServer = new MockWebServer();
+        mServer.start();
+        // okhttp would otherwise retry a chunk on a new connection by itself, hiding the interruption
+        mClient = new OkHttpClient.Builder().retryOnConnectionFailure(false).build();
+        mPrefs = RuntimeEnvironment.application.getSharedPreferences("test_uploads", Context.MODE_PRIVATE);
+        mPrefs.edit().clear().commit();
+
+        mFile = mFolder.newFile("video.mp4");
+        RandomAccessFile raf = new RandomAccessFile(mFile, "rw");
+        try {
+            raf.setLength(FILE_LENGTH);
+        } finally {
+            raf.close();
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mServer.shutdown();
+    }
+
+    private ResumableUpload newUpload() {
+        return new ResumableUpload(mClient, mPrefs, KEY, mServer.url("/media").toString(), mFile,
+                Collections.singletonMap("filename", mFile.getName()));
+    }
+
+    private static MockResponse createdResponse() {
+        return new MockResponse()
+                .setResponseCode(201)
+                .setHeader("Tus-Resumable", "1.0.0")
+                .setHeader("Location", UPLOAD_PATH);
+    }
+
+    private static MockResponse offsetResponse(long offset) {
+        MockResponse response = new MockResponse()
+                .setHeader("Tus-Resumable", "1.0.0")
+                .setHeader("Upload-Offset", offset);
+        return offset < FILE_LENGTH ? response.setResponseCode(204) : response.setBody(RESPONSE_BODY);
+    }
+
+    private List<RecordedRequest> takeRequests() throws InterruptedException {
+        List<RecordedRequest> requests = new ArrayList<>();
+        RecordedRequest request;
+        while ((request = mServer.takeRequest(100, TimeUnit.MILLISECONDS)) != null) {
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    @Test
+    public void testUploadsInChunks() throws Exception {
+        mServer.enqueue(createdResponse());
+        mServer.enqueue(offsetResponse(ResumableUpload.CHUNK_SIZE));
+        mServer.enqueue(offsetResponse(ResumableUpload.CHUNK_SIZE * 2));
+        mServer.enqueue(offsetResponse(FILE_LENGTH));
+
+        assertEquals(RESPONSE_BODY, newUpload().upload(null));
+
+        RecordedRequest create = mServer.takeRequest();
+        assertEquals("POST", create.getMethod());
+        assertEquals(String.valueOf(FILE_LENGTH), create.getHeader("Upload-Length"));
+        long offset = 0;
+        for (int i = 0; i < 3; i++) {
+            RecordedRequest chunk = mServer.takeRequest();
+            assertEquals("PATCH", chunk.getMethod());
+            assertEquals(UPLOAD_PATH, chunk.getPath());
+            assertEquals(String.valueOf(offset), chunk.getHeader("Upload-Offset"));
+            assertEquals(Math.min(ResumableUpload.CHUNK_SIZE, FILE_LENGTH - offset), chunk.getBodySize());
+            offset += chunk.getBodySize();
+        }
+
+        // a completed upload isn't resumed
+        assertEquals(-1, ResumableUpload.getSavedOffset(mPrefs, KEY));
+    }
+
+    @Test
+    public void testResumesFromLastAcknowledgedChunkAfterDisconnect() throws Exception {
+        mServer.enqueue(createdResponse());
+        mServer.enqueue(offsetResponse(ResumableUpload.CHUNK_SIZE));
+        mServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_DURING_REQUEST_BODY));
+
+        try {
+            newUpload().upload(null);
+            fail("The upload should have been interrupted");
+        } catch (IOException e) {
+            // expected
+        }
+        assertEquals(ResumableUpload.CHUNK_SIZE, ResumableUpload.getSavedOffset(mPrefs, KEY));
+        takeRequests();
+
+        // a new upload of the same file - as after the app was restarted - continues where the server left off
+        mServer.enqueue(offsetResponse(ResumableUpload.CHUNK_SIZE).setResponseCode(200));
+        mServer.enqueue(offsetResponse(ResumableUpload.CHUNK_SIZE * 2));
+        mServer.enqueue(offsetResponse(FILE_LENGTH));
+
+        assertEquals(RESPONSE_BODY, newUpload().upload(null));
+
+        List<RecordedRequest> requests = takeRequests();
+        assertEquals(3, requests.size());
+        assertEquals("HEAD", requests.get(0).getMethod());
+        assertEquals(UPLOAD_PATH, requests.get(0).getPath());
+        assertEquals(String.valueOf(ResumableUpload.CHUNK_SIZE), requests.get(1).getHeader("Upload-Offset"));
+        assertEquals(String.valueOf(ResumableUpload.CHUNK_SIZE * 2), requests.get(2).getHeader("Upload-Offset"));
+    }
+
+    @Test
+    public void testRestartsWhenServerNoLongerHasTheUpload() throws Exception {
+        mServer.enqueue(createdResponse());
+        mServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_DURING_REQUEST_BODY));
+        try {
+            newUpload().upload(null);
+            fail("The upload should have been interrupted");
+        } catch (IOException e) {
+            // expected
+        }
+        takeRequests();
+
+        mServer.enqueue(new MockResponse().setResponseCode(404));
+        mServer.enqueue(createdResponse());
+        mServer.enqueue(offsetResponse(ResumableUpload.CHUNK_SIZE));
+        mServer.enqueue(offsetResponse(ResumableUpload.CHUNK_SIZE * 2));
+        mServer.enqueue(offsetResponse(FILE_LENGTH));
+
+        assertEquals(RESPONSE_BODY, newUpload().upload(null));
+
+        List<RecordedRequest> requests = takeRequests();
+        assertEquals("HEAD", requests.get(0).getMethod());
+        assertEquals("POST", requests.get(1).getMethod());
+        assertEquals("0", requests.get(2).getHeader("Upload-Offset"));
+    }
+
+    @Test
+    public void testNotSupportedWithoutResumableServer() throws Exception {
+        mServer.enqueue(new MockResponse().setResponseCode(404));
+
+        try {
+            newUpload().upload(null);
+            fail("The upload should have been reported as not supported");
+        } catch (ResumableUpload.NotSupportedException e) {
+            // expected - the caller falls back to a single-shot upload
+        }
+        assertEquals(1, mServer.getRequestCount());
+        assertEquals(-1, ResumableUpload.getSavedOffset(mPrefs, KEY));
+    }
+
+    @Test
+    public void testRejectedChunkFailsUpload() throws Exception {
+        mServer.enqueue(createdResponse());
+        mServer.enqueue(new MockResponse().setResponseCode(409));
+
+        try {
+            newUpload().upload(null);
+            fail("The upload should have failed");
+        } catch (ResumableUpload.UploadFailedException e) {
+            assertEquals(409, e.statusCode);
+        }
+        assertEquals(2, mServer.getRequestCount());
+    }
+}
@@ -0,0 +1,90 @@
+package org.wordpress.android.ui.stats;
+
+import android.content.Intent;
+import android.os.SystemClock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowApplication;
+import org.wordpress.android.ui.stats.service.StatsService;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+public class StatsWidgetProviderTest {
+    private static final long BLOG_ID = 1;
+    private static final long OTHER_BLOG_ID = 2;
+    private static final String DATE = "2017-07-14";
+
+    private ShadowApplication mApplication;
+
+    @Before
+    public void setUp() {
+        mApplication = ShadowApplication.getInstance();
+        StatsWidgetProvider.clearPendingRefreshes();
+    }
+
+    @After
+    public void tearDown() {
+        StatsWidgetProvider.clearPendingRefreshes();
+    }
+
+    private void requestRefresh(long blogId) {
+        StatsWidgetProvider.enqueueStatsRequestForBlog(RuntimeEnvironment.application, blogId, DATE);
+    }
+
+    private int takeStartedRequests() {
+        int numRequests = 0;
+        Intent intent;
+        while ((intent = mApplication.getNextStartedService()) != null) {
+            assertEquals(StatsService.class.getName(), intent.getComponent().getClassName());
+            numRequests++;
+        }
+        return numRequests;
+    }
+
+    @Test
+    public void testRefreshesForTheSameBlogAreCoalesced() {
+        requestRefresh(BLOG_ID);
+        requestRefresh(BLOG_ID);
+        requestRefresh(BLOG_ID);
+
+        assertEquals(1, takeStartedRequests());
+    }
+
+    @Test
+    public void testRefreshesForDifferentBlogsAreNotCoalesced() {
+        requestRefresh(BLOG_ID);
+        requestRefresh(OTHER_BLOG_ID);
+
+        assertEquals(2, takeStartedRequests());
+    }
+
+    @Test
+    public void testCompletedRefreshAllowsAnotherRequest() {
+        requestRefresh(BLOG_ID);
+        StatsWidgetProvider.onRefreshCompleted(BLOG_ID);
+        requestRefresh(BLOG_ID);
+
+        assertEquals(2, takeStartedRequests());
+    }
+
+    @Test
+    public void testPendingRefreshExpiresAfterInterval() {
+        requestRefresh(BLOG_ID);
+
+        // robolectric advances its clock rather than sleeping
+        SystemClock.sleep(StatsWidgetProvider.MIN_REFRESH_INTERVAL_MS - 1);
+        requestRefresh(BLOG_ID);
+        assertEquals(1, takeStartedRequests());
+
+        // a request which never completed doesn't block refreshes for good
+        SystemClock.sleep(1);
+        requestRefresh(BLOG_ID);
+        assertEquals(1, takeStartedRequests());
+    }
+}
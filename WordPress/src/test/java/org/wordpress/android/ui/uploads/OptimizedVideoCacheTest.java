@@ -0,0 +1,132 @@
+package org.wordpress.android.ui.uploads;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class OptimizedVideoCacheTest {
+    private static final int WIDTH = 1280;
+    private static final int QUALITY = 50;
+    // file times are only guaranteed to the second on some file systems
+    private static final long BASE_TIME_MS = 1500000000000L;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mCacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        mCacheDir = mFolder.newFolder("optimized_videos");
+    }
+
+    private static File createFile(File file, long length, long lastModified) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(length);
+        } finally {
+            raf.close();
+        }
+        assertTrue(file.setLastModified(lastModified));
+        return file;
+    }
+
+    private File createEntry(String key, long length, long lastModified) throws IOException {
+        return createFile(OptimizedVideoCache.getVideoFile(mCacheDir, key), length, lastModified);
+    }
+
+    @Test
+    public void testKeyDependsOnSourceAndSettings() throws IOException {
+        File source = createFile(mFolder.newFile("source.mp4"), 100, BASE_TIME_MS);
+        String key = OptimizedVideoCache.getKey(source.getPath(), WIDTH, QUALITY);
+
+        assertEquals(key, OptimizedVideoCache.getKey(source.getPath(), WIDTH, QUALITY));
+        assertNotEquals(key, OptimizedVideoCache.getKey(source.getPath(), WIDTH / 2, QUALITY));
+        assertNotEquals(key, OptimizedVideoCache.getKey(source.getPath(), WIDTH, QUALITY / 2));
+
+        // changing the source video results in a new key
+        createFile(source, 200, BASE_TIME_MS + 1000);
+        assertNotEquals(key, OptimizedVideoCache.getKey(source.getPath(), WIDTH, QUALITY));
+    }
+
+    @Test
+    public void testGetCachedVideoTouchesEntry() throws IOException {
+        File video = createEntry("key", 10, BASE_TIME_MS);
+
+        assertEquals(video, OptimizedVideoCache.getCachedVideo(mCacheDir, "key"));
+        assertTrue(video.lastModified() > BASE_TIME_MS);
+        assertNull(OptimizedVideoCache.getCachedVideo(mCacheDir, "missing"));
+    }
+
+    @Test
+    public void testTrimEvictsLeastRecentlyUsed() throws IOException {
+        File oldest = createEntry("oldest", 10, BASE_TIME_MS);
+        File middle = createEntry("middle", 10, BASE_TIME_MS + 1000);
+        File newest = createEntry("newest", 10, BASE_TIME_MS + 2000);
+
+        OptimizedVideoCache.trim(mCacheDir, 20, Collections.<File>emptySet());
+
+        assertFalse(oldest.exists());
+        assertTrue(middle.exists());
+        assertTrue(newest.exists());
+    }
+
+    @Test
+    public void testTrimKeepsVideosInUseAndTempFiles() throws IOException {
+        File tempFile = createFile(OptimizedVideoCache.getTempFile(mCacheDir, "running"), 10, BASE_TIME_MS);
+        File inUse = createEntry("inUse", 10, BASE_TIME_MS + 1000);
+        File unused = createEntry("unused", 10, BASE_TIME_MS + 2000);
+        File newest = createEntry("newest", 10, BASE_TIME_MS + 3000);
+
+        OptimizedVideoCache.trim(mCacheDir, 20, new HashSet<>(Collections.singletonList(inUse)));
+
+        assertTrue(tempFile.exists());
+        assertTrue(inUse.exists());
+        assertFalse(unused.exists());
+        assertFalse(newest.exists());
+    }
+
+    @Test
+    public void testTrimDoesNothingUnderLimit() throws IOException {
+        File first = createEntry("first", 10, BASE_TIME_MS);
+        File second = createEntry("second", 10, BASE_TIME_MS + 1000);
+
+        OptimizedVideoCache.trim(mCacheDir, 20, Collections.<File>emptySet());
+
+        assertTrue(first.exists());
+        assertTrue(second.exists());
+    }
+
+    @Test
+    public void testVideosInUseIncludeQueuedAndUploadingVideos() throws IOException {
+        File source = createFile(mFolder.newFile("queued.mp4"), 100, BASE_TIME_MS);
+        File uploading = createEntry("uploading", 10, BASE_TIME_MS);
+
+        Set<File> videosInUse = OptimizedVideoCache.getVideosInUse(mCacheDir,
+                Arrays.asList(source.getPath(), uploading.getPath(), null), WIDTH, QUALITY);
+
+        // a queued video's optimized-ahead entry is found by its key, an uploading one by its path
+        String queuedKey = OptimizedVideoCache.getKey(source.getPath(), WIDTH, QUALITY);
+        assertEquals(2, videosInUse.size());
+        assertTrue(videosInUse.contains(OptimizedVideoCache.getVideoFile(mCacheDir, queuedKey)));
+        assertTrue(videosInUse.contains(uploading));
+    }
+}
@@ -0,0 +1,110 @@
+package org.wordpress.android.util;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class DiskCacheUtilsTest {
+    // file times are only guaranteed to the second on some file systems
+    private static final long BASE_TIME_MS = 1500000000000L;
+    private static final long HOUR_MS = 60 * 60 * 1000;
+
+    @Rule
+    public TemporaryFolder mFolder = new TemporaryFolder();
+
+    private File mCacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        mCacheDir = mFolder.newFolder("cache");
+    }
+
+    private File createFile(String name, long length, long lastModified) throws IOException {
+        File file = new File(mCacheDir, name);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(length);
+        } finally {
+            raf.close();
+        }
+        assertTrue(file.setLastModified(lastModified));
+        return file;
+    }
+
+    @Test
+    public void testTrimEvictsLeastRecentlyUsed() throws IOException {
+        File oldest = createFile("oldest", 10, BASE_TIME_MS);
+        File middle = createFile("middle", 10, BASE_TIME_MS + 1000);
+        File newest = createFile("newest", 10, BASE_TIME_MS + 2000);
+
+        assertEquals(20, DiskCacheUtils.trimToSize(mCacheDir, 20, null));
+
+        assertFalse(oldest.exists());
+        assertTrue(middle.exists());
+        assertTrue(newest.exists());
+    }
+
+    @Test
+    public void testTrimKeepsFilesTheFilterWontEvict() throws IOException {
+        File kept = createFile("kept.tmp", 10, BASE_TIME_MS);
+        File middle = createFile("middle", 10, BASE_TIME_MS + 1000);
+        File newest = createFile("newest", 10, BASE_TIME_MS + 2000);
+
+        DiskCacheUtils.trimToSize(mCacheDir, 20, new DiskCacheUtils.EvictionFilter() {
+            @Override
+            public boolean canEvict(File file) {
+                return !file.getName().endsWith(".tmp");
+            }
+        });
+
+        assertTrue(kept.exists());
+        assertFalse(middle.exists());
+        assertTrue(newest.exists());
+    }
+
+    @Test
+    public void testTrimDoesNothingUnderLimit() throws IOException {
+        File first = createFile("first", 10, BASE_TIME_MS);
+        File second = createFile("second", 10, BASE_TIME_MS + 1000);
+
+        assertEquals(20, DiskCacheUtils.trimToSize(mCacheDir, 20, null));
+
+        assertTrue(first.exists());
+        assertTrue(second.exists());
+    }
+
+    @Test
+    public void testTouchMarksEntryAsRecentlyUsed() throws IOException {
+        File file = createFile("entry", 10, BASE_TIME_MS);
+
+        DiskCacheUtils.touch(file);
+
+        assertTrue(file.lastModified() > BASE_TIME_MS);
+    }
+
+    @Test
+    public void testDeleteStaleFilesOnlyDeletesOldMatchingFiles() throws IOException {
+        long now = System.currentTimeMillis();
+        File staleTemp = createFile("stale.tmp", 10, now - 2 * HOUR_MS);
+        File freshTemp = createFile("fresh.tmp", 10, now);
+        File oldEntry = createFile("entry", 10, now - 2 * HOUR_MS);
+
+        assertEquals(1, DiskCacheUtils.deleteStaleFiles(mCacheDir, ".tmp", HOUR_MS));
+
+        assertFalse(staleTemp.exists());
+        assertTrue(freshTemp.exists());
+        assertTrue(oldEntry.exists());
+    }
+}
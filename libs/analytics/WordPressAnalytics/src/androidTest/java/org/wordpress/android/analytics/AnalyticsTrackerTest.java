@@ -0,0 +1,178 @@
+package org.wordpress.android.analytics;
+
+import android.content.Context;
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.analytics.AnalyticsTracker.Stat;
+import org.wordpress.android.util.AppLog;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AnalyticsTrackerTest extends InstrumentationTestCase {
+    private static final int NUM_EVENTS = 400;
+
+    /*
+     * tracker which does a similar amount of work per event as the Nosara tracker - builds a
+     * property map and formats an event name - and counts the events it receives
+     */
+    private static class FakeTracker extends Tracker {
+        final AtomicInteger numEvents = new AtomicInteger();
+        final AtomicInteger numBatches = new AtomicInteger();
+        final List<String> calls = Collections.synchronizedList(new ArrayList<String>());
+        volatile Map<String, ?> lastProperties;
+        volatile CountDownLatch flushLatch;
+
+        FakeTracker(Context context) {
+            super(context);
+        }
+
+        @Override
+        void track(Stat stat) {
+            track(stat, null);
+        }
+
+        @Override
+        void track(Stat stat, Map<String, ?> properties) {
+            Map<String, Object> props = new HashMap<>();
+            if (properties != null) {
+                props.putAll(properties);
+            }
+            props.put("event_name", "wpandroid_" + stat.name().toLowerCase(Locale.ROOT));
+            numEvents.incrementAndGet();
+            lastProperties = properties;
+            calls.add(stat.name());
+        }
+
+        @Override
+        void track(List<AnalyticsTracker.Event> events) {
+            numBatches.incrementAndGet();
+            super.track(events);
+        }
+
+        @Override
+        void endSession() {
+        }
+
+        @Override
+        void flush() {
+            CountDownLatch latch = flushLatch;
+            if (latch != null) {
+                latch.countDown();
+            }
+        }
+
+        @Override
+        void refreshMetadata(AnalyticsMetadata metadata) {
+            calls.add("refreshMetadata");
+        }
+
+        @Override
+        void registerPushNotificationToken(String regId) {
+        }
+
+        @Override
+        String getAnonIdPrefKey() {
+            return "analytics_tracker_test_anon_id";
+        }
+    }
+
+    private FakeTracker mTracker;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mTracker = new FakeTracker(getInstrumentation().getTargetContext());
+        AnalyticsTracker.registerTracker(mTracker);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        AnalyticsTracker.setAsyncDispatch(true);
+        AnalyticsTracker.clearTrackers();
+        super.tearDown();
+    }
+
+    public void testQueuedEventsAreDispatchedInBatches() throws InterruptedException {
+        AnalyticsTracker.setAsyncDispatch(true);
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            AnalyticsTracker.track(Stat.READER_ARTICLE_OPENED);
+        }
+        waitForFlush();
+
+        assertEquals(NUM_EVENTS, mTracker.numEvents.get());
+        assertTrue(mTracker.numBatches.get() < NUM_EVENTS);
+    }
+
+    public void testTrackedPropertiesAreCopied() throws InterruptedException {
+        AnalyticsTracker.setAsyncDispatch(true);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("blog_id", 1L);
+        AnalyticsTracker.track(Stat.READER_ARTICLE_OPENED, properties);
+        properties.put("blog_id", 2L);
+        waitForFlush();
+
+        assertEquals(1L, mTracker.lastProperties.get("blog_id"));
+    }
+
+    public void testTrackerCallsKeepTheirOrder() throws InterruptedException {
+        AnalyticsTracker.setAsyncDispatch(true);
+        AnalyticsTracker.track(Stat.READER_ARTICLE_OPENED);
+        AnalyticsTracker.refreshMetadata(new AnalyticsMetadata());
+        AnalyticsTracker.track(Stat.EDITOR_TAPPED_BOLD);
+        waitForFlush();
+
+        List<String> expected = new ArrayList<>();
+        expected.add(Stat.READER_ARTICLE_OPENED.name());
+        expected.add("refreshMetadata");
+        expected.add(Stat.EDITOR_TAPPED_BOLD.name());
+        assertEquals(expected, mTracker.calls);
+    }
+
+    /*
+     * compares the cost of track() on the caller's thread when events are dispatched directly to
+     * trackers (as they were previously) and when they're queued
+     */
+    public void testTrackCallCost() throws InterruptedException {
+        AnalyticsTracker.setAsyncDispatch(false);
+        long syncNanos = trackEvents();
+
+        AnalyticsTracker.setAsyncDispatch(true);
+        long asyncNanos = trackEvents();
+        waitForFlush();
+
+        AppLog.i(T.TESTS, String.format(Locale.US,
+                "Analytics benchmark > %d events, direct %d ns per track(), queued %d ns per track(), %d dropped",
+                NUM_EVENTS, syncNanos / NUM_EVENTS, asyncNanos / NUM_EVENTS,
+                AnalyticsTracker.getNumDroppedEvents()));
+    }
+
+    private static long trackEvents() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("blog_id", 1L);
+        long startTime = System.nanoTime();
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            AnalyticsTracker.track(Stat.EDITOR_TAPPED_BOLD, properties);
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    /*
+     * flush is queued behind any pending events, so once the tracker is flushed every event
+     * tracked before it has been dispatched
+     */
+    private void waitForFlush() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        mTracker.flushLatch = latch;
+        AnalyticsTracker.flush();
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+}
@@ -3,14 +3,25 @@ package org.wordpress.android.analytics;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
+import android.support.annotation.VisibleForTesting;
+
+import org.wordpress.android.util.AppLog;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class AnalyticsTracker {
-    private static boolean mHasUserOptedOut;
+    private static volatile boolean mHasUserOptedOut;
 
     public static final String READER_DETAIL_TYPE_KEY = "post_detail_type";
     public static final String READER_DETAIL_TYPE_NORMAL = "normal";
@@ -278,7 +289,77 @@ public final class AnalyticsTracker {
         APP_PERMISSION_DENIED
     }
 
-    private static final List<Tracker> TRACKERS = new ArrayList<>();
+    /*
+     * events are tracked asynchronously: track() only adds the event to a queue, and a serial
+     * executor drains the queue in batches and passes them to the registered trackers,
+     * which is where events are mapped to their names and properties. the other tracker calls
+     * (flush, endSession, etc.) go through the same queue so they're applied in order with the
+     * events tracked before them. when more than MAX_PENDING_EVENTS events are waiting, new
+     * events are dropped rather than blocking the caller
+     */
+    public static final int MAX_PENDING_EVENTS = 500;
+    private static final int MAX_BATCH_SIZE = 50;
+
+    private static final List<Tracker> TRACKERS = new CopyOnWriteArrayList<>();
+
+    private static final LinkedBlockingQueue<Object> QUEUE = new LinkedBlockingQueue<>();
+    private static final AtomicInteger NUM_PENDING_EVENTS = new AtomicInteger();
+    private static final AtomicLong NUM_TRACKED_EVENTS = new AtomicLong();
+    private static final AtomicLong NUM_DROPPED_EVENTS = new AtomicLong();
+    private static final AtomicBoolean IS_DRAIN_SCHEDULED = new AtomicBoolean();
+    private static volatile boolean mIsAsync = true;
+    private static long mNumDroppedLogged;
+
+    // single thread which all queued events and tracker calls are dispatched on, so they reach the
+    // trackers in the order they were made
+    private static final ThreadPoolExecutor DISPATCH_EXECUTOR = new ThreadPoolExecutor(1, 1,
+            30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            android.os.Process.setThreadPriority(android.os.Process.THREAD_PRIORITY_BACKGROUND);
+                            runnable.run();
+                        }
+                    }, "analytics-dispatch");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    static {
+        DISPATCH_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    /*
+     * a tracked event waiting to be dispatched - the properties are copied since the caller may
+     * reuse or change its map before the event is dispatched
+     */
+    static final class Event {
+        final Stat stat;
+        final Map<String, ?> properties;
+
+        Event(Stat stat, Map<String, ?> properties) {
+            this.stat = stat;
+            this.properties = properties != null ? new HashMap<String, Object>(properties) : null;
+        }
+
+        void dispatchTo(Tracker tracker) {
+            if (properties != null) {
+                tracker.track(stat, properties);
+            } else {
+                tracker.track(stat);
+            }
+        }
+    }
+
+    /*
+     * a non-event tracker call which must be dispatched in order with tracked events
+     */
+    private interface TrackerCall {
+        void call(Tracker tracker);
+    }
 
     private AnalyticsTracker() {
     }
@@ -301,22 +382,53 @@ public final class AnalyticsTracker {
         }
     }
 
+    /**
+     * Removes all registered trackers - trackers are static, so tests which register their own
+     * must remove them when they're done
+     */
+    @VisibleForTesting
+    public static void clearTrackers() {
+        TRACKERS.clear();
+    }
+
+    /**
+     * Events are dispatched to trackers on a background thread by default - pass false to
+     * dispatch them on the caller's thread instead (ex: in tests)
+     */
+    public static void setAsyncDispatch(boolean isAsync) {
+        mIsAsync = isAsync;
+    }
+
+    public static long getNumTrackedEvents() {
+        return NUM_TRACKED_EVENTS.get();
+    }
+
+    /**
+     * Returns the number of events which were dropped because too many events were waiting
+     * to be dispatched
+     */
+    public static long getNumDroppedEvents() {
+        return NUM_DROPPED_EVENTS.get();
+    }
+
     public static void track(Stat stat) {
-        if (mHasUserOptedOut) {
-            return;
-        }
-        for (Tracker tracker : TRACKERS) {
-            tracker.track(stat);
-        }
+        track(stat, (Map<String, ?>) null);
     }
 
     public static void track(Stat stat, Map<String, ?> properties) {
         if (mHasUserOptedOut) {
             return;
         }
-        for (Tracker tracker : TRACKERS) {
-            tracker.track(stat, properties);
+        if (!mIsAsync) {
+            dispatchEvent(new Event(stat, properties));
+            return;
+        }
+        if (NUM_PENDING_EVENTS.incrementAndGet() > MAX_PENDING_EVENTS) {
+            NUM_PENDING_EVENTS.decrementAndGet();
+            NUM_DROPPED_EVENTS.incrementAndGet();
+            return;
         }
+        enqueue(new Event(stat, properties));
     }
 
     /**
@@ -338,38 +450,130 @@ public final class AnalyticsTracker {
         if (mHasUserOptedOut) {
             return;
         }
-        for (Tracker tracker : TRACKERS) {
-            tracker.flush();
-        }
+        dispatchCall(new TrackerCall() {
+            @Override
+            public void call(Tracker tracker) {
+                tracker.flush();
+            }
+        });
     }
 
     public static void endSession(boolean force) {
         if (mHasUserOptedOut && !force) {
             return;
         }
-        for (Tracker tracker : TRACKERS) {
-            tracker.endSession();
-        }
+        dispatchCall(new TrackerCall() {
+            @Override
+            public void call(Tracker tracker) {
+                tracker.endSession();
+            }
+        });
     }
 
-    public static void registerPushNotificationToken(String regId) {
+    public static void registerPushNotificationToken(final String regId) {
         if (mHasUserOptedOut) {
             return;
         }
-        for (Tracker tracker : TRACKERS) {
-            tracker.registerPushNotificationToken(regId);
-        }
+        dispatchCall(new TrackerCall() {
+            @Override
+            public void call(Tracker tracker) {
+                tracker.registerPushNotificationToken(regId);
+            }
+        });
     }
 
     public static void clearAllData() {
+        dispatchCall(new TrackerCall() {
+            @Override
+            public void call(Tracker tracker) {
+                tracker.clearAllData();
+            }
+        });
+    }
+
+    public static void refreshMetadata(final AnalyticsMetadata metadata) {
+        dispatchCall(new TrackerCall() {
+            @Override
+            public void call(Tracker tracker) {
+                tracker.refreshMetadata(metadata);
+            }
+        });
+    }
+
+    private static void dispatchCall(TrackerCall call) {
+        if (mIsAsync) {
+            enqueue(call);
+        } else {
+            for (Tracker tracker : TRACKERS) {
+                call.call(tracker);
+            }
+        }
+    }
+
+    private static void enqueue(Object item) {
+        QUEUE.offer(item);
+        // only one drain needs to be waiting on the executor at a time since it empties the queue
+        if (IS_DRAIN_SCHEDULED.compareAndSet(false, true)) {
+            DISPATCH_EXECUTOR.execute(DRAIN_QUEUE);
+        }
+    }
+
+    private static final Runnable DRAIN_QUEUE = new Runnable() {
+        @Override
+        public void run() {
+            // cleared before draining so anything queued while this runs schedules another drain
+            IS_DRAIN_SCHEDULED.set(false);
+            List<Object> batch = new ArrayList<>(MAX_BATCH_SIZE);
+            List<Event> events = new ArrayList<>(MAX_BATCH_SIZE);
+            while (QUEUE.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+                dispatchBatch(batch, events);
+                batch.clear();
+            }
+
+            long numDropped = NUM_DROPPED_EVENTS.get();
+            if (numDropped != mNumDroppedLogged) {
+                AppLog.w(AppLog.T.STATS, "Analytics queue full, " + (numDropped - mNumDroppedLogged)
+                        + " events dropped");
+                mNumDroppedLogged = numDropped;
+            }
+        }
+    };
+
+    /*
+     * passes consecutive events to trackers as a single batch, and applies other tracker calls in
+     * the order they were made
+     */
+    private static void dispatchBatch(List<Object> batch, List<Event> events) {
+        for (Object item : batch) {
+            if (item instanceof Event) {
+                events.add((Event) item);
+            } else {
+                dispatchEvents(events);
+                events.clear();
+                for (Tracker tracker : TRACKERS) {
+                    ((TrackerCall) item).call(tracker);
+                }
+            }
+        }
+        dispatchEvents(events);
+        events.clear();
+    }
+
+    private static void dispatchEvents(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        NUM_PENDING_EVENTS.addAndGet(-events.size());
         for (Tracker tracker : TRACKERS) {
-            tracker.clearAllData();
+            tracker.track(events);
         }
+        NUM_TRACKED_EVENTS.addAndGet(events.size());
     }
 
-    public static void refreshMetadata(AnalyticsMetadata metadata) {
+    private static void dispatchEvent(Event event) {
         for (Tracker tracker : TRACKERS) {
-            tracker.refreshMetadata(metadata);
+            event.dispatchTo(tracker);
         }
+        NUM_TRACKED_EVENTS.incrementAndGet();
     }
 }
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -19,6 +20,16 @@ public abstract class Tracker {
     abstract void registerPushNotificationToken(String regId);
     abstract String getAnonIdPrefKey();
 
+    /*
+     * called on the analytics dispatch thread with a batch of events in the order they were
+     * tracked - trackers which can send events in bulk may override this
+     */
+    void track(List<AnalyticsTracker.Event> events) {
+        for (AnalyticsTracker.Event event : events) {
+            event.dispatchTo(this);
+        }
+    }
+
     private String mAnonID = null; // do not access this variable directly. Use methods.
     private String mWpcomUserName = null;
     Context mContext;
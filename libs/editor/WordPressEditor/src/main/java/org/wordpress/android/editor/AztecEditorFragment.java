@@ -178,6 +178,11 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
 
         source.setHint("<p>" + getString(R.string.editor_content_hint) + "</p>");
 
+        mTracksContentChanges = true;
+        title.addTextChangedListener(mContentChangedWatcher);
+        content.addTextChangedListener(mContentChangedWatcher);
+        source.addTextChangedListener(mContentChangedWatcher);
+
         formattingToolbar = (AztecToolbar) view.findViewById(R.id.formatting_toolbar);
         formattingToolbar.setExpanded(mIsToolbarExpanded);
 
@@ -338,12 +343,14 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
 
     @Override
     public void onRedoEnabled() {
+        markContentChanged();
         invalidateOptionsHandler.removeCallbacks(invalidateOptionsRunnable);
         invalidateOptionsHandler.postDelayed(invalidateOptionsRunnable, getResources().getInteger(android.R.integer.config_mediumAnimTime) );
     }
 
     @Override
     public void onUndoEnabled() {
+        markContentChanged();
         invalidateOptionsHandler.removeCallbacks(invalidateOptionsRunnable);
         invalidateOptionsHandler.postDelayed(invalidateOptionsRunnable, getResources().getInteger(android.R.integer.config_mediumAnimTime) );
     }
@@ -413,6 +420,7 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
 
     @Override
     public void onToolbarFormatButtonClicked(ITextFormat format, boolean isKeyboardShortcut) {
+        markContentChanged();
         if (format.equals(AztecTextFormat.FORMAT_PARAGRAPH)) {
             mEditorFragmentListener.onTrackableEvent(TrackableEvent.PARAGRAPH_BUTTON_TAPPED);
         } else if (format.equals(AztecTextFormat.FORMAT_PREFORMAT)) {
@@ -795,6 +803,7 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
 
     @Override
     public void removeAllFailedMediaUploads() {
+        markContentChanged();
         content.removeMedia(new AztecText.AttributePredicate() {
             @Override
             public boolean matches(@NotNull Attributes attrs) {
@@ -824,6 +833,7 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
 
     @Override
     public void onMediaUploadSucceeded(final String localMediaId, final MediaFile mediaFile) {
+        markContentChanged();
         if(!isAdded() || content == null || !mAztecReady) {
             return;
         }
@@ -875,6 +885,7 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
 
     @Override
     public void onMediaDeleted(AztecAttributes aztecAttributes) {
+        markContentChanged();
         String localMediaId = aztecAttributes.getValue(ATTR_ID_WP);
         if (!TextUtils.isEmpty(localMediaId)) {
             mEditorFragmentListener.onMediaDeleted(localMediaId);
@@ -950,6 +961,7 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
     @Override
     public void onMediaUploadFailed(final String localMediaId, final EditorFragmentAbstract.MediaType
             mediaType, final String errorMessage) {
+        markContentChanged();
         if(!isAdded() || content == null) {
             return;
         }
@@ -1626,6 +1638,7 @@ public class AztecEditorFragment extends EditorFragmentAbstract implements
     }
 
     public void setMediaToFailed(@NonNull String mediaId) {
+        markContentChanged();
         AztecText.AttributePredicate localMediaIdPredicate = MediaPredicate.getLocalMediaIdPredicate(mediaId);
         clearMediaUploadingAndSetToFailedIfLocal(content.getText(), localMediaIdPredicate);
         content.clearOverlays(localMediaIdPredicate);
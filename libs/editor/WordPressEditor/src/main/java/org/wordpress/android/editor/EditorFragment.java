@@ -358,6 +358,10 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
         mSourceViewContent.addTextChangedListener(new HtmlStyleTextWatcher());
 
+        mTracksContentChanges = true;
+        mSourceViewTitle.addTextChangedListener(mContentChangedWatcher);
+        mSourceViewContent.addTextChangedListener(mContentChangedWatcher);
+
         mSourceViewTitle.setHint(mTitlePlaceholder);
         mSourceViewContent.setHint("<p>" + mContentPlaceholder + "</p>");
 
@@ -749,6 +753,9 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
             return;
         }
 
+        // format bar actions change the content without necessarily triggering an input callback
+        markContentChanged();
+
         int id = v.getId();
         if (id == R.id.format_bar_button_html) {
             checkForFailedUploadAndSwitchToHtmlMode((ToggleButton) v);
@@ -912,11 +919,13 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void setTitle(CharSequence text) {
+        markContentChanged();
         mTitle = text.toString();
     }
 
     @Override
     public void setContent(CharSequence text) {
+        markContentChanged();
         mContentHtml = text.toString();
     }
 
@@ -1000,6 +1009,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void appendMediaFile(final MediaFile mediaFile, final String mediaUrl, ImageLoader imageLoader) {
+        markContentChanged();
         if (!mDomHasLoaded) {
             // If the DOM hasn't loaded yet, we won't be able to add media to the ZSSEditor
             // Place them in a queue to be handled when the DOM loaded callback is received
@@ -1044,6 +1054,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void appendGallery(MediaGallery mediaGallery) {
+        markContentChanged();
         if (!mDomHasLoaded) {
             // If the DOM hasn't loaded yet, we won't be able to add a gallery to the ZSSEditor
             // Place it in a queue to be handled when the DOM loaded callback is received
@@ -1066,6 +1077,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void setUrlForVideoPressId(final String videoId, final String videoUrl, final String posterUrl) {
+        markContentChanged();
         mWebView.post(new Runnable() {
             @Override
             public void run() {
@@ -1087,6 +1099,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void removeAllFailedMediaUploads() {
+        markContentChanged();
         mWebView.execJavaScriptFromString("ZSSEditor.removeAllFailedMediaUploads();");
     }
 
@@ -1112,6 +1125,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void onMediaUploadSucceeded(final String localMediaId, final MediaFile mediaFile) {
+        markContentChanged();
         if(!isAdded()) {
             return;
         }
@@ -1159,6 +1173,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
     @Override
     public void onMediaUploadFailed(final String mediaId, final EditorFragmentAbstract.MediaType
             mediaType, final String errorMessage) {
+        markContentChanged();
         if(!isAdded()) {
             return;
         }
@@ -1185,6 +1200,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void onGalleryMediaUploadSucceeded(final long galleryId, long remoteMediaId, int remaining) {
+        markContentChanged();
         if(!isAdded()) {
             return;
         }
@@ -1305,6 +1321,10 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
         });
     }
 
+    public void onInput() {
+        markContentChanged();
+    }
+
     public void onSelectionChanged(final Map<String, String> selectionArgs) {
         mFocusedFieldId = selectionArgs.get("id"); // The field now in focus
         mWebView.post(new Runnable() {
@@ -1465,6 +1485,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void onMediaRemoved(String mediaId) {
+        markContentChanged();
         mUploadingMedia.remove(mediaId);
         mFailedMediaIds.remove(mediaId);
         mEditorFragmentListener.onMediaUploadCancelClicked(mediaId);
@@ -1472,6 +1493,7 @@ public class EditorFragment extends EditorFragmentAbstract implements View.OnCli
 
     @Override
     public void onMediaReplaced(String mediaId) {
+        markContentChanged();
         mUploadingMedia.remove(mediaId);
     }
 
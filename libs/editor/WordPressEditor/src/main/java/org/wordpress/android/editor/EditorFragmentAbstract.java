@@ -4,7 +4,9 @@ import android.app.Activity;
 import android.app.Fragment;
 import android.net.Uri;
 import android.os.Bundle;
+import android.text.Editable;
 import android.text.Spanned;
+import android.text.TextWatcher;
 import android.view.DragEvent;
 
 import com.android.volley.toolbox.ImageLoader;
@@ -15,6 +17,7 @@ import org.wordpress.android.util.helpers.MediaGallery;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public abstract class EditorFragmentAbstract extends Fragment {
     public abstract void setTitle(CharSequence text);
@@ -85,6 +88,27 @@ public abstract class EditorFragmentAbstract extends Fragment {
 
     protected HashMap<String, String> mCustomHttpHeaders;
 
+    // editors which report their changes through markContentChanged() set this so the host can
+    // skip reading the title and content when nothing has changed
+    protected boolean mTracksContentChanges;
+    private final AtomicBoolean mIsContentChanged = new AtomicBoolean();
+
+    // marks the content as changed whenever the text of the view it's attached to changes
+    protected final TextWatcher mContentChangedWatcher = new TextWatcher() {
+        @Override
+        public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+        }
+
+        @Override
+        public void onTextChanged(CharSequence s, int start, int before, int count) {
+        }
+
+        @Override
+        public void afterTextChanged(Editable s) {
+            markContentChanged();
+        }
+    };
+
     @Override
     public void onAttach(Activity activity) {
         super.onAttach(activity);
@@ -141,6 +165,22 @@ public abstract class EditorFragmentAbstract extends Fragment {
         mDebugModeEnabled = debugModeEnabled;
     }
 
+    /**
+     * Records that the title or content has changed since it was last read by the host - may be
+     * called from any thread
+     */
+    public void markContentChanged() {
+        mIsContentChanged.set(true);
+    }
+
+    /**
+     * Returns true if the title or content may have changed since the last call, and resets the
+     * changed state. Editors which don't track their changes always return true.
+     */
+    public boolean consumeContentChanged() {
+        return mIsContentChanged.getAndSet(false) || !mTracksContentChanges;
+    }
+
     /**
      * Called by the activity when back button is pressed.
      */
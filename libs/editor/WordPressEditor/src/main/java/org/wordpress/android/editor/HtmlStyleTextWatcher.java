@@ -2,6 +2,7 @@ package org.wordpress.android.editor;
 
 import android.text.Editable;
 import android.text.Spannable;
+import android.text.TextUtils;
 import android.text.TextWatcher;
 
 import org.wordpress.android.util.AppLog;
@@ -51,6 +52,7 @@ public class HtmlStyleTextWatcher implements TextWatcher {
                 if (before > 0) {
                     // Text was added, replacing some existing text
                     mLastOperation = Operation.REPLACE;
+                    mOffset = start;
                     mModifiedText = s.subSequence(start, start + count);
                 } else {
                     // Text was added only
@@ -104,12 +106,11 @@ public class HtmlStyleTextWatcher implements TextWatcher {
      * @return the range of characters to re-apply spans to
      */
     protected SpanRange getRespanRangeForChangedOpeningSymbol(Editable content, String openingSymbol) {
-        // For simplicity, re-parse the document if text was replaced
         if (mLastOperation == Operation.REPLACE) {
-            return new SpanRange(0, content.length());
+            return getRespanRangeForReplacedText(content);
         }
 
-        String closingSymbol = getMatchingSymbol(openingSymbol);
+        char closingSymbol = getMatchingSymbol(openingSymbol).charAt(0);
 
         int firstOpeningTagLoc = mOffset + mModifiedText.toString().indexOf(openingSymbol);
         int closingTagLoc;
@@ -118,10 +119,10 @@ public class HtmlStyleTextWatcher implements TextWatcher {
             // last added opening symbol
             // e.g. pasting "<b><" before "/b>" - we want the span to be applied to all of "<b></b>"
             int lastOpeningTagLoc = mOffset + mModifiedText.toString().lastIndexOf(openingSymbol);
-            closingTagLoc = content.toString().indexOf(closingSymbol, lastOpeningTagLoc);
+            closingTagLoc = TextUtils.indexOf(content, closingSymbol, lastOpeningTagLoc);
         } else {
             // Apply span until the first closing tag that appears after the deleted text
-            closingTagLoc = content.toString().indexOf(closingSymbol, mOffset);
+            closingTagLoc = TextUtils.indexOf(content, closingSymbol, mOffset);
         }
 
         if (closingTagLoc > 0) {
@@ -138,17 +139,17 @@ public class HtmlStyleTextWatcher implements TextWatcher {
      * @return the range of characters to re-apply spans to
      */
     protected SpanRange getRespanRangeForChangedClosingSymbol(Editable content, String closingSymbol) {
-        // For simplicity, re-parse the document if text was replaced
         if (mLastOperation == Operation.REPLACE) {
-            return new SpanRange(0, content.length());
+            return getRespanRangeForReplacedText(content);
         }
 
-        String openingSymbol = getMatchingSymbol(closingSymbol);
+        char openingSymbol = getMatchingSymbol(closingSymbol).charAt(0);
 
         int firstClosingTagInModLoc = mOffset + mModifiedText.toString().indexOf(closingSymbol);
-        int firstClosingTagAfterModLoc = content.toString().indexOf(closingSymbol, mOffset + mModifiedText.length());
+        int firstClosingTagAfterModLoc = TextUtils.indexOf(content, closingSymbol.charAt(0),
+                mOffset + mModifiedText.length());
 
-        int openingTagLoc = content.toString().lastIndexOf(openingSymbol, firstClosingTagInModLoc - 1);
+        int openingTagLoc = TextUtils.lastIndexOf(content, openingSymbol, firstClosingTagInModLoc - 1);
         if (openingTagLoc >= 0) {
             if (firstClosingTagAfterModLoc >= 0) {
                 return new SpanRange(openingTagLoc, firstClosingTagAfterModLoc + 1);
@@ -167,11 +168,11 @@ public class HtmlStyleTextWatcher implements TextWatcher {
      * @return the range of characters to re-apply spans to
      */
     protected SpanRange getRespanRangeForNormalText(Editable content, String openingSymbol) {
-        String closingSymbol = getMatchingSymbol(openingSymbol);
+        char closingSymbol = getMatchingSymbol(openingSymbol).charAt(0);
 
-        int openingTagLoc = content.toString().lastIndexOf(openingSymbol, mOffset);
+        int openingTagLoc = TextUtils.lastIndexOf(content, openingSymbol.charAt(0), mOffset);
         if (openingTagLoc >= 0) {
-            int closingTagLoc = content.toString().indexOf(closingSymbol, openingTagLoc);
+            int closingTagLoc = TextUtils.indexOf(content, closingSymbol, openingTagLoc);
             if (closingTagLoc >= mOffset) {
                 return new SpanRange(openingTagLoc, closingTagLoc + 1);
             }
@@ -179,6 +180,39 @@ public class HtmlStyleTextWatcher implements TextWatcher {
         return null;
     }
 
+    /**
+     * For replaced text which contains tag or entity symbols, returns the range covering the replaced text plus any
+     * tag or entity it opens or closes outside of it. Searches only extend to the nearest matching symbol, so typing
+     * in a long document doesn't re-style all of it.
+     * @param content the content after modification
+     * @return the range of characters to re-apply spans to
+     */
+    protected SpanRange getRespanRangeForReplacedText(Editable content) {
+        int start = Math.max(0, Math.min(mOffset, content.length()));
+        int end = Math.min(content.length(), start + mModifiedText.length());
+
+        int respanStart = start;
+        int respanEnd = end;
+        for (String openingSymbol : new String[]{"<", "&"}) {
+            char opening = openingSymbol.charAt(0);
+            char closing = getMatchingSymbol(openingSymbol).charAt(0);
+
+            // extend backwards to an opening symbol which hasn't been closed before the replaced text
+            int openingLoc = TextUtils.lastIndexOf(content, opening, start - 1);
+            if (openingLoc >= 0 && TextUtils.lastIndexOf(content, closing, openingLoc, start - 1) < 0) {
+                respanStart = Math.min(respanStart, openingLoc);
+            }
+
+            // extend forwards to a closing symbol which isn't preceded by another opening symbol
+            int closingLoc = TextUtils.indexOf(content, closing, end);
+            if (closingLoc >= 0 && TextUtils.indexOf(content, opening, end, closingLoc) < 0) {
+                respanEnd = Math.max(respanEnd, closingLoc + 1);
+            }
+        }
+
+        return new SpanRange(respanStart, respanEnd);
+    }
+
     /**
      * Clears and re-applies spans to {@code content} within range {@code spanRange} according to rules in
      * {@link HtmlStyleUtils}.
@@ -12,8 +12,8 @@ import android.text.style.StyleSpan;
 
 import org.wordpress.android.util.AppLog;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashSet;
+import java.util.Set;
 
 public class HtmlStyleUtils {
     public static final int TAG_COLOR = Color.rgb(0, 80, 130);
@@ -63,6 +63,28 @@ public class HtmlStyleUtils {
 
     public static final int SPANNABLE_FLAGS = Spannable.SPAN_EXCLUSIVE_EXCLUSIVE;
 
+    /*
+     * the regexes above describe the styling rules, but styling is done by a single pass over the text
+     * (see styleHtmlForDisplay) - compiling and running the entity regex on every keystroke was far too
+     * slow for long posts. entities are looked up in a set built from the regex.
+     */
+    private static final Set<String> HTML_ENTITIES = new HashSet<>();
+    private static final int MAX_ENTITY_LENGTH;
+
+    static {
+        // "(&#34;|&#38;|...)" -> {"&#34;", "&#38;", ...}
+        String entities = REGEX_HTML_ENTITIES.substring(1, REGEX_HTML_ENTITIES.length() - 1);
+        int maxLength = 0;
+        for (String entity : entities.split("\\|")) {
+            HTML_ENTITIES.add(entity);
+            maxLength = Math.max(maxLength, entity.length());
+        }
+        MAX_ENTITY_LENGTH = maxLength;
+    }
+
+    private static final String COMMENT_START = "<!--";
+    private static final String COMMENT_END = "-->";
+
     /**
      * Apply styling rules to {@code content}.
      */
@@ -71,7 +93,8 @@ public class HtmlStyleUtils {
     }
 
     /**
-     * Apply styling rules to {@code content} inside the range from {@code start} to {@code end}.
+     * Apply styling rules to {@code content} inside the range from {@code start} to {@code end}. Only tags, comments
+     * and entities which lie entirely inside the range are styled.
      *
      * @param content the Spannable to apply style rules to
      * @param start the index in {@code content} to start styling from
@@ -84,56 +107,163 @@ public class HtmlStyleUtils {
             return;
         }
 
-        applySpansByRegex(content, start, end, REGEX_HTML_TAGS);
-        applySpansByRegex(content, start, end, REGEX_HTML_ATTRIBUTES);
-        applySpansByRegex(content, start, end, REGEX_HTML_COMMENTS);
-        applySpansByRegex(content, start, end, REGEX_HTML_ENTITIES);
+        if (start < 0 || end < 0 || start > content.length() || end > content.length() || start >= end) {
+            AppLog.d(AppLog.T.EDITOR, "styleHtmlForDisplay() received invalid input");
+            return;
+        }
+
+        int i = start;
+        while (i < end) {
+            char c = content.charAt(i);
+            int tokenEnd = -1;
+            if (c == '<') {
+                if (regionMatches(content, i, end, COMMENT_START)) {
+                    tokenEnd = styleComment(content, i, end);
+                } else {
+                    tokenEnd = styleTag(content, i, end);
+                }
+            } else if (c == '&') {
+                tokenEnd = styleEntity(content, i, end);
+            }
+            // skip past the token if one was styled, otherwise move to the next character
+            i = tokenEnd > i ? tokenEnd : i + 1;
+        }
     }
 
-    /**
-     * Applies styles to {@code content} from {@code start} to {@code end}, based on rule {@code regex}.
-     * @param content the Spannable to apply style rules to
-     * @param start the index in {@code content} to start styling from
-     * @param end the index in {@code content} to style until
-     * @param regex the pattern to match for styling
+    /*
+     * styles the comment starting at {@code start}, returning the index after it or -1 if it isn't closed
+     * before {@code end} (matches REGEX_HTML_COMMENTS)
      */
-    private static void applySpansByRegex(Spannable content, int start, int end, String regex) {
-        if (content == null || start < 0 || end < 0 || start > content.length() || end > content.length() ||
-                start >= end) {
-            AppLog.d(AppLog.T.EDITOR, "applySpansByRegex() received invalid input");
-            return;
+    private static int styleComment(Spannable content, int start, int end) {
+        int closeIndex = indexOf(content, COMMENT_END, start + COMMENT_START.length(), end);
+        if (closeIndex < 0) {
+            return -1;
         }
+        int commentEnd = closeIndex + COMMENT_END.length();
+        content.setSpan(new ForegroundColorSpan(ATTRIBUTE_COLOR), start, commentEnd, SPANNABLE_FLAGS);
+        content.setSpan(new StyleSpan(Typeface.ITALIC), start, commentEnd, SPANNABLE_FLAGS);
+        content.setSpan(new RelativeSizeSpan(0.75f), start, commentEnd, SPANNABLE_FLAGS);
+        return commentEnd;
+    }
 
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(content.subSequence(start, end));
+    /*
+     * styles the tag starting at {@code start} along with its quoted attribute values and any entities inside it,
+     * returning the index after the tag or -1 if there's no tag here (matches REGEX_HTML_TAGS)
+     */
+    private static int styleTag(Spannable content, int start, int end) {
+        int nameStart = start + 1;
+        if (nameStart < end && content.charAt(nameStart) == '/') {
+            nameStart++;
+        }
+        if (nameStart >= end || !isLowerCaseLetter(content.charAt(nameStart))) {
+            return -1;
+        }
 
-        while (matcher.find()) {
-            int matchStart = matcher.start() + start;
-            int matchEnd = matcher.end() + start;
-            switch(regex) {
-                case REGEX_HTML_TAGS:
-                    content.setSpan(new ForegroundColorSpan(TAG_COLOR), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    break;
-                case REGEX_HTML_ATTRIBUTES:
-                    content.setSpan(new ForegroundColorSpan(ATTRIBUTE_COLOR), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    break;
-                case REGEX_HTML_COMMENTS:
-                    content.setSpan(new ForegroundColorSpan(ATTRIBUTE_COLOR), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    content.setSpan(new StyleSpan(Typeface.ITALIC), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    content.setSpan(new RelativeSizeSpan(0.75f), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    break;
-                case REGEX_HTML_ENTITIES:
-                    content.setSpan(new ForegroundColorSpan(TAG_COLOR), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    content.setSpan(new StyleSpan(Typeface.BOLD), matchStart, matchEnd, SPANNABLE_FLAGS);
-                    content.setSpan(new RelativeSizeSpan(0.75f), matchStart, matchEnd, SPANNABLE_FLAGS);
+        int closeIndex = -1;
+        for (int i = nameStart + 1; i < end; i++) {
+            char c = content.charAt(i);
+            if (c == '>') {
+                closeIndex = i;
+                break;
+            } else if (c == '<') {
+                return -1;
+            }
+        }
+        if (closeIndex < 0) {
+            return -1;
+        }
+
+        int tagEnd = closeIndex + 1;
+        content.setSpan(new ForegroundColorSpan(TAG_COLOR), start, tagEnd, SPANNABLE_FLAGS);
+
+        // attribute values are quoted strings which directly follow '=' (matches REGEX_HTML_ATTRIBUTES)
+        int i = nameStart + 1;
+        while (i < closeIndex) {
+            char c = content.charAt(i);
+            if ((c == '"' || c == '\'') && content.charAt(i - 1) == '=') {
+                int valueEnd = indexOf(content, c, i + 1, closeIndex);
+                if (valueEnd < 0) {
                     break;
+                }
+                content.setSpan(new ForegroundColorSpan(ATTRIBUTE_COLOR), i, valueEnd + 1, SPANNABLE_FLAGS);
+                styleEntities(content, i + 1, valueEnd);
+                i = valueEnd + 1;
+            } else if (c == '&') {
+                int entityEnd = styleEntity(content, i, closeIndex);
+                i = entityEnd > i ? entityEnd : i + 1;
+            } else {
+                i++;
+            }
+        }
+
+        return tagEnd;
+    }
+
+    private static void styleEntities(Spannable content, int start, int end) {
+        int i = start;
+        while (i < end) {
+            int entityEnd = content.charAt(i) == '&' ? styleEntity(content, i, end) : -1;
+            i = entityEnd > i ? entityEnd : i + 1;
+        }
+    }
+
+    /*
+     * styles the entity starting at {@code start}, returning the index after it or -1 if there's no known entity
+     * here (matches REGEX_HTML_ENTITIES)
+     */
+    private static int styleEntity(Spannable content, int start, int end) {
+        int limit = Math.min(end, start + MAX_ENTITY_LENGTH);
+        int semicolonIndex = indexOf(content, ';', start + 1, limit);
+        if (semicolonIndex < 0) {
+            return -1;
+        }
+        int entityEnd = semicolonIndex + 1;
+        if (!HTML_ENTITIES.contains(content.subSequence(start, entityEnd).toString())) {
+            return -1;
+        }
+        content.setSpan(new ForegroundColorSpan(TAG_COLOR), start, entityEnd, SPANNABLE_FLAGS);
+        content.setSpan(new StyleSpan(Typeface.BOLD), start, entityEnd, SPANNABLE_FLAGS);
+        content.setSpan(new RelativeSizeSpan(0.75f), start, entityEnd, SPANNABLE_FLAGS);
+        return entityEnd;
+    }
+
+    private static boolean isLowerCaseLetter(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static boolean regionMatches(CharSequence content, int start, int end, String str) {
+        if (start + str.length() > end) {
+            return false;
+        }
+        for (int i = 0; i < str.length(); i++) {
+            if (content.charAt(start + i) != str.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence content, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (content.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(CharSequence content, String str, int start, int end) {
+        for (int i = start; i <= end - str.length(); i++) {
+            if (regionMatches(content, i, end, str)) {
+                return i;
             }
         }
+        return -1;
     }
 
     /**
      * Clears all relevant spans in {@code content} from {@code start} to {@code end}. Relevant spans are the subclasses
-     * of {@link CharacterStyle} applied by {@link HtmlStyleUtils#applySpansByRegex(Spannable, int, int, String)}.
+     * of {@link CharacterStyle} applied by {@link HtmlStyleUtils#styleHtmlForDisplay(Spannable, int, int)}.
      * @param content the Spannable to clear styles from
      * @param spanStart the index in {@code content} to start clearing styles from
      * @param spanEnd the index in {@code content} to clear styles until
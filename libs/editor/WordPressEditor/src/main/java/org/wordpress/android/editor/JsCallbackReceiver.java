@@ -83,6 +83,7 @@ public class JsCallbackReceiver {
             case CALLBACK_INPUT:
                 // Called on key press
                 // TODO: Possibly needed for handling WebView scrolling when caret moves (from iOS)
+                mListener.onInput();
                 break;
             case CALLBACK_FOCUS_IN:
                 // TODO: Needed to handle displaying/graying the format bar when focus changes between the title and content
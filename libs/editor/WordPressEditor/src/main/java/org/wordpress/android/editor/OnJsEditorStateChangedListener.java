@@ -10,6 +10,7 @@ public interface OnJsEditorStateChangedListener {
     void onDomLoaded();
     void onSelectionChanged(Map<String, String> selectionArgs);
     void onSelectionStyleChanged(Map<String, Boolean> changeSet);
+    void onInput();
     void onMediaTapped(String mediaId, MediaType mediaType, JSONObject meta, String uploadStatus);
     void onLinkTapped(String url, String title);
     void onMediaRemoved(String mediaId);
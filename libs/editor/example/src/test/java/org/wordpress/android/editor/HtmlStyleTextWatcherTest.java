@@ -453,6 +453,30 @@ public class HtmlStyleTextWatcherTest {
         assertEquals(false, mUpdateSpansWasCalled);
     }
 
+    @Test
+    public void testReplacingTextOnlyRestylesAffectedTag() {
+        // -- Test replacing "b" with "<b" (e.g. by autocorrect), completing a tag
+        mContent = new SpannableStringBuilder("text <b>bold</b> end <i>italic</i>");
+
+        mWatcher.onTextChanged(mContent, 5, 1, 2);
+        mWatcher.afterTextChanged(mContent);
+
+        assertEquals(true, mUpdateSpansWasCalled);
+        assertEquals(5, mSpanRange.getOpeningTagLoc());
+        assertEquals(8, mSpanRange.getClosingTagLoc());
+
+        // -- Test replacing text inside an entity with text containing its closing symbol
+        mUpdateSpansWasCalled = false;
+        mContent = new SpannableStringBuilder("<b>text &amp; more</b>");
+
+        mWatcher.onTextChanged(mContent, 11, 2, 2); // Replaced "mp" with "p;"
+        mWatcher.afterTextChanged(mContent);
+
+        assertEquals(true, mUpdateSpansWasCalled);
+        assertEquals(8, mSpanRange.getOpeningTagLoc());
+        assertEquals(13, mSpanRange.getClosingTagLoc());
+    }
+
     @Test
     public void testUpdateSpans() {
         // -- Test tag styling
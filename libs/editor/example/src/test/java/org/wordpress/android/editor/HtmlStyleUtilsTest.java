@@ -1,5 +1,6 @@
 package org.wordpress.android.editor;
 
+import android.text.Editable;
 import android.text.Spannable;
 import android.text.SpannableStringBuilder;
 import android.text.Spanned;
@@ -13,6 +14,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
+import org.wordpress.android.util.AppLog;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.Assert.assertEquals;
 
@@ -89,4 +95,119 @@ public class HtmlStyleUtilsTest {
 
         assertEquals(1, content.getSpans(0, 4, UnderlineSpan.class).length);
     }
+
+    @Test
+    public void testEntitiesAndAttributesInTags() {
+        Spannable content = new SpannableStringBuilder("<a href=\"?a=1&amp;b=2\">&bogus; &nbsp;</a>");
+        HtmlStyleUtils.styleHtmlForDisplay(content);
+
+        // tag, attribute and entity spans on '&amp;' inside the attribute value
+        assertEquals(3, content.getSpans(13, 18, ForegroundColorSpan.class).length);
+        assertEquals(1, content.getSpans(13, 18, StyleSpan.class).length);
+
+        // unknown entities aren't styled
+        assertEquals(0, content.getSpans(23, 30, CharacterStyle.class).length); // '&bogus;'
+
+        assertEquals(1, content.getSpans(31, 37, StyleSpan.class).length); // '&nbsp;'
+    }
+
+    @Test
+    public void testUnclosedTokensAreNotStyled() {
+        Spannable content = new SpannableStringBuilder("<b text <!-- comment &amp");
+        HtmlStyleUtils.styleHtmlForDisplay(content);
+
+        assertEquals(0, content.getSpans(0, content.length(), CharacterStyle.class).length);
+    }
+
+    @Test
+    public void testTagsAndEntitiesInsideCommentsAreNotStyled() {
+        // a comment is styled as a whole, the tags and entities it contains aren't styled on their own
+        Spannable content = new SpannableStringBuilder("<!-- <b>old</b> &amp; --> <b>new</b>");
+        HtmlStyleUtils.styleHtmlForDisplay(content);
+
+        assertEquals(1, content.getSpans(5, 8, ForegroundColorSpan.class).length); // '<b>' in the comment
+        assertEquals(1, content.getSpans(16, 21, ForegroundColorSpan.class).length); // '&amp;' in the comment
+        assertEquals(1, content.getSpans(16, 21, StyleSpan.class).length); // '&amp;' in the comment
+        assertEquals(1, content.getSpans(16, 21, RelativeSizeSpan.class).length); // '&amp;' in the comment
+
+        assertEquals(1, content.getSpans(26, 29, ForegroundColorSpan.class).length); // '<b>' after the comment
+        assertEquals(0, content.getSpans(26, 29, StyleSpan.class).length); // '<b>' after the comment
+    }
+
+    /*
+     * compares the cost of the same keystrokes inside a tag in a ~100KB document with the previous text watcher,
+     * which copied the document to find the tag and then styled it by compiling and running each regex
+     */
+    @Test
+    public void testKeystrokeLatencyBenchmark() {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 100 * 1024) {
+            sb.append("<p class=\"para\">Some text with <b>bold</b> &amp; <a href=\"https://wordpress.com\">a link</a>")
+              .append("<!-- comment --> and an entity &mdash; here.</p>\n");
+        }
+        String html = sb.toString();
+        int numKeystrokes = 20;
+        int startOffset = html.indexOf("<b>", html.length() / 2) + 2;
+
+        // typing inside a tag in the middle of the document, re-styled the way the previous text watcher did
+        Editable legacyContent = new SpannableStringBuilder(html);
+        HtmlStyleUtils.styleHtmlForDisplay(legacyContent);
+        int offset = startOffset;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < numKeystrokes; i++) {
+            legacyContent.insert(offset, "x");
+            legacyRestyleInsideTag(legacyContent, offset);
+            offset++;
+        }
+        long legacyNanos = (System.nanoTime() - startTime) / numKeystrokes;
+
+        // the same keystrokes, re-styled by the text watcher
+        Editable content = new SpannableStringBuilder(html);
+        HtmlStyleUtils.styleHtmlForDisplay(content);
+        HtmlStyleTextWatcher watcher = new HtmlStyleTextWatcher();
+        offset = startOffset;
+        startTime = System.nanoTime();
+        for (int i = 0; i < numKeystrokes; i++) {
+            watcher.beforeTextChanged(content, offset, 0, 1);
+            content.insert(offset, "x");
+            watcher.onTextChanged(content, offset, 0, 1);
+            watcher.afterTextChanged(content);
+            offset++;
+        }
+        long keystrokeNanos = (System.nanoTime() - startTime) / numKeystrokes;
+
+        startTime = System.nanoTime();
+        HtmlStyleUtils.clearSpans(content, 0, content.length());
+        HtmlStyleUtils.styleHtmlForDisplay(content);
+        long fullStyleNanos = System.nanoTime() - startTime;
+
+        AppLog.i(AppLog.T.TESTS, String.format(Locale.US,
+                "HtmlStyleUtils benchmark > %d KB, previous keystroke %d us, keystroke %d us, full restyle %d us",
+                html.length() / 1024, legacyNanos / 1000, keystrokeNanos / 1000, fullStyleNanos / 1000));
+
+        // both approaches leave the tag being typed in styled as a single tag
+        int tagStart = startOffset - 2;
+        assertEquals(legacyContent.toString(), content.toString());
+        assertEquals(1, legacyContent.getSpans(tagStart, tagStart + 1, ForegroundColorSpan.class).length);
+        assertEquals(1, content.getSpans(tagStart, tagStart + 1, ForegroundColorSpan.class).length);
+    }
+
+    /*
+     * what the previous text watcher did after a character was typed inside a tag: copy the document twice to find
+     * the enclosing tag, then clear it and style it by compiling and running each regex on it
+     */
+    private static void legacyRestyleInsideTag(Editable content, int offset) {
+        int spanStart = content.toString().lastIndexOf("<", offset);
+        int spanEnd = content.toString().indexOf(">", spanStart) + 1;
+
+        HtmlStyleUtils.clearSpans(content, spanStart, spanEnd);
+        for (String regex : new String[]{HtmlStyleUtils.REGEX_HTML_TAGS, HtmlStyleUtils.REGEX_HTML_ATTRIBUTES,
+                HtmlStyleUtils.REGEX_HTML_COMMENTS, HtmlStyleUtils.REGEX_HTML_ENTITIES}) {
+            Matcher matcher = Pattern.compile(regex).matcher(content.subSequence(spanStart, spanEnd));
+            while (matcher.find()) {
+                content.setSpan(new ForegroundColorSpan(HtmlStyleUtils.TAG_COLOR), spanStart + matcher.start(),
+                        spanStart + matcher.end(), HtmlStyleUtils.SPANNABLE_FLAGS);
+            }
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package org.wordpress.android.util;
+
+import android.test.InstrumentationTestCase;
+
+import org.wordpress.android.util.AppLog.LogLevel;
+import org.wordpress.android.util.AppLog.T;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+public class AppLogTest extends InstrumentationTestCase {
+    private static final int NUM_THREADS = 4;
+    private static final int NUM_MESSAGES_PER_THREAD = 25000;
+
+    @Override
+    protected void tearDown() throws Exception {
+        AppLog.setRecordingCapacity(AppLog.DEFAULT_MAX_ENTRIES);
+        AppLog.setRecordingLevel(LogLevel.v);
+        AppLog.clearRecording();
+        super.tearDown();
+    }
+
+    public void testRingKeepsMostRecentEntries() {
+        AppLog.LogEntryRing ring = new AppLog.LogEntryRing(10);
+        for (int i = 0; i < 25; i++) {
+            ring.add(LogLevel.d, "message " + i, T.TESTS);
+        }
+        assertEquals(10, ring.snapshot().size());
+    }
+
+    public void testRecordingLevelAndCapacity() {
+        AppLog.enableRecording(true);
+        AppLog.clearRecording();
+        AppLog.setRecordingLevel(LogLevel.i);
+        AppLog.d(T.TESTS, "debug message");
+        AppLog.i(T.TESTS, "info message");
+
+        String log = AppLog.toPlainText(getInstrumentation().getTargetContext());
+        assertFalse(log.contains("debug message"));
+        assertTrue(log.contains("info message"));
+
+        AppLog.setRecordingCapacity(5);
+        for (int i = 0; i < 10; i++) {
+            AppLog.w(T.TESTS, "warning " + i);
+        }
+        log = AppLog.toPlainText(getInstrumentation().getTargetContext());
+        assertFalse(log.contains("warning 4"));
+        assertTrue(log.contains("warning 9"));
+    }
+
+    public void testConcurrentWritesKeepMostRecentEntries() throws InterruptedException {
+        final AppLog.LogEntryRing ring = new AppLog.LogEntryRing(AppLog.DEFAULT_MAX_ENTRIES);
+        runConcurrently(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < NUM_MESSAGES_PER_THREAD; i++) {
+                    ring.add(LogLevel.d, "message", T.TESTS);
+                }
+            }
+        });
+        // every one of the most recent entries must be there, in order - an older entry written
+        // late must never replace a newer one
+        List<AppLog.LogEntry> entries = ring.snapshot();
+        long firstSequence = NUM_THREADS * NUM_MESSAGES_PER_THREAD - AppLog.DEFAULT_MAX_ENTRIES;
+        assertEquals(AppLog.DEFAULT_MAX_ENTRIES, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(firstSequence + i, entries.get(i).mSequence);
+        }
+    }
+
+    /*
+     * compares throughput of the ring buffer with the synchronized list AppLog used previously,
+     * which shifted every entry on each add once the list was full
+     */
+    public void testMultithreadedThroughput() throws InterruptedException {
+        final List<String> legacyList = new ArrayList<>();
+        long legacyMs = runConcurrently(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < NUM_MESSAGES_PER_THREAD; i++) {
+                    String entry = "message";
+                    synchronized (legacyList) {
+                        if (legacyList.size() >= AppLog.DEFAULT_MAX_ENTRIES) {
+                            legacyList.remove(0);
+                        }
+                        legacyList.add(entry);
+                    }
+                }
+            }
+        });
+
+        final AppLog.LogEntryRing ring = new AppLog.LogEntryRing(AppLog.DEFAULT_MAX_ENTRIES);
+        long ringMs = runConcurrently(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < NUM_MESSAGES_PER_THREAD; i++) {
+                    ring.add(LogLevel.d, "message", T.TESTS);
+                }
+            }
+        });
+
+        int numMessages = NUM_THREADS * NUM_MESSAGES_PER_THREAD;
+        AppLog.i(T.TESTS, String.format(Locale.US,
+                "AppLog benchmark > %d messages on %d threads, synchronized list %d ms, ring buffer %d ms",
+                numMessages, NUM_THREADS, legacyMs, ringMs));
+    }
+
+    private static long runConcurrently(final Runnable runnable) throws InterruptedException {
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(NUM_THREADS);
+        for (int i = 0; i < NUM_THREADS; i++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                        runnable.run();
+                    } catch (InterruptedException e) {
+                        // fall through
+                    } finally {
+                        doneLatch.countDown();
+                    }
+                }
+            }.start();
+        }
+        long startTime = System.currentTimeMillis();
+        startLatch.countDown();
+        doneLatch.await();
+        return System.currentTimeMillis() - startTime;
+    }
+}
@@ -0,0 +1,55 @@
+package org.wordpress.android.util;
+
+import android.test.InstrumentationTestCase;
+
+public class PhotonUtilsTest extends InstrumentationTestCase {
+    public void testIsPhotonUrl() {
+        assertTrue(PhotonUtils.isPhotonUrl("https://i0.wp.com/example.com/image.jpg"));
+        assertTrue(PhotonUtils.isPhotonUrl("https://i1.wp.com/example.com/image.jpg"));
+        assertTrue(PhotonUtils.isPhotonUrl("http://I2.WP.COM/example.com/image.jpg"));
+
+        assertFalse(PhotonUtils.isPhotonUrl(null));
+        assertFalse(PhotonUtils.isPhotonUrl(""));
+        assertFalse(PhotonUtils.isPhotonUrl("https://i3.wp.com/example.com/image.jpg"));
+        assertFalse(PhotonUtils.isPhotonUrl("https://s0.wp.com/example.com/image.jpg"));
+        assertFalse(PhotonUtils.isPhotonUrl("https://i0.wp.com.example.com/image.jpg"));
+        assertFalse(PhotonUtils.isPhotonUrl("https://example.com/i0.wp.com/image.jpg"));
+    }
+
+    public void testNormalizedUrlIgnoresQueryParamOrder() {
+        assertEquals(
+                PhotonUtils.getNormalizedPhotonUrl("https://i0.wp.com/example.com/image.jpg?strip=all&quality=65&resize=200,100"),
+                PhotonUtils.getNormalizedPhotonUrl("https://i0.wp.com/example.com/image.jpg?resize=200,100&strip=all&quality=65"));
+    }
+
+    public void testNormalizedUrlMapsPhotonHostsToI0() {
+        String expected = "i0.wp.com/example.com/image.jpg?w=200";
+        assertEquals(expected, PhotonUtils.getNormalizedPhotonUrl("https://i0.wp.com/example.com/image.jpg?w=200"));
+        assertEquals(expected, PhotonUtils.getNormalizedPhotonUrl("https://i1.wp.com/example.com/image.jpg?w=200"));
+        assertEquals(expected, PhotonUtils.getNormalizedPhotonUrl("https://i2.wp.com/example.com/image.jpg?w=200"));
+    }
+
+    public void testNormalizedUrlDropsSchemeAndFragment() {
+        assertEquals(
+                PhotonUtils.getNormalizedPhotonUrl("https://i0.wp.com/example.com/image.jpg?w=200"),
+                PhotonUtils.getNormalizedPhotonUrl("http://i0.wp.com/example.com/image.jpg?w=200#top"));
+    }
+
+    public void testNormalizedUrlKeepsSslAndResizeVariantsApart() {
+        String url = "https://i0.wp.com/example.com/image.jpg?resize=200,100";
+        String sslUrl = "https://i0.wp.com/example.com/image.jpg?resize=200,100&ssl=1";
+        String otherSizeUrl = "https://i0.wp.com/example.com/image.jpg?resize=400,200";
+
+        assertFalse(PhotonUtils.getNormalizedPhotonUrl(url).equals(PhotonUtils.getNormalizedPhotonUrl(sslUrl)));
+        assertFalse(PhotonUtils.getNormalizedPhotonUrl(url).equals(PhotonUtils.getNormalizedPhotonUrl(otherSizeUrl)));
+        assertEquals(
+                PhotonUtils.getNormalizedPhotonUrl(sslUrl),
+                PhotonUtils.getNormalizedPhotonUrl("https://i1.wp.com/example.com/image.jpg?ssl=1&resize=200,100"));
+    }
+
+    public void testNormalizedUrlLeavesOtherHostsAlone() {
+        assertEquals("", PhotonUtils.getNormalizedPhotonUrl(null));
+        assertEquals("example.com/image.jpg?a=1&b=2",
+                PhotonUtils.getNormalizedPhotonUrl("https://Example.com/image.jpg?b=2&a=1"));
+    }
+}
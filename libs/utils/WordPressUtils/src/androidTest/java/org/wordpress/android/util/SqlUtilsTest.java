@@ -0,0 +1,140 @@
+package org.wordpress.android.util;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.test.InstrumentationTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class SqlUtilsTest extends InstrumentationTestCase {
+    private static final String SQL_INSERT = "INSERT OR REPLACE INTO tbl_test (id, name) VALUES (?1,?2)";
+
+    private SQLiteDatabase mDb;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mDb = SQLiteDatabase.create(null);
+        mDb.execSQL("CREATE TABLE tbl_test (id INTEGER PRIMARY KEY, name TEXT)");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        SqlUtils.clearStatementCache(mDb);
+        mDb.close();
+        super.tearDown();
+    }
+
+    private static List<Long> makeIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            ids.add(i);
+        }
+        return ids;
+    }
+
+    private static final SqlUtils.StatementBinder<Long> BINDER = new SqlUtils.StatementBinder<Long>() {
+        @Override
+        public void bind(SQLiteStatement stmt, Long id) {
+            stmt.bindLong(1, id);
+            stmt.bindString(2, "name" + id);
+        }
+    };
+
+    public void testStatementIsReused() {
+        SQLiteStatement stmt = SqlUtils.acquireStatement(mDb, SQL_INSERT);
+        SqlUtils.releaseStatement(mDb, SQL_INSERT, stmt);
+
+        SQLiteStatement reused = SqlUtils.acquireStatement(mDb, SQL_INSERT);
+        SQLiteStatement other = null;
+        try {
+            assertSame(stmt, reused);
+            // the cached statement is in use, so acquiring again compiles a new one
+            other = SqlUtils.acquireStatement(mDb, SQL_INSERT);
+            assertNotSame(stmt, other);
+        } finally {
+            SqlUtils.releaseStatement(mDb, SQL_INSERT, reused);
+            SqlUtils.releaseStatement(mDb, SQL_INSERT, other);
+        }
+    }
+
+    public void testBatchInsertsAllRows() {
+        assertEquals(1234, SqlUtils.executeBatch(mDb, SQL_INSERT, makeIds(1234), BINDER, 100));
+        assertEquals(1234, SqlUtils.getRowCount(mDb, "tbl_test"));
+    }
+
+    public void testBatchJoinsCallersTransaction() {
+        mDb.beginTransaction();
+        try {
+            SqlUtils.executeBatch(mDb, SQL_INSERT, makeIds(250), BINDER, 100);
+            // no setTransactionSuccessful() so everything should be rolled back
+        } finally {
+            mDb.endTransaction();
+        }
+        assertEquals(0, SqlUtils.getRowCount(mDb, "tbl_test"));
+    }
+
+    public void testTimingListener() {
+        final int[] numTimed = {0};
+        SqlUtils.setQueryTimingListener(new SqlUtils.QueryTimingListener() {
+            @Override
+            public void onQueryTimed(String sql, long elapsedNanos, int numRows) {
+                numTimed[0]++;
+            }
+        });
+        try {
+            SqlUtils.executeBatch(mDb, SQL_INSERT, makeIds(10), BINDER);
+            SqlUtils.intForQuery(mDb, "SELECT count(*) FROM tbl_test", null);
+        } finally {
+            SqlUtils.setQueryTimingListener(null);
+        }
+        assertEquals(2, numTimed[0]);
+    }
+
+    /*
+     * compares the previous approach (compiling a statement for each write of a page of rows)
+     * with executeBatch()
+     */
+    public void testFtsMatchExpression() {
+        assertEquals("", SqlUtils.getFtsMatchExpression(null, 8));
+        assertEquals("", SqlUtils.getFtsMatchExpression("  \"-* ", 8));
+        assertEquals("android* sqlite*", SqlUtils.getFtsMatchExpression("Android, \"SQLite\"", 8));
+        assertEquals("one* two*", SqlUtils.getFtsMatchExpression("one two three", 2));
+    }
+
+    public void testBulkInsertBenchmark() {
+        for (int numRows: new int[]{1000, 10000}) {
+            List<Long> ids = makeIds(numRows);
+            int pageSize = 20;
+
+            SqlUtils.deleteAllRowsInTable(mDb, "tbl_test");
+            long start = System.nanoTime();
+            for (int page = 0; page < numRows; page += pageSize) {
+                mDb.beginTransaction();
+                SQLiteStatement stmt = mDb.compileStatement(SQL_INSERT);
+                try {
+                    for (Long id: ids.subList(page, Math.min(page + pageSize, numRows))) {
+                        BINDER.bind(stmt, id);
+                        stmt.execute();
+                    }
+                    mDb.setTransactionSuccessful();
+                } finally {
+                    mDb.endTransaction();
+                    SqlUtils.closeStatement(stmt);
+                }
+            }
+            long beforeMs = (System.nanoTime() - start) / 1000000;
+
+            SqlUtils.deleteAllRowsInTable(mDb, "tbl_test");
+            start = System.nanoTime();
+            SqlUtils.executeBatch(mDb, SQL_INSERT, ids, BINDER);
+            long afterMs = (System.nanoTime() - start) / 1000000;
+
+            AppLog.i(AppLog.T.TESTS, String.format(Locale.US,
+                    "bulk insert benchmark > %d rows, before %d ms, after %d ms", numRows, beforeMs, afterMs));
+            assertEquals(numRows, SqlUtils.getRowCount(mDb, "tbl_test"));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.wordpress.android.util;
+
+import android.test.InstrumentationTestCase;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class TraceUtilsTest extends InstrumentationTestCase {
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        TraceUtils.clear();
+    }
+
+    public void testSpansNestPerThread() {
+        TraceUtils.Span parent = TraceUtils.beginSpan("parent");
+        TraceUtils.Span child = TraceUtils.beginSpan("child");
+        child.end();
+        parent.end();
+
+        List<TraceUtils.Span> traces = TraceUtils.getRecentTraces();
+        assertEquals(1, traces.size());
+        assertSame(parent, traces.get(0));
+        assertEquals(1, parent.getChildren().size());
+        assertSame(child, parent.getChildren().get(0));
+    }
+
+    public void testConcurrentThreadsHaveSeparateTraces() throws InterruptedException {
+        final int numThreads = 4;
+        final CountDownLatch latch = new CountDownLatch(numThreads);
+        for (int i = 0; i < numThreads; i++) {
+            new Thread() {
+                @Override
+                public void run() {
+                    TraceUtils.Span span = TraceUtils.beginSpan("thread");
+                    TraceUtils.beginSpan("work").end();
+                    span.end();
+                    latch.countDown();
+                }
+            }.start();
+        }
+        latch.await();
+
+        List<TraceUtils.Span> traces = TraceUtils.getRecentTraces();
+        assertEquals(numThreads, traces.size());
+        for (TraceUtils.Span trace : traces) {
+            assertEquals(1, trace.getChildren().size());
+        }
+    }
+
+    public void testRecentTracesAreBounded() {
+        TraceUtils.setMaxTraces(10);
+        try {
+            for (int i = 0; i < 25; i++) {
+                TraceUtils.beginSpan("span").end();
+            }
+            assertEquals(10, TraceUtils.getRecentTraces().size());
+        } finally {
+            TraceUtils.setMaxTraces(TraceUtils.DEFAULT_MAX_TRACES);
+        }
+    }
+
+    public void testSummary() {
+        for (int i = 0; i < 100; i++) {
+            TraceUtils.beginAsyncSpan("async").end();
+        }
+        TraceUtils.Summary summary = TraceUtils.getSummary("async");
+        assertNotNull(summary);
+        assertEquals(100, summary.count);
+        assertTrue(summary.p50Ms <= summary.p90Ms);
+        assertTrue(summary.p90Ms <= summary.p99Ms);
+        assertTrue(summary.p99Ms <= summary.maxMs);
+    }
+
+    public void testChromeTrace() throws JSONException {
+        TraceUtils.Span parent = TraceUtils.beginSpan("parent");
+        TraceUtils.beginSpan("child").end();
+        parent.end();
+
+        JSONArray events = TraceUtils.toChromeTrace().getJSONArray("traceEvents");
+        assertEquals(2, events.length());
+        assertEquals("parent", events.getJSONObject(0).getString("name"));
+        assertEquals("X", events.getJSONObject(0).getString("ph"));
+    }
+}
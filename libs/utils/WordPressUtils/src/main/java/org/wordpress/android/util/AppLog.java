@@ -12,10 +12,13 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.NoSuchElementException;
+import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static java.lang.String.format;
 
@@ -29,8 +32,9 @@ public class AppLog {
 
     public static final String TAG = "WordPress";
     public static final int HEADER_LINE_COUNT = 2;
-    private static boolean mEnableRecording = false;
-    private static List<AppLogListener> mListeners = new ArrayList<>(0);
+    private static volatile boolean mEnableRecording = false;
+    private static volatile LogLevel mMinRecordingLevel = LogLevel.v;
+    private static final List<AppLogListener> mListeners = new CopyOnWriteArrayList<>();
 
     private AppLog() {
         throw new AssertionError();
@@ -126,8 +130,10 @@ public class AppLog {
     public static void e(T tag, String message, Throwable tr) {
         message = StringUtils.notNullStr(message);
         Log.e(TAG + "-" + tag.toString(), message, tr);
-        addEntry(tag, LogLevel.e, message + " - exception: " + tr.getMessage());
-        addEntry(tag, LogLevel.e, "StackTrace: " + getStringStackTrace(tr));
+        if (isRecordable(LogLevel.e)) {
+            addEntry(tag, LogLevel.e, message + " - exception: " + tr.getMessage());
+            addEntry(tag, LogLevel.e, "StackTrace: " + getStringStackTrace(tr));
+        }
     }
 
     /**
@@ -137,8 +143,10 @@ public class AppLog {
      */
     public static void e(T tag, Throwable tr) {
         Log.e(TAG + "-" + tag.toString(), tr.getMessage(), tr);
-        addEntry(tag, LogLevel.e, tr.getMessage());
-        addEntry(tag, LogLevel.e, "StackTrace: " + getStringStackTrace(tr));
+        if (isRecordable(LogLevel.e)) {
+            addEntry(tag, LogLevel.e, tr.getMessage());
+            addEntry(tag, LogLevel.e, "StackTrace: " + getStringStackTrace(tr));
+        }
     }
 
     /**
@@ -163,7 +171,8 @@ public class AppLog {
 
     // --------------------------------------------------------------------------------------------------------
 
-    private static final int MAX_ENTRIES = 99;
+    public static final int DEFAULT_MAX_ENTRIES = 99;
+    private static final String LOG_DATE_FORMAT = "MMM-dd kk:mm";
 
     public enum LogLevel {
         v, d, i, w, e;
@@ -184,15 +193,17 @@ public class AppLog {
         }
     }
 
-    private static class LogEntry {
+    static class LogEntry {
+        final long mSequence;
         final LogLevel mLogLevel;
         final String mLogText;
-        final java.util.Date mDate;
+        final long mTimestamp;
         final T mLogTag;
 
-        public LogEntry(LogLevel logLevel, String logText, T logTag) {
+        public LogEntry(long sequence, LogLevel logLevel, String logText, T logTag, long timestamp) {
+            mSequence = sequence;
             mLogLevel = logLevel;
-            mDate = DateTimeUtils.nowUTC();
+            mTimestamp = timestamp;
             if (logText == null) {
                 mLogText = "null";
             } else {
@@ -201,17 +212,17 @@ public class AppLog {
             mLogTag = logTag;
         }
 
-        private String formatLogDate() {
-            return new SimpleDateFormat("MMM-dd kk:mm", Locale.US).format(mDate);
+        private String formatLogDate(SimpleDateFormat dateFormat) {
+            return dateFormat.format(new Date(mTimestamp));
         }
 
-        private String toHtml() {
+        private String toHtml(SimpleDateFormat dateFormat) {
             StringBuilder sb = new StringBuilder();
             sb.append("<font color=\"");
             sb.append(mLogLevel.toHtmlColor());
             sb.append("\">");
             sb.append("[");
-            sb.append(formatLogDate()).append(" ");
+            sb.append(formatLogDate(dateFormat)).append(" ");
             sb.append(mLogTag.name()).append(" ");
             sb.append(mLogLevel.name());
             sb.append("] ");
@@ -221,38 +232,137 @@ public class AppLog {
         }
     }
 
-    private static class LogEntryList extends ArrayList<LogEntry> {
-        private synchronized boolean addEntry(LogEntry entry) {
-            if (size() >= MAX_ENTRIES)
-                removeFirstEntry();
-            return add(entry);
+    /*
+     * fixed-capacity ring buffer of log entries which can be written to by any number of threads
+     * without locking - each writer claims the next sequence number and stores its entry in the
+     * slot for that sequence, overwriting the oldest entry once the buffer is full. readers take
+     * a snapshot by walking the most recent sequences and skipping slots which have since been
+     * overwritten (or not yet written), so they never block writers
+     */
+    static class LogEntryRing {
+        private final AtomicReferenceArray<LogEntry> mSlots;
+        private final AtomicLong mNextSequence = new AtomicLong();
+        private final int mCapacity;
+
+        LogEntryRing(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be greater than zero");
+            }
+            mCapacity = capacity;
+            mSlots = new AtomicReferenceArray<>(capacity);
+        }
+
+        int getCapacity() {
+            return mCapacity;
+        }
+
+        void add(LogLevel level, String text, T tag) {
+            add(level, text, tag, System.currentTimeMillis());
+        }
+
+        void add(LogLevel level, String text, T tag, long timestamp) {
+            long sequence = mNextSequence.getAndIncrement();
+            int slot = (int) (sequence % mCapacity);
+            LogEntry entry = new LogEntry(sequence, level, text, tag, timestamp);
+            // a writer which was preempted after getting its sequence may get here after a newer
+            // entry has already been written to the same slot, in which case its entry is dropped
+            // rather than overwriting the newer one
+            while (true) {
+                LogEntry current = mSlots.get(slot);
+                if (current != null && current.mSequence > sequence) {
+                    return;
+                }
+                if (mSlots.compareAndSet(slot, current, entry)) {
+                    return;
+                }
+            }
         }
-        private void removeFirstEntry() {
-            Iterator<LogEntry> it = iterator();
-            if (!it.hasNext())
-                return;
-            try {
-                remove(it.next());
-            } catch (NoSuchElementException e) {
-                // ignore
+
+        /*
+         * returns the entries currently in the buffer, oldest first
+         */
+        List<LogEntry> snapshot() {
+            long end = mNextSequence.get();
+            long start = Math.max(0, end - mCapacity);
+            List<LogEntry> entries = new ArrayList<>((int) (end - start));
+            for (long sequence = start; sequence < end; sequence++) {
+                LogEntry entry = mSlots.get((int) (sequence % mCapacity));
+                if (entry != null && entry.mSequence == sequence) {
+                    entries.add(entry);
+                }
+            }
+            return entries;
+        }
+
+        void clear() {
+            for (int i = 0; i < mCapacity; i++) {
+                mSlots.set(i, null);
             }
         }
     }
 
-    private static LogEntryList mLogEntries = new LogEntryList();
+    private static volatile LogEntryRing mLogEntries = new LogEntryRing(DEFAULT_MAX_ENTRIES);
+
+    /**
+     * Sets the number of entries kept when recording is enabled - the most recent entries are
+     * retained when the capacity changes
+     * @param maxEntries The maximum number of entries to keep, must be greater than zero
+     */
+    public static void setRecordingCapacity(int maxEntries) {
+        LogEntryRing oldEntries = mLogEntries;
+        if (oldEntries.getCapacity() == maxEntries) {
+            return;
+        }
+        LogEntryRing newEntries = new LogEntryRing(maxEntries);
+        List<LogEntry> entries = oldEntries.snapshot();
+        for (int i = Math.max(0, entries.size() - maxEntries); i < entries.size(); i++) {
+            LogEntry entry = entries.get(i);
+            newEntries.add(entry.mLogLevel, entry.mLogText, entry.mLogTag, entry.mTimestamp);
+        }
+        mLogEntries = newEntries;
+    }
+
+    /**
+     * Only messages at or above the passed level are recorded and passed to listeners, which
+     * avoids creating entries for verbose logging that nobody will see. Default is LogLevel.v
+     * @param level The minimum level to record
+     */
+    public static void setRecordingLevel(@NonNull LogLevel level) {
+        mMinRecordingLevel = level;
+    }
+
+    public static void clearRecording() {
+        mLogEntries.clear();
+    }
+
+    private static boolean isRecordable(LogLevel level) {
+        return level.ordinal() >= mMinRecordingLevel.ordinal()
+                && (mEnableRecording || !mListeners.isEmpty());
+    }
 
     private static void addEntry(T tag, LogLevel level, String text) {
+        if (level.ordinal() < mMinRecordingLevel.ordinal()) {
+            return;
+        }
         // Call our listeners if any
         for (AppLogListener listener : mListeners) {
             listener.onLog(tag, level, text);
         }
         // Record entry if enabled
         if (mEnableRecording) {
-            LogEntry entry = new LogEntry(level, text, tag);
-            mLogEntries.addEntry(entry);
+            mLogEntries.add(level, text, tag);
         }
     }
 
+    /*
+     * entry times are displayed in UTC
+     */
+    private static SimpleDateFormat newLogDateFormat() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat(LOG_DATE_FORMAT, Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return dateFormat;
+    }
+
     private static String getStringStackTrace(Throwable throwable) {
         StringWriter errors = new StringWriter();
         throwable.printStackTrace(new PrintWriter(errors));
@@ -293,9 +403,11 @@ public class AppLog {
         items.add("<strong>" + getAppInfoHeaderText(context) + "</strong>");
         items.add("<strong>" + getDeviceInfoHeaderText(context) + "</strong>");
 
-        Iterator<LogEntry> it = mLogEntries.iterator();
-        while (it.hasNext()) {
-            items.add(it.next().toHtml());
+        // html is only created here rather than when the entry is added, since most entries are
+        // never displayed
+        SimpleDateFormat dateFormat = newLogDateFormat();
+        for (LogEntry entry : mLogEntries.snapshot()) {
+            items.add(entry.toHtml(dateFormat));
         }
         return items;
     }
@@ -305,20 +417,19 @@ public class AppLog {
      * @param context
      * @return The log as plain text
      */
-    public synchronized static String toPlainText(Context context) {
+    public static String toPlainText(Context context) {
         StringBuilder sb = new StringBuilder();
 
         // add version & device info
         sb.append(getAppInfoHeaderText(context)).append("\n")
                 .append(getDeviceInfoHeaderText(context)).append("\n\n");
 
-        Iterator<LogEntry> it = mLogEntries.iterator();
+        SimpleDateFormat dateFormat = newLogDateFormat();
         int lineNum = 1;
-        while (it.hasNext()) {
-            LogEntry entry = it.next();
+        for (LogEntry entry : mLogEntries.snapshot()) {
             sb.append(format(Locale.US, "%02d - ", lineNum))
                 .append("[")
-                .append(entry.formatLogDate()).append(" ")
+                .append(entry.formatLogDate(dateFormat)).append(" ")
                 .append(entry.mLogTag.name())
                 .append("] ")
                 .append(entry.mLogText)
@@ -635,6 +635,74 @@ public class ImageUtils {
         return getScaledBitmapAtLongestSide(bitmap, maxWidth);
     }
 
+    /**
+     * Decodes a thumbnail of a local image which is maxWidth wide with the passed orientation
+     * applied. Unlike createThumbnailFromUri the image is decoded only once (subsampled to close
+     * to the requested size) and the result isn't re-encoded, so it's much cheaper when the caller
+     * wants a bitmap rather than bytes.
+     *
+     * @return the thumbnail, or null if the image couldn't be decoded
+     */
+    public static Bitmap decodeThumbnailFromFile(String filePath, int maxWidth, int orientation) {
+        if (TextUtils.isEmpty(filePath) || maxWidth <= 0) {
+            return null;
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(filePath, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            AppLog.w(AppLog.T.UTILS, "Can't read the bounds of " + filePath);
+            return null;
+        }
+
+        // the width that ends up horizontal once the orientation has been applied
+        boolean isRotatedSideways = orientation == 90 || orientation == 270;
+        int displayedWidth = isRotatedSideways ? options.outHeight : options.outWidth;
+
+        // largest power of two which keeps the decoded image at least maxWidth wide
+        int sampleSize = 1;
+        while (displayedWidth / (sampleSize * 2) >= maxWidth) {
+            sampleSize *= 2;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        Bitmap decoded;
+        try {
+            decoded = BitmapFactory.decodeFile(filePath, options);
+        } catch (OutOfMemoryError e) {
+            AppLog.e(AppLog.T.UTILS, "OutOfMemoryError while decoding " + filePath, e);
+            return null;
+        }
+        if (decoded == null) {
+            AppLog.w(AppLog.T.UTILS, "Can't decode " + filePath);
+            return null;
+        }
+
+        int decodedWidth = isRotatedSideways ? decoded.getHeight() : decoded.getWidth();
+        float scale = (float) maxWidth / decodedWidth;
+        if (scale == 1f && orientation == 0) {
+            return decoded;
+        }
+
+        Matrix matrix = new Matrix();
+        matrix.postScale(scale, scale);
+        if (orientation != 0) {
+            matrix.postRotate(orientation);
+        }
+        try {
+            Bitmap thumbnail = Bitmap.createBitmap(decoded, 0, 0, decoded.getWidth(), decoded.getHeight(), matrix, true);
+            if (thumbnail != decoded) {
+                decoded.recycle();
+            }
+            return thumbnail;
+        } catch (OutOfMemoryError e) {
+            AppLog.e(AppLog.T.UTILS, "OutOfMemoryError while scaling " + filePath, e);
+            return null;
+        }
+    }
+
     /**
      * nbradbury - 21-Feb-2014 - similar to createThumbnail but more efficient since it doesn't
      * require passing the full-size image as an array of bytes[]
@@ -1,7 +1,11 @@
 package org.wordpress.android.util;
 
+import android.net.Uri;
 import android.text.TextUtils;
 
+import java.util.Arrays;
+import java.util.Locale;
+
 /**
  * routines related to the Photon API
  * http://developer.wordpress.com/docs/photon/
@@ -19,6 +23,53 @@ public class PhotonUtils {
         return (imageUrl != null && imageUrl.contains("/mshots/"));
     }
 
+    /*
+     * returns true if the passed url is served by one of photon's hosts (i0.wp.com, i1.wp.com, i2.wp.com)
+     */
+    public static boolean isPhotonUrl(final String imageUrl) {
+        if (TextUtils.isEmpty(imageUrl)) {
+            return false;
+        }
+        String host = Uri.parse(imageUrl).getHost();
+        return host != null && host.toLowerCase(Locale.ROOT).matches("i[0-2]\\.wp\\.com");
+    }
+
+    /*
+     * returns a normalized version of the passed image url for use as a cache key - the scheme
+     * and fragment are dropped, photon's hosts are mapped to i0.wp.com since they all serve the
+     * same images, and query params are sorted so the same resize request always has the same key
+     */
+    public static String getNormalizedPhotonUrl(final String imageUrl) {
+        if (TextUtils.isEmpty(imageUrl)) {
+            return "";
+        }
+
+        Uri uri = Uri.parse(imageUrl);
+        String host = uri.getHost();
+        if (host == null) {
+            return imageUrl;
+        }
+
+        host = host.toLowerCase(Locale.ROOT);
+        if (isPhotonUrl(imageUrl)) {
+            host = "i0.wp.com";
+        }
+
+        StringBuilder sb = new StringBuilder(host);
+        if (uri.getEncodedPath() != null) {
+            sb.append(uri.getEncodedPath());
+        }
+
+        String query = uri.getEncodedQuery();
+        if (!TextUtils.isEmpty(query)) {
+            String[] params = query.split("&");
+            Arrays.sort(params);
+            sb.append('?').append(TextUtils.join("&", params));
+        }
+
+        return sb.toString();
+    }
+
     /*
      * returns a photon url for the passed image with the resize query set to the passed
      * dimensions - note that the passed quality parameter will only affect JPEGs
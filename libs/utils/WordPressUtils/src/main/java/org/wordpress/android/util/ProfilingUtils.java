@@ -1,20 +1,16 @@
 package org.wordpress.android.util;
 
-import android.os.SystemClock;
-
-import org.wordpress.android.util.AppLog.T;
-
-import java.util.ArrayList;
-
 /**
- * forked from android.util.TimingLogger to use AppLog instead of Log + new static interface.
+ * times a sequence of steps (splits) which may happen on different threads, such as app startup.
+ * originally forked from android.util.TimingLogger, this now records each split as a span using
+ * TraceUtils so they're included in its traces and percentiles - prefer using TraceUtils directly
+ * for new code, since this only supports timing one sequence at a time.
  */
 public class ProfilingUtils {
-    private static ProfilingUtils sInstance;
+    private static final ProfilingUtils sInstance = new ProfilingUtils();
 
-    private String mLabel;
-    private ArrayList<Long> mSplits;
-    private ArrayList<String> mSplitLabels;
+    private TraceUtils.Span mSpan;
+    private long mLastSplitNanos;
 
     public static void start(String label) {
         getInstance().reset(label);
@@ -33,55 +29,28 @@ public class ProfilingUtils {
     }
 
     private static ProfilingUtils getInstance() {
-        if (sInstance == null) {
-            sInstance = new ProfilingUtils();
-        }
         return sInstance;
     }
 
-    public ProfilingUtils() {
-        reset("init");
-    }
-
-    public void reset(String label) {
-        mLabel = label;
-        reset();
+    public synchronized void reset(String label) {
+        mSpan = label != null ? TraceUtils.beginAsyncSpan(label) : null;
+        mLastSplitNanos = System.nanoTime();
     }
 
-    public void reset() {
-        if (mSplits == null) {
-            mSplits = new ArrayList<Long>();
-            mSplitLabels = new ArrayList<String>();
-        } else {
-            mSplits.clear();
-            mSplitLabels.clear();
-        }
-        addSplit(null);
-    }
-
-    public void addSplit(String splitLabel) {
-        if (mLabel == null) {
+    public synchronized void addSplit(String splitLabel) {
+        if (mSpan == null) {
             return;
         }
-        long now = SystemClock.elapsedRealtime();
-        mSplits.add(now);
-        mSplitLabels.add(splitLabel);
+        long now = System.nanoTime();
+        TraceUtils.addCompletedSpan(splitLabel != null ? splitLabel : "split", mSpan, mLastSplitNanos, now);
+        mLastSplitNanos = now;
     }
 
-    public void dumpToLog() {
-        if (mLabel == null) {
+    public synchronized void dumpToLog() {
+        if (mSpan == null) {
             return;
         }
-        AppLog.d(T.PROFILING, mLabel + ": begin");
-        final long first = mSplits.get(0);
-        long now = first;
-        for (int i = 1; i < mSplits.size(); i++) {
-            now = mSplits.get(i);
-            final String splitLabel = mSplitLabels.get(i);
-            final long prev = mSplits.get(i - 1);
-            AppLog.d(T.PROFILING, mLabel + ":      " + (now - prev) + " ms, " + splitLabel);
-        }
-        AppLog.d(T.PROFILING, mLabel + ": end, " + (now - first) + " ms");
+        mSpan.end();
+        TraceUtils.dumpTrace(mSpan);
     }
 }
-
@@ -6,17 +6,56 @@ import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteDoneException;
 import android.database.sqlite.SQLiteException;
 import android.database.sqlite.SQLiteStatement;
+import android.text.TextUtils;
 
 import org.wordpress.android.util.AppLog.T;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class SqlUtils {
     private SqlUtils() {
         throw new AssertionError();
     }
 
+    /*
+     * binds a single item to a compiled statement - used by executeBatch()
+     */
+    public interface StatementBinder<T> {
+        void bind(SQLiteStatement stmt, T item);
+    }
+
+    /*
+     * optional hook which is notified with the elapsed time of each timed query or batch
+     */
+    public interface QueryTimingListener {
+        void onQueryTimed(String sql, long elapsedNanos, int numRows);
+    }
+
+    private static volatile QueryTimingListener sTimingListener;
+
+    public static void setQueryTimingListener(QueryTimingListener listener) {
+        sTimingListener = listener;
+    }
+
+    private static long timingStart() {
+        return sTimingListener != null ? System.nanoTime() : 0;
+    }
+
+    private static void timingEnd(String sql, long startNanos, int numRows) {
+        QueryTimingListener listener = sTimingListener;
+        if (listener != null && startNanos != 0) {
+            listener.onQueryTimed(sql, System.nanoTime() - startNanos, numRows);
+        }
+    }
+
     /*
      * SQLite doesn't have a boolean datatype, so booleans are stored as 0=false, 1=true
      */
@@ -43,10 +82,13 @@ public class SqlUtils {
      * wrapper for DatabaseUtils.longForQuery() which returns 0 if query returns no rows
      */
     public static long longForQuery(SQLiteDatabase db, String query, String[] selectionArgs) {
+        long start = timingStart();
         try {
             return DatabaseUtils.longForQuery(db, query, selectionArgs);
         } catch (SQLiteDoneException e) {
             return 0;
+        } finally {
+            timingEnd(query, start, 1);
         }
     }
 
@@ -64,13 +106,167 @@ public class SqlUtils {
      * wrapper for DatabaseUtils.stringForQuery(), returns "" if query returns no rows
      */
     public static String stringForQuery(SQLiteDatabase db, String query, String[] selectionArgs) {
+        long start = timingStart();
         try {
             return DatabaseUtils.stringForQuery(db, query, selectionArgs);
         } catch (SQLiteDoneException e) {
             return "";
+        } finally {
+            timingEnd(query, start, 1);
         }
     }
 
+    /*
+     * compiled statement cache - statements are pooled per database and per sql string, and
+     * a statement is only ever used by the thread which acquired it, so callers must always
+     * return it via releaseStatement() when done. this avoids recompiling the same statement
+     * every time a table is updated.
+     *
+     * the cache holds its databases strongly (cached statements reference their database, so a
+     * weak key would never be cleared) - whoever owns a database must call clearStatementCache()
+     * before closing it. databases which were closed without it are dropped the next time a
+     * database is added to the cache.
+     */
+    private static final int MAX_POOLED_STATEMENTS_PER_SQL = 4;
+    private static final Map<SQLiteDatabase, Map<String, ArrayDeque<SQLiteStatement>>> sStatementCache =
+            new IdentityHashMap<>();
+
+    public static SQLiteStatement acquireStatement(SQLiteDatabase db, String sql) {
+        synchronized (sStatementCache) {
+            Map<String, ArrayDeque<SQLiteStatement>> dbCache = sStatementCache.get(db);
+            if (dbCache != null) {
+                ArrayDeque<SQLiteStatement> pool = dbCache.get(sql);
+                if (pool != null && !pool.isEmpty()) {
+                    return pool.pop();
+                }
+            }
+        }
+        return db.compileStatement(sql);
+    }
+
+    public static void releaseStatement(SQLiteDatabase db, String sql, SQLiteStatement stmt) {
+        if (stmt == null) {
+            return;
+        }
+        stmt.clearBindings();
+        synchronized (sStatementCache) {
+            if (db.isOpen()) {
+                Map<String, ArrayDeque<SQLiteStatement>> dbCache = sStatementCache.get(db);
+                if (dbCache == null) {
+                    removeClosedDatabasesLocked();
+                    dbCache = new HashMap<>();
+                    sStatementCache.put(db, dbCache);
+                }
+                ArrayDeque<SQLiteStatement> pool = dbCache.get(sql);
+                if (pool == null) {
+                    pool = new ArrayDeque<>();
+                    dbCache.put(sql, pool);
+                }
+                if (pool.size() < MAX_POOLED_STATEMENTS_PER_SQL) {
+                    pool.push(stmt);
+                    return;
+                }
+            }
+        }
+        stmt.close();
+    }
+
+    /*
+     * closes and removes all cached statements for the passed database - must be called before
+     * the database is closed, and whenever tables are dropped or altered since cached statements
+     * may refer to them
+     */
+    public static void clearStatementCache(SQLiteDatabase db) {
+        Map<String, ArrayDeque<SQLiteStatement>> dbCache;
+        synchronized (sStatementCache) {
+            dbCache = sStatementCache.remove(db);
+        }
+        closeStatements(dbCache);
+    }
+
+    private static void removeClosedDatabasesLocked() {
+        Iterator<Map.Entry<SQLiteDatabase, Map<String, ArrayDeque<SQLiteStatement>>>> iterator =
+                sStatementCache.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<SQLiteDatabase, Map<String, ArrayDeque<SQLiteStatement>>> entry = iterator.next();
+            if (!entry.getKey().isOpen()) {
+                iterator.remove();
+                closeStatements(entry.getValue());
+            }
+        }
+    }
+
+    private static void closeStatements(Map<String, ArrayDeque<SQLiteStatement>> dbCache) {
+        if (dbCache != null) {
+            for (ArrayDeque<SQLiteStatement> pool: dbCache.values()) {
+                for (SQLiteStatement stmt: pool) {
+                    stmt.close();
+                }
+            }
+        }
+    }
+
+    /*
+     * executes the passed sql (typically an INSERT or INSERT OR REPLACE) once for each item,
+     * using a cached compiled statement. if the caller isn't already in a transaction the
+     * items are written in chunked transactions so the database lock is periodically released
+     * during large writes, otherwise they're written as part of the caller's transaction.
+     * since each chunk is committed on its own, callers which need the whole batch written
+     * atomically must wrap it in their own transaction. returns the number of items written.
+     */
+    public static final int DEFAULT_BATCH_CHUNK_SIZE = 500;
+
+    public static <T> int executeBatch(SQLiteDatabase db,
+                                       String sql,
+                                       Collection<T> items,
+                                       StatementBinder<T> binder) {
+        return executeBatch(db, sql, items, binder, DEFAULT_BATCH_CHUNK_SIZE);
+    }
+
+    public static <T> int executeBatch(SQLiteDatabase db,
+                                       String sql,
+                                       Collection<T> items,
+                                       StatementBinder<T> binder,
+                                       int chunkSize) {
+        if (items == null || items.size() == 0) {
+            return 0;
+        }
+
+        long start = timingStart();
+        boolean useChunks = !db.inTransaction() && chunkSize > 0;
+        int numWritten = 0;
+        SQLiteStatement stmt = acquireStatement(db, sql);
+        try {
+            if (useChunks) {
+                db.beginTransaction();
+            }
+            try {
+                for (T item: items) {
+                    binder.bind(stmt, item);
+                    stmt.execute();
+                    numWritten++;
+                    if (useChunks && numWritten % chunkSize == 0 && numWritten < items.size()) {
+                        db.setTransactionSuccessful();
+                        db.endTransaction();
+                        db.beginTransaction();
+                    }
+                }
+                if (useChunks) {
+                    db.setTransactionSuccessful();
+                }
+            } finally {
+                if (useChunks) {
+                    db.endTransaction();
+                }
+            }
+        } finally {
+            releaseStatement(db, sql, stmt);
+            timingEnd(sql, start, numWritten);
+        }
+
+        return numWritten;
+    }
+
     /*
      * returns the number of rows in the passed table
      */
@@ -85,6 +281,33 @@ public class SqlUtils {
         db.delete(tableName, null, null);
     }
 
+    /*
+     * deletes at most maxRows rows from the passed table which match the passed where clause,
+     * optionally deleting them in the passed order - this enables large deletions to be split
+     * into small batches so the write lock isn't held for long. returns the number of rows
+     * deleted, so callers should repeat this until it returns less than maxRows
+     */
+    public static int deleteBatch(SQLiteDatabase db,
+                                  String tableName,
+                                  String where,
+                                  String[] whereArgs,
+                                  String orderBy,
+                                  int maxRows) {
+        String sql = "rowid IN (SELECT rowid FROM " + tableName;
+        if (where != null) {
+            sql += " WHERE " + where;
+        }
+        if (orderBy != null) {
+            sql += " ORDER BY " + orderBy;
+        }
+        sql += " LIMIT " + maxRows + ")";
+
+        long start = timingStart();
+        int numDeleted = db.delete(tableName, sql, whereArgs);
+        timingEnd(sql, start, numDeleted);
+        return numDeleted;
+    }
+
     /*
      * drop all tables from the passed SQLiteDatabase - make sure to pass a
      * writable database
@@ -122,6 +345,33 @@ public class SqlUtils {
         }
     }
 
+    /*
+     * converts a user-entered search query into an FTS MATCH expression in which each term is a
+     * prefix query, limited to maxTerms terms - returns an empty string if the query doesn't
+     * contain any searchable terms
+     */
+    public static String getFtsMatchExpression(String query, int maxTerms) {
+        if (TextUtils.isEmpty(query)) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        int numTerms = 0;
+        for (String term: query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (term.length() == 0) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(term).append('*');
+            if (++numTerms == maxTerms) {
+                break;
+            }
+        }
+        return sb.toString();
+    }
+
     /*
      * Android's CursorWindow has a max size of 2MB per row which can be exceeded
      * with a very large text column, causing an IllegalStateException when the
@@ -0,0 +1,418 @@
+package org.wordpress.android.util;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wordpress.android.util.AppLog.T;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * lightweight, thread-safe tracing. spans are named sections of work which nest per thread:
+ *
+ *     TraceUtils.Span span = TraceUtils.beginSpan("ReaderPostService.savePosts");
+ *     try {
+ *         ...
+ *     } finally {
+ *         span.end();
+ *     }
+ *
+ * a span started while another span is open on the same thread becomes its child. when a
+ * top-level span ends, it and its children are added to a ring of recent traces which can be
+ * dumped to the log or exported in Chrome's trace event format (open the file in chrome://tracing).
+ * durations are also aggregated per span name so percentiles can be reported.
+ *
+ * work which starts on one thread and finishes on another (ex: a network request) should use
+ * beginAsyncSpan(), which isn't tied to the current thread and can be ended from anywhere.
+ */
+public class TraceUtils {
+    public static final int DEFAULT_MAX_TRACES = 50;
+    private static final int MAX_SAMPLES_PER_NAME = 256;
+
+    private static volatile boolean sEnabled = true;
+
+    private static final ThreadLocal<ArrayDeque<Span>> sThreadSpans = new ThreadLocal<ArrayDeque<Span>>() {
+        @Override
+        protected ArrayDeque<Span> initialValue() {
+            return new ArrayDeque<>();
+        }
+    };
+
+    private static final ArrayDeque<Span> sRecentTraces = new ArrayDeque<>();
+    private static int sMaxTraces = DEFAULT_MAX_TRACES;
+
+    private static final ConcurrentHashMap<String, SpanStats> sStats = new ConcurrentHashMap<>();
+
+    private TraceUtils() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Tracing is enabled by default - when disabled, begin calls return a span which does nothing
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * Sets the number of completed top-level traces to keep in memory
+     */
+    public static void setMaxTraces(int maxTraces) {
+        synchronized (sRecentTraces) {
+            sMaxTraces = Math.max(1, maxTraces);
+            while (sRecentTraces.size() > sMaxTraces) {
+                sRecentTraces.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * Starts a span on the current thread, nested inside the thread's current span (if any). The
+     * returned span must be ended on the same thread.
+     */
+    public static @NonNull Span beginSpan(@NonNull String name) {
+        if (!sEnabled) {
+            return Span.NO_OP;
+        }
+        ArrayDeque<Span> stack = sThreadSpans.get();
+        // discard spans which were ended without being popped (ex: ended on the wrong thread)
+        while (!stack.isEmpty() && stack.peekLast().isEnded()) {
+            stack.removeLast();
+        }
+        Span span = new Span(name, stack.peekLast(), System.nanoTime(), true);
+        stack.addLast(span);
+        return span;
+    }
+
+    /**
+     * Starts a top-level span which isn't tied to the current thread, for work that completes
+     * asynchronously - it can be ended from any thread
+     */
+    public static @NonNull Span beginAsyncSpan(@NonNull String name) {
+        if (!sEnabled) {
+            return Span.NO_OP;
+        }
+        return new Span(name, null, System.nanoTime(), false);
+    }
+
+    /*
+     * records an already-completed span - used by ProfilingUtils to record its splits
+     */
+    static void addCompletedSpan(@NonNull String name, @Nullable Span parent, long startNanos, long endNanos) {
+        if (!sEnabled) {
+            return;
+        }
+        Span span = new Span(name, parent, startNanos, false);
+        span.endAt(endNanos);
+    }
+
+    public static final class Span {
+        static final Span NO_OP = new Span("", null, 0, false);
+
+        private final String mName;
+        private final Span mParent;
+        private final long mThreadId;
+        private final String mThreadName;
+        private final long mStartNanos;
+        private final boolean mOnThreadStack;
+        private final AtomicBoolean mEnded = new AtomicBoolean();
+        private volatile long mEndNanos;
+        private List<Span> mChildren;
+
+        private Span(String name, Span parent, long startNanos, boolean onThreadStack) {
+            Thread thread = Thread.currentThread();
+            mName = name;
+            mParent = parent;
+            mThreadId = thread.getId();
+            mThreadName = thread.getName();
+            mStartNanos = startNanos;
+            mOnThreadStack = onThreadStack;
+        }
+
+        public String getName() {
+            return mName;
+        }
+
+        public boolean isEnded() {
+            return mEnded.get();
+        }
+
+        /*
+         * returns the duration in milliseconds, or the time so far if the span hasn't ended
+         */
+        public double getDurationMs() {
+            long end = mEndNanos;
+            if (end == 0) {
+                end = System.nanoTime();
+            }
+            return (end - mStartNanos) / 1000000d;
+        }
+
+        public List<Span> getChildren() {
+            synchronized (this) {
+                return mChildren != null ? new ArrayList<>(mChildren) : Collections.<Span>emptyList();
+            }
+        }
+
+        public void end() {
+            endAt(System.nanoTime());
+        }
+
+        private void endAt(long endNanos) {
+            if (this == NO_OP || !mEnded.compareAndSet(false, true)) {
+                return;
+            }
+            mEndNanos = endNanos;
+
+            if (mOnThreadStack && mThreadId == Thread.currentThread().getId()) {
+                ArrayDeque<Span> stack = sThreadSpans.get();
+                // children which weren't explicitly ended are removed along with this span
+                while (!stack.isEmpty()) {
+                    if (stack.removeLast() == this) {
+                        break;
+                    }
+                }
+            }
+
+            getStats(mName).add(getDurationMs());
+
+            if (mParent != null) {
+                mParent.addChild(this);
+            } else {
+                addTrace(this);
+            }
+        }
+
+        private synchronized void addChild(Span child) {
+            if (mChildren == null) {
+                mChildren = new ArrayList<>();
+            }
+            mChildren.add(child);
+        }
+    }
+
+    private static void addTrace(Span span) {
+        synchronized (sRecentTraces) {
+            if (sRecentTraces.size() >= sMaxTraces) {
+                sRecentTraces.removeFirst();
+            }
+            sRecentTraces.addLast(span);
+        }
+    }
+
+    /**
+     * Returns the most recent completed top-level traces, oldest first
+     */
+    public static List<Span> getRecentTraces() {
+        synchronized (sRecentTraces) {
+            return new ArrayList<>(sRecentTraces);
+        }
+    }
+
+    public static void clear() {
+        synchronized (sRecentTraces) {
+            sRecentTraces.clear();
+        }
+        sStats.clear();
+    }
+
+    // --------------------------------------------------------------------------------------------------------
+
+    /*
+     * keeps the most recent durations for a single span name in a fixed-size ring, from which
+     * percentiles are calculated on demand
+     */
+    private static class SpanStats {
+        private final double[] mSamples = new double[MAX_SAMPLES_PER_NAME];
+        private long mCount;
+        private double mMax;
+
+        synchronized void add(double durationMs) {
+            mSamples[(int) (mCount % MAX_SAMPLES_PER_NAME)] = durationMs;
+            mCount++;
+            mMax = Math.max(mMax, durationMs);
+        }
+
+        synchronized Summary getSummary(String name) {
+            int numSamples = (int) Math.min(mCount, MAX_SAMPLES_PER_NAME);
+            double[] sorted = Arrays.copyOf(mSamples, numSamples);
+            Arrays.sort(sorted);
+            return new Summary(name, mCount, percentile(sorted, 50), percentile(sorted, 90),
+                    percentile(sorted, 99), mMax);
+        }
+
+        private static double percentile(double[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100d * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+
+    private static SpanStats getStats(String name) {
+        SpanStats stats = sStats.get(name);
+        if (stats == null) {
+            stats = new SpanStats();
+            SpanStats existing = sStats.putIfAbsent(name, stats);
+            if (existing != null) {
+                stats = existing;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Aggregated durations for a span name - percentiles are based on the most recent samples
+     */
+    public static class Summary {
+        public final String name;
+        public final long count;
+        public final double p50Ms;
+        public final double p90Ms;
+        public final double p99Ms;
+        public final double maxMs;
+
+        Summary(String name, long count, double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+            this.name = name;
+            this.count = count;
+            this.p50Ms = p50Ms;
+            this.p90Ms = p90Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s: count %d, p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    name, count, p50Ms, p90Ms, p99Ms, maxMs);
+        }
+    }
+
+    public static @Nullable Summary getSummary(@NonNull String name) {
+        SpanStats stats = sStats.get(name);
+        return stats != null ? stats.getSummary(name) : null;
+    }
+
+    /**
+     * Returns the summaries of all span names, sorted by name
+     */
+    public static List<Summary> getSummaries() {
+        Map<String, SpanStats> sorted = new TreeMap<>(sStats);
+        List<Summary> summaries = new ArrayList<>(sorted.size());
+        for (Map.Entry<String, SpanStats> entry : sorted.entrySet()) {
+            summaries.add(entry.getValue().getSummary(entry.getKey()));
+        }
+        return summaries;
+    }
+
+    // --------------------------------------------------------------------------------------------------------
+
+    /**
+     * Logs the passed trace with its children indented below it
+     */
+    public static void dumpTrace(@NonNull Span trace) {
+        dumpSpan(trace, 0);
+    }
+
+    private static void dumpSpan(Span span, int depth) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append("    ");
+        }
+        sb.append(span.getName()).append(String.format(Locale.US, ": %.1f ms", span.getDurationMs()));
+        AppLog.d(T.PROFILING, sb.toString());
+        for (Span child : span.getChildren()) {
+            dumpSpan(child, depth + 1);
+        }
+    }
+
+    public static void dumpSummaries() {
+        for (Summary summary : getSummaries()) {
+            AppLog.d(T.PROFILING, summary.toString());
+        }
+    }
+
+    /**
+     * Returns the recent traces in Chrome's trace event format
+     * https://github.com/catapult-project/catapult/blob/master/tracing/README.md
+     */
+    public static JSONObject toChromeTrace() {
+        JSONArray events = new JSONArray();
+        try {
+            for (Span trace : getRecentTraces()) {
+                addChromeTraceEvents(events, trace);
+            }
+            JSONObject json = new JSONObject();
+            json.put("traceEvents", events);
+            json.put("displayTimeUnit", "ms");
+            return json;
+        } catch (JSONException e) {
+            AppLog.e(T.PROFILING, e);
+            return new JSONObject();
+        }
+    }
+
+    private static void addChromeTraceEvents(JSONArray events, Span span) throws JSONException {
+        JSONObject event = new JSONObject();
+        event.put("name", span.getName());
+        event.put("cat", "wp");
+        event.put("ph", "X");
+        event.put("ts", span.mStartNanos / 1000);
+        event.put("dur", (span.mEndNanos - span.mStartNanos) / 1000);
+        event.put("pid", android.os.Process.myPid());
+        event.put("tid", span.mThreadId);
+        JSONObject args = new JSONObject();
+        args.put("thread", span.mThreadName);
+        event.put("args", args);
+        events.put(event);
+        for (Span child : span.getChildren()) {
+            addChromeTraceEvents(events, child);
+        }
+    }
+
+    /**
+     * Writes the recent traces to the passed file in Chrome's trace event format
+     * @return true if the file was written
+     */
+    public static boolean exportChromeTrace(@NonNull File file) {
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+            writer.write(toChromeTrace().toString());
+            return true;
+        } catch (IOException e) {
+            AppLog.e(T.PROFILING, e);
+            return false;
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+}